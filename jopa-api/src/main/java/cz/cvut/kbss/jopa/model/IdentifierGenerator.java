@@ -0,0 +1,40 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model;
+
+import java.net.URI;
+
+/**
+ * Generates identifiers of new entity instances.
+ * <p>
+ * Unlike the default generation done by the OntoDriver, which generates a random identifier and then checks the
+ * storage for its existence, implementations of this interface are expected to generate unique identifiers without
+ * accessing the storage.
+ * <p>
+ * Implementations have to have a public no-arg constructor and have to be thread-safe, as a single instance is shared
+ * by all entity types using it in a persistence unit.
+ *
+ * @see cz.cvut.kbss.jopa.model.annotations.Id#generator()
+ */
+public interface IdentifierGenerator {
+
+    /**
+     * Generates a new identifier for an instance of the specified class.
+     *
+     * @param classUri URI of the OWL class of the instance
+     * @return Generated identifier
+     */
+    URI generateIdentifier(URI classUri);
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model;
+
+import java.net.URI;
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Generates identifiers with a time-ordered unique suffix (ULID).
+ * <p>
+ * The suffix consists of a millisecond timestamp and 80 random bits. Identifiers generated by one instance within the
+ * same millisecond are monotonically increasing. The probability of collision is negligible, so the storage does not
+ * need to be checked for existence of the generated identifier.
+ * <p>
+ * The suffix is appended to the class URI in the same way as in the default identifier generation, i.e., after
+ * {@code /instance}, or after {@code _instance} if the class URI contains a fragment.
+ */
+public class TimeOrderedIdentifierGenerator implements IdentifierGenerator {
+
+    private static final char[] ENCODING = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final int TIMESTAMP_LENGTH = 10;
+    private static final int LENGTH = 26;
+
+    private final Random random = new SecureRandom();
+
+    private long lastTimestamp;
+    private long randomHigh;
+    private long randomLow;
+
+    @Override
+    public URI generateIdentifier(URI classUri) {
+        Objects.requireNonNull(classUri);
+        final String base = classUri.toString();
+        if (classUri.getFragment() != null) {
+            return URI.create(base + "_instance" + nextSuffix());
+        }
+        return URI.create(base + (base.endsWith("/") ? "instance" : "/instance") + nextSuffix());
+    }
+
+    synchronized String nextSuffix() {
+        long timestamp = System.currentTimeMillis();
+        if (timestamp <= lastTimestamp) {
+            // Same millisecond (or the clock went back), increment the random part to keep ordering
+            timestamp = lastTimestamp;
+            randomLow++;
+            if (randomLow == 0) {
+                randomHigh = (randomHigh + 1) & 0xFFFF;
+                if (randomHigh == 0) {
+                    timestamp++;
+                }
+            }
+        } else {
+            this.randomHigh = random.nextInt() & 0xFFFF;
+            this.randomLow = random.nextLong();
+        }
+        this.lastTimestamp = timestamp;
+        return encode(timestamp, randomHigh, randomLow);
+    }
+
+    private static String encode(long timestamp, long high, long low) {
+        final char[] chars = new char[LENGTH];
+        for (int i = TIMESTAMP_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ENCODING[(int) (timestamp & 31)];
+            timestamp >>>= 5;
+        }
+        for (int i = LENGTH - 1; i >= TIMESTAMP_LENGTH; i--) {
+            chars[i] = ENCODING[(int) (low & 31)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+}
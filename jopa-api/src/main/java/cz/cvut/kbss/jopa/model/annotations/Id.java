@@ -14,6 +14,8 @@
  */
 package cz.cvut.kbss.jopa.model.annotations;
 
+import cz.cvut.kbss.jopa.model.IdentifierGenerator;
+
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -36,4 +38,16 @@ public @interface Id {
      * @return Whether the id is generated
      */
     boolean generated() default false;
+
+    /**
+     * Generator of the identifier, used when the identifier is {@link #generated()}.
+     * <p>
+     * By default, the identifier is generated by the underlying OntoDriver, which checks the storage for existence of
+     * the generated identifier. A custom generator (e.g.,
+     * {@link cz.cvut.kbss.jopa.model.TimeOrderedIdentifierGenerator}) generates unique identifiers without accessing
+     * the storage.
+     *
+     * @return Identifier generator class
+     */
+    Class<? extends IdentifierGenerator> generator() default IdentifierGenerator.class;
 }
@@ -16,6 +16,7 @@ package cz.cvut.kbss.jopa.model.descriptors;
 
 import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.util.*;
@@ -24,6 +25,9 @@ import java.util.*;
  * Defines base descriptor, which is used to specify context information for entities and their fields.
  * <p>
  * The descriptor hierarchy is a classical <b>Composite</b> pattern.
+ * <p>
+ * Descriptors are frequently compared when looking up entities in caches, so their hash code is computed once and
+ * cached until the descriptor (or any of its nested descriptors) is modified.
  */
 public abstract class Descriptor {
 
@@ -34,6 +38,11 @@ public abstract class Descriptor {
     private String language;
     private boolean hasLanguage;
 
+    // Cached hash code, 0 means it has not been computed yet
+    private volatile int hash;
+    // Descriptors whose cached hash codes were computed from this descriptor's hash code
+    private List<WeakReference<Descriptor>> dependents;
+
     protected Descriptor() {
         this(null);
     }
@@ -96,6 +105,7 @@ public abstract class Descriptor {
     public Descriptor setLanguage(String languageTag) {
         this.language = languageTag;
         this.hasLanguage = true;
+        invalidateHashCode();
         return this;
     }
 
@@ -208,6 +218,50 @@ public abstract class Descriptor {
         return assertionsInSubjectContext;
     }
 
+    /**
+     * Registers the specified descriptor as dependent on this descriptor's hash code.
+     * <p>
+     * The cached hash code of the dependent descriptor is invalidated whenever this descriptor is modified.
+     * Dependents are referenced weakly, so that a long-lived descriptor does not prevent descriptors embedding it from
+     * being garbage collected.
+     *
+     * @param dependent Descriptor whose hash code is computed from this descriptor's hash code
+     */
+    protected synchronized void registerDependent(Descriptor dependent) {
+        if (dependents == null) {
+            this.dependents = new ArrayList<>(1);
+        }
+        final Iterator<WeakReference<Descriptor>> it = dependents.iterator();
+        while (it.hasNext()) {
+            final Descriptor d = it.next().get();
+            if (d == dependent) {
+                return;
+            }
+            if (d == null) {
+                it.remove();
+            }
+        }
+        dependents.add(new WeakReference<>(dependent));
+    }
+
+    /**
+     * Invalidates the cached hash code of this descriptor and of all the descriptors which depend on it.
+     * <p>
+     * Has to be called whenever the state of the descriptor relevant to {@link #equals(Object)} changes.
+     */
+    protected void invalidateHashCode() {
+        this.hash = 0;
+        final List<WeakReference<Descriptor>> toInvalidate;
+        synchronized (this) {
+            toInvalidate = dependents;
+            this.dependents = null;
+        }
+        if (toInvalidate != null) {
+            toInvalidate.stream().map(WeakReference::get).filter(Objects::nonNull)
+                        .forEach(Descriptor::invalidateHashCode);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -219,6 +273,9 @@ public abstract class Descriptor {
 
         Descriptor that = (Descriptor) o;
 
+        if (hashCode() != that.hashCode()) {
+            return false;
+        }
         if (hasLanguage != that.hasLanguage) {
             return false;
         }
@@ -230,6 +287,24 @@ public abstract class Descriptor {
 
     @Override
     public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = computeHashCode();
+            this.hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Computes hash code of this descriptor.
+     * <p>
+     * Subclasses extending the state taken into account by {@link #equals(Object)} should override this method
+     * instead of {@link #hashCode()}, so that the result is cached. Nested descriptors whose hash codes are used in the
+     * computation should register this descriptor as their dependent (see {@link #registerDependent(Descriptor)}).
+     *
+     * @return Hash code of this descriptor
+     */
+    protected int computeHashCode() {
         int result = context != null ? context.hashCode() : 0;
         result = 31 * result + (language != null ? language.hashCode() : 0);
         result = 31 * result + (hasLanguage ? 1 : 0);
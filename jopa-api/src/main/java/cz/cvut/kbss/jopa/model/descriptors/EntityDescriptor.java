@@ -66,6 +66,7 @@ public class EntityDescriptor extends Descriptor {
         Objects.requireNonNull(descriptor, ErrorUtils.getNPXMessageSupplier("descriptor"));
 
         fieldDescriptors.put(attribute, descriptor);
+        invalidateHashCode();
         return this;
     }
 
@@ -74,6 +75,7 @@ public class EntityDescriptor extends Descriptor {
         Objects.requireNonNull(attribute, ErrorUtils.getNPXMessageSupplier("attribute"));
 
         fieldDescriptors.put(attribute, new FieldDescriptor(context, attribute));
+        invalidateHashCode();
         return this;
     }
 
@@ -88,7 +90,9 @@ public class EntityDescriptor extends Descriptor {
     public EntityDescriptor setAttributeLanguage(Field attribute, String languageTag) {
         Objects.requireNonNull(attribute);
 
-        fieldDescriptors.putIfAbsent(attribute, new FieldDescriptor(null, attribute));
+        if (fieldDescriptors.putIfAbsent(attribute, new FieldDescriptor(null, attribute)) == null) {
+            invalidateHashCode();
+        }
         fieldDescriptors.get(attribute).setLanguage(languageTag);
         return this;
     }
@@ -196,13 +200,18 @@ public class EntityDescriptor extends Descriptor {
     }
 
     @Override
-    public int hashCode() {
-        int result = super.hashCode();
-        result = 31 * result + (fieldDescriptors != null ? fieldDescriptors.entrySet().stream()
-                                                                           .map(e -> e.getKey().hashCode() ^
-                                                                                   (e.getValue() == this ? 0 :
-                                                                                    e.getValue().hashCode())).reduce(0,
-                        Integer::sum) : 0);
-        return result;
+    protected int computeHashCode() {
+        int result = super.computeHashCode();
+        int fieldsHash = 0;
+        for (Entry<Field, Descriptor> e : fieldDescriptors.entrySet()) {
+            final Descriptor d = e.getValue();
+            if (d == this) {
+                fieldsHash += e.getKey().hashCode();
+            } else {
+                fieldsHash += e.getKey().hashCode() ^ d.hashCode();
+                d.registerDependent(this);
+            }
+        }
+        return 31 * result + fieldsHash;
     }
 }
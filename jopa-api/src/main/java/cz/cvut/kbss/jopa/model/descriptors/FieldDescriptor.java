@@ -104,9 +104,9 @@ public class FieldDescriptor extends Descriptor {
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHashCode() {
         final int prime = 31;
-        int result = super.hashCode();
+        int result = super.computeHashCode();
         result = prime * result + field.hashCode();
         return result;
     }
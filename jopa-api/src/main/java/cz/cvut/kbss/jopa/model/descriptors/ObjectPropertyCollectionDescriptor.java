@@ -96,10 +96,11 @@ public class ObjectPropertyCollectionDescriptor extends FieldDescriptor {
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHashCode() {
         final int prime = 31;
-        int result = super.hashCode();
-        result = prime * result + ((elementDescriptor == null) ? 0 : elementDescriptor.hashCode());
+        int result = super.computeHashCode();
+        result = prime * result + elementDescriptor.hashCode();
+        elementDescriptor.registerDependent(this);
         return result;
     }
 
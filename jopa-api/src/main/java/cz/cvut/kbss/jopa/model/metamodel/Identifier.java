@@ -14,6 +14,8 @@
  */
 package cz.cvut.kbss.jopa.model.metamodel;
 
+import cz.cvut.kbss.jopa.model.IdentifierGenerator;
+
 /**
  * Identifier attribute.
  * @param <X> Declaring class
@@ -24,4 +26,16 @@ public interface Identifier<X, E> extends FieldSpecification<X, E> {
     void accept(IdentifierVisitor i);
 
     boolean isGenerated();
+
+    /**
+     * Gets generator of identifiers of new instances.
+     * <p>
+     * By default, identifiers are generated by the OntoDriver.
+     *
+     * @return Identifier generator, {@code null} if identifiers are generated by the OntoDriver
+     * @see cz.cvut.kbss.jopa.model.annotations.Id#generator()
+     */
+    default IdentifierGenerator getGenerator() {
+        return null;
+    }
 }
@@ -16,6 +16,7 @@ package cz.cvut.kbss.jopa.sessions;
 
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -55,6 +56,22 @@ public interface CacheManager extends Cache {
      */
     void evictInferredObjects();
 
+    /**
+     * Removes objects with (possibly) inferred attributes which may be affected by changes of the specified
+     * individuals.
+     * <p>
+     * This is a finer-grained version of {@link #evictInferredObjects()}, which should be called after changes to the
+     * specified individuals have been committed. Implementations able to track references between cached objects
+     * should evict only instances of inferred classes with the specified identifiers and instances which reference
+     * them via inferred attributes. By default, all objects with inferred attributes are evicted.
+     *
+     * @param identifiers Identifiers of the changed individuals and of individuals they reference (or referenced before
+     *                    the change)
+     */
+    default void evictInferredObjects(Collection<?> identifiers) {
+        evictInferredObjects();
+    }
+
     /**
      * Set the inferred classes for this cache manager.
      * <p>
@@ -133,6 +133,25 @@ public interface UnitOfWork extends Session {
      */
     <T> T readObject(Class<T> cls, Object identifier, Descriptor descriptor);
 
+    /**
+     * Retrieves objects with the specified identifiers.
+     * <p>
+     * This is a bulk version of {@link #readObject(Class, Object, Descriptor)}, which allows to load the instances from
+     * the storage at once, instead of one by one.
+     * <p>
+     * The returned list corresponds to the specified identifiers, i.e., it has the same size and order. Elements for
+     * identifiers for which no object was found are {@code null}.
+     *
+     * @param cls         The type of the returned objects
+     * @param identifiers Instance identifiers
+     * @param descriptor  Entity descriptor, applied to all the instances
+     * @return List of retrieved objects, possibly containing {@code null}s
+     * @throws NullPointerException    If {@code cls}, {@code identifiers} or {@code descriptor} is {@code null}
+     * @throws OWLPersistenceException If an error occurs during object loading
+     * @see #readObject(Class, Object, Descriptor)
+     */
+    <T> List<T> readObjects(Class<T> cls, List<?> identifiers, Descriptor descriptor);
+
     /**
      * Retrieves a reference to an object with the specified identifier.
      * <p>
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.utils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Index of classes relevant for the persistence provider, generated at build time.
+ * <p>
+ * When the index is present on the classpath, the persistence provider loads the classes listed in it instead of
+ * scanning the classpath. The index is a UTF-8 text file containing one fully qualified class name per line. Empty
+ * lines and lines starting with {@code #} are ignored.
+ */
+public final class PersistenceClassIndex {
+
+    /**
+     * Location of the index resource.
+     */
+    public static final String LOCATION = "META-INF/jopa/persistence-classes.idx";
+
+    private static final String COMMENT = "#";
+
+    private PersistenceClassIndex() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Reads class names from the specified index.
+     *
+     * @param in Stream containing the index. It is not closed by this method
+     * @return List of class names in the order in which they appear in the index
+     * @throws IOException If reading the index fails
+     */
+    public static List<String> read(InputStream in) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        final List<String> result = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith(COMMENT)) {
+                result.add(line);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the specified class names into an index.
+     *
+     * @param classNames Names of classes to write
+     * @param out        Target stream. It is not closed by this method
+     * @throws IOException If writing the index fails
+     */
+    public static void write(Collection<String> classNames, OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(COMMENT + " Generated by JOPA. Do not edit.\n");
+        for (String name : classNames) {
+            writer.write(name);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+}
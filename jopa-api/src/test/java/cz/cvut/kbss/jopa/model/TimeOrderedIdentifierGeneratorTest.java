@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdentifierGeneratorTest {
+
+    private final TimeOrderedIdentifierGenerator sut = new TimeOrderedIdentifierGenerator();
+
+    @Test
+    void generateIdentifierAppendsSuffixAfterSlashForClassWithoutFragment() {
+        final URI result = sut.generateIdentifier(URI.create("http://onto.fel.cvut.cz/ontologies/Person"));
+        assertTrue(result.toString().matches("http://onto\\.fel\\.cvut\\.cz/ontologies/Person/instance[0-9A-Z]{26}"));
+    }
+
+    @Test
+    void generateIdentifierAppendsSuffixAfterUnderscoreForClassWithFragment() {
+        final URI result = sut.generateIdentifier(URI.create("http://onto.fel.cvut.cz/ontologies#Person"));
+        assertTrue(result.toString().matches("http://onto\\.fel\\.cvut\\.cz/ontologies#Person_instance[0-9A-Z]{26}"));
+    }
+
+    @Test
+    void generateIdentifierGeneratesUniqueMonotonicallyIncreasingIdentifiers() {
+        final URI classUri = URI.create("http://onto.fel.cvut.cz/ontologies/Person");
+        final List<String> identifiers = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            identifiers.add(sut.generateIdentifier(classUri).toString());
+        }
+        assertEquals(identifiers.size(), new HashSet<>(identifiers).size());
+        for (int i = 1; i < identifiers.size(); i++) {
+            assertTrue(identifiers.get(i - 1).compareTo(identifiers.get(i)) < 0);
+        }
+    }
+}
@@ -246,6 +246,34 @@ class EntityDescriptorTest {
         assertEquals(descriptor.hashCode(), descriptorTwo.hashCode());
     }
 
+    @Test
+    void hashCodeReflectsModificationOfNestedDescriptorAfterItHasBeenComputed() throws Exception {
+        final EntityDescriptor descriptor = new EntityDescriptor(CONTEXT_ONE);
+        final EntityDescriptor nested = new EntityDescriptor(CONTEXT_ONE);
+        descriptor.addAttributeDescriptor(RecursiveClass.class.getDeclaredField("parent"), nested);
+        final EntityDescriptor descriptorTwo = new EntityDescriptor(CONTEXT_ONE);
+        descriptorTwo.addAttributeDescriptor(RecursiveClass.class.getDeclaredField("parent"),
+                new EntityDescriptor(CONTEXT_ONE));
+        assertEquals(descriptor.hashCode(), descriptorTwo.hashCode());
+        assertEquals(descriptor, descriptorTwo);
+
+        nested.addAttributeContext(TestClass.stringAttField(), CONTEXT_TWO);
+        assertNotEquals(descriptor.hashCode(), descriptorTwo.hashCode());
+        assertNotEquals(descriptor, descriptorTwo);
+    }
+
+    @Test
+    void hashCodeReflectsLanguageChangeOfNestedCollectionElementDescriptor() throws Exception {
+        final EntityDescriptor descriptor = new EntityDescriptor(CONTEXT_ONE);
+        final ObjectPropertyCollectionDescriptor nested =
+                new ObjectPropertyCollectionDescriptor(CONTEXT_ONE, TestClass.stringAttField());
+        descriptor.addAttributeDescriptor(TestClass.stringAttField(), nested);
+        final int hashBefore = descriptor.hashCode();
+
+        nested.getElementDescriptor().setLanguage("cs");
+        assertNotEquals(hashBefore, descriptor.hashCode());
+    }
+
     @Test
     void getAttributeContextReturnsSubjectContextWhenAssertionsInSubjectContextIsTrue() throws Exception {
         final EntityDescriptor sut = new EntityDescriptor(CONTEXT_ONE);
@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.benchmark;
+
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.test.environment.JenaStorageConfig;
+import cz.cvut.kbss.jopa.test.environment.OwlapiStorageConfig;
+import cz.cvut.kbss.jopa.test.environment.SesameMemoryStorageConfig;
+import cz.cvut.kbss.jopa.test.environment.StorageConfig;
+import cz.cvut.kbss.ontodriver.config.OntoDriverProperties;
+import cz.cvut.kbss.ontodriver.jena.config.JenaOntoDriverProperties;
+import cz.cvut.kbss.ontodriver.sesame.config.SesameOntoDriverProperties;
+import openllet.owlapi.OpenlletReasonerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * OntoDriver implementations the benchmarks can run against.
+ * <p>
+ * The configuration corresponds to the one used by the respective integration tests, all storages are in-memory
+ * (OWLAPI uses a file in the test results directory).
+ */
+public enum BenchmarkDriver {
+    SESAME(SesameMemoryStorageConfig::new) {
+        @Override
+        Map<String, String> properties() {
+            final Map<String, String> map = super.properties();
+            map.put(SesameOntoDriverProperties.SESAME_USE_VOLATILE_STORAGE, Boolean.TRUE.toString());
+            map.put(SesameOntoDriverProperties.SESAME_USE_INFERENCE, Boolean.FALSE.toString());
+            return map;
+        }
+    },
+    JENA(JenaStorageConfig::new) {
+        @Override
+        Map<String, String> properties() {
+            final Map<String, String> map = super.properties();
+            map.put(JenaOntoDriverProperties.JENA_STORAGE_TYPE, JenaOntoDriverProperties.IN_MEMORY);
+            map.put(JenaOntoDriverProperties.JENA_TREAT_DEFAULT_GRAPH_AS_UNION, Boolean.toString(true));
+            return map;
+        }
+    },
+    OWLAPI(OwlapiStorageConfig::new) {
+        @Override
+        Map<String, String> properties() {
+            final Map<String, String> map = super.properties();
+            map.put(OntoDriverProperties.REASONER_FACTORY_CLASS, OpenlletReasonerFactory.class.getName());
+            return map;
+        }
+    };
+
+    private final Supplier<StorageConfig> storageConfig;
+
+    BenchmarkDriver(Supplier<StorageConfig> storageConfig) {
+        this.storageConfig = storageConfig;
+    }
+
+    StorageConfig storageConfig() {
+        return storageConfig.get();
+    }
+
+    Map<String, String> properties() {
+        final Map<String, String> map = new HashMap<>();
+        map.put(OntoDriverProperties.USE_TRANSACTIONAL_ONTOLOGY, Boolean.TRUE.toString());
+        map.put(JOPAPersistenceProperties.LANG, "en");
+        return map;
+    }
+}
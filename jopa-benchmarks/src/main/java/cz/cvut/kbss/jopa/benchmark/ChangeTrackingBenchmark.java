@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.benchmark;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.test.OWLClassA;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of cloning managed instances and of calculating changes on commit.
+ * <p>
+ * Both benchmarks load the whole dataset in a transaction, so every instance is cloned. {@link #calculateChanges}
+ * then modifies one instance and commits, which requires comparing every clone with its original. The difference
+ * between the two benchmarks approximates the change calculation cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChangeTrackingBenchmark {
+
+    @Benchmark
+    public void registerClones(PersistenceState state) {
+        final EntityManager em = state.emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            loadAll(state, em);
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static OWLClassA loadAll(PersistenceState state, EntityManager em) {
+        OWLClassA last = null;
+        for (URI uri : state.instances) {
+            last = em.find(OWLClassA.class, uri);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public void calculateChanges(PersistenceState state) {
+        final EntityManager em = state.emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            final OWLClassA last = loadAll(state, em);
+            last.setStringAttribute("Changed " + System.nanoTime());
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.benchmark;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.test.OWLClassA;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures latency of transaction commit with a single attribute change.
+ * <p>
+ * The transaction is started and the change made before each invocation, so that only the commit is measured.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CommitBenchmark {
+
+    @State(Scope.Thread)
+    public static class TransactionState {
+
+        EntityManager em;
+
+        @Setup(Level.Invocation)
+        public void setUp(PersistenceState state) {
+            this.em = state.emf.createEntityManager();
+            em.getTransaction().begin();
+            final OWLClassA instance = em.find(OWLClassA.class, state.randomInstance());
+            instance.setStringAttribute("Committed " + System.nanoTime());
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public void commit(TransactionState state) {
+        state.em.getTransaction().commit();
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.benchmark;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.test.OWLClassA;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of persist, merge and remove, each in a separate transaction.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CrudBenchmark {
+
+    /**
+     * Provides a persisted instance to remove.
+     * <p>
+     * The instance is persisted before each invocation. Invocation-level setup has non-negligible overhead, but it is
+     * small compared to the duration of a transaction.
+     */
+    @State(Scope.Thread)
+    public static class RemoveState {
+
+        OWLClassA toRemove;
+
+        @Setup(Level.Invocation)
+        public void setUp(PersistenceState state) {
+            this.toRemove = state.createInstance();
+            final EntityManager em = state.emf.createEntityManager();
+            try {
+                em.getTransaction().begin();
+                em.persist(toRemove);
+                em.getTransaction().commit();
+            } finally {
+                em.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public void persist(PersistenceState state) {
+        final EntityManager em = state.emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(state.createInstance());
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public OWLClassA merge(PersistenceState state) {
+        final OWLClassA detached = new OWLClassA(state.randomInstance(), "Merged " + System.nanoTime());
+        final EntityManager em = state.emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            final OWLClassA merged = em.merge(detached);
+            em.getTransaction().commit();
+            return merged;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public void remove(PersistenceState state, RemoveState removeState) {
+        final EntityManager em = state.emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.remove(em.find(OWLClassA.class, removeState.toRemove.getUri()));
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
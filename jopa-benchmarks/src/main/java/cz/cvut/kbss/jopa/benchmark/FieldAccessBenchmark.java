@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.benchmark;
+
+import cz.cvut.kbss.jopa.test.OWLClassA;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reflective field access with {@link FieldAccessor}, both with an accessor resolved beforehand and with an
+ * accessor looked up on each access.
+ * <p>
+ * Each benchmark reads an attribute value and writes it back, which is what cloning and merging do for every
+ * attribute.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FieldAccessBenchmark {
+
+    @State(Scope.Thread)
+    public static class FieldState {
+
+        private final OWLClassA instance = new OWLClassA();
+        private Field field;
+        private FieldAccessor accessor;
+
+        @Setup
+        public void setUp() throws Exception {
+            instance.setStringAttribute("value");
+            this.field = OWLClassA.class.getDeclaredField("stringAttribute");
+            field.setAccessible(true);
+            this.accessor = FieldAccessor.of(field);
+        }
+    }
+
+    @Benchmark
+    public Object reflection(FieldState state) throws Exception {
+        final Object value = state.field.get(state.instance);
+        state.field.set(state.instance, value);
+        return value;
+    }
+
+    @Benchmark
+    public Object resolvedAccessor(FieldState state) {
+        final Object value = state.accessor.getValue(state.instance);
+        state.accessor.setValue(state.instance, value);
+        return value;
+    }
+
+    @Benchmark
+    public Object accessorLookup(FieldState state) {
+        final Object value = FieldAccessor.of(state.field).getValue(state.instance);
+        FieldAccessor.of(state.field).setValue(state.instance, value);
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.benchmark;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.test.OWLClassA;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EntityManager#find(Class, Object)} with and without the second level cache.
+ * <p>
+ * Every invocation uses a fresh entity manager, so the first level cache does not apply.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FindBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class CacheState extends PersistenceState {
+
+        @Param({"false", "true"})
+        public boolean cacheEnabled;
+
+        @Override
+        boolean isCacheEnabled() {
+            return cacheEnabled;
+        }
+
+        @Override
+        @Setup(Level.Trial)
+        public void setUp() {
+            super.setUp();
+            if (cacheEnabled) {
+                warmUpCache();
+            }
+        }
+
+        private void warmUpCache() {
+            final EntityManager em = emf.createEntityManager();
+            try {
+                for (URI uri : instances) {
+                    em.find(OWLClassA.class, uri);
+                }
+            } finally {
+                em.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public OWLClassA find(CacheState state) {
+        final EntityManager em = state.emf.createEntityManager();
+        try {
+            return em.find(OWLClassA.class, state.randomInstance());
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.benchmark;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.test.OWLClassA;
+import cz.cvut.kbss.jopa.test.OWLClassC;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading and update of referenced lists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ListBenchmark {
+
+    @Benchmark
+    public int loadReferencedList(PersistenceState state) {
+        final EntityManager em = state.emf.createEntityManager();
+        try {
+            return em.find(OWLClassC.class, state.randomListOwner()).getReferencedList().size();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Moves a random element of the list to its head, keeping the list size stable across invocations.
+     */
+    @Benchmark
+    public void updateReferencedList(PersistenceState state) {
+        final EntityManager em = state.emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            final List<OWLClassA> list = em.find(OWLClassC.class, state.randomListOwner()).getReferencedList();
+            list.add(0, list.remove(ThreadLocalRandom.current().nextInt(list.size())));
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
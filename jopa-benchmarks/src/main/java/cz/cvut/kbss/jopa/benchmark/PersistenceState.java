@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.benchmark;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.EntityManagerFactory;
+import cz.cvut.kbss.jopa.test.OWLClassA;
+import cz.cvut.kbss.jopa.test.OWLClassC;
+import cz.cvut.kbss.jopa.test.environment.TestEnvironment;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared benchmark state - persistence unit over the selected driver, populated with the benchmark dataset.
+ * <p>
+ * The dataset consists of {@link #datasetSize} instances of {@link OWLClassA} and {@link #LIST_OWNER_COUNT} instances
+ * of {@link OWLClassC}, each with a referenced list of {@link #LIST_SIZE} of the {@link OWLClassA} instances.
+ */
+@State(Scope.Benchmark)
+public class PersistenceState {
+
+    static final String URI_BASE = TestEnvironment.IRI_BASE + "benchmark/";
+
+    static final int LIST_OWNER_COUNT = 10;
+    static final int LIST_SIZE = 50;
+
+    @Param({"SESAME", "JENA", "OWLAPI"})
+    public BenchmarkDriver driver;
+
+    @Param({"100", "1000"})
+    public int datasetSize;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    EntityManagerFactory emf;
+
+    List<URI> instances;
+    List<URI> listOwners;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final EntityManager em = TestEnvironment
+                .getPersistenceConnector("Benchmark", driver.storageConfig(), isCacheEnabled(), driver.properties());
+        this.emf = em.getEntityManagerFactory();
+        try {
+            this.instances = persistInstances(em);
+            this.listOwners = persistListOwners(em);
+        } finally {
+            em.close();
+        }
+    }
+
+    private List<URI> persistInstances(EntityManager em) {
+        final List<URI> result = new ArrayList<>(datasetSize);
+        em.getTransaction().begin();
+        for (int i = 0; i < datasetSize; i++) {
+            final OWLClassA a = createInstance();
+            em.persist(a);
+            result.add(a.getUri());
+        }
+        em.getTransaction().commit();
+        return Collections.unmodifiableList(result);
+    }
+
+    private List<URI> persistListOwners(EntityManager em) {
+        final List<URI> result = new ArrayList<>(LIST_OWNER_COUNT);
+        em.getTransaction().begin();
+        for (int i = 0; i < LIST_OWNER_COUNT; i++) {
+            final OWLClassC c = new OWLClassC(URI.create(URI_BASE + "C" + i));
+            final List<OWLClassA> list = new ArrayList<>(LIST_SIZE);
+            for (int j = 0; j < LIST_SIZE; j++) {
+                list.add(em.find(OWLClassA.class, instances.get((i * LIST_SIZE + j) % instances.size())));
+            }
+            c.setReferencedList(list);
+            em.persist(c);
+            result.add(c.getUri());
+        }
+        em.getTransaction().commit();
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Whether the second level cache should be enabled.
+     * <p>
+     * Disabled by default, so that the benchmarks measure storage access.
+     *
+     * @return Second level cache status
+     */
+    boolean isCacheEnabled() {
+        return false;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    /**
+     * Creates a new, not yet persisted instance with a unique identifier.
+     *
+     * @return New instance
+     */
+    OWLClassA createInstance() {
+        final int i = counter.getAndIncrement();
+        return new OWLClassA(URI.create(URI_BASE + "A" + i), "Benchmark string attribute " + i);
+    }
+
+    URI randomInstance() {
+        return instances.get(ThreadLocalRandom.current().nextInt(instances.size()));
+    }
+
+    URI randomListOwner() {
+        return listOwners.get(ThreadLocalRandom.current().nextInt(listOwners.size()));
+    }
+}
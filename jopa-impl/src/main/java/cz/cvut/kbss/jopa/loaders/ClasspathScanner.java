@@ -15,18 +15,18 @@
 package cz.cvut.kbss.jopa.loaders;
 
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+import cz.cvut.kbss.jopa.utils.PersistenceClassIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.List;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -50,31 +50,131 @@ class ClasspathScanner {
     }
 
     /**
-     * Inspired by https://github.com/ddopson/java-class-enumerator
+     * Processes classes in the specified package.
+     * <p>
+     * Classes in classpath roots containing a {@link PersistenceClassIndex} are taken from the index and are not
+     * initialized. The remaining classpath roots are scanned, unless {@code indexOnly} is set and at least one index
+     * has been found.
+     * <p>
+     * Scanning inspired by https://github.com/ddopson/java-class-enumerator
+     *
+     * @param scanPath  Package to process
+     * @param indexOnly Whether to process only classes listed in class indexes
      */
-    void processClasses(String scanPath) {
+    void processClasses(String scanPath, boolean indexOnly) {
         try {
-            Enumeration<URL> urls = classLoader.getResources(scanPath.replace('.', '/'));
-            while (urls.hasMoreElements()) {
-                final URL url = urls.nextElement();
-                if (isJar(url.toString())) {
-                    processJarFile(url, scanPath);
-                } else {
-                    processDirectory(new File(getUrlAsUri(url).getPath()), scanPath);
-                }
+            final Map<String, List<String>> indexed = readIndexes(scanPath);
+            indexed.values().forEach(classNames -> processClasses(classNames, false));
+            if (indexOnly && !indexed.isEmpty()) {
+                LOG.trace("Skipping scan of classpath roots without class index.");
+                return;
             }
-            // Scan jar files on classpath
-            Enumeration<URL> resources = classLoader.getResources(".");
-            while (resources.hasMoreElements()) {
-                URL resourceURL = resources.nextElement();
-                if (isJar(resourceURL.toString()))
-                    processJarFile(resourceURL, scanPath);
+            if (indexOnly) {
+                LOG.warn("No persistence class index found on classpath, scanning it for classes in package {}.",
+                        scanPath);
             }
+            scan(scanPath, indexed.keySet(), className -> processClass(className, true));
         } catch (IOException e) {
             throw new OWLPersistenceException("Unable to scan packages for entity classes.", e);
         }
     }
 
+    /**
+     * Processes the specified classes.
+     *
+     * @param classNames Names of classes to process
+     * @param initialize Whether the classes should be initialized when loaded
+     */
+    void processClasses(Collection<String> classNames, boolean initialize) {
+        classNames.forEach(className -> processClass(className, initialize));
+    }
+
+    private void scan(String scanPath, Set<String> indexedRoots, Consumer<String> classNameConsumer)
+            throws IOException {
+        final String relPath = scanPath.replace('.', '/');
+        // Jar roots already scanned, so that the jar scan below does not process them again
+        final Set<String> scannedJars = new HashSet<>();
+        Enumeration<URL> urls = classLoader.getResources(relPath);
+        while (urls.hasMoreElements()) {
+            final URL url = urls.nextElement();
+            final String root = resolveRoot(url, relPath);
+            if (indexedRoots.contains(root)) {
+                LOG.trace("Skipping scan of {}, classes of its classpath root are indexed.", url);
+                continue;
+            }
+            if (isJar(url.toString())) {
+                if (scannedJars.add(root)) {
+                    processJarFile(url, scanPath, classNameConsumer);
+                }
+            } else {
+                processDirectory(new File(getUrlAsUri(url).getPath()), scanPath, indexedRoots, classNameConsumer);
+            }
+        }
+        // Scan jar files on classpath
+        Enumeration<URL> resources = classLoader.getResources(".");
+        while (resources.hasMoreElements()) {
+            URL resourceURL = resources.nextElement();
+            if (!isJar(resourceURL.toString())) {
+                continue;
+            }
+            final String root = resolveRoot(resourceURL, ".");
+            if (!indexedRoots.contains(root) && scannedJars.add(root)) {
+                processJarFile(resourceURL, scanPath, classNameConsumer);
+            }
+        }
+    }
+
+    /**
+     * Reads class indexes present on the classpath.
+     *
+     * @param scanPath Package whose classes are of interest
+     * @return Map of classpath roots containing an index to names of indexed classes in the specified package
+     */
+    private Map<String, List<String>> readIndexes(String scanPath) throws IOException {
+        final Enumeration<URL> indexes = classLoader.getResources(PersistenceClassIndex.LOCATION);
+        final String packagePrefix = scanPath + '.';
+        final Map<String, List<String>> result = new LinkedHashMap<>();
+        while (indexes.hasMoreElements()) {
+            final URL index = indexes.nextElement();
+            LOG.trace("Loading classes listed in index {}.", index);
+            final List<String> classNames = result.computeIfAbsent(resolveRoot(index, PersistenceClassIndex.LOCATION),
+                    k -> new ArrayList<>());
+            try (final InputStream in = index.openStream()) {
+                for (String className : PersistenceClassIndex.read(in)) {
+                    if (className.startsWith(packagePrefix)) {
+                        classNames.add(className);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolves path of the classpath root (directory or jar file) containing the specified resource.
+     *
+     * @param resource     Resource URL
+     * @param resourcePath Path of the resource relative to the classpath root
+     * @return Absolute path of the classpath root
+     */
+    private static String resolveRoot(URL resource, String resourcePath) {
+        final String url = resource.toString();
+        if (url.startsWith("jar:")) {
+            final int separator = url.indexOf("!/");
+            return new File(getUrlAsUri(url.substring("jar:".length(), separator))).getAbsolutePath();
+        }
+        File root = new File(getUrlAsUri(resource));
+        if (isJar(url)) {
+            return root.getAbsolutePath();
+        }
+        for (String segment : resourcePath.split("/")) {
+            if (!segment.isEmpty() && !".".equals(segment)) {
+                root = root.getParentFile();
+            }
+        }
+        return root.getAbsolutePath();
+    }
+
     private static boolean isJar(String filePath) {
         return filePath.startsWith("jar:") || filePath.endsWith(JAR_FILE_SUFFIX);
     }
@@ -89,7 +189,16 @@ class ClasspathScanner {
         }
     }
 
-    private void processJarFile(URL jarResource, String packageName) {
+    private static URI getUrlAsUri(String url) {
+        try {
+            return new URI(url);
+        } catch (URISyntaxException ex) {
+            throw new OWLPersistenceException(
+                    "Unable to scan resource " + url + ". It is not a valid URI.", ex);
+        }
+    }
+
+    private void processJarFile(URL jarResource, String packageName, Consumer<String> classNameConsumer) {
         final String relPath = packageName.replace('.', '/');
         final String jarPath = jarResource.getPath().replaceFirst("[.]jar[!].*", JAR_FILE_SUFFIX)
                                           .replaceFirst("file:", "");
@@ -107,7 +216,7 @@ class ClasspathScanner {
                     className = className.substring(0, className.length() - CLASS_FILE_SUFFIX.length());
                 }
                 if (className != null) {
-                    processClass(className);
+                    classNameConsumer.accept(className);
                 }
             }
         } catch (IOException e) {
@@ -115,17 +224,17 @@ class ClasspathScanner {
         }
     }
 
-    private void processClass(String className) {
+    private void processClass(String className, boolean initialize) {
         try {
-            final Class<?> cls = Class.forName(className, true, classLoader);
+            final Class<?> cls = Class.forName(className, initialize, classLoader);
             listeners.forEach(listener -> listener.accept(cls));
         } catch (ClassNotFoundException e) {
             throw new OWLPersistenceException("Unexpected ClassNotFoundException when scanning for entities.", e);
         }
     }
 
-    private void processDirectory(File dir, String packageName)
-            throws MalformedURLException {
+    private void processDirectory(File dir, String packageName, Set<String> indexedRoots,
+                                  Consumer<String> classNameConsumer) throws MalformedURLException {
         LOG.trace("Scanning directory {} for entity classes.", dir);
         // Get the list of the files contained in the package
         final String[] files = dir.list();
@@ -140,13 +249,14 @@ class ClasspathScanner {
                 className = packageName + '.' + fileName.substring(0, fileName.length() - 6);
             }
             if (className != null) {
-                processClass(className);
+                classNameConsumer.accept(className);
             }
             final File subDir = new File(dir, fileName);
             if (subDir.isDirectory()) {
-                processDirectory(subDir, packageName + (!packageName.isEmpty() ? '.' : "") + fileName);
-            } else if (isJar(subDir.getAbsolutePath())) {
-                processJarFile(subDir.toURI().toURL(), packageName);
+                processDirectory(subDir, packageName + (!packageName.isEmpty() ? '.' : "") + fileName,
+                        indexedRoots, classNameConsumer);
+            } else if (isJar(subDir.getAbsolutePath()) && !indexedRoots.contains(subDir.getAbsolutePath())) {
+                processJarFile(subDir.toURI().toURL(), packageName, classNameConsumer);
             }
         }
     }
@@ -45,6 +45,10 @@ public class PersistenceUnitClassFinder {
      * <li>Result result mapping classes, i.e. classes annotated with {@link cz.cvut.kbss.jopa.model.annotations.SparqlResultSetMapping}
      * or {@link cz.cvut.kbss.jopa.model.annotations.SparqlResultSetMappings}</li> </ul>
      *
+     * If a {@link cz.cvut.kbss.jopa.utils.PersistenceClassIndex} generated at build time is available on the
+     * classpath, only classes listed in it are inspected. Other classpath roots are scanned unless {@link
+     * JOPAPersistenceProperties#SCAN_INDEX_ONLY} is set.
+     *
      * @param configuration Persistence configuration, should contain value for the {@link
      *                      JOPAPersistenceProperties#SCAN_PACKAGE} property
      * @throws IllegalArgumentException If {@link JOPAPersistenceProperties#SCAN_PACKAGE} values is missing
@@ -60,7 +64,7 @@ public class PersistenceUnitClassFinder {
         }
         classProcessor.addListener(entityLoader);
         classProcessor.addListener(resultSetMappingLoader);
-        classProcessor.processClasses(toScan);
+        classProcessor.processClasses(toScan, configuration.is(JOPAPersistenceProperties.SCAN_INDEX_ONLY));
         this.scanned = true;
     }
 
@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.metrics;
+
+/**
+ * Monotonically increasing counter.
+ */
+public interface Counter {
+
+    /**
+     * Increments the counter by one.
+     */
+    default void increment() {
+        increment(1);
+    }
+
+    /**
+     * Increments the counter by the specified amount.
+     *
+     * @param amount Amount to add, should be non-negative
+     */
+    void increment(long amount);
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.metrics;
+
+/**
+ * Metrics registry which records nothing.
+ * <p>
+ * Its timers do not even read the clock, so instrumented code pays only for a call to an empty method.
+ */
+final class DisabledMetricsRegistry implements MetricsRegistry, Counter, Timer, Histogram {
+
+    static final DisabledMetricsRegistry INSTANCE = new DisabledMetricsRegistry();
+
+    private DisabledMetricsRegistry() {
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return this;
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return this;
+    }
+
+    @Override
+    public Histogram histogram(String name) {
+        return this;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void increment() {
+        // Do nothing
+    }
+
+    @Override
+    public void increment(long amount) {
+        // Do nothing
+    }
+
+    @Override
+    public long start() {
+        return 0;
+    }
+
+    @Override
+    public void stop(long start) {
+        // Do nothing
+    }
+
+    @Override
+    public void record(long value) {
+        // Do nothing
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default metrics registry, which keeps aggregated values in memory.
+ * <p>
+ * Timers and histograms keep count, sum, minimum and maximum of the recorded values, not the individual values. Current
+ * state of the metrics can be retrieved using {@link #snapshot()}.
+ * <p>
+ * The registry can be obtained from the entity manager factory via {@code unwrap(InMemoryMetricsRegistry.class)}.
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+    private final ConcurrentMap<String, CounterImpl> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionRecorder> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionRecorder> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new CounterImpl());
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new DistributionRecorder());
+    }
+
+    @Override
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new DistributionRecorder());
+    }
+
+    /**
+     * Gets a snapshot of the current values of all metrics in this registry.
+     *
+     * @return Metrics snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        final MetricsSnapshot.Builder builder = new MetricsSnapshot.Builder();
+        counters.forEach((name, counter) -> builder.counter(name, counter.value.sum()));
+        timers.forEach((name, timer) -> builder.timer(name, timer.snapshot()));
+        histograms.forEach((name, histogram) -> builder.histogram(name, histogram.snapshot()));
+        return builder.build();
+    }
+
+    /**
+     * Resets all metrics in this registry.
+     */
+    public void reset() {
+        counters.clear();
+        timers.clear();
+        histograms.clear();
+    }
+
+    private static final class CounterImpl implements Counter {
+
+        private final LongAdder value = new LongAdder();
+
+        @Override
+        public void increment(long amount) {
+            value.add(amount);
+        }
+    }
+
+    private static final class DistributionRecorder implements Timer, Histogram {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        @Override
+        public void record(long value) {
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
+        }
+
+        private MetricsSnapshot.Distribution snapshot() {
+            final long n = count.sum();
+            return n == 0 ? MetricsSnapshot.Distribution.EMPTY :
+                   new MetricsSnapshot.Distribution(n, sum.sum(), min.get(), max.get());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryMetricsRegistry{" + snapshot() + '}';
+    }
+}
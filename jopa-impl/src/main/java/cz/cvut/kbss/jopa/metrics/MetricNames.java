@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.metrics;
+
+/**
+ * Names of metrics emitted by JOPA.
+ * <p>
+ * Timers record durations in nanoseconds.
+ */
+public final class MetricNames {
+
+    /**
+     * Timer of the whole transaction commit.
+     */
+    public static final String COMMIT = "jopa.commit";
+    /**
+     * Timer of calculation of changes made in a transaction.
+     */
+    public static final String COMMIT_CALCULATE_CHANGES = "jopa.commit.calculateChanges";
+    /**
+     * Timer of integrity constraints validation on commit.
+     */
+    public static final String COMMIT_VALIDATION = "jopa.commit.validation";
+    /**
+     * Timer of storage commit.
+     */
+    public static final String COMMIT_STORAGE = "jopa.commit.storage";
+    /**
+     * Timer of merging of transaction changes into the shared session (including second level cache).
+     */
+    public static final String COMMIT_MERGE = "jopa.commit.merge";
+    /**
+     * Histogram of number of objects (new, changed and removed) per committed transaction.
+     */
+    public static final String COMMIT_CHANGED_OBJECTS = "jopa.commit.changedObjects";
+
+    /**
+     * Timer of entity loading by the object-ontological mapper, including reference resolution.
+     */
+    public static final String ENTITY_LOAD = "jopa.oom.load";
+    /**
+     * Timer of entity persist by the object-ontological mapper.
+     */
+    public static final String ENTITY_PERSIST = "jopa.oom.persist";
+    /**
+     * Timer of entity removal by the object-ontological mapper.
+     */
+    public static final String ENTITY_REMOVE = "jopa.oom.remove";
+
+    /**
+     * Prefix of counters of second level cache hits. The counter name is suffixed with entity class name.
+     */
+    public static final String CACHE_HIT_PREFIX = "jopa.cache.hit.";
+    /**
+     * Prefix of counters of second level cache misses. The counter name is suffixed with entity class name.
+     */
+    public static final String CACHE_MISS_PREFIX = "jopa.cache.miss.";
+
+    /**
+     * Timer of query parsing (and translation, in case of SOQL). Queries found in the query template cache are not
+     * parsed again.
+     */
+    public static final String QUERY_PARSE = "jopa.query.parse";
+    /**
+     * Timer of SPARQL query execution by the storage, excluding result iteration and mapping.
+     */
+    public static final String QUERY_EXECUTE = "jopa.query.execute";
+    /**
+     * Timer of SPARQL update execution by the storage.
+     */
+    public static final String QUERY_UPDATE = "jopa.query.update";
+
+    /**
+     * Prefix of timers of OntoDriver connection operations. The timer name is suffixed with operation name, e.g.,
+     * {@code find}, {@code persist} or {@code commit}. Number of calls of an operation is the count of its timer.
+     */
+    public static final String DRIVER_PREFIX = "jopa.driver.";
+
+    private MetricNames() {
+        throw new AssertionError();
+    }
+}
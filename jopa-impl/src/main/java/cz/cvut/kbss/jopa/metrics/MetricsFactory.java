@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.metrics;
+
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Creates metrics registry based on the specified properties.
+ */
+public abstract class MetricsFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsFactory.class);
+
+    private MetricsFactory() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Creates new metrics registry based on the specified properties.
+     *
+     * @param properties Persistence unit configuration
+     * @return Metrics registry, a disabled one if metrics are not enabled
+     * @see JOPAPersistenceProperties#METRICS_ENABLED
+     * @see JOPAPersistenceProperties#METRICS_REGISTRY_CLASS
+     */
+    public static MetricsRegistry createRegistry(Map<String, String> properties) {
+        Objects.requireNonNull(properties);
+        if (!Boolean.parseBoolean(properties.get(JOPAPersistenceProperties.METRICS_ENABLED))) {
+            return MetricsRegistry.disabled();
+        }
+        final String registryClass = properties.get(JOPAPersistenceProperties.METRICS_REGISTRY_CLASS);
+        if (registryClass == null) {
+            LOG.debug("Using in-memory metrics registry.");
+            return new InMemoryMetricsRegistry();
+        }
+        LOG.debug("Using metrics registry {}.", registryClass);
+        return instantiate(registryClass);
+    }
+
+    private static MetricsRegistry instantiate(String className) {
+        try {
+            final Class<?> cls = Class.forName(className);
+            if (!MetricsRegistry.class.isAssignableFrom(cls)) {
+                throw new IllegalArgumentException("Class " + className + " is not a " +
+                        MetricsRegistry.class.getSimpleName() + " implementation.");
+            }
+            return (MetricsRegistry) cls.newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Unable to instantiate metrics registry " + className, e);
+        }
+    }
+}
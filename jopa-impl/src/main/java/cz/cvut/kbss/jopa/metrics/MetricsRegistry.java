@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.metrics;
+
+/**
+ * Registry of metrics emitted by the persistence unit.
+ * <p>
+ * Metrics are identified by name, see {@link MetricNames} for names of the metrics emitted by JOPA. Implementations
+ * must be thread-safe and should return the same metric instance for the same name, so that callers can keep
+ * references to the metrics they use.
+ * <p>
+ * A custom implementation can be configured using {@link
+ * cz.cvut.kbss.jopa.model.JOPAPersistenceProperties#METRICS_REGISTRY_CLASS}. It has to provide a public no-arg
+ * constructor.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Gets counter with the specified name.
+     *
+     * @param name Metric name
+     * @return Counter
+     */
+    Counter counter(String name);
+
+    /**
+     * Gets timer with the specified name.
+     *
+     * @param name Metric name
+     * @return Timer
+     */
+    Timer timer(String name);
+
+    /**
+     * Gets histogram with the specified name.
+     *
+     * @param name Metric name
+     * @return Histogram
+     */
+    Histogram histogram(String name);
+
+    /**
+     * Whether metrics are actually recorded.
+     * <p>
+     * Callers may use this to skip preparation of metric values (e.g., names built at runtime) which would be discarded
+     * anyway.
+     *
+     * @return Whether this registry records metrics
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Gets a registry which records nothing.
+     *
+     * @return Disabled metrics registry
+     */
+    static MetricsRegistry disabled() {
+        return DisabledMetricsRegistry.INSTANCE;
+    }
+}
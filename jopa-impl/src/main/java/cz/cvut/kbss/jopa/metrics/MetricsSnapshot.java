@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of values of metrics recorded by {@link InMemoryMetricsRegistry}.
+ * <p>
+ * Values of the individual metrics are read independently of each other, so the snapshot is not an atomic view of
+ * the registry when metrics are concurrently being recorded.
+ */
+public final class MetricsSnapshot {
+
+    private final Map<String, Long> counters;
+    private final Map<String, Distribution> timers;
+    private final Map<String, Distribution> histograms;
+
+    private MetricsSnapshot(Builder builder) {
+        this.counters = Collections.unmodifiableMap(builder.counters);
+        this.timers = Collections.unmodifiableMap(builder.timers);
+        this.histograms = Collections.unmodifiableMap(builder.histograms);
+    }
+
+    /**
+     * Gets value of the specified counter.
+     *
+     * @param name Counter name
+     * @return Counter value, {@code 0} if the counter has not been used
+     */
+    public long getCount(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Gets values recorded by the specified timer, in nanoseconds.
+     *
+     * @param name Timer name
+     * @return Recorded durations, empty distribution if the timer has not been used
+     */
+    public Distribution getTimer(String name) {
+        return timers.getOrDefault(name, Distribution.EMPTY);
+    }
+
+    /**
+     * Gets values recorded by the specified histogram.
+     *
+     * @param name Histogram name
+     * @return Recorded values, empty distribution if the histogram has not been used
+     */
+    public Distribution getHistogram(String name) {
+        return histograms.getOrDefault(name, Distribution.EMPTY);
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, Distribution> getTimers() {
+        return timers;
+    }
+
+    public Map<String, Distribution> getHistograms() {
+        return histograms;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{" +
+                "counters=" + counters +
+                ", timers=" + timers +
+                ", histograms=" + histograms +
+                '}';
+    }
+
+    /**
+     * Aggregated values recorded by a timer or a histogram.
+     */
+    public static final class Distribution {
+
+        static final Distribution EMPTY = new Distribution(0, 0, 0, 0);
+
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        Distribution(long count, long sum, long min, long max) {
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        @Override
+        public String toString() {
+            return "{count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + '}';
+        }
+    }
+
+    static final class Builder {
+
+        private final Map<String, Long> counters = new HashMap<>();
+        private final Map<String, Distribution> timers = new HashMap<>();
+        private final Map<String, Distribution> histograms = new HashMap<>();
+
+        Builder counter(String name, long value) {
+            counters.put(name, value);
+            return this;
+        }
+
+        Builder timer(String name, Distribution value) {
+            timers.put(name, value);
+            return this;
+        }
+
+        Builder histogram(String name, Distribution value) {
+            histograms.put(name, value);
+            return this;
+        }
+
+        MetricsSnapshot build() {
+            return new MetricsSnapshot(this);
+        }
+    }
+}
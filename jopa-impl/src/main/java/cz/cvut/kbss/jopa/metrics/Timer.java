@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.metrics;
+
+/**
+ * Measures duration of operations.
+ * <p>
+ * Typical usage:
+ * <pre>
+ *     final long start = timer.start();
+ *     // Timed operation
+ *     timer.stop(start);
+ * </pre>
+ */
+public interface Timer {
+
+    /**
+     * Starts timing an operation.
+     *
+     * @return Start timestamp, to be passed to {@link #stop(long)}
+     */
+    default long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops timing an operation and records its duration.
+     *
+     * @param start Start timestamp returned by {@link #start()}
+     */
+    default void stop(long start) {
+        record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records duration of an operation.
+     *
+     * @param nanos Duration in nanoseconds
+     */
+    void record(long nanos);
+}
@@ -31,9 +31,8 @@ import cz.cvut.kbss.ontodriver.iteration.ResultRow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -293,11 +292,33 @@ abstract class AbstractQuery implements Query {
     }
 
     <R> Stream<R> executeQueryForStream(Function<ResultRow, Optional<R>> function) throws OntoDriverException {
+        return executeQueryForStream(
+                (rs, onClose) -> new QueryResultSpliterator<>(rs.spliterator(), function, onClose));
+    }
+
+    /**
+     * Executes the query and returns a stream of results, which are created from the result rows in batches.
+     *
+     * @param rowMapper   Extracts value from a single result row
+     * @param batchSize   Maximum number of result rows processed in one batch
+     * @param batchMapper Transforms a batch of extracted values to results. {@code null} results are skipped
+     * @return Stream of results
+     * @throws OntoDriverException When something goes wrong during query evaluation
+     */
+    <I, R> Stream<R> executeQueryForBatchStream(Function<ResultRow, I> rowMapper, int batchSize,
+                                                Function<List<I>, List<R>> batchMapper) throws OntoDriverException {
+        return executeQueryForStream(
+                (rs, onClose) -> new BatchQueryResultSpliterator<>(rs.spliterator(), rowMapper, batchSize,
+                        batchMapper, onClose));
+    }
+
+    private <R> Stream<R> executeQueryForStream(BiFunction<ResultSet, Procedure, Spliterator<R>> spliteratorFactory)
+            throws OntoDriverException {
         final Statement stmt = connection.createStatement();
         setTargetOntology(stmt);
         logQuery();
         final ResultSet rs = stmt.executeQuery(query.assembleQuery());
-        return StreamSupport.stream(new QueryResultSpliterator<>(rs.spliterator(), function, () -> {
+        return StreamSupport.stream(spliteratorFactory.apply(rs, () -> {
             try {
                 stmt.close();
             } catch (OntoDriverException e) {
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model;
+
+import cz.cvut.kbss.jopa.utils.Procedure;
+import cz.cvut.kbss.ontodriver.iteration.ResultRow;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Spliterator for processing {@link cz.cvut.kbss.ontodriver.ResultSet} from {@link
+ * cz.cvut.kbss.jopa.model.query.TypedQuery} stream support, which processes the result rows in batches.
+ * <p>
+ * Each result row is first extracted using the specified row mapper. Once a batch of extracted values is gathered, it
+ * is passed to the batch mapper, which transforms it to the actual results (e.g., loads entities with the extracted
+ * identifiers at once). {@code null} results of the batch mapper are skipped.
+ * <p>
+ * Similarly to {@link QueryResultSpliterator}, the {@code onClose} handler is invoked once the iteration is finished.
+ *
+ * @param <I> The type of values extracted from the result rows
+ * @param <X> The type of the resulting items
+ */
+class BatchQueryResultSpliterator<I, X> extends Spliterators.AbstractSpliterator<X> {
+
+    private final Spliterator<ResultRow> resultSetSpliterator;
+    private final Function<ResultRow, I> rowMapper;
+    private final Function<List<I>, List<X>> batchMapper;
+    private final int batchSize;
+    private final Procedure onClose;
+
+    private final Deque<X> buffer = new ArrayDeque<>();
+
+    BatchQueryResultSpliterator(Spliterator<ResultRow> resultSetSpliterator, Function<ResultRow, I> rowMapper,
+                                int batchSize, Function<List<I>, List<X>> batchMapper, Procedure onClose) {
+        super(Long.MAX_VALUE, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+        assert batchSize > 0;
+        this.resultSetSpliterator = resultSetSpliterator;
+        this.rowMapper = rowMapper;
+        this.batchMapper = batchMapper;
+        this.batchSize = batchSize;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super X> action) {
+        try {
+            while (buffer.isEmpty()) {
+                if (!loadNextBatch()) {
+                    onClose.execute();
+                    return false;
+                }
+            }
+            action.accept(buffer.poll());
+            return true;
+        } catch (RuntimeException e) {
+            onClose.execute();
+            throw e;
+        }
+    }
+
+    private boolean loadNextBatch() {
+        final List<I> batch = new ArrayList<>(batchSize);
+        boolean hasNext = true;
+        while (batch.size() < batchSize && hasNext) {
+            hasNext = resultSetSpliterator.tryAdvance(row -> batch.add(rowMapper.apply(row)));
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        batchMapper.apply(batch).stream().filter(Objects::nonNull).forEach(buffer::add);
+        return true;
+    }
+}
@@ -162,6 +162,7 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Persisten
         if (cls.isAssignableFrom(this.getClass())) {
             return cls.cast(this);
         }
+        initServerSession();
         return serverSession.unwrap(cls);
     }
 
@@ -169,7 +170,7 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Persisten
     public Object getIdentifier(Object entity) {
         Objects.requireNonNull(entity);
         final EntityType<?> et = getMetamodel().entity(entity.getClass());
-        return EntityPropertiesUtils.getFieldValue(et.getIdentifier().getJavaField(), entity);
+        return EntityPropertiesUtils.getAttributeValue(et.getIdentifier(), entity);
     }
 
     @Override
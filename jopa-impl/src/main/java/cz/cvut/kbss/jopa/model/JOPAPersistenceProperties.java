@@ -46,6 +46,18 @@ public final class JOPAPersistenceProperties extends PersistenceProperties {
      */
     public static final String SCAN_PACKAGE = "cz.cvut.jopa.scanPackage";
 
+    /**
+     * Whether persistence classes should be taken only from the class indexes generated at build time, without
+     * scanning classpath roots which do not contain an index.
+     * <p>
+     * Classpath is scanned anyway if no index is found.
+     * <p>
+     * Defaults to {@code false}.
+     *
+     * @see cz.cvut.kbss.jopa.utils.PersistenceClassIndex
+     */
+    public static final String SCAN_INDEX_ONLY = "cz.cvut.jopa.scanIndexOnly";
+
     /**
      * Cached entity time to live. In seconds.
      */
@@ -57,20 +69,67 @@ public final class JOPAPersistenceProperties extends PersistenceProperties {
     public static final String CACHE_SWEEP_RATE = "cz.cvut.jopa.cache.sweepRate";
 
     /**
-     * Type of the second level cache. Currently supported are {@literal ttl} and {@literal lru}.
+     * Type of the second level cache. Currently supported are {@literal ttl}, {@literal lru} and {@literal striped}.
+     * <p>
+     * The {@literal striped} cache is an approximate LRU cache without cache-wide locks, suitable for highly concurrent
+     * access.
      */
     public static final String CACHE_TYPE = "cz.cvut.jopa.cache.type";
 
     /**
      * Capacity of the LRU second level cache.
+     * <p>
+     * Applies also to the {@literal striped} cache.
      */
     public static final String LRU_CACHE_CAPACITY = "cz.cvut.jopa.cache.lru.capacity";
 
+    /**
+     * Maximum number of parsed query templates cached by the persistence unit.
+     * <p>
+     * Every query string is parsed only once and subsequent queries reuse the parsed template. Setting the capacity to
+     * {@literal 0} disables caching of ad hoc queries, named queries are always precompiled.
+     * <p>
+     * Defaults to {@literal 256}.
+     */
+    public static final String QUERY_CACHE_CAPACITY = "cz.cvut.jopa.query.cache.capacity";
+
+    /**
+     * Whether attribute changes of managed entities should be written into the storage lazily.
+     * <p>
+     * By default, every change of a managed entity's attribute is immediately written into the storage transaction.
+     * When set to {@code true}, changed attributes are only marked as dirty and all the pending changes of an entity
+     * are written in a single update on flush, commit or before a query is executed.
+     * <p>
+     * Defaults to {@code false}.
+     */
+    public static final String WRITE_BEHIND = "cz.cvut.jopa.writeBehind";
+
     /**
      * Disable integrity constraints validation on entity/field load.
      */
     public static final String DISABLE_IC_VALIDATION_ON_LOAD = "cz.cvut.jopa.ic.validation.disableOnLoad";
 
+    /**
+     * Whether metrics of persistence operations (commit phases, storage access, second level cache hits, query
+     * processing) should be recorded.
+     * <p>
+     * The metrics registry is available via {@code EntityManagerFactory.unwrap(MetricsRegistry.class)}. Unless
+     * configured otherwise using {@link #METRICS_REGISTRY_CLASS}, an in-memory registry is used.
+     * <p>
+     * Defaults to {@code false}.
+     *
+     * @see cz.cvut.kbss.jopa.metrics.MetricNames
+     */
+    public static final String METRICS_ENABLED = "cz.cvut.jopa.metrics.enabled";
+
+    /**
+     * Fully qualified name of the {@link cz.cvut.kbss.jopa.metrics.MetricsRegistry} implementation to use when
+     * metrics are enabled.
+     * <p>
+     * Defaults to {@link cz.cvut.kbss.jopa.metrics.InMemoryMetricsRegistry}.
+     */
+    public static final String METRICS_REGISTRY_CLASS = "cz.cvut.jopa.metrics.registryClass";
+
     private JOPAPersistenceProperties() {
         throw new AssertionError();
     }
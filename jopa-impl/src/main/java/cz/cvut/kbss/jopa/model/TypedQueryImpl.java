@@ -30,14 +30,17 @@ import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.iteration.ResultRow;
 
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
 
+    /**
+     * Maximum number of query results loaded as entities at once.
+     */
+    static final int ENTITY_LOADING_BATCH_SIZE = 100;
+
     private final Class<X> resultType;
     private final MetamodelProvider metamodelProvider;
 
@@ -75,29 +78,47 @@ public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
         final boolean isEntityType = metamodelProvider.isEntityType(resultType);
         final Descriptor instDescriptor = descriptor != null ? descriptor : new EntityDescriptor();
         final List<X> res = new ArrayList<>();
-        executeQuery(rs -> {
-            if (isEntityType) {
-                loadEntityInstance(rs, instDescriptor).ifPresent(res::add);
-            } else {
-                loadResultValue(rs).ifPresent(res::add);
-            }
-        });
+        if (isEntityType) {
+            final List<URI> batch = new ArrayList<>(ENTITY_LOADING_BATCH_SIZE);
+            executeQuery(rs -> {
+                batch.add(getEntityIdentifier(rs));
+                if (batch.size() == ENTITY_LOADING_BATCH_SIZE) {
+                    res.addAll(loadEntityInstances(new ArrayList<>(batch), instDescriptor));
+                    batch.clear();
+                }
+            });
+            res.addAll(loadEntityInstances(batch, instDescriptor));
+        } else {
+            executeQuery(rs -> loadResultValue(rs).ifPresent(res::add));
+        }
         return res;
     }
 
-    private Optional<X> loadEntityInstance(ResultRow resultRow, Descriptor instanceDescriptor) {
-        if (uow == null) {
-            throw new IllegalStateException("Cannot load entity instance without Unit of Work.");
-        }
+    private static URI getEntityIdentifier(ResultRow resultRow) {
         try {
             assert resultRow.isBound(0);
-            final URI uri = URI.create(resultRow.getString(0));
-            return Optional.ofNullable(uow.readObject(resultType, uri, instanceDescriptor));
+            return URI.create(resultRow.getString(0));
         } catch (OntoDriverException e) {
-            throw new OWLPersistenceException("Unable to load query result as entity of type " + resultType, e);
+            throw new OWLPersistenceException("Unable to extract entity identifier from query result.", e);
         }
     }
 
+    /**
+     * Loads entities with the specified identifiers in bulk.
+     * <p>
+     * Identifiers which do not correspond to instances of the result type are skipped.
+     */
+    private List<X> loadEntityInstances(List<URI> identifiers, Descriptor instanceDescriptor) {
+        if (uow == null) {
+            throw new IllegalStateException("Cannot load entity instance without Unit of Work.");
+        }
+        if (identifiers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return uow.readObjects(resultType, identifiers, instanceDescriptor).stream().filter(Objects::nonNull)
+                  .collect(Collectors.toList());
+    }
+
     private Optional<X> loadResultValue(ResultRow resultRow) {
         try {
             return Optional.of(resultRow.getObject(0, resultType));
@@ -134,13 +155,12 @@ public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
         final boolean isEntityType = metamodelProvider.isEntityType(resultType);
         final Descriptor instDescriptor = descriptor != null ? descriptor : new EntityDescriptor();
         try {
-            return executeQueryForStream(row -> {
-                if (isEntityType) {
-                    return loadEntityInstance(row, instDescriptor);
-                } else {
-                    return loadResultValue(row);
-                }
-            });
+            if (isEntityType) {
+                return executeQueryForBatchStream(TypedQueryImpl::getEntityIdentifier, ENTITY_LOADING_BATCH_SIZE,
+                        batch -> loadEntityInstances(batch, instDescriptor));
+            } else {
+                return executeQueryForStream(this::loadResultValue);
+            }
         } catch (OntoDriverException e) {
             markTransactionForRollback();
             throw queryEvaluationException(e);
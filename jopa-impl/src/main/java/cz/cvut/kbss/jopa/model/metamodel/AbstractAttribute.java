@@ -19,14 +19,17 @@ import cz.cvut.kbss.jopa.model.annotations.CascadeType;
 import cz.cvut.kbss.jopa.model.annotations.FetchType;
 import cz.cvut.kbss.jopa.model.annotations.ParticipationConstraint;
 import cz.cvut.kbss.jopa.oom.converter.ConverterWrapper;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 
-public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
+public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y>, AccessibleFieldSpecification<X, Y> {
 
     private final Field field;
 
+    private final FieldAccessor fieldAccessor;
+
     private final ManagedType<X> declaringType;
 
     private final PersistentAttributeType attributeType;
@@ -53,6 +56,7 @@ public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
 
     AbstractAttribute(AbstractAttributeBuilder<X, Y> builder) {
         this.field = builder.field;
+        this.fieldAccessor = field != null ? FieldAccessor.of(field) : null;
         this.declaringType = builder.declaringType;
         this.attributeType = builder.attributeType;
         this.iri = builder.iri;
@@ -72,6 +76,11 @@ public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
         return attributeType;
     }
 
+    @Override
+    public FieldAccessor getFieldAccessor() {
+        return fieldAccessor;
+    }
+
     @Override
     public Member getJavaMember() {
         return field;
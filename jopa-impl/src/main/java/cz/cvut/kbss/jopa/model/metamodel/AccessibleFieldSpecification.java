@@ -0,0 +1,33 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model.metamodel;
+
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
+
+/**
+ * Field specification which provides an accessor of its Java field resolved when the metamodel is built.
+ *
+ * @param <X> The represented type that contains the field
+ * @param <E> The type of the represented field
+ */
+public interface AccessibleFieldSpecification<X, E> extends FieldSpecification<X, E> {
+
+    /**
+     * Gets accessor of the Java field represented by this specification.
+     *
+     * @return Field accessor, {@code null} if this specification has no Java field
+     */
+    FieldAccessor getFieldAccessor();
+}
@@ -16,6 +16,7 @@ import cz.cvut.kbss.jopa.exception.MetamodelInitializationException;
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
 import cz.cvut.kbss.jopa.model.BeanListenerAspect;
 import cz.cvut.kbss.jopa.model.IRI;
+import cz.cvut.kbss.jopa.model.IdentifierGenerator;
 import cz.cvut.kbss.jopa.model.annotations.*;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
 import org.slf4j.Logger;
@@ -202,7 +203,10 @@ class ClassFieldMetamodelProcessor<X> {
             return false;
         }
         mappingValidator.validateIdentifierType(field.getType());
-        et.setIdentifier(new IRIIdentifierImpl<>(et, field, id.generated()));
+        final IdentifierGenerator generator =
+                id.generator() != IdentifierGenerator.class ? metamodelBuilder.getIdentifierGenerator(id.generator()) :
+                null;
+        et.setIdentifier(new IRIIdentifierImpl<>(et, field, id.generated(), generator));
         return true;
     }
 
@@ -16,6 +16,7 @@ package cz.cvut.kbss.jopa.model.metamodel;
 
 import cz.cvut.kbss.jopa.model.IRI;
 import cz.cvut.kbss.jopa.model.annotations.InheritanceType;
+import cz.cvut.kbss.jopa.sessions.validator.EntityTypeConstraintsValidator;
 
 public class EntityTypeImpl<X> extends AbstractIdentifiableType<X> implements EntityType<X> {
 
@@ -25,6 +26,8 @@ public class EntityTypeImpl<X> extends AbstractIdentifiableType<X> implements En
 
     private InheritanceType inheritanceType;
 
+    private EntityTypeConstraintsValidator<X> constraintsValidator;
+
     public EntityTypeImpl(String name, Class<X> javaType, final IRI iri) {
         super(javaType);
         this.name = name;
@@ -81,6 +84,21 @@ public class EntityTypeImpl<X> extends AbstractIdentifiableType<X> implements En
         this.inheritanceType = inheritanceType;
     }
 
+    /**
+     * Gets integrity constraints validator compiled for this entity type.
+     * <p>
+     * The validator is compiled when the metamodel is built, so it is available only after that.
+     *
+     * @return Compiled integrity constraints validator, {@code null} if it has not been compiled yet
+     */
+    public EntityTypeConstraintsValidator<X> getConstraintsValidator() {
+        return constraintsValidator;
+    }
+
+    void setConstraintsValidator(EntityTypeConstraintsValidator<X> constraintsValidator) {
+        this.constraintsValidator = constraintsValidator;
+    }
+
     @Override
     public String toString() {
         return "EntityType{" + name + "<" + iri + ">}";
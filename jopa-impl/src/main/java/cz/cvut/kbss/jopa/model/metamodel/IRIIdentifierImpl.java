@@ -14,21 +14,32 @@
  */
 package cz.cvut.kbss.jopa.model.metamodel;
 
+import cz.cvut.kbss.jopa.model.IdentifierGenerator;
 import cz.cvut.kbss.jopa.model.annotations.FetchType;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 
 import java.lang.reflect.Field;
 
-public class IRIIdentifierImpl<T> implements IRIIdentifier {
+public class IRIIdentifierImpl<T> implements IRIIdentifier, AccessibleFieldSpecification {
 
     private final ManagedType<T> declaringType;
     private final Field javaField;
+    private final FieldAccessor fieldAccessor;
 
     private final boolean generated;
+    private final IdentifierGenerator generator;
 
     public IRIIdentifierImpl(ManagedType<T> declaringType, final Field javaField, final boolean generated) {
+        this(declaringType, javaField, generated, null);
+    }
+
+    public IRIIdentifierImpl(ManagedType<T> declaringType, final Field javaField, final boolean generated,
+                             IdentifierGenerator generator) {
         this.declaringType = declaringType;
         this.javaField = javaField;
+        this.fieldAccessor = javaField != null ? FieldAccessor.of(javaField) : null;
         this.generated = generated;
+        this.generator = generator;
     }
 
     @Override
@@ -46,6 +57,11 @@ public class IRIIdentifierImpl<T> implements IRIIdentifier {
         return javaField;
     }
 
+    @Override
+    public FieldAccessor getFieldAccessor() {
+        return fieldAccessor;
+    }
+
     @Override
     public FetchType getFetchType() {
         return FetchType.EAGER;
@@ -80,4 +96,9 @@ public class IRIIdentifierImpl<T> implements IRIIdentifier {
     public boolean isGenerated() {
         return generated;
     }
+
+    @Override
+    public IdentifierGenerator getGenerator() {
+        return generator;
+    }
 }
@@ -16,10 +16,12 @@ package cz.cvut.kbss.jopa.model.metamodel;
 
 import cz.cvut.kbss.jopa.exception.MetamodelInitializationException;
 import cz.cvut.kbss.jopa.loaders.PersistenceUnitClassFinder;
+import cz.cvut.kbss.jopa.model.IdentifierGenerator;
 import cz.cvut.kbss.jopa.model.annotations.Inheritance;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
 import cz.cvut.kbss.jopa.query.mapper.ResultSetMappingProcessor;
+import cz.cvut.kbss.jopa.sessions.validator.EntityTypeConstraintsValidator;
 import cz.cvut.kbss.jopa.utils.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +41,9 @@ public class MetamodelBuilder {
 
     private final ConverterResolver converterResolver = new ConverterResolver(new Converters());
 
+    private final Map<Class<? extends IdentifierGenerator>, IdentifierGenerator> identifierGenerators =
+            new HashMap<>();
+
     public MetamodelBuilder() {
         this.mappingProcessor = new ResultSetMappingProcessor(this);
     }
@@ -51,6 +56,19 @@ public class MetamodelBuilder {
     public void buildMetamodel(PersistenceUnitClassFinder classFinder) {
         classFinder.getEntities().forEach(this::processOWLClass);
         classFinder.getResultSetMappings().forEach(mappingProcessor::buildMapper);
+        compileConstraintsValidators();
+    }
+
+    /**
+     * Compiles integrity constraints validators once all entity types (including their supertypes) are complete.
+     */
+    private void compileConstraintsValidators() {
+        typeMap.values().stream().filter(EntityTypeImpl.class::isInstance)
+               .forEach(t -> compileConstraintsValidator((EntityTypeImpl<?>) t));
+    }
+
+    private static <X> void compileConstraintsValidator(EntityTypeImpl<X> et) {
+        et.setConstraintsValidator(EntityTypeConstraintsValidator.compile(et));
     }
 
     private <X> void processOWLClass(final Class<X> cls) {
@@ -151,6 +169,25 @@ public class MetamodelBuilder {
         return mappingProcessor.getManager();
     }
 
+    /**
+     * Gets identifier generator of the specified type.
+     * <p>
+     * A single instance of each generator type is shared by all entity types using it.
+     *
+     * @param generatorType Generator type
+     * @return Identifier generator instance
+     */
+    IdentifierGenerator getIdentifierGenerator(Class<? extends IdentifierGenerator> generatorType) {
+        return identifierGenerators.computeIfAbsent(generatorType, t -> {
+            try {
+                return t.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new MetamodelInitializationException("Unable to instantiate identifier generator of type " + t +
+                        ". The generator has to have a public no-arg constructor.", e);
+            }
+        });
+    }
+
     void addInferredClass(Class<?> cls) {
         inferredClasses.add(cls);
     }
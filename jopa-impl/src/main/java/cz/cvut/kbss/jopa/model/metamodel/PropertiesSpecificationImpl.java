@@ -15,13 +15,16 @@
 package cz.cvut.kbss.jopa.model.metamodel;
 
 import cz.cvut.kbss.jopa.model.annotations.FetchType;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 
 import java.lang.reflect.Field;
 
-public class PropertiesSpecificationImpl<X, Y, K, V> implements PropertiesSpecification<X, Y, K, V> {
+public class PropertiesSpecificationImpl<X, Y, K, V>
+        implements PropertiesSpecification<X, Y, K, V>, AccessibleFieldSpecification<X, Y> {
     private final ManagedType<X> declaringType;
     private final FetchType fetchType;
     private final Field javaField;
+    private final FieldAccessor fieldAccessor;
     private final Class<Y> javaType;
     private final boolean inferred;
     private final Class<K> propertyIdType;
@@ -31,6 +34,7 @@ public class PropertiesSpecificationImpl<X, Y, K, V> implements PropertiesSpecif
         this.declaringType = builder.declaringType;
         this.fetchType = builder.fetchType;
         this.javaField = builder.javaField;
+        this.fieldAccessor = javaField != null ? FieldAccessor.of(javaField) : null;
         this.javaType = builder.javaType;
         this.inferred = builder.inferred;
         this.propertyIdType = builder.propertyIdType;
@@ -42,6 +46,11 @@ public class PropertiesSpecificationImpl<X, Y, K, V> implements PropertiesSpecif
         return declaringType;
     }
 
+    @Override
+    public FieldAccessor getFieldAccessor() {
+        return fieldAccessor;
+    }
+
     @Override
     public FetchType getFetchType() {
         return fetchType;
@@ -15,14 +15,16 @@
 package cz.cvut.kbss.jopa.model.metamodel;
 
 import cz.cvut.kbss.jopa.model.annotations.FetchType;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 
 import java.lang.reflect.Field;
 import java.util.Set;
 
-public class TypesSpecificationImpl<X, Y> implements TypesSpecification<X, Y> {
+public class TypesSpecificationImpl<X, Y> implements TypesSpecification<X, Y>, AccessibleFieldSpecification<X, Set> {
     private final ManagedType<X> declaringType;
     private final FetchType fetchType;
     private final Field javaField;
+    private final FieldAccessor fieldAccessor;
     private Class<Y> elementType;
     private boolean inferred;
 
@@ -32,6 +34,7 @@ public class TypesSpecificationImpl<X, Y> implements TypesSpecification<X, Y> {
         this.declaringType = declaringType;
         this.fetchType = fetchType;
         this.javaField = javaField;
+        this.fieldAccessor = javaField != null ? FieldAccessor.of(javaField) : null;
         this.elementType = elementType;
         this.inferred = inferred;
     }
@@ -51,6 +54,11 @@ public class TypesSpecificationImpl<X, Y> implements TypesSpecification<X, Y> {
         return javaField;
     }
 
+    @Override
+    public FieldAccessor getFieldAccessor() {
+        return fieldAccessor;
+    }
+
     @Override
     public Class<Set> getJavaType() {
         return Set.class;
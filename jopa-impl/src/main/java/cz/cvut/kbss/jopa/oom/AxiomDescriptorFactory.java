@@ -126,6 +126,20 @@ class AxiomDescriptorFactory {
                 new Value<>(NamedResource.create(et.getIRI().toString())));
     }
 
+    /**
+     * Creates a descriptor for loading (asserted) types of the specified individual.
+     *
+     * @param identifier Individual identifier
+     * @param context    Context in which to look for the types, possibly {@code null}
+     * @return {@code AxiomDescriptor}
+     */
+    AxiomDescriptor createForTypesLoading(URI identifier, URI context) {
+        final AxiomDescriptor descriptor = new AxiomDescriptor(NamedResource.create(identifier));
+        descriptor.setSubjectContext(context);
+        descriptor.addAssertion(Assertion.createClassAssertion(false));
+        return descriptor;
+    }
+
     AxiomDescriptor createForFieldLoading(URI identifier, Field field, Descriptor entityDescriptor, EntityType<?> et) {
         final AxiomDescriptor descriptor = new AxiomDescriptor(NamedResource.create(identifier));
         descriptor.setSubjectContext(entityDescriptor.getContext());
@@ -170,9 +170,7 @@ class EntityConstructor {
         if (shouldSkipICValidationOnLoad()) {
             return;
         }
-        final Object id = EntityPropertiesUtils.getIdentifier(entity, et);
-        final Object value = EntityPropertiesUtils.getAttributeValue(fieldSpec, entity);
-        IntegrityConstraintsValidator.getValidator().validate(id, fieldSpec, value);
+        IntegrityConstraintsValidator.getValidator().validate(entity, fieldSpec, et);
     }
 
     <T> void setFieldValue(T entity, Field field, Collection<Axiom<?>> axioms, EntityType<T> et,
@@ -22,6 +22,7 @@ import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.util.Collection;
 
 class EntityDeconstructor {
 
@@ -76,4 +77,17 @@ class EntityDeconstructor {
         }
         return valueBuilder;
     }
+
+    <T> AxiomValueGatherer mapFieldsToAxioms(URI primaryKey, T entity, Collection<Field> fields, EntityType<T> et,
+                                             Descriptor descriptor) {
+        final AxiomValueGatherer valueBuilder = createAxiomValueBuilder(primaryKey, descriptor);
+        try {
+            for (Field field : fields) {
+                addAssertions(entity, et, et.getFieldSpecification(field.getName()), descriptor, valueBuilder);
+            }
+        } catch (IllegalAccessException e) {
+            throw new EntityDeconstructionException(e);
+        }
+        return valueBuilder;
+    }
 }
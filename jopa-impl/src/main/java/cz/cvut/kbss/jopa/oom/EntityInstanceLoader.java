@@ -28,8 +28,7 @@ import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.Objects;
+import java.util.*;
 
 /**
  * Root of the entity loading strategies.
@@ -40,7 +39,7 @@ abstract class EntityInstanceLoader {
     final MetamodelImpl metamodel;
 
     final CacheManager cache;
-    private final AxiomDescriptorFactory descriptorFactory;
+    final AxiomDescriptorFactory descriptorFactory;
     final EntityConstructor entityBuilder;
 
     EntityInstanceLoader(EntityInstanceLoaderBuilder builder) {
@@ -65,6 +64,19 @@ abstract class EntityInstanceLoader {
      */
     abstract <T> T loadEntity(LoadingParameters<T> loadingParameters);
 
+    /**
+     * Loads entities with the specified identifiers.
+     * <p>
+     * Data of the entities are retrieved from the storage in bulk, instead of loading each entity separately.
+     *
+     * @param cls         Entity class
+     * @param identifiers Identifiers of the entities to load
+     * @param descriptor  Descriptor applied to all the loaded entities
+     * @param <T>         Entity type
+     * @return Map of identifiers to the loaded instances. Identifiers for which no instance was found are not present
+     */
+    abstract <T> Map<URI, T> loadEntities(Class<T> cls, Collection<URI> identifiers, Descriptor descriptor);
+
     /**
      * Loads entity reference.
      * <p>
@@ -81,8 +93,9 @@ abstract class EntityInstanceLoader {
     <T> T loadInstance(LoadingParameters<T> loadingParameters, EntityType<? extends T> et) {
         final URI identifier = loadingParameters.getIdentifier();
         final Descriptor descriptor = loadingParameters.getDescriptor();
-        if (isCached(loadingParameters, et)) {
-            return cache.get(et.getJavaType(), identifier, descriptor);
+        final T cached = getCached(loadingParameters, et);
+        if (cached != null) {
+            return cached;
         }
         final AxiomDescriptor axiomDescriptor = descriptorFactory.createForEntityLoading(loadingParameters, et);
         try {
@@ -95,6 +108,54 @@ abstract class EntityInstanceLoader {
         }
     }
 
+    <T> Map<URI, T> loadInstances(Class<T> cls, Map<URI, EntityType<? extends T>> entityTypes,
+                                  Descriptor descriptor) {
+        final Map<URI, T> result = new HashMap<>(entityTypes.size());
+        final List<AxiomDescriptor> axiomDescriptors = new ArrayList<>(entityTypes.size());
+        for (Map.Entry<URI, EntityType<? extends T>> e : entityTypes.entrySet()) {
+            final LoadingParameters<T> params = new LoadingParameters<>(cls, e.getKey(), descriptor);
+            final T cached = getCached(params, e.getValue());
+            if (cached != null) {
+                result.put(e.getKey(), cached);
+            } else {
+                axiomDescriptors.add(descriptorFactory.createForEntityLoading(params, e.getValue()));
+            }
+        }
+        if (axiomDescriptors.isEmpty()) {
+            return result;
+        }
+        try {
+            final Map<NamedResource, Collection<Axiom<?>>> axioms = storageConnection.findAll(axiomDescriptors);
+            for (AxiomDescriptor axiomDescriptor : axiomDescriptors) {
+                final URI identifier = axiomDescriptor.getSubject().getIdentifier();
+                final EntityType<? extends T> et = entityTypes.get(identifier);
+                // The instance may have been loaded as a reference when reconstructing another instance from the batch
+                if (isCached(new LoadingParameters<>(cls, identifier, descriptor), et)) {
+                    result.put(identifier, cache.get(et.getJavaType(), identifier, descriptor));
+                    continue;
+                }
+                final Collection<Axiom<?>> instanceAxioms = axioms.get(axiomDescriptor.getSubject());
+                if (instanceAxioms == null || instanceAxioms.isEmpty()) {
+                    continue;
+                }
+                final T instance = entityBuilder.reconstructEntity(identifier, et, descriptor, instanceAxioms);
+                if (instance != null) {
+                    result.put(identifier, instance);
+                }
+            }
+            return result;
+        } catch (OntoDriverException e) {
+            throw new StorageAccessException(e);
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new EntityReconstructionException(e);
+        }
+    }
+
+    private <T> T getCached(LoadingParameters<T> loadingParameters, EntityType<? extends T> et) {
+        return loadingParameters.shouldBypassCache() ? null :
+               cache.get(et.getJavaType(), loadingParameters.getIdentifier(), loadingParameters.getDescriptor());
+    }
+
     <T> boolean isCached(LoadingParameters<T> loadingParameters, EntityType<? extends T> et) {
         return !loadingParameters.shouldBypassCache() &&
                 cache.contains(et.getJavaType(), loadingParameters.getIdentifier(), loadingParameters.getDescriptor());
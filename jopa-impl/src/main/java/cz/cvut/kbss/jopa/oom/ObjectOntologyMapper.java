@@ -20,6 +20,8 @@ import cz.cvut.kbss.jopa.sessions.LoadingParameters;
 
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.util.Collection;
+import java.util.Map;
 
 public interface ObjectOntologyMapper {
 
@@ -41,6 +43,19 @@ public interface ObjectOntologyMapper {
      */
     <T> T loadEntity(LoadingParameters<T> loadingParameters);
 
+    /**
+     * Loads and reconstructs multiple entities of the same type from the ontology.
+     * <p>
+     * The data of the entities are retrieved from the storage in bulk, instead of loading each entity separately.
+     *
+     * @param cls         Entity class
+     * @param identifiers Identifiers of the entities to load
+     * @param descriptor  Descriptor possibly specifying entity and attribute contexts, applied to all the entities
+     * @param <T>         Entity type
+     * @return Map of identifiers to reconstructed entities. Identifiers for which no entity was found are not present
+     */
+    <T> Map<URI, T> loadEntities(Class<T> cls, Collection<URI> identifiers, Descriptor descriptor);
+
     /**
      * Loads a reference to an entity corresponding to the specified parameters.
      * <p>
@@ -95,4 +110,15 @@ public interface ObjectOntologyMapper {
      * @param descriptor Optionally specifies context
      */
     <T> void updateFieldValue(T entity, Field field, Descriptor descriptor);
+
+    /**
+     * Sets values of properties represented by the specified fields to the fields' values.
+     * <p>
+     * All the values are written in a single update of the entity's axioms.
+     *
+     * @param entity     Entity containing the fields
+     * @param fields     The fields to update
+     * @param descriptor Optionally specifies context
+     */
+    <T> void updateFieldValues(T entity, Collection<Field> fields, Descriptor descriptor);
 }
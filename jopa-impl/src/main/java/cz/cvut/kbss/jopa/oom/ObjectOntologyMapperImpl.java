@@ -15,6 +15,10 @@
 package cz.cvut.kbss.jopa.oom;
 
 import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
+import cz.cvut.kbss.jopa.metrics.MetricNames;
+import cz.cvut.kbss.jopa.metrics.MetricsRegistry;
+import cz.cvut.kbss.jopa.metrics.Timer;
+import cz.cvut.kbss.jopa.model.IdentifierGenerator;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.metamodel.Attribute;
@@ -40,6 +44,7 @@ import java.lang.reflect.Field;
 import java.net.URI;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -63,7 +68,15 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
     private final EntityInstanceLoader defaultInstanceLoader;
     private final EntityInstanceLoader twoStepInstanceLoader;
 
+    private final Timer loadTimer;
+    private final Timer persistTimer;
+    private final Timer removeTimer;
+
     public ObjectOntologyMapperImpl(UnitOfWorkImpl uow, Connection connection) {
+        this(uow, connection, MetricsRegistry.disabled());
+    }
+
+    public ObjectOntologyMapperImpl(UnitOfWorkImpl uow, Connection connection, MetricsRegistry metrics) {
         this.uow = Objects.requireNonNull(uow);
         this.cache = uow.getLiveObjectCache();
         this.storageConnection = Objects.requireNonNull(connection);
@@ -80,6 +93,9 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         this.twoStepInstanceLoader = TwoStepInstanceLoader.builder().connection(storageConnection).metamodel(metamodel)
                                                           .descriptorFactory(descriptorFactory)
                                                           .entityBuilder(entityBuilder).cache(cache).build();
+        this.loadTimer = metrics.timer(MetricNames.ENTITY_LOAD);
+        this.persistTimer = metrics.timer(MetricNames.ENTITY_PERSIST);
+        this.removeTimer = metrics.timer(MetricNames.ENTITY_REMOVE);
     }
 
     @Override
@@ -104,7 +120,12 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         assert loadingParameters != null;
 
         instanceRegistry.reset();
-        return loadEntityInternal(loadingParameters);
+        final long start = loadTimer.start();
+        try {
+            return loadEntityInternal(loadingParameters);
+        } finally {
+            loadTimer.stop(start);
+        }
     }
 
     private <T> T loadEntityInternal(LoadingParameters<T> loadingParameters) {
@@ -121,6 +142,33 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         return result;
     }
 
+    @Override
+    public <T> Map<URI, T> loadEntities(Class<T> cls, Collection<URI> identifiers, Descriptor descriptor) {
+        assert cls != null;
+        assert identifiers != null;
+        assert descriptor != null;
+
+        instanceRegistry.reset();
+        final long start = loadTimer.start();
+        try {
+            return loadEntitiesInternal(cls, identifiers, descriptor);
+        } finally {
+            loadTimer.stop(start);
+        }
+    }
+
+    private <T> Map<URI, T> loadEntitiesInternal(Class<T> cls, Collection<URI> identifiers, Descriptor descriptor) {
+        final EntityTypeImpl<T> et = getEntityType(cls);
+        final Map<URI, T> result;
+        if (et.hasSubtypes()) {
+            result = twoStepInstanceLoader.loadEntities(cls, identifiers, descriptor);
+        } else {
+            result = defaultInstanceLoader.loadEntities(cls, identifiers, descriptor);
+        }
+        result.forEach((identifier, instance) -> cache.add(identifier, instance, descriptor));
+        return result;
+    }
+
     @Override
     public <T> T loadReference(LoadingParameters<T> loadingParameters) {
         assert loadingParameters != null;
@@ -167,6 +215,7 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         assert descriptor != null;
 
         @SuppressWarnings("unchecked") final EntityType<T> et = (EntityType<T>) getEntityType(entity.getClass());
+        final long start = persistTimer.start();
         try {
             if (identifier == null) {
                 identifier = generateIdentifier(et);
@@ -179,11 +228,17 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
             persistPendingReferences(entity, axiomBuilder.getSubjectIdentifier());
         } catch (IllegalArgumentException e) {
             throw new EntityDeconstructionException("Unable to deconstruct entity " + entity, e);
+        } finally {
+            persistTimer.stop(start);
         }
     }
 
     @Override
     public URI generateIdentifier(EntityType<?> et) {
+        final IdentifierGenerator generator = et.getIdentifier().getGenerator();
+        if (generator != null) {
+            return generator.generateIdentifier(et.getIRI().toURI());
+        }
         try {
             return storageConnection.generateIdentifier(et.getIRI().toURI());
         } catch (OntoDriverException e) {
@@ -224,8 +279,9 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         if (orig != null) {
             return orig;
         }
-        if (cache.contains(cls, identifier, descriptor)) {
-            return cache.get(cls, identifier, descriptor);
+        final T cached = cache.get(cls, identifier, descriptor);
+        if (cached != null) {
+            return cached;
         } else if (instanceRegistry.containsInstance(identifier, descriptor.getContext())) {
             final Object existing = instanceRegistry.getInstance(identifier, descriptor.getContext());
             if (!cls.isAssignableFrom(existing.getClass())) {
@@ -274,11 +330,14 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         final EntityType<T> et = getEntityType(cls);
         final AxiomDescriptor axiomDescriptor = descriptorFactory.createForEntityLoading(
                 new LoadingParameters<>(cls, identifier, descriptor, true), et);
+        final long start = removeTimer.start();
         try {
             storageConnection.remove(axiomDescriptor);
             pendingReferences.removePendingReferences(axiomDescriptor.getSubject());
         } catch (OntoDriverException e) {
             throw new StorageAccessException("Exception caught when removing entity.", e);
+        } finally {
+            removeTimer.stop(start);
         }
     }
 
@@ -295,6 +354,18 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         axiomBuilder.update(storageConnection);
     }
 
+    @Override
+    public <T> void updateFieldValues(T entity, Collection<Field> fields, Descriptor entityDescriptor) {
+        @SuppressWarnings("unchecked") final EntityType<T> et = (EntityType<T>) getEntityType(entity.getClass());
+        final URI pkUri = EntityPropertiesUtils.getIdentifier(entity, et);
+
+        entityBreaker.setReferenceSavingResolver(new ReferenceSavingResolver(this));
+        fields.forEach(f -> removePendingAssertions(et, f, pkUri));
+        final AxiomValueGatherer axiomBuilder = entityBreaker
+                .mapFieldsToAxioms(pkUri, entity, fields, et, entityDescriptor);
+        axiomBuilder.update(storageConnection);
+    }
+
     private <T> void removePendingAssertions(EntityType<T> et, Field field, URI identifier) {
         final FieldSpecification<? super T, ?> fs = et.getFieldSpecification(field.getName());
         if (fs instanceof Attribute) {
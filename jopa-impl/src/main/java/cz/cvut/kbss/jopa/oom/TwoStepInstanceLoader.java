@@ -15,17 +15,22 @@
 package cz.cvut.kbss.jopa.oom;
 
 import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
 import cz.cvut.kbss.jopa.oom.exceptions.EntityReconstructionException;
 import cz.cvut.kbss.jopa.oom.metamodel.PolymorphicEntityTypeResolver;
 import cz.cvut.kbss.jopa.sessions.LoadingParameters;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.AxiomImpl;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import cz.cvut.kbss.ontodriver.model.Value;
 
 import java.net.URI;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
 
 class TwoStepInstanceLoader extends EntityInstanceLoader {
 
@@ -47,6 +52,49 @@ class TwoStepInstanceLoader extends EntityInstanceLoader {
         }
     }
 
+    @Override
+    <T> Map<URI, T> loadEntities(Class<T> cls, Collection<URI> identifiers, Descriptor descriptor) {
+        final EntityTypeImpl<T> rootEt = metamodel.entity(cls);
+        try {
+            return loadInstances(cls, resolveEntityTypes(identifiers, descriptor, rootEt), descriptor);
+        } catch (OntoDriverException e) {
+            throw new StorageAccessException(e);
+        }
+    }
+
+    /**
+     * Resolves entity types of the specified individuals, loading their types from the storage in bulk.
+     * <p>
+     * Individuals for which no suitable entity type was found are not present in the result.
+     */
+    private <T> Map<URI, EntityType<? extends T>> resolveEntityTypes(Collection<URI> identifiers,
+                                                                      Descriptor descriptor, EntityTypeImpl<T> rootEt)
+            throws OntoDriverException {
+        final List<AxiomDescriptor> typeDescriptors = new ArrayList<>(identifiers.size());
+        identifiers.forEach(identifier -> typeDescriptors
+                .add(descriptorFactory.createForTypesLoading(identifier, descriptor.getContext())));
+        final Map<NamedResource, Collection<Axiom<?>>> typeAxioms = storageConnection.findAll(typeDescriptors);
+        final Map<URI, EntityType<? extends T>> result = new LinkedHashMap<>(identifiers.size());
+        for (URI identifier : identifiers) {
+            final NamedResource individual = NamedResource.create(identifier);
+            final Set<Axiom<URI>> types = typeAxioms.getOrDefault(individual, Collections.emptySet()).stream()
+                                                    .filter(MappingUtils::isClassAssertion)
+                                                    .map(ax -> toTypeAxiom(individual, ax))
+                                                    .collect(Collectors.toSet());
+            final EntityType<? extends T> et =
+                    new PolymorphicEntityTypeResolver<>(individual, rootEt, types).determineActualEntityType();
+            if (et != null) {
+                result.put(identifier, et);
+            }
+        }
+        return result;
+    }
+
+    private static Axiom<URI> toTypeAxiom(NamedResource individual, Axiom<?> classAssertion) {
+        return new AxiomImpl<>(individual, classAssertion.getAssertion(),
+                new Value<>(URI.create(classAssertion.getValue().stringValue())));
+    }
+
     @Override
     <T> T loadReference(LoadingParameters<T> loadingParameters) {
         final EntityTypeImpl<T> rootEt = metamodel.entity(loadingParameters.getEntityType());
@@ -14,6 +14,7 @@
  */
 package cz.cvut.kbss.jopa.query;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -54,4 +55,13 @@ public class NamedQueryManager {
         }
         return queryMap.get(name);
     }
+
+    /**
+     * Gets all the named queries defined in the persistence unit.
+     *
+     * @return Unmodifiable map of query names to query strings
+     */
+    public Map<String, String> getQueries() {
+        return Collections.unmodifiableMap(queryMap);
+    }
 }
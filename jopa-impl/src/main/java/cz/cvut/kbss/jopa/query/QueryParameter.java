@@ -81,6 +81,16 @@ public class QueryParameter<T> implements Parameter<T> {
                 name != null ? valueFactory.createVariableValue(name) : valueFactory.createVariableValue(position);
     }
 
+    /**
+     * Creates a copy of this parameter, with the same identifier, but without any value bound.
+     *
+     * @param valueFactory Factory for values of the new parameter
+     * @return New query parameter
+     */
+    public QueryParameter<T> copy(ParameterValueFactory valueFactory) {
+        return name != null ? new QueryParameter<>(name, valueFactory) : new QueryParameter<>(position, valueFactory);
+    }
+
     @Override
     public Class<T> getParameterType() {
         throw new IllegalStateException("Parameter types are not supported by the current implementation.");
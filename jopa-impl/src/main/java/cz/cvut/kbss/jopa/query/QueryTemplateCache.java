@@ -0,0 +1,269 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.query;
+
+import cz.cvut.kbss.jopa.exception.QueryParserException;
+import cz.cvut.kbss.jopa.metrics.MetricNames;
+import cz.cvut.kbss.jopa.metrics.MetricsRegistry;
+import cz.cvut.kbss.jopa.metrics.Timer;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
+import cz.cvut.kbss.jopa.query.soql.SoqlQueryParser;
+import cz.cvut.kbss.jopa.query.sparql.SparqlQueryHolder;
+import cz.cvut.kbss.jopa.query.sparql.SparqlQueryParser;
+import cz.cvut.kbss.jopa.sessions.AbstractSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persistence unit-wide cache of parsed query templates.
+ * <p>
+ * Queries are parsed (and, in case of SOQL, translated to SPARQL) only once, the resulting template is then copied for
+ * every query instance. The copy shares the parsed query parts with the template, but has its own parameter state, so
+ * query instances can be used independently of each other.
+ * <p>
+ * The cache is bounded. When its capacity is exceeded, the least recently used templates are evicted. Named queries are
+ * precompiled and are never evicted.
+ * <p>
+ * Lookups do not lock, they only record the access time of the template. Eviction is done by a single thread at a time
+ * after a template is added, so the cache may temporarily exceed its capacity and the eviction order is approximate
+ * under concurrent access.
+ */
+public class QueryTemplateCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryTemplateCache.class);
+
+    /**
+     * Default maximum number of cached query templates.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Eviction removes this fraction of the capacity in addition to the overflowing templates.
+     */
+    private static final int EVICTION_BATCH_DIVISOR = 10;
+
+    private final AbstractSession session;
+    private final int capacity;
+    private final Timer parseTimer;
+
+    private final ConcurrentMap<TemplateKey, CachedTemplate> templates = new ConcurrentHashMap<>();
+    private final Lock evictionLock = new ReentrantLock();
+    private final Map<String, SparqlQueryHolder> namedQueries = new ConcurrentHashMap<>();
+
+    public QueryTemplateCache(AbstractSession session, Map<String, String> properties) {
+        this(session, properties, MetricsRegistry.disabled());
+    }
+
+    public QueryTemplateCache(AbstractSession session, Map<String, String> properties, MetricsRegistry metrics) {
+        this.session = Objects.requireNonNull(session);
+        this.capacity = resolveCapacitySetting(Objects.requireNonNull(properties));
+        this.parseTimer = metrics.timer(MetricNames.QUERY_PARSE);
+    }
+
+    private static int resolveCapacitySetting(Map<String, String> properties) {
+        if (!properties.containsKey(JOPAPersistenceProperties.QUERY_CACHE_CAPACITY)) {
+            return DEFAULT_CAPACITY;
+        }
+        try {
+            final int capacitySetting =
+                    Integer.parseInt(properties.get(JOPAPersistenceProperties.QUERY_CACHE_CAPACITY));
+            if (capacitySetting < 0) {
+                LOG.warn("Invalid query cache capacity value {}. Using default value.", capacitySetting);
+                return DEFAULT_CAPACITY;
+            }
+            return capacitySetting;
+        } catch (NumberFormatException e) {
+            LOG.error("Unable to parse query cache capacity setting. Using default capacity {}.", DEFAULT_CAPACITY);
+            return DEFAULT_CAPACITY;
+        }
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int size() {
+        return templates.size();
+    }
+
+    /**
+     * Parses and caches all the named queries managed by the specified manager.
+     * <p>
+     * Queries which cannot be parsed are skipped, so that the error is reported when the query is actually used.
+     *
+     * @param namedQueryManager Manager of the persistence unit's named queries
+     */
+    public void precompileNamedQueries(NamedQueryManager namedQueryManager) {
+        Objects.requireNonNull(namedQueryManager);
+        namedQueryManager.getQueries().forEach((name, query) -> {
+            try {
+                namedQueries.put(name, getTemplate(QueryLanguage.SPARQL, query));
+            } catch (QueryParserException e) {
+                LOG.warn("Unable to precompile named query {}.", name, e);
+            }
+        });
+    }
+
+    /**
+     * Gets a native SPARQL query holder for the specified query string.
+     *
+     * @param query        SPARQL query string
+     * @param valueFactory Factory for values of the returned query's parameters
+     * @return New query holder
+     */
+    public SparqlQueryHolder getSparqlQuery(String query, ParameterValueFactory valueFactory) {
+        Objects.requireNonNull(query);
+        return getTemplate(QueryLanguage.SPARQL, query).copy(valueFactory);
+    }
+
+    /**
+     * Gets a query holder for the specified SOQL query string.
+     *
+     * @param query        SOQL query string
+     * @param valueFactory Factory for values of the returned query's parameters
+     * @return New query holder
+     */
+    public SparqlQueryHolder getSoqlQuery(String query, ParameterValueFactory valueFactory) {
+        Objects.requireNonNull(query);
+        return getTemplate(QueryLanguage.SOQL, query).copy(valueFactory);
+    }
+
+    /**
+     * Gets a query holder for the named query with the specified name.
+     *
+     * @param name         Query name
+     * @param query        Query string the name is mapped to, used if the query has not been precompiled
+     * @param valueFactory Factory for values of the returned query's parameters
+     * @return New query holder
+     */
+    public SparqlQueryHolder getNamedQuery(String name, String query, ParameterValueFactory valueFactory) {
+        final SparqlQueryHolder template = namedQueries.get(name);
+        return template != null ? template.copy(valueFactory) : getSparqlQuery(query, valueFactory);
+    }
+
+    private SparqlQueryHolder getTemplate(QueryLanguage language, String query) {
+        final TemplateKey key = new TemplateKey(language, query);
+        final SparqlQueryHolder cached = getCached(key);
+        if (cached != null) {
+            return cached;
+        }
+        // A query may be parsed concurrently by several threads, the first cached template wins
+        final SparqlQueryHolder template;
+        final long start = parseTimer.start();
+        try {
+            template = parse(language, query);
+        } finally {
+            parseTimer.stop(start);
+        }
+        return capacity > 0 ? cache(key, template) : template;
+    }
+
+    private SparqlQueryHolder getCached(TemplateKey key) {
+        final CachedTemplate cached = templates.get(key);
+        if (cached == null) {
+            return null;
+        }
+        cached.lastAccess = System.nanoTime();
+        return cached.template;
+    }
+
+    private SparqlQueryHolder cache(TemplateKey key, SparqlQueryHolder template) {
+        final CachedTemplate existing = templates.putIfAbsent(key, new CachedTemplate(template));
+        if (existing != null) {
+            return existing.template;
+        }
+        if (templates.size() > capacity) {
+            evictLeastRecentlyUsed();
+        }
+        return template;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        if (!evictionLock.tryLock()) {
+            // Another thread is already evicting
+            return;
+        }
+        try {
+            final List<Map.Entry<TemplateKey, CachedTemplate>> candidates = new ArrayList<>(templates.entrySet());
+            if (candidates.size() <= capacity) {
+                return;
+            }
+            final int toEvict = candidates.size() - capacity + capacity / EVICTION_BATCH_DIVISOR;
+            candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            for (int i = 0; i < toEvict; i++) {
+                final Map.Entry<TemplateKey, CachedTemplate> e = candidates.get(i);
+                templates.remove(e.getKey(), e.getValue());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private SparqlQueryHolder parse(QueryLanguage language, String query) {
+        // Parsers are stateful, so fresh instances are used for each query
+        final SparqlQueryParser sparqlParser = new SparqlQueryParser(new ParameterValueFactory(session));
+        if (language == QueryLanguage.SOQL) {
+            return sparqlParser.parseQuery(new SoqlQueryParser(sparqlParser, session.getMetamodel()).translate(query));
+        }
+        return sparqlParser.parseQuery(query);
+    }
+
+    private static final class CachedTemplate {
+        private final SparqlQueryHolder template;
+        private volatile long lastAccess = System.nanoTime();
+
+        private CachedTemplate(SparqlQueryHolder template) {
+            this.template = template;
+        }
+    }
+
+    private enum QueryLanguage {
+        SPARQL, SOQL
+    }
+
+    private static final class TemplateKey {
+        private final QueryLanguage language;
+        private final String query;
+
+        private TemplateKey(QueryLanguage language, String query) {
+            this.language = language;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final TemplateKey that = (TemplateKey) o;
+            return language == that.language && query.equals(that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * language.hashCode() + query.hashCode();
+        }
+    }
+}
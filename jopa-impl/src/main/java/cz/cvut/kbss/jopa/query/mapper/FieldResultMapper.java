@@ -64,7 +64,7 @@ class FieldResultMapper {
         final Optional<Object> value = getVariableValue(resultRow);
         value.ifPresent(val -> {
             verifyValueRange(val);
-            EntityPropertiesUtils.setFieldValue(fieldSpec.getJavaField(), target, val);
+            EntityPropertiesUtils.setAttributeValue(fieldSpec, target, val);
         });
     }
 
@@ -22,6 +22,16 @@ public class SoqlQueryParser implements QueryParser {
 
     @Override
     public QueryHolder parseQuery(String query) {
+        return sparqlParser.parseQuery(translate(query));
+    }
+
+    /**
+     * Translates the specified SOQL query into SPARQL.
+     *
+     * @param query SOQL query
+     * @return SPARQL query string
+     */
+    public String translate(String query) {
         CharStream cs = CharStreams.fromString(query);
         SoqlLexer lexer = new SoqlLexer(cs);
         final CommonTokenStream tokens = new CommonTokenStream(lexer);
@@ -33,6 +43,6 @@ public class SoqlQueryParser implements QueryParser {
         final ParseTreeWalker walker = new ParseTreeWalker();
         walker.walk(listener, tree);
 
-        return sparqlParser.parseQuery(listener.getSoqlQuery());
+        return listener.getSoqlQuery();
     }
 }
@@ -15,10 +15,9 @@ package cz.cvut.kbss.jopa.query.sparql;
 import cz.cvut.kbss.jopa.model.QueryImpl;
 import cz.cvut.kbss.jopa.model.ResultSetMappingQuery;
 import cz.cvut.kbss.jopa.model.TypedQueryImpl;
-import cz.cvut.kbss.jopa.query.QueryParser;
+import cz.cvut.kbss.jopa.query.QueryTemplateCache;
 import cz.cvut.kbss.jopa.query.mapper.SparqlResultMapper;
 import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
-import cz.cvut.kbss.jopa.query.soql.SoqlQueryParser;
 import cz.cvut.kbss.jopa.sessions.ConnectionWrapper;
 import cz.cvut.kbss.jopa.sessions.QueryFactory;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
@@ -31,23 +30,23 @@ public class SparqlQueryFactory implements QueryFactory {
     private final UnitOfWorkImpl uow;
     private final ConnectionWrapper connection;
 
-    private final QueryParser queryParser;
-    private final SoqlQueryParser soqlQueryParser;
+    private final QueryTemplateCache templateCache;
+    private final ParameterValueFactory parameterValueFactory;
 
     public SparqlQueryFactory(UnitOfWorkImpl uow, ConnectionWrapper connection) {
         assert uow != null;
         assert connection != null;
         this.uow = uow;
         this.connection = connection;
-        this.queryParser = new SparqlQueryParser(new ParameterValueFactory(uow));
-        this.soqlQueryParser = new SoqlQueryParser(queryParser, uow.getMetamodel());
+        this.templateCache = uow.getQueryTemplateCache();
+        this.parameterValueFactory = new ParameterValueFactory(uow);
     }
 
     @Override
     public QueryImpl createNativeQuery(String sparql) {
         Objects.requireNonNull(sparql);
 
-        final QueryImpl q = new QueryImpl(queryParser.parseQuery(sparql), connection);
+        final QueryImpl q = new QueryImpl(templateCache.getSparqlQuery(sparql, parameterValueFactory), connection);
         q.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return q;
     }
@@ -57,7 +56,9 @@ public class SparqlQueryFactory implements QueryFactory {
         Objects.requireNonNull(sparql, ErrorUtils.getNPXMessageSupplier("sparql"));
         Objects.requireNonNull(resultClass, ErrorUtils.getNPXMessageSupplier("resultClass"));
 
-        final TypedQueryImpl<T> tq = new TypedQueryImpl<>(queryParser.parseQuery(sparql), resultClass, connection, uow);
+        final TypedQueryImpl<T> tq =
+                new TypedQueryImpl<>(templateCache.getSparqlQuery(sparql, parameterValueFactory), resultClass,
+                        connection, uow);
         tq.setUnitOfWork(uow);
         tq.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return tq;
@@ -69,8 +70,9 @@ public class SparqlQueryFactory implements QueryFactory {
         Objects.requireNonNull(resultSetMapping, ErrorUtils.getNPXMessageSupplier("resultSetMapping"));
 
         final SparqlResultMapper mapper = uow.getResultSetMappingManager().getMapper(resultSetMapping);
-        final ResultSetMappingQuery q = new ResultSetMappingQuery(queryParser.parseQuery(sparql), connection, mapper,
-                uow);
+        final ResultSetMappingQuery q =
+                new ResultSetMappingQuery(templateCache.getSparqlQuery(sparql, parameterValueFactory), connection,
+                        mapper, uow);
         q.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return q;
     }
@@ -79,7 +81,7 @@ public class SparqlQueryFactory implements QueryFactory {
     public QueryImpl createQuery(String query) {
         Objects.requireNonNull(query);
 
-        final QueryImpl q = new QueryImpl(soqlQueryParser.parseQuery(query), connection);
+        final QueryImpl q = new QueryImpl(templateCache.getSoqlQuery(query, parameterValueFactory), connection);
         q.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return q;
     }
@@ -89,8 +91,9 @@ public class SparqlQueryFactory implements QueryFactory {
         Objects.requireNonNull(query, ErrorUtils.getNPXMessageSupplier("query"));
         Objects.requireNonNull(resultClass, ErrorUtils.getNPXMessageSupplier("resultClass"));
 
-        final TypedQueryImpl<T> tq = new TypedQueryImpl<>(soqlQueryParser.parseQuery(query), resultClass, connection,
-                uow);
+        final TypedQueryImpl<T> tq =
+                new TypedQueryImpl<>(templateCache.getSoqlQuery(query, parameterValueFactory), resultClass,
+                        connection, uow);
         tq.setUnitOfWork(uow);
         tq.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return tq;
@@ -99,12 +102,20 @@ public class SparqlQueryFactory implements QueryFactory {
     @Override
     public QueryImpl createNamedQuery(String name) {
         final String query = uow.getNamedQueryManager().getQuery(name);
-        return createNativeQuery(query);
+        final QueryImpl q = new QueryImpl(templateCache.getNamedQuery(name, query, parameterValueFactory), connection);
+        q.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
+        return q;
     }
 
     @Override
     public <T> TypedQueryImpl<T> createNamedQuery(String name, Class<T> resultClass) {
+        Objects.requireNonNull(resultClass, ErrorUtils.getNPXMessageSupplier("resultClass"));
         final String query = uow.getNamedQueryManager().getQuery(name);
-        return createNativeQuery(query, resultClass);
+
+        final TypedQueryImpl<T> tq = new TypedQueryImpl<>(
+                templateCache.getNamedQuery(name, query, parameterValueFactory), resultClass, connection, uow);
+        tq.setUnitOfWork(uow);
+        tq.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
+        return tq;
     }
 }
@@ -17,6 +17,7 @@ package cz.cvut.kbss.jopa.query.sparql;
 import cz.cvut.kbss.jopa.model.query.Parameter;
 import cz.cvut.kbss.jopa.query.QueryHolder;
 import cz.cvut.kbss.jopa.query.QueryParameter;
+import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
 
 import java.util.*;
 
@@ -48,6 +49,24 @@ public class SparqlQueryHolder implements QueryHolder {
         parameterSet.values().forEach(p -> identifiersToParameters.put(p.getIdentifier(), p));
     }
 
+    /**
+     * Creates a copy of this query holder, which shares the parsed query parts with this instance, but has its own
+     * parameters.
+     * <p>
+     * Parameter values, first result and max results are not copied, so the result is equivalent to a freshly parsed
+     * query.
+     *
+     * @param valueFactory Factory for values of the parameters of the new query
+     * @return New query holder
+     */
+    public SparqlQueryHolder copy(ParameterValueFactory valueFactory) {
+        final Map<Object, QueryParameter<?>> copies = new HashMap<>(identifiersToParameters.size());
+        identifiersToParameters.forEach((id, p) -> copies.put(id, p.copy(valueFactory)));
+        final List<QueryParameter<?>> paramsCopy = new ArrayList<>(parameters.size());
+        parameters.forEach(p -> paramsCopy.add(copies.get(p.getIdentifier())));
+        return new SparqlQueryHolder(query, queryParts, paramsCopy);
+    }
+
     @Override
     public String getQuery() {
         return query;
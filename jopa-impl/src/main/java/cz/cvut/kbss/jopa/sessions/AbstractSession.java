@@ -14,8 +14,10 @@
  */
 package cz.cvut.kbss.jopa.sessions;
 
+import cz.cvut.kbss.jopa.metrics.MetricsRegistry;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
+import cz.cvut.kbss.jopa.query.QueryTemplateCache;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
 import cz.cvut.kbss.jopa.utils.Configuration;
 import org.slf4j.Logger;
@@ -88,4 +90,20 @@ public abstract class AbstractSession implements Session, MetamodelProvider, Con
      * @return {@link ResultSetMappingManager}
      */
     public abstract ResultSetMappingManager getResultSetMappingManager();
+
+    /**
+     * Gets the cache of parsed query templates of this persistence unit.
+     *
+     * @return {@link QueryTemplateCache}
+     */
+    public abstract QueryTemplateCache getQueryTemplateCache();
+
+    /**
+     * Gets the registry into which metrics of persistence operations are recorded.
+     *
+     * @return Metrics registry, a disabled one by default
+     */
+    public MetricsRegistry getMetrics() {
+        return MetricsRegistry.disabled();
+    }
 }
@@ -22,6 +22,7 @@ import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 import cz.cvut.kbss.jopa.model.metamodel.Identifier;
 import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -114,7 +115,8 @@ public class CloneBuilderImpl implements CloneBuilder {
                 continue;   // Already cloned
             }
             final Field f = fs.getJavaField();
-            final Object origVal = EntityPropertiesUtils.getFieldValue(f, original);
+            final FieldAccessor accessor = EntityPropertiesUtils.getFieldAccessor(fs);
+            final Object origVal = accessor.getValue(original);
             if (origVal == null) {
                 continue;
             }
@@ -124,7 +126,7 @@ public class CloneBuilderImpl implements CloneBuilder {
                 // The field is an immutable type
                 clonedValue = origVal;
             } else if (origVal instanceof Collection || origVal instanceof Map) {
-                final Descriptor fieldDescriptor = getFieldDescriptor(f, originalClass, configuration.getDescriptor());
+                final Descriptor fieldDescriptor = configuration.getDescriptor().getAttributeDescriptor(fs);
                 // Collection or Map
                 clonedValue = getInstanceBuilder(origVal).buildClone(clone, f, origVal,
                         new CloneConfiguration(fieldDescriptor, configuration.getPostRegister()));
@@ -135,8 +137,7 @@ public class CloneBuilderImpl implements CloneBuilder {
                     clonedValue = uow.getCloneForOriginal(origVal);
                 } else {
                     if (isTypeManaged(origValueClass)) {
-                        final Descriptor fieldDescriptor =
-                                getFieldDescriptor(f, originalClass, configuration.getDescriptor());
+                        final Descriptor fieldDescriptor = configuration.getDescriptor().getAttributeDescriptor(fs);
                         clonedValue = getVisitedEntity(configuration.getDescriptor(), origVal);
                         if (clonedValue == null) {
                             clonedValue = uow.registerExistingObject(origVal, fieldDescriptor,
@@ -147,20 +148,14 @@ public class CloneBuilderImpl implements CloneBuilder {
                     }
                 }
             }
-            EntityPropertiesUtils.setFieldValue(f, clone, clonedValue);
+            accessor.setValue(clone, clonedValue);
         }
     }
 
     private static void cloneIdentifier(Object original, Object clone, EntityType<?> et) {
         final Identifier identifier = et.getIdentifier();
-        final Object idValue = EntityPropertiesUtils.getFieldValue(identifier.getJavaField(), original);
-        EntityPropertiesUtils.setFieldValue(identifier.getJavaField(), clone, idValue);
-    }
-
-    private Descriptor getFieldDescriptor(Field field, Class<?> entityClass, Descriptor entityDescriptor) {
-        final EntityType<?> et = getMetamodel().entity(entityClass);
-        final FieldSpecification<?, ?> fieldSpec = et.getFieldSpecification(field.getName());
-        return entityDescriptor.getAttributeDescriptor(fieldSpec);
+        final Object idValue = EntityPropertiesUtils.getAttributeValue(identifier, original);
+        EntityPropertiesUtils.setAttributeValue(identifier, clone, idValue);
     }
 
     /**
@@ -195,18 +190,18 @@ public class CloneBuilderImpl implements CloneBuilder {
         final Object original = changeSet.getChangedObject();
         try {
             for (ChangeRecord change : changeSet.getChanges()) {
-                Field f = change.getAttribute().getJavaField();
-                if (isImmutable(f.getType())) {
-                    EntityPropertiesUtils.setFieldValue(f, original, change.getNewValue());
+                final FieldAccessor accessor = EntityPropertiesUtils.getFieldAccessor(change.getAttribute());
+                if (isImmutable(change.getAttribute().getJavaField().getType())) {
+                    accessor.setValue(original, change.getNewValue());
                     continue;
                 }
-                Object origVal = EntityPropertiesUtils.getFieldValue(f, original);
+                Object origVal = accessor.getValue(original);
                 Object newVal = change.getNewValue();
                 if (newVal == null) {
-                    EntityPropertiesUtils.setFieldValue(f, original, null);
+                    accessor.setValue(original, null);
                     continue;
                 }
-                getInstanceBuilder(newVal).mergeChanges(f, original, origVal, newVal);
+                getInstanceBuilder(newVal).mergeChanges(accessor, original, origVal, newVal);
             }
         } catch (SecurityException e) {
             throw new OWLPersistenceException(e);
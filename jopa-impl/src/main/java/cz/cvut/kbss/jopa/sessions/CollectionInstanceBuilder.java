@@ -19,7 +19,7 @@ import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
 import cz.cvut.kbss.jopa.model.annotations.Types;
 import cz.cvut.kbss.jopa.model.metamodel.PluralAttribute;
 import cz.cvut.kbss.jopa.utils.CollectionFactory;
-import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 import cz.cvut.kbss.jopa.utils.MetamodelUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -206,7 +206,7 @@ class CollectionInstanceBuilder extends AbstractInstanceBuilder {
     }
 
     @Override
-    void mergeChanges(Field field, Object target, Object originalValue, Object cloneValue) {
+    void mergeChanges(FieldAccessor accessor, Object target, Object originalValue, Object cloneValue) {
         assert originalValue == null || originalValue instanceof Collection;
         assert cloneValue instanceof Collection;
 
@@ -216,7 +216,7 @@ class CollectionInstanceBuilder extends AbstractInstanceBuilder {
         }
         final Optional<Collection<?>> origOpt = createNewInstance(clone.getClass(), clone.size());
         Collection<Object> orig = (Collection<Object>) origOpt.orElse(createDefaultCollection(clone.getClass()));
-        EntityPropertiesUtils.setFieldValue(field, target, orig);
+        accessor.setValue(target, orig);
 
         if (clone.isEmpty()) {
             return;
@@ -224,7 +224,7 @@ class CollectionInstanceBuilder extends AbstractInstanceBuilder {
         for (Object cl : clone) {
             orig.add(uow.contains(cl) ? builder.getOriginal(cl) : cl);
         }
-        final Types types = field.getAnnotation(Types.class);
+        final Types types = accessor.getField().getAnnotation(Types.class);
         if (types != null) {
             MetamodelUtils.checkForModuleSignatureExtension(orig, builder.getMetamodel());
         }
@@ -15,6 +15,7 @@
 package cz.cvut.kbss.jopa.sessions;
 
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+import cz.cvut.kbss.jopa.metrics.MetricsRegistry;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.oom.ObjectOntologyMapper;
 import cz.cvut.kbss.jopa.oom.ObjectOntologyMapperImpl;
@@ -26,19 +27,29 @@ import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class ConnectionWrapper implements Wrapper {
 
     private final Connection connection;
+    private final MetricsRegistry metrics;
     private ObjectOntologyMapper mapper;
+    private UnitOfWorkImpl uow;
 
     public ConnectionWrapper(Connection connection) {
+        this(connection, MetricsRegistry.disabled());
+    }
+
+    public ConnectionWrapper(Connection connection, MetricsRegistry metrics) {
         this.connection = connection;
+        this.metrics = metrics;
     }
 
     void setUnitOfWork(UnitOfWorkImpl uow) {
-        this.mapper = new ObjectOntologyMapperImpl(uow, connection);
+        this.uow = uow;
+        this.mapper = new ObjectOntologyMapperImpl(uow, connection, metrics);
     }
 
     public <T> boolean contains(Object identifier, Class<T> cls, Descriptor descriptor) {
@@ -54,6 +65,10 @@ public class ConnectionWrapper implements Wrapper {
         return mapper.loadEntity(loadingParameters);
     }
 
+    public <T> Map<URI, T> findAll(Class<T> cls, Collection<URI> identifiers, Descriptor descriptor) {
+        return mapper.loadEntities(cls, identifiers, descriptor);
+    }
+
     public <T> T getReference(LoadingParameters<T> loadingParameters) {
         return mapper.loadReference(loadingParameters);
     }
@@ -62,6 +77,10 @@ public class ConnectionWrapper implements Wrapper {
         mapper.updateFieldValue(entity, field, descriptor);
     }
 
+    public <T> void merge(T entity, Collection<Field> fields, Descriptor descriptor) {
+        mapper.updateFieldValues(entity, fields, descriptor);
+    }
+
     public <T> void persist(Object identifier, T entity, Descriptor descriptor) {
         final URI idUri = getIdentifierAsUri(identifier);
         mapper.persistEntity(idUri, entity, descriptor);
@@ -118,6 +137,10 @@ public class ConnectionWrapper implements Wrapper {
     }
 
     public Statement createStatement() {
+        if (uow != null) {
+            // Queries have to see changes which have not been written into the storage yet
+            uow.writePendingChanges();
+        }
         try {
             return connection.createStatement();
         } catch (OntoDriverException e) {
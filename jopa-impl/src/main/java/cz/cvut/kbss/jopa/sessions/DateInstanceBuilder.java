@@ -14,7 +14,7 @@
  */
 package cz.cvut.kbss.jopa.sessions;
 
-import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 
 import java.lang.reflect.Field;
 import java.util.Date;
@@ -35,8 +35,8 @@ class DateInstanceBuilder extends AbstractInstanceBuilder {
     }
 
     @Override
-    void mergeChanges(Field field, Object target, Object originalValue, Object cloneValue) {
-        EntityPropertiesUtils.setFieldValue(field, target, cloneValue);
+    void mergeChanges(FieldAccessor accessor, Object target, Object originalValue, Object cloneValue) {
+        accessor.setValue(target, cloneValue);
     }
 
     @Override
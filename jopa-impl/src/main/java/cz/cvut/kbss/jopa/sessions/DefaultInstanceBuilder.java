@@ -16,6 +16,7 @@ package cz.cvut.kbss.jopa.sessions;
 
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -118,18 +119,18 @@ class DefaultInstanceBuilder extends AbstractInstanceBuilder {
     }
 
     @Override
-    void mergeChanges(Field field, Object target, Object originalValue, Object cloneValue) {
+    void mergeChanges(FieldAccessor accessor, Object target, Object originalValue, Object cloneValue) {
         if (originalValue == null) {
             Object clOrig = builder.getOriginal(cloneValue);
             if (clOrig == null) {
                 clOrig = cloneValue;
             }
-            EntityPropertiesUtils.setFieldValue(field, target, clOrig);
+            accessor.setValue(target, clOrig);
             return;
         }
         Class<?> cls = originalValue.getClass();
         if (builder.isTypeManaged(cls) && builder.getOriginal(cloneValue) != null) {
-            EntityPropertiesUtils.setFieldValue(field, target, builder.getOriginal(cloneValue));
+            accessor.setValue(target, builder.getOriginal(cloneValue));
         } else {
             mergeFieldChanges(originalValue, cloneValue, cls);
         }
@@ -138,12 +139,13 @@ class DefaultInstanceBuilder extends AbstractInstanceBuilder {
     private void mergeFieldChanges(Object originalValue, Object cloneValue, Class<?> cls) {
         List<Field> fields = EntityPropertiesUtils.getAllFields(cls);
         for (Field f : fields) {
-            Object clVal = EntityPropertiesUtils.getFieldValue(f, cloneValue);
-            Object origVal = EntityPropertiesUtils.getFieldValue(f, originalValue);
+            final FieldAccessor accessor = FieldAccessor.of(f);
+            Object clVal = accessor.getValue(cloneValue);
+            Object origVal = accessor.getValue(originalValue);
             if (!(clVal instanceof Collection) && !builder.isOriginalInUoW(origVal)) {
-                EntityPropertiesUtils.setFieldValue(f, originalValue, clVal);
+                accessor.setValue(originalValue, clVal);
             } else {
-                builder.getInstanceBuilder(origVal).mergeChanges(f, originalValue, origVal, clVal);
+                builder.getInstanceBuilder(origVal).mergeChanges(accessor, originalValue, origVal, clVal);
             }
         }
     }
@@ -0,0 +1,310 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions;
+
+import cz.cvut.kbss.jopa.metrics.Histogram;
+import cz.cvut.kbss.jopa.metrics.MetricNames;
+import cz.cvut.kbss.jopa.metrics.MetricsRegistry;
+import cz.cvut.kbss.jopa.metrics.Timer;
+import cz.cvut.kbss.ontodriver.*;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * OntoDriver connection decorator which records duration of the storage operations.
+ * <p>
+ * Operations are timed using timers named {@link MetricNames#DRIVER_PREFIX} + operation name, number of calls of an
+ * operation is the count of the corresponding timer. Execution of SPARQL statements created by this connection is
+ * recorded by the {@link MetricNames#QUERY_EXECUTE} and {@link MetricNames#QUERY_UPDATE} timers.
+ * <p>
+ * List, types and properties handlers are not instrumented.
+ */
+class InstrumentedConnection implements Connection {
+
+    private final Connection delegate;
+
+    private final Timer findTimer;
+    private final Timer findAllTimer;
+    private final Histogram findAllSize;
+    private final Timer containsTimer;
+    private final Timer persistTimer;
+    private final Timer updateTimer;
+    private final Timer removeTimer;
+    private final Timer commitTimer;
+    private final Timer rollbackTimer;
+    private final Timer queryTimer;
+    private final Timer updateQueryTimer;
+
+    InstrumentedConnection(Connection delegate, MetricsRegistry metrics) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.findTimer = metrics.timer(MetricNames.DRIVER_PREFIX + "find");
+        this.findAllTimer = metrics.timer(MetricNames.DRIVER_PREFIX + "findAll");
+        this.findAllSize = metrics.histogram(MetricNames.DRIVER_PREFIX + "findAll.size");
+        this.containsTimer = metrics.timer(MetricNames.DRIVER_PREFIX + "contains");
+        this.persistTimer = metrics.timer(MetricNames.DRIVER_PREFIX + "persist");
+        this.updateTimer = metrics.timer(MetricNames.DRIVER_PREFIX + "update");
+        this.removeTimer = metrics.timer(MetricNames.DRIVER_PREFIX + "remove");
+        this.commitTimer = metrics.timer(MetricNames.DRIVER_PREFIX + "commit");
+        this.rollbackTimer = metrics.timer(MetricNames.DRIVER_PREFIX + "rollback");
+        this.queryTimer = metrics.timer(MetricNames.QUERY_EXECUTE);
+        this.updateQueryTimer = metrics.timer(MetricNames.QUERY_UPDATE);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public void commit() throws OntoDriverException {
+        final long start = commitTimer.start();
+        try {
+            delegate.commit();
+        } finally {
+            commitTimer.stop(start);
+        }
+    }
+
+    @Override
+    public void rollback() throws OntoDriverException {
+        final long start = rollbackTimer.start();
+        try {
+            delegate.rollback();
+        } finally {
+            rollbackTimer.stop(start);
+        }
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) {
+        delegate.setAutoCommit(autoCommit);
+    }
+
+    @Override
+    public boolean isAutoCommit() {
+        return delegate.isAutoCommit();
+    }
+
+    @Override
+    public Statement createStatement() throws OntoDriverException {
+        return new InstrumentedStatement<>(delegate.createStatement());
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sparql) throws OntoDriverException {
+        return new InstrumentedPreparedStatement(delegate.prepareStatement(sparql));
+    }
+
+    @Override
+    public boolean isConsistent(URI context) throws OntoDriverException {
+        return delegate.isConsistent(context);
+    }
+
+    @Override
+    public List<URI> getContexts() throws OntoDriverException {
+        return delegate.getContexts();
+    }
+
+    @Override
+    public boolean contains(Axiom<?> axiom, URI context) throws OntoDriverException {
+        final long start = containsTimer.start();
+        try {
+            return delegate.contains(axiom, context);
+        } finally {
+            containsTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Collection<Axiom<?>> find(AxiomDescriptor descriptor) throws OntoDriverException {
+        final long start = findTimer.start();
+        try {
+            return delegate.find(descriptor);
+        } finally {
+            findTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Map<NamedResource, Collection<Axiom<?>>> findAll(Collection<AxiomDescriptor> descriptors)
+            throws OntoDriverException {
+        findAllSize.record(descriptors.size());
+        final long start = findAllTimer.start();
+        try {
+            return delegate.findAll(descriptors);
+        } finally {
+            findAllTimer.stop(start);
+        }
+    }
+
+    @Override
+    public void persist(AxiomValueDescriptor descriptor) throws OntoDriverException {
+        final long start = persistTimer.start();
+        try {
+            delegate.persist(descriptor);
+        } finally {
+            persistTimer.stop(start);
+        }
+    }
+
+    @Override
+    public URI generateIdentifier(URI classUri) throws OntoDriverException {
+        return delegate.generateIdentifier(classUri);
+    }
+
+    @Override
+    public void update(AxiomValueDescriptor descriptor) throws OntoDriverException {
+        final long start = updateTimer.start();
+        try {
+            delegate.update(descriptor);
+        } finally {
+            updateTimer.stop(start);
+        }
+    }
+
+    @Override
+    public void remove(AxiomDescriptor descriptor) throws OntoDriverException {
+        final long start = removeTimer.start();
+        try {
+            delegate.remove(descriptor);
+        } finally {
+            removeTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Lists lists() {
+        return delegate.lists();
+    }
+
+    @Override
+    public Types types() {
+        return delegate.types();
+    }
+
+    @Override
+    public Properties properties() {
+        return delegate.properties();
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> cls) throws OntoDriverException {
+        if (cls.isAssignableFrom(getClass())) {
+            return cls.cast(this);
+        }
+        return delegate.unwrap(cls);
+    }
+
+    private class InstrumentedStatement<S extends Statement> implements Statement {
+
+        final S delegate;
+
+        InstrumentedStatement(S delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ResultSet executeQuery(String sparql) throws OntoDriverException {
+            final long start = queryTimer.start();
+            try {
+                return delegate.executeQuery(sparql);
+            } finally {
+                queryTimer.stop(start);
+            }
+        }
+
+        @Override
+        public void executeUpdate(String sparql) throws OntoDriverException {
+            final long start = updateQueryTimer.start();
+            try {
+                delegate.executeUpdate(sparql);
+            } finally {
+                updateQueryTimer.stop(start);
+            }
+        }
+
+        @Override
+        public void useOntology(StatementOntology ontology) {
+            delegate.useOntology(ontology);
+        }
+
+        @Override
+        public StatementOntology getStatementOntology() {
+            return delegate.getStatementOntology();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws OntoDriverException {
+            delegate.close();
+        }
+    }
+
+    private class InstrumentedPreparedStatement extends InstrumentedStatement<PreparedStatement>
+            implements PreparedStatement {
+
+        InstrumentedPreparedStatement(PreparedStatement delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public ResultSet executeQuery() throws OntoDriverException {
+            final long start = queryTimer.start();
+            try {
+                return delegate.executeQuery();
+            } finally {
+                queryTimer.stop(start);
+            }
+        }
+
+        @Override
+        public void executeUpdate() throws OntoDriverException {
+            final long start = updateQueryTimer.start();
+            try {
+                delegate.executeUpdate();
+            } finally {
+                updateQueryTimer.stop(start);
+            }
+        }
+
+        @Override
+        public void setObject(String binding, Object value) throws OntoDriverException {
+            delegate.setObject(binding, value);
+        }
+
+        @Override
+        public void clearParameters() throws OntoDriverException {
+            delegate.clearParameters();
+        }
+    }
+}
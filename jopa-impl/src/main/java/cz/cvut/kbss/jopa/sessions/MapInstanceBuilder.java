@@ -16,7 +16,7 @@ package cz.cvut.kbss.jopa.sessions;
 
 import cz.cvut.kbss.jopa.adapters.IndirectCollection;
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
-import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -155,7 +155,7 @@ class MapInstanceBuilder extends AbstractInstanceBuilder {
     }
 
     @Override
-    void mergeChanges(Field field, Object target, Object originalValue, Object cloneValue) {
+    void mergeChanges(FieldAccessor accessor, Object target, Object originalValue, Object cloneValue) {
         assert (originalValue == null) || (originalValue instanceof Map);
         assert cloneValue instanceof Map;
 
@@ -169,7 +169,7 @@ class MapInstanceBuilder extends AbstractInstanceBuilder {
             if (orig == null) {
                 orig = createDefaultMap(clone.size());
             }
-            EntityPropertiesUtils.setFieldValue(field, target, orig);
+            accessor.setValue(target, orig);
         }
         orig.clear();
         if (clone.isEmpty()) {
@@ -16,15 +16,20 @@ package cz.cvut.kbss.jopa.sessions;
 
 import cz.cvut.kbss.jopa.accessors.DefaultStorageAccessor;
 import cz.cvut.kbss.jopa.accessors.StorageAccessor;
+import cz.cvut.kbss.jopa.metrics.MetricsFactory;
+import cz.cvut.kbss.jopa.metrics.MetricsRegistry;
 import cz.cvut.kbss.jopa.model.AbstractEntityManager;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
-import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
+import cz.cvut.kbss.jopa.query.QueryTemplateCache;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
 import cz.cvut.kbss.jopa.sessions.cache.CacheFactory;
+import cz.cvut.kbss.jopa.sessions.cache.DisabledCacheManager;
+import cz.cvut.kbss.jopa.sessions.cache.InstrumentedCacheManager;
 import cz.cvut.kbss.jopa.transactions.EntityTransaction;
 import cz.cvut.kbss.jopa.utils.Configuration;
 import cz.cvut.kbss.jopa.utils.Wrapper;
+import cz.cvut.kbss.ontodriver.Connection;
 import cz.cvut.kbss.ontodriver.OntologyStorageProperties;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 
@@ -45,12 +50,15 @@ public class ServerSession extends AbstractSession implements Wrapper {
 
     private CacheManager liveObjectCache;
     private StorageAccessor storageAccessor;
+    private QueryTemplateCache queryTemplateCache;
+    private MetricsRegistry metrics;
 
     private Map<EntityTransaction, AbstractEntityManager> runningTransactions;
 
     ServerSession() {
         super(new Configuration(Collections.emptyMap()));
         this.metamodel = null;
+        this.metrics = MetricsRegistry.disabled();
     }
 
     public ServerSession(OntologyStorageProperties storageProperties, Configuration configuration,
@@ -61,26 +69,39 @@ public class ServerSession extends AbstractSession implements Wrapper {
     }
 
     /**
-     * Initializes this ServerSession. This in particular means initialization of the ontology accessor and live object
-     * cache.
+     * Initializes this ServerSession. This in particular means initialization of the metrics registry, ontology
+     * accessor, live object cache and query template cache, into which named queries are precompiled.
      *
      * @param storageProperties Storage properties
      * @param configuration     Session configuration
      * @param metamodel         Metamodel of the managed classes and their attributes.
      */
     private void initialize(OntologyStorageProperties storageProperties, Configuration configuration,
-                            Metamodel metamodel) {
+                            MetamodelImpl metamodel) {
         assert configuration != null;
         assert metamodel != null;
         this.runningTransactions = new ConcurrentHashMap<>();
-        this.liveObjectCache = CacheFactory.createCache(configuration.getProperties());
-        liveObjectCache.setInferredClasses(metamodel.getInferredClasses());
+        this.metrics = MetricsFactory.createRegistry(configuration.getProperties());
+        this.liveObjectCache = initLiveObjectCache(configuration, metamodel);
         this.storageAccessor = new DefaultStorageAccessor(storageProperties, configuration.getProperties());
+        this.queryTemplateCache = new QueryTemplateCache(this, configuration.getProperties(), metrics);
+        queryTemplateCache.precompileNamedQueries(metamodel.getNamedQueryManager());
+    }
+
+    private CacheManager initLiveObjectCache(Configuration configuration, MetamodelImpl metamodel) {
+        CacheManager cache = CacheFactory.createCache(configuration.getProperties(), metamodel);
+        if (metrics.isEnabled() && !(cache instanceof DisabledCacheManager)) {
+            cache = new InstrumentedCacheManager(cache, metrics);
+        }
+        cache.setInferredClasses(metamodel.getInferredClasses());
+        return cache;
     }
 
     @Override
     protected ConnectionWrapper acquireConnection() {
-        return new ConnectionWrapper(storageAccessor.acquireConnection());
+        final Connection connection = storageAccessor.acquireConnection();
+        return new ConnectionWrapper(
+                metrics.isEnabled() ? new InstrumentedConnection(connection, metrics) : connection, metrics);
     }
 
     @Override
@@ -93,6 +114,11 @@ public class ServerSession extends AbstractSession implements Wrapper {
         return liveObjectCache;
     }
 
+    @Override
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
     public void transactionStarted(EntityTransaction t, AbstractEntityManager em) {
         assert t.isActive();
         runningTransactions.put(t, em);
@@ -149,12 +175,20 @@ public class ServerSession extends AbstractSession implements Wrapper {
         return metamodel.getResultSetMappingManager();
     }
 
+    @Override
+    public QueryTemplateCache getQueryTemplateCache() {
+        return queryTemplateCache;
+    }
+
     @Override
     public <T> T unwrap(Class<T> cls) {
         Objects.requireNonNull(cls);
         if (cls.isAssignableFrom(getClass())) {
             return cls.cast(this);
         }
+        if (cls.isInstance(metrics)) {
+            return cls.cast(metrics);
+        }
         return storageAccessor.unwrap(cls);
     }
 }
@@ -18,17 +18,23 @@ import cz.cvut.kbss.jopa.adapters.IndirectCollection;
 import cz.cvut.kbss.jopa.exceptions.EntityNotFoundException;
 import cz.cvut.kbss.jopa.exceptions.OWLEntityExistsException;
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+import cz.cvut.kbss.jopa.metrics.MetricNames;
+import cz.cvut.kbss.jopa.metrics.MetricsRegistry;
+import cz.cvut.kbss.jopa.metrics.Timer;
 import cz.cvut.kbss.jopa.model.AbstractEntityManager;
 import cz.cvut.kbss.jopa.model.BeanListenerAspect;
 import cz.cvut.kbss.jopa.model.EntityManagerImpl.State;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.LoadState;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.lifecycle.PostLoadInvoker;
+import cz.cvut.kbss.jopa.model.metamodel.Attribute;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
 import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
+import cz.cvut.kbss.jopa.query.QueryTemplateCache;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
 import cz.cvut.kbss.jopa.query.sparql.SparqlQueryFactory;
 import cz.cvut.kbss.jopa.sessions.change.ChangeManagerImpl;
@@ -41,14 +47,18 @@ import cz.cvut.kbss.jopa.sessions.validator.IntegrityConstraintsValidator;
 import cz.cvut.kbss.jopa.utils.CollectionFactory;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
 import cz.cvut.kbss.jopa.utils.ErrorUtils;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
+import cz.cvut.kbss.jopa.utils.Procedure;
 import cz.cvut.kbss.jopa.utils.Wrapper;
 import org.aspectj.lang.Aspects;
 
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.net.URL;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static cz.cvut.kbss.jopa.exceptions.OWLEntityExistsException.individualAlreadyManaged;
 import static cz.cvut.kbss.jopa.utils.EntityPropertiesUtils.getValueAsURI;
@@ -63,6 +73,9 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
     private final Map<Object, Object> newObjectsCloneToOriginal;
     private final Map<Object, Object> newObjectsKeyToClone = new HashMap<>();
     private final Map<Object, InstanceDescriptor> instanceDescriptors;
+    // Instances with attribute changes not yet written into the storage (see JOPAPersistenceProperties.WRITE_BEHIND)
+    private final Set<Object> instancesWithPendingChanges;
+    private final boolean writeBehind;
     private RepositoryMap repoMap;
 
     private boolean hasChanges;
@@ -91,6 +104,8 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
      */
     private final CacheManager cacheManager;
 
+    private final MetricsRegistry metrics;
+
     public UnitOfWorkImpl(AbstractSession parent) {
         super(parent.getConfiguration());
         this.parent = Objects.requireNonNull(parent);
@@ -99,11 +114,14 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         this.deletedObjects = createMap();
         this.newObjectsCloneToOriginal = createMap();
         this.instanceDescriptors = new IdentityHashMap<>();
+        this.instancesWithPendingChanges = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.writeBehind = getConfiguration().is(JOPAPersistenceProperties.WRITE_BEHIND);
         this.repoMap = new RepositoryMap();
         repoMap.initDescriptors();
         this.cloneBuilder = new CloneBuilderImpl(this);
         this.collectionFactory = new CollectionFactory(this);
         this.cacheManager = parent.getLiveObjectCache();
+        this.metrics = parent.getMetrics();
         this.storage = acquireConnection();
         this.queryFactory = new SparqlQueryFactory(this, storage);
         this.mergeManager = new MergeManagerImpl(this);
@@ -153,12 +171,53 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         if (result == null) {
             return null;
         }
-        final Object clone = registerExistingObject(result, descriptor,
+        return registerLoadedObject(cls, result, descriptor);
+    }
+
+    private <T> T registerLoadedObject(Class<T> cls, T loaded, Descriptor descriptor) {
+        final Object clone = registerExistingObject(loaded, descriptor,
                 Collections.singletonList(new PostLoadInvoker(getMetamodel())));
         checkForCollections(clone);
         return cls.cast(clone);
     }
 
+    @Override
+    public <T> List<T> readObjects(Class<T> cls, List<?> identifiers, Descriptor descriptor) {
+        Objects.requireNonNull(cls, ErrorUtils.getNPXMessageSupplier("cls"));
+        Objects.requireNonNull(identifiers, ErrorUtils.getNPXMessageSupplier("identifiers"));
+        Objects.requireNonNull(descriptor, ErrorUtils.getNPXMessageSupplier("descriptor"));
+
+        final Map<URI, Object> toLoad = new LinkedHashMap<>();
+        for (Object identifier : identifiers) {
+            Objects.requireNonNull(identifier, ErrorUtils.getNPXMessageSupplier("identifier"));
+            if (readManagedObject(cls, identifier, descriptor) == null) {
+                toLoad.put(getValueAsURI(identifier), identifier);
+            }
+        }
+        final Map<URI, T> loaded = toLoad.isEmpty() ? Collections.emptyMap() : loadObjects(cls, toLoad, descriptor);
+        final List<T> result = new ArrayList<>(identifiers.size());
+        for (Object identifier : identifiers) {
+            final T clone = loaded.get(getValueAsURI(identifier));
+            result.add(clone != null ? clone : readManagedObject(cls, identifier, descriptor));
+        }
+        return result;
+    }
+
+    private <T> Map<URI, T> loadObjects(Class<T> cls, Map<URI, Object> identifiers, Descriptor descriptor) {
+        final Map<URI, T> originals = storage.findAll(cls, identifiers.keySet(), descriptor);
+        final Map<URI, T> clones = new HashMap<>(originals.size());
+        for (Entry<URI, Object> e : identifiers.entrySet()) {
+            final T original = originals.get(e.getKey());
+            if (original == null) {
+                continue;
+            }
+            // The instance may have been registered already as a reference from another instance loaded in the batch
+            final T managed = readManagedObject(cls, e.getValue(), descriptor);
+            clones.put(e.getKey(), managed != null ? managed : registerLoadedObject(cls, original, descriptor));
+        }
+        return clones;
+    }
+
     private <T> T readManagedObject(Class<T> cls, Object identifier, Descriptor descriptor) {
         // First try to find the object among new uncommitted objects
         Object result = newObjectsKeyToClone.get(identifier);
@@ -198,11 +257,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         instanceDescriptors.put(result, InstanceDescriptorFactory.createNotLoaded(result, entityType(cls)));
         registerEntityWithPersistenceContext(result);
         registerEntityWithOntologyContext(result, descriptor);
-        if (getLiveObjectCache().contains(cls, identifier, descriptor)) {
-            cloneToOriginals.put(result, getLiveObjectCache().get(cls, identifier, descriptor));
-        } else {
-            cloneToOriginals.put(result, null);
-        }
+        cloneToOriginals.put(result, getLiveObjectCache().get(cls, identifier, descriptor));
         keysToClones.put(identifier, result);
         return result;
     }
@@ -257,6 +312,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         newObjectsCloneToOriginal.clear();
         newObjectsKeyToClone.clear();
         instanceDescriptors.clear();
+        instancesWithPendingChanges.clear();
         this.hasChanges = false;
         this.hasDeleted = false;
         this.hasNew = false;
@@ -290,7 +346,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
             throw new IllegalStateException("Cannot commit inactive Unit of Work!");
         }
         this.inCommit = true;
-        commitUnitOfWork();
+        timed(MetricNames.COMMIT, this::commitUnitOfWork);
         LOG.trace("UnitOfWork commit finished.");
     }
 
@@ -309,14 +365,30 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
      */
     private void commitUnitOfWork() {
         commitToOntology();
-        mergeChangesIntoParent();
-        postCommit();
+        // Resolve before merge, which overwrites the original references of the changed objects
+        final Set<Object> changedIdentifiers = hasChanges() ? resolveChangedIdentifiers() : Collections.emptySet();
+        timed(MetricNames.COMMIT_MERGE, this::mergeChangesIntoParent);
+        postCommit(changedIdentifiers);
+    }
+
+    private void timed(String timerName, Procedure procedure) {
+        if (!metrics.isEnabled()) {
+            procedure.execute();
+            return;
+        }
+        final Timer timer = metrics.timer(timerName);
+        final long start = timer.start();
+        try {
+            procedure.execute();
+        } finally {
+            timer.stop(start);
+        }
     }
 
     /**
      * Clean up after the commit.
      */
-    private void postCommit() {
+    private void postCommit(Set<Object> changedIdentifiers) {
         final boolean changes = hasChanges();
         clear();
         this.inCommit = false;
@@ -325,21 +397,102 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
                 cacheManager.evictAll();
                 this.shouldReleaseAfterCommit = true;
             } else {
-                cacheManager.evictInferredObjects();
+                cacheManager.evictInferredObjects(changedIdentifiers);
             }
         }
+    }
 
+    /**
+     * Gets identifiers of all objects touched by this Unit of Work's change set, i.e. new, modified and deleted ones.
+     * <p>
+     * Identifiers of individuals referenced by the touched objects via object properties (both the current and, for
+     * modified objects, the original references) are included as well, because inferred attributes of the referenced
+     * individuals (e.g., inverse properties) may be affected by the changes.
+     */
+    private Set<Object> resolveChangedIdentifiers() {
+        final Set<Object> identifiers = new HashSet<>();
+        for (ObjectChangeSet chSet : uowChangeSet.getNewObjects()) {
+            identifiers.add(getIdentifier(chSet.getCloneObject()));
+            addIdentifiersReferencedBy(chSet.getCloneObject(), identifiers);
+        }
+        for (ObjectChangeSet chSet : uowChangeSet.getExistingObjectsChanges()) {
+            final Object instance =
+                    chSet.getCloneObject() != null ? chSet.getCloneObject() : chSet.getChangedObject();
+            if (instance == null) {
+                continue;
+            }
+            identifiers.add(getIdentifier(instance));
+            for (ChangeRecord change : chSet.getChanges()) {
+                if (isObjectPropertyAttribute(change.getAttribute())) {
+                    addReferenceIdentifiers(change.getNewValue(), identifiers);
+                    if (chSet.getChangedObject() != null) {
+                        addReferenceIdentifiers(EntityPropertiesUtils
+                                .getAttributeValue(change.getAttribute(), chSet.getChangedObject()), identifiers);
+                    }
+                }
+            }
+        }
+        for (ObjectChangeSet chSet : uowChangeSet.getDeletedObjects()) {
+            final Object instance =
+                    chSet.getCloneObject() != null ? chSet.getCloneObject() : chSet.getChangedObject();
+            if (instance != null) {
+                identifiers.add(getIdentifier(instance));
+                addIdentifiersReferencedBy(instance, identifiers);
+            }
+        }
+        return identifiers;
+    }
+
+    private void addIdentifiersReferencedBy(Object instance, Set<Object> identifiers) {
+        for (FieldSpecification<?, ?> fs : entityType(instance.getClass()).getFieldSpecifications()) {
+            if (isObjectPropertyAttribute(fs)) {
+                addReferenceIdentifiers(EntityPropertiesUtils.getAttributeValue(fs, instance), identifiers);
+            }
+        }
+    }
+
+    private static boolean isObjectPropertyAttribute(FieldSpecification<?, ?> fs) {
+        return fs instanceof Attribute &&
+                ((Attribute<?, ?>) fs).getPersistentAttributeType() == Attribute.PersistentAttributeType.OBJECT;
+    }
+
+    private void addReferenceIdentifiers(Object value, Set<Object> identifiers) {
+        if (value instanceof Collection) {
+            ((Collection<?>) value).forEach(v -> addReferenceIdentifier(v, identifiers));
+        } else {
+            addReferenceIdentifier(value, identifiers);
+        }
+    }
+
+    private void addReferenceIdentifier(Object value, Set<Object> identifiers) {
+        if (value == null) {
+            return;
+        }
+        if (isEntityType(value.getClass())) {
+            final Object identifier = getIdentifier(value);
+            if (identifier != null) {
+                identifiers.add(identifier);
+            }
+        } else if (value instanceof URI || value instanceof URL) {
+            identifiers.add(getValueAsURI(value));
+        }
     }
 
     /**
      * If there are any changes, commit them to the ontology.
      */
     private void commitToOntology() {
+        writePendingChanges();
         if (this.hasNew || this.hasChanges || this.hasDeleted) {
-            calculateChanges();
+            timed(MetricNames.COMMIT_CALCULATE_CHANGES, this::calculateChanges);
+        }
+        timed(MetricNames.COMMIT_VALIDATION, this::validateIntegrityConstraints);
+        timed(MetricNames.COMMIT_STORAGE, this::storageCommit);
+        if (metrics.isEnabled()) {
+            metrics.histogram(MetricNames.COMMIT_CHANGED_OBJECTS).record(
+                    uowChangeSet.getNewObjects().size() + uowChangeSet.getExistingObjectsChanges().size() +
+                            uowChangeSet.getDeletedObjects().size());
         }
-        validateIntegrityConstraints();
-        storageCommit();
     }
 
     private void validateIntegrityConstraints() {
@@ -515,13 +668,55 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         }
         final Descriptor descriptor = getDescriptor(entity);
         final EntityTypeImpl<Object> et = entityType((Class<Object>) entity.getClass());
+        final FieldSpecification<? super Object, ?> fieldSpec = et.getFieldSpecification(f.getName());
         et.getLifecycleListenerManager().invokePreUpdateCallbacks(entity);
-        storage.merge(entity, f, descriptor);
-        createAndRegisterChangeRecord(entity, et.getFieldSpecification(f.getName()), descriptor);
+        if (writeBehind) {
+            instanceDescriptors.get(entity).setDirty(fieldSpec);
+            instancesWithPendingChanges.add(entity);
+        } else {
+            storage.merge(entity, f, descriptor);
+        }
+        createAndRegisterChangeRecord(entity, fieldSpec, descriptor);
         setHasChanges();
-        setIndirectCollectionIfPresent(entity, f);
+        setIndirectCollectionIfPresent(entity, fieldSpec);
         et.getLifecycleListenerManager().invokePostUpdateCallbacks(entity);
-        instanceDescriptors.get(entity).setLoaded(et.getFieldSpecification(f.getName()), LoadState.LOADED);
+        instanceDescriptors.get(entity).setLoaded(fieldSpec, LoadState.LOADED);
+    }
+
+    /**
+     * Writes attribute changes which have not been written into the storage yet.
+     * <p>
+     * Changes are pending only when write-behind is enabled (see {@link JOPAPersistenceProperties#WRITE_BEHIND}). All
+     * pending changes of an instance are written in a single storage update.
+     */
+    void writePendingChanges() {
+        if (instancesWithPendingChanges.isEmpty()) {
+            return;
+        }
+        final List<Object> instances = new ArrayList<>(instancesWithPendingChanges);
+        instancesWithPendingChanges.clear();
+        instances.forEach(this::writePendingChanges);
+    }
+
+    private void writePendingChanges(Object instance) {
+        final InstanceDescriptor<?> instanceDescriptor = instanceDescriptors.get(instance);
+        if (instanceDescriptor == null || instanceDescriptor.getDirtyAttributes().isEmpty()) {
+            return;
+        }
+        final List<Field> fields = instanceDescriptor.getDirtyAttributes().stream()
+                                                    .map(FieldSpecification::getJavaField)
+                                                    .collect(Collectors.toList());
+        storage.merge(instance, fields, getDescriptor(instance));
+        instanceDescriptor.clearDirtyAttributes();
+    }
+
+    /**
+     * Discards attribute changes of the specified instance which have not been written into the storage yet.
+     */
+    private void discardPendingChanges(Object instance) {
+        if (instancesWithPendingChanges.remove(instance)) {
+            instanceDescriptors.get(instance).clearDirtyAttributes();
+        }
     }
 
     private void createAndRegisterChangeRecord(Object clone, FieldSpecification<?, ?> fieldSpec,
@@ -531,7 +726,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
             return;
         }
         final ChangeRecord record = new ChangeRecordImpl(fieldSpec,
-                EntityPropertiesUtils.getFieldValue(fieldSpec.getJavaField(), clone));
+                EntityPropertiesUtils.getAttributeValue(fieldSpec, clone));
         preventCachingIfReferenceIsNotLoaded(record);
         registerChangeRecord(clone, orig, descriptor, record);
     }
@@ -664,6 +859,11 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         return parent.getResultSetMappingManager();
     }
 
+    @Override
+    public QueryTemplateCache getQueryTemplateCache() {
+        return parent.getQueryTemplateCache();
+    }
+
     @Override
     public Object registerExistingObject(Object entity, Descriptor descriptor) {
         return registerExistingObject(entity, descriptor, Collections.emptyList());
@@ -721,6 +921,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
 
         final LoadingParameters<T> params = new LoadingParameters<>(et.getJavaType(), idUri, descriptor, true);
         params.bypassCache();
+        discardPendingChanges(object);
         final ConnectionWrapper connection = acquireConnection();
         try {
             uowChangeSet.cancelObjectChanges(getOriginal(object));
@@ -812,6 +1013,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         et.getLifecycleListenerManager().invokePreRemoveCallbacks(entity);
         final Object primaryKey = getIdentifier(entity);
         final Descriptor descriptor = getDescriptor(entity);
+        discardPendingChanges(entity);
 
         if (hasNew && newObjectsCloneToOriginal.containsKey(entity)) {
             unregisterObject(entity);
@@ -842,6 +1044,9 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         if (object == null) {
             return;
         }
+        if (instancesWithPendingChanges.remove(object)) {
+            writePendingChanges(object);
+        }
         final Object original = cloneToOriginals.remove(object);
         keysToClones.remove(EntityPropertiesUtils.getIdentifier(object, getMetamodel()));
 
@@ -924,23 +1129,18 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         }
 
         storage.loadFieldValue(entity, field, entityDescriptor);
-        final Object orig = EntityPropertiesUtils.getFieldValue(field, entity);
+        final FieldAccessor accessor = EntityPropertiesUtils.getFieldAccessor(fieldSpec);
+        final Object orig = accessor.getValue(entity);
         final Object entityOriginal = getOriginal(entity);
         if (entityOriginal != null) {
-            EntityPropertiesUtils.setFieldValue(field, entityOriginal, orig);
+            accessor.setValue(entityOriginal, orig);
         }
-        final Descriptor fieldDescriptor = getFieldDescriptor(entity, field, entityDescriptor);
+        final Descriptor fieldDescriptor = entityDescriptor.getAttributeDescriptor(fieldSpec);
         final Object clone = cloneLoadedFieldValue(entity, field, fieldDescriptor, orig);
-        EntityPropertiesUtils.setFieldValue(field, entity, clone);
+        accessor.setValue(entity, clone);
         instanceDescriptors.get(entity).setLoaded(fieldSpec, LoadState.LOADED);
     }
 
-    private <T> Descriptor getFieldDescriptor(T entity, Field field, Descriptor entityDescriptor) {
-        final EntityType<?> et = entityType(entity.getClass());
-        final FieldSpecification<?, ?> fieldSpec = et.getFieldSpecification(field.getName());
-        return entityDescriptor.getAttributeDescriptor(fieldSpec);
-    }
-
     private <T> Object cloneLoadedFieldValue(T entity, Field field, final Descriptor fieldDescriptor,
                                              final Object fieldValueOrig) {
         Object clone;
@@ -966,6 +1166,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
 
     @Override
     public boolean isConsistent(URI context) {
+        writePendingChanges();
         return storage.isConsistent(context);
     }
 
@@ -1022,7 +1223,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         assert entity != null;
         final EntityType<?> et = entityType(entity.getClass());
         for (FieldSpecification<?, ?> fieldSpec : et.getFieldSpecifications()) {
-            setIndirectCollectionIfPresent(entity, fieldSpec.getJavaField());
+            setIndirectCollectionIfPresent(entity, fieldSpec);
         }
     }
 
@@ -1032,20 +1233,21 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
      * If the specified field is of Collection type and it is not already an indirect collection, create new one and set
      * it as the value of the specified field on the specified entity.
      *
-     * @param entity The entity collection will be set on
-     * @param field  The field to set
+     * @param entity    The entity collection will be set on
+     * @param fieldSpec The field to set
      * @throws IllegalArgumentException Reflection
      */
-    private void setIndirectCollectionIfPresent(Object entity, Field field) {
+    private void setIndirectCollectionIfPresent(Object entity, FieldSpecification<?, ?> fieldSpec) {
         assert entity != null;
-        assert field != null;
+        assert fieldSpec != null;
 
-        final Object value = EntityPropertiesUtils.getFieldValue(field, entity);
+        final FieldAccessor accessor = EntityPropertiesUtils.getFieldAccessor(fieldSpec);
+        final Object value = accessor.getValue(entity);
         if (value instanceof IndirectCollection) {
             return;
         }
         if (value instanceof Collection || value instanceof Map) {
-            EntityPropertiesUtils.setFieldValue(field, entity, createIndirectCollection(value, entity, field));
+            accessor.setValue(entity, createIndirectCollection(value, entity, fieldSpec.getJavaField()));
         }
     }
 
@@ -1071,10 +1273,10 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         assert entity != null;
         final EntityType<?> et = entityType(entity.getClass());
         for (FieldSpecification<?, ?> fs : et.getFieldSpecifications()) {
-            final Object value = EntityPropertiesUtils.getFieldValue(fs.getJavaField(), entity);
+            final Object value = EntityPropertiesUtils.getAttributeValue(fs, entity);
             if (value instanceof IndirectCollection) {
                 IndirectCollection<?> indCol = (IndirectCollection<?>) value;
-                EntityPropertiesUtils.setFieldValue(fs.getJavaField(), entity, indCol.getReferencedCollection());
+                EntityPropertiesUtils.setAttributeValue(fs, entity, indCol.getReferencedCollection());
             }
         }
     }
@@ -15,6 +15,7 @@
 package cz.cvut.kbss.jopa.sessions.cache;
 
 import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.sessions.CacheManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +32,7 @@ public abstract class CacheFactory {
 
     private static final String LRU_CACHE = "lru";
     private static final String TTL_CACHE = "ttl";
+    private static final String STRIPED_CACHE = "striped";
 
     private CacheFactory() {
         throw new AssertionError();
@@ -52,6 +54,23 @@ public abstract class CacheFactory {
         return createEnabledCache(properties);
     }
 
+    /**
+     * Creates new cache based on the specified properties.
+     * <p>
+     * If the cache is enabled, it tracks references of instances of inferred classes, so that only the affected
+     * instances are evicted after changes to the data.
+     *
+     * @param properties Configuration of cache
+     * @param metamodel  Metamodel of the persistence unit
+     * @return Cache implementation
+     * @see ReferenceTrackingCacheManager
+     */
+    public static CacheManager createCache(Map<String, String> properties, MetamodelImpl metamodel) {
+        Objects.requireNonNull(metamodel);
+        final CacheManager cache = createCache(properties);
+        return cache instanceof DisabledCacheManager ? cache : new ReferenceTrackingCacheManager(cache, metamodel);
+    }
+
     private static CacheManager createEnabledCache(Map<String, String> properties) {
         final String cacheType = properties.getOrDefault(JOPAPersistenceProperties.CACHE_TYPE, LRU_CACHE).toLowerCase();
         switch (cacheType) {
@@ -61,6 +80,9 @@ public abstract class CacheFactory {
             case TTL_CACHE:
                 LOG.debug("Using TTL cache.");
                 return new TtlCacheManager(properties);
+            case STRIPED_CACHE:
+                LOG.debug("Using striped cache.");
+                return new StripedCacheManager(properties);
             default:
                 throw new IllegalArgumentException("Invalid second level cache type " + cacheType);
         }
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.metrics.Counter;
+import cz.cvut.kbss.jopa.metrics.MetricNames;
+import cz.cvut.kbss.jopa.metrics.MetricsRegistry;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.sessions.CacheManager;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Second level cache decorator which counts cache hits and misses per entity class.
+ * <p>
+ * Each {@link #get(Class, Object, Descriptor)} call is one lookup. It is a hit when the cache returns the requested
+ * instance and a miss otherwise. {@link #contains(Class, Object, Descriptor)} is not counted, as it is typically
+ * followed by a retrieval of the instance. Counters are named {@link MetricNames#CACHE_HIT_PREFIX} and {@link
+ * MetricNames#CACHE_MISS_PREFIX} suffixed with the entity class name.
+ */
+public class InstrumentedCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final MetricsRegistry metrics;
+
+    private final Map<Class<?>, Counter> hits = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Counter> misses = new ConcurrentHashMap<>();
+
+    public InstrumentedCacheManager(CacheManager delegate, MetricsRegistry metrics) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    @Override
+    public void add(Object identifier, Object entity, Descriptor descriptor) {
+        delegate.add(identifier, entity, descriptor);
+    }
+
+    @Override
+    public <T> T get(Class<T> cls, Object identifier, Descriptor descriptor) {
+        final T result = delegate.get(cls, identifier, descriptor);
+        if (cls != null) {
+            if (result != null) {
+                hits.computeIfAbsent(cls, c -> metrics.counter(MetricNames.CACHE_HIT_PREFIX + c.getName()))
+                    .increment();
+            } else {
+                misses.computeIfAbsent(cls, c -> metrics.counter(MetricNames.CACHE_MISS_PREFIX + c.getName()))
+                      .increment();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean contains(Class<?> cls, Object identifier, Descriptor descriptor) {
+        return delegate.contains(cls, identifier, descriptor);
+    }
+
+    @Override
+    public void evict(Class<?> cls, Object identifier, URI context) {
+        delegate.evict(cls, identifier, context);
+    }
+
+    @Override
+    public void evict(Class<?> cls) {
+        delegate.evict(cls);
+    }
+
+    @Override
+    public void evict(URI context) {
+        delegate.evict(context);
+    }
+
+    @Override
+    public void evictAll() {
+        delegate.evictAll();
+    }
+
+    @Override
+    public void evictInferredObjects() {
+        delegate.evictInferredObjects();
+    }
+
+    @Override
+    public void evictInferredObjects(Collection<?> identifiers) {
+        delegate.evictInferredObjects(identifiers);
+    }
+
+    @Override
+    public void setInferredClasses(Set<Class<?>> inferredClasses) {
+        delegate.setInferredClasses(inferredClasses);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -60,16 +60,18 @@ public class LruCacheManager implements CacheManager {
 
     LruCacheManager(Map<String, String> properties) {
         Objects.requireNonNull(properties);
-        this.capacity = properties.containsKey(JOPAPersistenceProperties.LRU_CACHE_CAPACITY) ?
-                        resolveCapacitySetting(properties) : DEFAULT_CAPACITY;
+        this.capacity = resolveCapacitySetting(properties);
         final ReadWriteLock rwLock = new ReentrantReadWriteLock();
         this.readLock = rwLock.readLock();
         this.writeLock = rwLock.writeLock();
         this.entityCache = new LruEntityCache(capacity);
     }
 
-    private static int resolveCapacitySetting(Map<String, String> properties) {
+    static int resolveCapacitySetting(Map<String, String> properties) {
         int capacitySetting = DEFAULT_CAPACITY;
+        if (!properties.containsKey(JOPAPersistenceProperties.LRU_CACHE_CAPACITY)) {
+            return capacitySetting;
+        }
         try {
             capacitySetting = Integer.parseInt(properties.get(JOPAPersistenceProperties.LRU_CACHE_CAPACITY));
             if (capacitySetting <= 0) {
@@ -0,0 +1,260 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.model.metamodel.Attribute;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import cz.cvut.kbss.jopa.sessions.CacheManager;
+import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Second level cache decorator which maintains a reverse-reference index of cached instances of inferred classes.
+ * <p>
+ * The index allows to evict only those instances whose inferred attributes may be affected by changes of particular
+ * individuals (see {@link #evictInferredObjects(Collection)}), instead of evicting all instances of inferred classes.
+ * <p>
+ * The index is not notified of evictions performed by the underlying cache itself (e.g., due to capacity limits), so
+ * it may contain stale records. These are harmless (evicting an instance which is not cached does nothing) and are
+ * pruned periodically, once the index grows over a threshold.
+ */
+public class ReferenceTrackingCacheManager implements CacheManager {
+
+    private static final int INITIAL_PRUNE_THRESHOLD = 1024;
+
+    private final CacheManager delegate;
+    private final MetamodelImpl metamodel;
+
+    private final Map<Class<?>, List<FieldSpecification<?, ?>>> inferredReferenceAttributes =
+            new ConcurrentHashMap<>();
+
+    // Identifier -> cached instances of inferred classes with the identifier
+    private final ConcurrentMap<Object, Set<CachedInstance>> instances = new ConcurrentHashMap<>();
+    // Identifier -> cached instances of inferred classes referencing the identifier via inferred attributes
+    private final ConcurrentMap<Object, Set<CachedInstance>> referencingInstances = new ConcurrentHashMap<>();
+
+    private final AtomicInteger indexSize = new AtomicInteger();
+    private volatile int pruneThreshold = INITIAL_PRUNE_THRESHOLD;
+    private final Lock pruneLock = new ReentrantLock();
+
+    private volatile Set<Class<?>> inferredClasses = Collections.emptySet();
+
+    public ReferenceTrackingCacheManager(CacheManager delegate, MetamodelImpl metamodel) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.metamodel = Objects.requireNonNull(metamodel);
+    }
+
+    @Override
+    public void add(Object identifier, Object entity, Descriptor descriptor) {
+        delegate.add(identifier, entity, descriptor);
+        if (inferredClasses.contains(entity.getClass())) {
+            index(new CachedInstance(entity.getClass(), identifier, descriptor), entity);
+        }
+    }
+
+    private void index(CachedInstance instance, Object entity) {
+        int added = addToIndex(instances, instance.identifier, instance);
+        for (Object referenced : resolveInferredReferences(entity)) {
+            added += addToIndex(referencingInstances, referenced, instance);
+        }
+        if (indexSize.addAndGet(added) > pruneThreshold) {
+            prune();
+        }
+    }
+
+    private static int addToIndex(ConcurrentMap<Object, Set<CachedInstance>> index, Object key,
+                                  CachedInstance instance) {
+        return index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(instance) ? 1 : 0;
+    }
+
+    private Set<Object> resolveInferredReferences(Object entity) {
+        final List<FieldSpecification<?, ?>> attributes = inferredReferenceAttributes
+                .computeIfAbsent(entity.getClass(), this::resolveInferredReferenceAttributes);
+        if (attributes.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final Set<Object> references = new HashSet<>();
+        for (FieldSpecification<?, ?> att : attributes) {
+            final Object value = EntityPropertiesUtils.getAttributeValue(att, entity);
+            if (value instanceof Collection) {
+                ((Collection<?>) value).forEach(v -> addReference(v, references));
+            } else {
+                addReference(value, references);
+            }
+        }
+        return references;
+    }
+
+    private List<FieldSpecification<?, ?>> resolveInferredReferenceAttributes(Class<?> cls) {
+        return metamodel.entity(cls).getFieldSpecifications().stream()
+                        .filter(fs -> fs.isInferred() && fs instanceof Attribute &&
+                                ((Attribute<?, ?>) fs).getPersistentAttributeType() ==
+                                        Attribute.PersistentAttributeType.OBJECT)
+                        .collect(Collectors.toList());
+    }
+
+    private void addReference(Object value, Set<Object> references) {
+        if (value == null) {
+            return;
+        }
+        if (metamodel.isEntityType(value.getClass())) {
+            final URI identifier = EntityPropertiesUtils.getIdentifier(value, metamodel);
+            if (identifier != null) {
+                references.add(identifier);
+            }
+        } else if (value instanceof URI || value instanceof URL) {
+            references.add(EntityPropertiesUtils.getValueAsURI(value));
+        }
+    }
+
+    /**
+     * Removes records of instances which are no longer in the underlying cache from the index.
+     */
+    private void prune() {
+        if (!pruneLock.tryLock()) {
+            return;
+        }
+        try {
+            final int size = prune(instances) + prune(referencingInstances);
+            indexSize.set(size);
+            this.pruneThreshold = Math.max(INITIAL_PRUNE_THRESHOLD, 2 * size);
+        } finally {
+            pruneLock.unlock();
+        }
+    }
+
+    private int prune(ConcurrentMap<Object, Set<CachedInstance>> index) {
+        int size = 0;
+        for (Map.Entry<Object, Set<CachedInstance>> e : index.entrySet()) {
+            final Set<CachedInstance> records = e.getValue();
+            records.removeIf(ci -> !delegate.contains(ci.cls, ci.identifier, ci.descriptor));
+            if (records.isEmpty()) {
+                index.remove(e.getKey(), records);
+            } else {
+                size += records.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void evictInferredObjects(Collection<?> identifiers) {
+        Objects.requireNonNull(identifiers);
+        final Set<CachedInstance> affected = new HashSet<>();
+        for (Object identifier : identifiers) {
+            removeFromIndex(instances, identifier, affected);
+            removeFromIndex(referencingInstances, identifier, affected);
+        }
+        affected.forEach(ci -> delegate.evict(ci.cls, ci.identifier, ci.descriptor.getContext()));
+    }
+
+    private void removeFromIndex(ConcurrentMap<Object, Set<CachedInstance>> index, Object key,
+                                 Set<CachedInstance> removed) {
+        final Set<CachedInstance> records = index.remove(key);
+        if (records != null) {
+            indexSize.addAndGet(-records.size());
+            removed.addAll(records);
+        }
+    }
+
+    @Override
+    public <T> T get(Class<T> cls, Object identifier, Descriptor descriptor) {
+        return delegate.get(cls, identifier, descriptor);
+    }
+
+    @Override
+    public boolean contains(Class<?> cls, Object identifier, Descriptor descriptor) {
+        return delegate.contains(cls, identifier, descriptor);
+    }
+
+    @Override
+    public void evict(Class<?> cls, Object identifier, URI context) {
+        delegate.evict(cls, identifier, context);
+    }
+
+    @Override
+    public void evict(Class<?> cls) {
+        delegate.evict(cls);
+    }
+
+    @Override
+    public void evict(URI context) {
+        delegate.evict(context);
+    }
+
+    @Override
+    public void evictAll() {
+        delegate.evictAll();
+        instances.clear();
+        referencingInstances.clear();
+        indexSize.set(0);
+    }
+
+    @Override
+    public void evictInferredObjects() {
+        delegate.evictInferredObjects();
+    }
+
+    @Override
+    public void setInferredClasses(Set<Class<?>> inferredClasses) {
+        this.inferredClasses = inferredClasses != null ? inferredClasses : Collections.emptySet();
+        delegate.setInferredClasses(inferredClasses);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private static final class CachedInstance {
+        private final Class<?> cls;
+        private final Object identifier;
+        private final Descriptor descriptor;
+
+        private CachedInstance(Class<?> cls, Object identifier, Descriptor descriptor) {
+            this.cls = cls;
+            this.identifier = identifier;
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CachedInstance)) {
+                return false;
+            }
+            final CachedInstance that = (CachedInstance) o;
+            return cls.equals(that.cls) && identifier.equals(that.identifier) && descriptor.equals(that.descriptor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cls, identifier, descriptor);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.sessions.CacheManager;
+import cz.cvut.kbss.jopa.utils.ErrorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size second level cache implementation with approximate LRU eviction policy, which does not use any cache-wide
+ * locks.
+ * <p>
+ * The cache is striped by repository context, each context being represented by a concurrent map. Reads are
+ * non-blocking and only record the time of the last access to the entry. Writes do not block reads either.
+ * <p>
+ * When the capacity is exceeded, the writer which exceeded it tries to perform eviction of the least recently used
+ * entries. Eviction removes several entries at once so that its cost is amortized over multiple writes. Only one
+ * thread performs eviction at a time, other writers do not wait for it to finish, so the cache may temporarily hold
+ * slightly more entries than its capacity.
+ */
+public class StripedCacheManager implements CacheManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StripedCacheManager.class);
+
+    /**
+     * Eviction removes this fraction of the capacity in addition to the overflowing entries.
+     */
+    private static final int EVICTION_BATCH_DIVISOR = 10;
+
+    private final int capacity;
+    private final URI defaultContext;
+
+    private final ConcurrentMap<URI, ConcurrentMap<CacheKey, CacheEntry>> contexts = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Lock evictionLock = new ReentrantLock();
+
+    private volatile Set<Class<?>> inferredClasses;
+
+    StripedCacheManager() {
+        this(Collections.emptyMap());
+    }
+
+    StripedCacheManager(Map<String, String> properties) {
+        Objects.requireNonNull(properties);
+        this.capacity = LruCacheManager.resolveCapacitySetting(properties);
+        this.defaultContext = URI.create("http://defaultContext" + System.currentTimeMillis());
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void add(Object identifier, Object entity, Descriptor descriptor) {
+        Objects.requireNonNull(identifier, ErrorUtils.getNPXMessageSupplier("primaryKey"));
+        Objects.requireNonNull(entity, ErrorUtils.getNPXMessageSupplier("entity"));
+        Objects.requireNonNull(descriptor, ErrorUtils.getNPXMessageSupplier("descriptor"));
+
+        final ConcurrentMap<CacheKey, CacheEntry> ctxMap =
+                contexts.computeIfAbsent(resolveContext(descriptor.getContext()), k -> new ConcurrentHashMap<>());
+        if (ctxMap.put(new CacheKey(identifier, entity.getClass()), new CacheEntry(entity, descriptor)) == null &&
+                size.incrementAndGet() > capacity) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    private URI resolveContext(URI context) {
+        return context != null ? context : defaultContext;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        if (!evictionLock.tryLock()) {
+            // Another thread is already evicting
+            return;
+        }
+        try {
+            final List<EvictionCandidate> candidates = new ArrayList<>(capacity + capacity / EVICTION_BATCH_DIVISOR);
+            contexts.values().forEach(ctxMap -> ctxMap.forEach(
+                    (key, entry) -> candidates.add(new EvictionCandidate(ctxMap, key, entry))));
+            if (candidates.size() <= capacity) {
+                size.set(candidates.size());
+                return;
+            }
+            final int toEvict = Math.min(candidates.size(),
+                    candidates.size() - capacity + Math.max(capacity / EVICTION_BATCH_DIVISOR, 1));
+            candidates.sort(Comparator.comparingLong(c -> c.lastAccess));
+            int evicted = 0;
+            for (int i = 0; i < toEvict; i++) {
+                final EvictionCandidate c = candidates.get(i);
+                // Remove only if the entry has not been replaced in the meantime
+                if (c.ctxMap.remove(c.key, c.entry)) {
+                    evicted++;
+                }
+            }
+            // Recompute size to compensate for concurrent modifications
+            size.set(candidates.size() - evicted);
+            LOG.trace("Evicted {} least recently used entries from the second level cache.", evicted);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T get(Class<T> cls, Object identifier, Descriptor descriptor) {
+        if (cls == null || identifier == null || descriptor == null) {
+            return null;
+        }
+        final CacheEntry entry = getEntry(cls, identifier, descriptor);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastAccess = System.nanoTime();
+        return cls.cast(entry.entity);
+    }
+
+    private CacheEntry getEntry(Class<?> cls, Object identifier, Descriptor descriptor) {
+        final ConcurrentMap<CacheKey, CacheEntry> ctxMap = contexts.get(resolveContext(descriptor.getContext()));
+        if (ctxMap == null) {
+            return null;
+        }
+        final CacheEntry entry = ctxMap.get(new CacheKey(identifier, cls));
+        return entry != null && entry.descriptor.equals(descriptor) ? entry : null;
+    }
+
+    @Override
+    public boolean contains(Class<?> cls, Object identifier, Descriptor descriptor) {
+        if (cls == null || identifier == null || descriptor == null) {
+            return false;
+        }
+        return getEntry(cls, identifier, descriptor) != null;
+    }
+
+    @Override
+    public void evict(Class<?> cls, Object identifier, URI context) {
+        Objects.requireNonNull(cls, ErrorUtils.getNPXMessageSupplier("cls"));
+        Objects.requireNonNull(identifier, ErrorUtils.getNPXMessageSupplier("primaryKey"));
+
+        final ConcurrentMap<CacheKey, CacheEntry> ctxMap = contexts.get(resolveContext(context));
+        if (ctxMap != null && ctxMap.remove(new CacheKey(identifier, cls)) != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void evict(Class<?> cls) {
+        Objects.requireNonNull(cls);
+
+        contexts.values().forEach(ctxMap -> ctxMap.keySet().forEach(key -> {
+            if (key.cls.equals(cls) && ctxMap.remove(key) != null) {
+                size.decrementAndGet();
+            }
+        }));
+    }
+
+    @Override
+    public void evict(URI context) {
+        final ConcurrentMap<CacheKey, CacheEntry> ctxMap = contexts.remove(resolveContext(context));
+        if (ctxMap != null) {
+            size.addAndGet(-ctxMap.size());
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        contexts.clear();
+        size.set(0);
+    }
+
+    @Override
+    public void evictInferredObjects() {
+        getInferredClasses().forEach(this::evict);
+    }
+
+    private Set<Class<?>> getInferredClasses() {
+        final Set<Class<?>> classes = inferredClasses;
+        return classes != null ? classes : Collections.emptySet();
+    }
+
+    @Override
+    public void setInferredClasses(Set<Class<?>> inferredClasses) {
+        this.inferredClasses = inferredClasses;
+    }
+
+    @Override
+    public void close() {
+        // No-op
+    }
+
+    private static final class CacheKey {
+        private final Object identifier;
+        private final Class<?> cls;
+        private final int hash;
+
+        private CacheKey(Object identifier, Class<?> cls) {
+            this.identifier = identifier;
+            this.cls = cls;
+            this.hash = 31 * identifier.hashCode() + cls.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey other = (CacheKey) o;
+            return identifier.equals(other.identifier) && cls.equals(other.cls);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class CacheEntry {
+        private final Object entity;
+        private final Descriptor descriptor;
+        // Updated without synchronization, the recorded time is used only for approximate LRU ordering
+        private long lastAccess;
+
+        private CacheEntry(Object entity, Descriptor descriptor) {
+            this.entity = entity;
+            this.descriptor = descriptor;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+
+    private static final class EvictionCandidate {
+        private final ConcurrentMap<CacheKey, CacheEntry> ctxMap;
+        private final CacheKey key;
+        private final CacheEntry entry;
+        // Snapshot of the access time, so that concurrent reads do not affect ordering during sorting
+        private final long lastAccess;
+
+        private EvictionCandidate(ConcurrentMap<CacheKey, CacheEntry> ctxMap, CacheKey key, CacheEntry entry) {
+            this.ctxMap = ctxMap;
+            this.key = key;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+    }
+}
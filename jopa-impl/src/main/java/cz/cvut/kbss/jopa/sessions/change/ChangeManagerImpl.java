@@ -19,10 +19,10 @@ import cz.cvut.kbss.jopa.sessions.ChangeManager;
 import cz.cvut.kbss.jopa.sessions.MetamodelProvider;
 import cz.cvut.kbss.jopa.sessions.ObjectChangeSet;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -70,9 +70,9 @@ public class ChangeManagerImpl implements ChangeManager {
         }
         final Class<?> cls = clone.getClass();
         for (FieldSpecification<?, ?> fs : getFields(cls)) {
-            final Field f = fs.getJavaField();
-            final Object clVal = EntityPropertiesUtils.getFieldValue(f, clone);
-            final Object origVal = EntityPropertiesUtils.getFieldValue(f, original);
+            final FieldAccessor accessor = EntityPropertiesUtils.getFieldAccessor(fs);
+            final Object clVal = accessor.getValue(clone);
+            final Object origVal = accessor.getValue(original);
             final boolean valueChanged = valueChanged(origVal, clVal);
             if (valueChanged) {
                 return true;
@@ -107,9 +107,9 @@ public class ChangeManagerImpl implements ChangeManager {
         Object clone = changeSet.getCloneObject();
         boolean changes = false;
         for (FieldSpecification<?, ?> fs : getFields(clone.getClass())) {
-            final Field f = fs.getJavaField();
-            Object clVal = EntityPropertiesUtils.getFieldValue(f, clone);
-            Object origVal = EntityPropertiesUtils.getFieldValue(f, original);
+            final FieldAccessor accessor = EntityPropertiesUtils.getFieldAccessor(fs);
+            Object clVal = accessor.getValue(clone);
+            Object origVal = accessor.getValue(original);
             if (clVal == null && origVal == null) {
                 continue;
             }
@@ -19,9 +19,7 @@ import cz.cvut.kbss.jopa.model.annotations.FetchType;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
 
 /**
  * Describes an instance managed by a persistence context.
@@ -32,6 +30,8 @@ public class InstanceDescriptor<T> {
 
     private final Map<FieldSpecification<? super T, ?>, LoadState> loadState;
 
+    private Set<FieldSpecification<? super T, ?>> dirtyAttributes;
+
     InstanceDescriptor(T instance, EntityType<T> et) {
         this.instance = Objects.requireNonNull(instance);
         this.loadState = mapInstanceAttributes(et);
@@ -82,6 +82,38 @@ public class InstanceDescriptor<T> {
         loadState.put(fs, state);
     }
 
+    /**
+     * Marks the specified attribute as changed, but not yet written into the storage.
+     *
+     * @param fs The changed attribute
+     */
+    public void setDirty(FieldSpecification<? super T, ?> fs) {
+        Objects.requireNonNull(fs);
+        assert fs.getDeclaringType().getJavaType().isAssignableFrom(instance.getClass());
+
+        if (dirtyAttributes == null) {
+            this.dirtyAttributes = new LinkedHashSet<>();
+        }
+        dirtyAttributes.add(fs);
+    }
+
+    /**
+     * Gets attributes marked as changed, but not yet written into the storage.
+     *
+     * @return Unmodifiable set of dirty attributes, possibly empty
+     * @see #setDirty(FieldSpecification)
+     */
+    public Set<FieldSpecification<? super T, ?>> getDirtyAttributes() {
+        return dirtyAttributes != null ? Collections.unmodifiableSet(dirtyAttributes) : Collections.emptySet();
+    }
+
+    /**
+     * Unmarks all dirty attributes, typically after their values have been written into the storage.
+     */
+    public void clearDirtyAttributes() {
+        this.dirtyAttributes = null;
+    }
+
     @Override
     public String toString() {
         return "InstanceDescriptor{" +
@@ -40,7 +40,7 @@ class CollectionValueMerger implements ValueMerger {
                            Descriptor attributeDescriptor) {
         final Collection<?> mergedCol = (Collection<?>) mergedValue;
         if (mergedCol == null) {
-            EntityPropertiesUtils.setFieldValue(att.getJavaField(), target, null);
+            EntityPropertiesUtils.setAttributeValue(att, target, null);
             return;
         }
 
@@ -54,7 +54,7 @@ class CollectionValueMerger implements ValueMerger {
             newValue.add(elemTypeManaged ? managedTypeMerger.getValueToSet(item, attributeDescriptor) : item);
         }
         extendModuleExtractionSignature(att, newValue);
-        EntityPropertiesUtils.setFieldValue(att.getJavaField(), target, newValue);
+        EntityPropertiesUtils.setAttributeValue(att, target, newValue);
     }
 
     private void extendModuleExtractionSignature(FieldSpecification<?, ?> att, Collection<?> value) {
@@ -71,7 +71,7 @@ class CardinalityConstraintsValidator extends IntegrityConstraintsValidator {
         }
     }
 
-    private static int extractValueCount(Object value) {
+    static int extractValueCount(Object value) {
         if (value == null) {
             return 0;
         }
@@ -80,24 +80,36 @@ class CardinalityConstraintsValidator extends IntegrityConstraintsValidator {
 
     private static void validateParticipationConstraint(Object id, Field field, int valueCount, ParticipationConstraint pc) {
         if (valueCount < pc.min()) {
-            throw new CardinalityConstraintViolatedException("At least " + pc.min() +
-                    " values of attribute " + field.getDeclaringClass().getSimpleName() + "." + field.getName() +
-                    " expected in instance " + id + ", but got only " + valueCount);
+            throw minCardinalityError(id, field.getDeclaringClass().getSimpleName(), field.getName(), pc.min(),
+                    valueCount);
         }
         if (pc.max() >= 0 && pc.max() < valueCount) {
-            throw new CardinalityConstraintViolatedException("At most " + pc.max() +
-                    " values of attribute " + field.getDeclaringClass().getSimpleName() + "." + field.getName() +
-                    " expected in instance " + id + ", but got " + valueCount);
+            throw maxCardinalityError(id, field.getDeclaringClass().getSimpleName(), field.getName(), pc.max(),
+                    valueCount);
         }
     }
 
-    private  static void validateNonEmpty(Object id, Field field, int valueCount, ParticipationConstraints constraints) {
+    static CardinalityConstraintViolatedException minCardinalityError(Object id, String className, String fieldName,
+                                                                      int min, int valueCount) {
+        return new CardinalityConstraintViolatedException("At least " + min +
+                " values of attribute " + className + "." + fieldName +
+                " expected in instance " + id + ", but got only " + valueCount);
+    }
+
+    static CardinalityConstraintViolatedException maxCardinalityError(Object id, String className, String fieldName,
+                                                                      int max, int valueCount) {
+        return new CardinalityConstraintViolatedException("At most " + max +
+                " values of attribute " + className + "." + fieldName +
+                " expected in instance " + id + ", but got " + valueCount);
+    }
+
+    private static void validateNonEmpty(Object id, Field field, int valueCount, ParticipationConstraints constraints) {
         if (valueCount == 0 && constraints.nonEmpty()) {
             throw nonEmptyError(id, field.getDeclaringClass().getSimpleName(), field.getName());
         }
     }
 
-    private static CardinalityConstraintViolatedException nonEmptyError(Object id, String className, String fieldName) {
+    static CardinalityConstraintViolatedException nonEmptyError(Object id, String className, String fieldName) {
         return new CardinalityConstraintViolatedException(
                 "Attribute " + className + "." + fieldName + " of instance " + id +
                         " was marked as nonEmpty, but contains no value.");
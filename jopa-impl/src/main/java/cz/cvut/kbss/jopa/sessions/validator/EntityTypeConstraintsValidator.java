@@ -0,0 +1,227 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.validator;
+
+import cz.cvut.kbss.jopa.model.annotations.FetchType;
+import cz.cvut.kbss.jopa.model.annotations.ParticipationConstraint;
+import cz.cvut.kbss.jopa.model.metamodel.Attribute;
+import cz.cvut.kbss.jopa.model.metamodel.EntityType;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import cz.cvut.kbss.jopa.sessions.ChangeRecord;
+import cz.cvut.kbss.jopa.sessions.ObjectChangeSet;
+import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.utils.ErrorUtils;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Integrity constraints validator compiled for a single entity type.
+ * <p>
+ * The validator keeps only attributes which actually declare cardinality constraints, with their bounds and field
+ * accessors resolved, so that validating an instance does not have to go over all the attributes of the entity type
+ * and re-read their constraint annotations. Identifier of the validated instance is extracted only
+ * when a violation is to be reported.
+ * <p>
+ * Validators are immutable and thus can be shared by all persistence contexts.
+ *
+ * @param <X> Entity class type
+ * @see CardinalityConstraintsValidator
+ */
+public final class EntityTypeConstraintsValidator<X> {
+
+    private final EntityType<X> et;
+
+    private final ConstrainedAttribute[] attributes;
+    private final Map<FieldSpecification<?, ?>, ConstrainedAttribute> attributeMap;
+
+    private EntityTypeConstraintsValidator(EntityType<X> et, List<ConstrainedAttribute> attributes) {
+        this.et = et;
+        this.attributes = attributes.toArray(new ConstrainedAttribute[0]);
+        if (attributes.isEmpty()) {
+            this.attributeMap = Collections.emptyMap();
+        } else {
+            this.attributeMap = new HashMap<>(attributes.size());
+            attributes.forEach(ca -> attributeMap.put(ca.attribute, ca));
+        }
+    }
+
+    /**
+     * Compiles integrity constraints validator for the specified entity type.
+     *
+     * @param et  Entity type whose attributes' constraints should be validated
+     * @param <X> Entity class type
+     * @return Compiled validator
+     */
+    public static <X> EntityTypeConstraintsValidator<X> compile(EntityType<X> et) {
+        Objects.requireNonNull(et, ErrorUtils.getNPXMessageSupplier("et"));
+        final List<ConstrainedAttribute> constrained = new ArrayList<>();
+        for (Attribute<? super X, ?> att : et.getAttributes()) {
+            final ConstrainedAttribute ca = compileAttribute(att);
+            if (ca != null) {
+                constrained.add(ca);
+            }
+        }
+        return new EntityTypeConstraintsValidator<>(et, constrained);
+    }
+
+    private static ConstrainedAttribute compileAttribute(Attribute<?, ?> attribute) {
+        final ParticipationConstraint[] constraints = attribute.getConstraints();
+        if (constraints.length == 0) {
+            return attribute.isNonEmpty() ? new ConstrainedAttribute(attribute, new int[0], new int[0], true) : null;
+        }
+        // Keep declaration order, so that violations are reported the same way as by CardinalityConstraintsValidator
+        final List<ParticipationConstraint> effective = new ArrayList<>(constraints.length);
+        for (ParticipationConstraint pc : constraints) {
+            // Constraints without bounds cannot be violated
+            if (pc.min() > 0 || pc.max() >= 0) {
+                effective.add(pc);
+            }
+        }
+        if (effective.isEmpty()) {
+            return null;
+        }
+        final int[] min = new int[effective.size()];
+        final int[] max = new int[effective.size()];
+        for (int i = 0; i < min.length; i++) {
+            min[i] = effective.get(i).min();
+            max[i] = effective.get(i).max();
+        }
+        return new ConstrainedAttribute(attribute, min, max, false);
+    }
+
+    /**
+     * Whether the entity type has any attributes with integrity constraints.
+     *
+     * @return {@code true} if there is anything to validate, {@code false} otherwise
+     */
+    public boolean hasConstraints() {
+        return attributes.length > 0;
+    }
+
+    /**
+     * Validates integrity constraints of all constrained attributes of the specified instance.
+     *
+     * @param instance The instance to validate
+     * @param skipLazy Whether to skip validation of lazily loaded attributes
+     */
+    public void validate(X instance, boolean skipLazy) {
+        Objects.requireNonNull(instance, ErrorUtils.getNPXMessageSupplier("instance"));
+        for (ConstrainedAttribute ca : attributes) {
+            if (skipLazy && ca.lazy) {
+                continue;
+            }
+            ca.validate(instance, ca.accessor.getValue(instance), et);
+        }
+    }
+
+    /**
+     * Validates integrity constraints of the specified attribute of the specified instance.
+     * <p>
+     * Nothing is done if the attribute has no integrity constraints.
+     *
+     * @param instance  Instance containing the attribute value
+     * @param attribute The attribute to validate
+     */
+    public void validate(X instance, FieldSpecification<? super X, ?> attribute) {
+        Objects.requireNonNull(instance, ErrorUtils.getNPXMessageSupplier("instance"));
+        final ConstrainedAttribute ca = attributeMap.get(attribute);
+        if (ca != null) {
+            ca.validate(instance, ca.accessor.getValue(instance), et);
+        }
+    }
+
+    /**
+     * Validates integrity constraints of attributes changed in the specified change set.
+     * <p>
+     * Attributes not present in the change set are not validated.
+     *
+     * @param changeSet The change set to validate
+     */
+    public void validate(ObjectChangeSet changeSet) {
+        Objects.requireNonNull(changeSet, ErrorUtils.getNPXMessageSupplier("changeSet"));
+        if (!hasConstraints()) {
+            return;
+        }
+        for (ChangeRecord change : changeSet.getChanges()) {
+            final ConstrainedAttribute ca = attributeMap.get(change.getAttribute());
+            if (ca != null) {
+                ca.validate(changeSet.getCloneObject(), change.getNewValue(), et);
+            }
+        }
+    }
+
+    /**
+     * Attribute with bounds of its cardinality constraints, in declaration order.
+     */
+    private static final class ConstrainedAttribute {
+
+        private final FieldSpecification<?, ?> attribute;
+        private final FieldAccessor accessor;
+        private final boolean lazy;
+        // Bounds of constraints declared via ParticipationConstraint, max < 0 means no upper bound
+        private final int[] min;
+        private final int[] max;
+        // nonEmpty applies only when no participation constraints are declared
+        private final boolean nonEmpty;
+        private final String className;
+        private final String fieldName;
+
+        private ConstrainedAttribute(Attribute<?, ?> attribute, int[] min, int[] max, boolean nonEmpty) {
+            this.attribute = attribute;
+            this.accessor = EntityPropertiesUtils.getFieldAccessor(attribute);
+            this.lazy = attribute.getFetchType() == FetchType.LAZY;
+            this.min = min;
+            this.max = max;
+            this.nonEmpty = nonEmpty;
+            if (nonEmpty) {
+                this.className = attribute.getDeclaringType().getJavaType().getSimpleName();
+                this.fieldName = attribute.getName();
+            } else {
+                this.className = attribute.getJavaField().getDeclaringClass().getSimpleName();
+                this.fieldName = attribute.getJavaField().getName();
+            }
+        }
+
+        private void validate(Object instance, Object value, EntityType<?> et) {
+            final int valueCount = CardinalityConstraintsValidator.extractValueCount(value);
+            if (nonEmpty) {
+                if (valueCount == 0) {
+                    throw CardinalityConstraintsValidator.nonEmptyError(identifier(instance, et), className, fieldName);
+                }
+                return;
+            }
+            for (int i = 0; i < min.length; i++) {
+                if (valueCount < min[i]) {
+                    throw CardinalityConstraintsValidator
+                            .minCardinalityError(identifier(instance, et), className, fieldName, min[i], valueCount);
+                }
+                if (max[i] >= 0 && max[i] < valueCount) {
+                    throw CardinalityConstraintsValidator
+                            .maxCardinalityError(identifier(instance, et), className, fieldName, max[i], valueCount);
+                }
+            }
+        }
+
+        private static Object identifier(Object instance, EntityType<?> et) {
+            return EntityPropertiesUtils.getIdentifier(instance, et);
+        }
+    }
+}
@@ -17,6 +17,7 @@ package cz.cvut.kbss.jopa.sessions.validator;
 import cz.cvut.kbss.jopa.model.annotations.FetchType;
 import cz.cvut.kbss.jopa.model.metamodel.Attribute;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
+import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
 import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
 import cz.cvut.kbss.jopa.sessions.ChangeRecord;
@@ -53,6 +54,11 @@ public abstract class IntegrityConstraintsValidator {
         Objects.requireNonNull(instance, ErrorUtils.getNPXMessageSupplier("instance"));
         Objects.requireNonNull(et, ErrorUtils.getNPXMessageSupplier("et"));
 
+        final EntityTypeConstraintsValidator<T> compiled = compiledValidator(et);
+        if (compiled != null) {
+            compiled.validate(instance, skipLazy);
+            return;
+        }
         final Object id = EntityPropertiesUtils.getIdentifier(instance, et);
         for (Attribute<? super T, ?> att : et.getAttributes()) {
             if (skipLazy && att.getFetchType() == FetchType.LAZY) {
@@ -74,12 +80,51 @@ public abstract class IntegrityConstraintsValidator {
         Objects.requireNonNull(metamodel, ErrorUtils.getNPXMessageSupplier("metamodel"));
 
         final EntityType<?> et = metamodel.entity(changeSet.getObjectClass());
+        final EntityTypeConstraintsValidator<?> compiled = compiledValidator(et);
+        if (compiled != null) {
+            compiled.validate(changeSet);
+            return;
+        }
         final Object id = EntityPropertiesUtils.getIdentifier(changeSet.getCloneObject(), et);
         for (ChangeRecord change : changeSet.getChanges()) {
             validate(id, change.getAttribute(), change.getNewValue());
         }
     }
 
+    /**
+     * Validates integrity constraints of the specified attribute of the specified instance.
+     *
+     * @param instance  Instance containing the attribute value
+     * @param attribute The attribute to validate
+     * @param et        EntityType of the instance
+     * @param <T>       Entity class type
+     */
+    public <T> void validate(T instance, FieldSpecification<? super T, ?> attribute, EntityType<T> et) {
+        Objects.requireNonNull(instance, ErrorUtils.getNPXMessageSupplier("instance"));
+        Objects.requireNonNull(et, ErrorUtils.getNPXMessageSupplier("et"));
+
+        final EntityTypeConstraintsValidator<T> compiled = compiledValidator(et);
+        if (compiled != null) {
+            compiled.validate(instance, attribute);
+            return;
+        }
+        final Object id = EntityPropertiesUtils.getIdentifier(instance, et);
+        validate(id, attribute, EntityPropertiesUtils.getAttributeValue(attribute, instance));
+    }
+
+    /**
+     * Gets validator compiled for the specified entity type when the metamodel was built.
+     * <p>
+     * Compiled validators check the same cardinality constraints as {@link CardinalityConstraintsValidator}, but only
+     * on attributes which declare them.
+     *
+     * @param et Entity type
+     * @return Compiled validator or {@code null} if there is none for the entity type
+     */
+    private static <T> EntityTypeConstraintsValidator<T> compiledValidator(EntityType<T> et) {
+        return et instanceof EntityTypeImpl ? ((EntityTypeImpl<T>) et).getConstraintsValidator() : null;
+    }
+
     /**
      * Validates whether the specified value conforms to the attribute integrity constraints.
      *
@@ -17,6 +17,7 @@ package cz.cvut.kbss.jopa.utils;
 import cz.cvut.kbss.jopa.exception.IdentifierNotSetException;
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
 import cz.cvut.kbss.jopa.model.annotations.Transient;
+import cz.cvut.kbss.jopa.model.metamodel.AccessibleFieldSpecification;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 import cz.cvut.kbss.jopa.model.metamodel.Identifier;
@@ -69,14 +70,7 @@ public class EntityPropertiesUtils {
      */
     public static void setFieldValue(Field field, Object instance, Object value) {
         Objects.requireNonNull(field);
-        if (!field.isAccessible()) {
-            field.setAccessible(true);
-        }
-        try {
-            field.set(instance, value);
-        } catch (IllegalAccessException e) {
-            throw new OWLPersistenceException("Unable to set field value.", e);
-        }
+        FieldAccessor.of(field).setValue(instance, value);
     }
 
     /**
@@ -88,14 +82,26 @@ public class EntityPropertiesUtils {
      */
     public static Object getFieldValue(Field field, Object instance) {
         Objects.requireNonNull(field);
-        if (!field.isAccessible()) {
-            field.setAccessible(true);
-        }
-        try {
-            return field.get(instance);
-        } catch (IllegalAccessException e) {
-            throw new OWLPersistenceException("Unable to extract field value.", e);
+        return FieldAccessor.of(field).getValue(instance);
+    }
+
+    /**
+     * Gets accessor of the Java field represented by the specified attribute.
+     * <p>
+     * The accessor resolved when the metamodel was built is used if available, so that no lookup is necessary.
+     *
+     * @param attribute Attribute whose field accessor to get
+     * @return Field accessor
+     */
+    public static FieldAccessor getFieldAccessor(FieldSpecification<?, ?> attribute) {
+        Objects.requireNonNull(attribute);
+        if (attribute instanceof AccessibleFieldSpecification) {
+            final FieldAccessor accessor = ((AccessibleFieldSpecification<?, ?>) attribute).getFieldAccessor();
+            if (accessor != null) {
+                return accessor;
+            }
         }
+        return FieldAccessor.of(attribute.getJavaField());
     }
 
     /**
@@ -106,9 +112,18 @@ public class EntityPropertiesUtils {
      * @return Attribute value
      */
     public static Object getAttributeValue(FieldSpecification<?, ?> attribute, Object instance) {
-        Objects.requireNonNull(attribute);
-        final Field field = attribute.getJavaField();
-        return getFieldValue(field, instance);
+        return getFieldAccessor(attribute).getValue(instance);
+    }
+
+    /**
+     * Sets value of the specified attribute.
+     *
+     * @param attribute Attribute to set value of
+     * @param instance  Target instance
+     * @param value     The value to set (may be {@code null})
+     */
+    public static void setAttributeValue(FieldSpecification<?, ?> attribute, Object instance, Object value) {
+        getFieldAccessor(attribute).setValue(instance, value);
     }
 
     /**
@@ -120,7 +135,7 @@ public class EntityPropertiesUtils {
      */
     public static <T> URI getIdentifier(T entity, EntityType<?> et) {
         try {
-            final Object id = getFieldValue(et.getIdentifier().getJavaField(), entity);
+            final Object id = getAttributeValue(et.getIdentifier(), entity);
             if (id == null) {
                 return null;
             }
@@ -142,7 +157,7 @@ public class EntityPropertiesUtils {
         final Field idField = id.getJavaField();
         try {
             final Object assignableId = IdentifierTransformer.transformToIdentifier(identifier, idField.getType());
-            setFieldValue(idField, entity, assignableId);
+            setAttributeValue(id, entity, assignableId);
         } catch (IllegalArgumentException e) {
             throw new UnassignableIdentifierException(e);
         }
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.utils;
+
+import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Provides read and write access to a field using method handles resolved once per field.
+ * <p>
+ * Unlike {@link Field#get(Object)} and {@link Field#set(Object, Object)}, the method handles perform no access checks
+ * on invocation. Note that the handles are held in instance fields, so the JIT compiler cannot treat them as
+ * constants and inline the access the way it would for a handle stored in a {@code static final} field. A single
+ * access therefore costs about as much as reflective access to an accessible field (see {@code FieldAccessBenchmark}
+ * in jopa-benchmarks) and values of primitive fields are boxed. What is saved is the resolution of the accessor, which
+ * is why hot paths should obtain accessors via {@link EntityPropertiesUtils#getFieldAccessor} and reuse them instead
+ * of calling {@link #of(Field)}, which costs a cache lookup, on each access.
+ * <p>
+ * Accessors of metamodel attributes are resolved once, when the metamodel is built, and are available via {@link
+ * cz.cvut.kbss.jopa.model.metamodel.AccessibleFieldSpecification#getFieldAccessor()}. Accessors of other fields are
+ * cached per declaring class using a {@link ClassValue}. The cached accessors reference their fields and thus the
+ * declaring classes, so they keep the classes reachable for as long as the cache holds them.
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String, FieldAccessor>> ACCESSORS =
+            new ClassValue<ConcurrentMap<String, FieldAccessor>>() {
+                @Override
+                protected ConcurrentMap<String, FieldAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final Field field;
+    private final MethodHandle getter;
+    // Null if the field cannot be written using a method handle (e.g., it is final)
+    private final MethodHandle setter;
+
+    private FieldAccessor(Field field) {
+        this.field = field;
+        if (!field.isAccessible()) {
+            field.setAccessible(true);
+        }
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final boolean isStatic = Modifier.isStatic(field.getModifiers());
+        try {
+            final MethodHandle get = lookup.unreflectGetter(field);
+            this.getter = (isStatic ? MethodHandles.dropArguments(get, 0, Object.class) : get).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new OWLPersistenceException("Unable to access field " + field, e);
+        }
+        this.setter = resolveSetter(lookup, field, isStatic);
+    }
+
+    private static MethodHandle resolveSetter(MethodHandles.Lookup lookup, Field field, boolean isStatic) {
+        try {
+            final MethodHandle set = lookup.unreflectSetter(field);
+            return (isStatic ? MethodHandles.dropArguments(set, 0, Object.class) : set).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets accessor for the specified field.
+     * <p>
+     * The accessor is looked up in a cache, so callers accessing the field repeatedly should keep the returned
+     * accessor instead of calling this method on each access.
+     *
+     * @param field The field to access
+     * @return Field accessor
+     */
+    public static FieldAccessor of(Field field) {
+        return ACCESSORS.get(field.getDeclaringClass()).computeIfAbsent(field.getName(), n -> new FieldAccessor(field));
+    }
+
+    /**
+     * Gets the field accessed by this accessor.
+     *
+     * @return Accessed field
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Gets value of the field from the specified instance.
+     *
+     * @param instance Instance that contains the field (may be {@code null} for static fields)
+     * @return Field value
+     * @throws IllegalArgumentException If the instance does not declare the field
+     */
+    public Object getValue(Object instance) {
+        try {
+            return getter.invokeExact(instance);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Instance " + instance + " does not declare field " + field, e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new OWLPersistenceException("Unable to extract field value.", e);
+        }
+    }
+
+    /**
+     * Sets value of the field on the specified instance.
+     *
+     * @param instance Target instance (may be {@code null} for static fields)
+     * @param value    The value to set (may be {@code null})
+     * @throws IllegalArgumentException If the instance does not declare the field or the value cannot be assigned to
+     *                                  it
+     */
+    public void setValue(Object instance, Object value) {
+        if (setter == null) {
+            setValueReflectively(instance, value);
+            return;
+        }
+        if (value == null && field.getType().isPrimitive()) {
+            throw new IllegalArgumentException("Cannot assign null to primitive field " + field);
+        }
+        try {
+            setter.invokeExact(instance, value);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Unable to set value " + value + " of field " + field, e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new OWLPersistenceException("Unable to set field value.", e);
+        }
+    }
+
+    private void setValueReflectively(Object instance, Object value) {
+        try {
+            field.set(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new OWLPersistenceException("Unable to set field value.", e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.loaders;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassC;
+import cz.cvut.kbss.jopa.utils.PersistenceClassIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClasspathScannerTest {
+
+    private static final String PACKAGE = "cz.cvut.kbss.jopa.environment";
+
+    @Test
+    void processClassesUsesIndexOfDirectoryRootAndScansOtherRoots(@TempDir Path root) throws Exception {
+        final Path packageDir = root.resolve(PACKAGE.replace('.', '/'));
+        Files.createDirectories(packageDir);
+        Files.write(packageDir.resolve("Unlisted.class"), "Not a class".getBytes(StandardCharsets.UTF_8));
+        final Path index = root.resolve(PersistenceClassIndex.LOCATION);
+        Files.createDirectories(index.getParent());
+        try (final OutputStream out = Files.newOutputStream(index)) {
+            writeIndex(out);
+        }
+
+        final Set<Class<?>> result = processClasses(root.toUri().toURL(), false);
+        verifyMixedClasspathResult(result);
+    }
+
+    @Test
+    void processClassesInIndexOnlyModeDoesNotScanRootsWithoutIndex(@TempDir Path root) throws Exception {
+        final Path index = root.resolve(PersistenceClassIndex.LOCATION);
+        Files.createDirectories(index.getParent());
+        try (final OutputStream out = Files.newOutputStream(index)) {
+            writeIndex(out);
+        }
+
+        final Set<Class<?>> result = processClasses(root.toUri().toURL(), true);
+        assertTrue(result.contains(OWLClassA.class));
+        assertFalse(result.contains(OWLClassC.class));
+    }
+
+    private static void writeIndex(OutputStream out) throws IOException {
+        PersistenceClassIndex.write(Collections.singletonList(OWLClassA.class.getName()), out);
+    }
+
+    /**
+     * Processes classes with the specified classpath root added to the context class loader.
+     * <p>
+     * The root contains an invalid class file which is not listed in its index, so scanning the root would fail.
+     */
+    private static Set<Class<?>> processClasses(URL root, boolean indexOnly) throws IOException {
+        final ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (final URLClassLoader loader = new URLClassLoader(new URL[]{root}, original)) {
+            Thread.currentThread().setContextClassLoader(loader);
+            final ClasspathScanner sut = new ClasspathScanner();
+            final Set<Class<?>> result = new HashSet<>();
+            sut.addListener(result::add);
+            sut.processClasses(PACKAGE, indexOnly);
+            return result;
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    private static void verifyMixedClasspathResult(Set<Class<?>> result) {
+        // Listed in the index
+        assertTrue(result.contains(OWLClassA.class));
+        // Present only in the unindexed test classes root
+        assertTrue(result.contains(OWLClassC.class));
+    }
+
+    @Test
+    void processClassesUsesIndexOfJarRootAndScansOtherRoots(@TempDir Path dir) throws Exception {
+        final Path jar = dir.resolve("indexed.jar");
+        try (final JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            final String packagePath = PACKAGE.replace('.', '/') + '/';
+            final StringBuilder parent = new StringBuilder();
+            for (String segment : packagePath.split("/")) {
+                parent.append(segment).append('/');
+                out.putNextEntry(new JarEntry(parent.toString()));
+                out.closeEntry();
+            }
+            out.putNextEntry(new JarEntry(packagePath + "Unlisted.class"));
+            out.write("Not a class".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            out.putNextEntry(new JarEntry(PersistenceClassIndex.LOCATION));
+            writeIndex(out);
+            out.closeEntry();
+        }
+
+        final Set<Class<?>> result = processClasses(jar.toUri().toURL(), false);
+        verifyMixedClasspathResult(result);
+    }
+}
@@ -16,8 +16,15 @@ import cz.cvut.kbss.jopa.environment.*;
 import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.annotations.SparqlResultSetMapping;
 import cz.cvut.kbss.jopa.utils.Configuration;
+import cz.cvut.kbss.jopa.utils.PersistenceClassIndex;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -112,4 +119,32 @@ public class PersistenceUnitClassFinderTest {
         assertTrue(finder.getResultSetMappings()
                          .contains(OWLClassA.class.getDeclaredAnnotation(SparqlResultSetMapping.class)));
     }
+
+    @Test
+    public void scanUsesClassIndexForClasspathRootContainingItAndScansOtherRoots(@TempDir Path indexRoot)
+            throws Exception {
+        // Not a valid class, scanning the indexed root would fail
+        final Path unlisted = indexRoot.resolve("cz/cvut/kbss/jopa/environment/Unlisted.class");
+        Files.createDirectories(unlisted.getParent());
+        Files.write(unlisted, new byte[]{0});
+        final Path index = indexRoot.resolve(PersistenceClassIndex.LOCATION);
+        Files.createDirectories(index.getParent());
+        try (final OutputStream out = Files.newOutputStream(index)) {
+            PersistenceClassIndex.write(Arrays.asList(OWLClassA.class.getName(), OWLClassB.class.getName(),
+                    "cz.cvut.kbss.jopa.model.JOPAPersistenceProperties"), out);
+        }
+        final ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try {
+            Thread.currentThread().setContextClassLoader(
+                    new URLClassLoader(new URL[]{indexRoot.toUri().toURL()}, original));
+            final PersistenceUnitClassFinder sut = new PersistenceUnitClassFinder();
+            sut.scanClasspath(new Configuration(
+                    Collections.singletonMap(JOPAPersistenceProperties.SCAN_PACKAGE, "cz.cvut.kbss.jopa.environment")));
+            assertEquals(ENTITY_CLASSES, sut.getEntities());
+            assertTrue(sut.getResultSetMappings()
+                          .contains(OWLClassA.class.getDeclaredAnnotation(SparqlResultSetMapping.class)));
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
 }
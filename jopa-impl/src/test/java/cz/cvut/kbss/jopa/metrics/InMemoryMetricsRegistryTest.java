@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryMetricsRegistryTest {
+
+    private final InMemoryMetricsRegistry sut = new InMemoryMetricsRegistry();
+
+    @Test
+    void counterReturnsSameCounterForSameName() {
+        sut.counter("test").increment();
+        sut.counter("test").increment(2);
+        assertEquals(3, sut.snapshot().getCount("test"));
+    }
+
+    @Test
+    void snapshotReturnsZeroForUnknownCounter() {
+        assertEquals(0, sut.snapshot().getCount("unknown"));
+    }
+
+    @Test
+    void timerRecordsCountSumMinAndMax() {
+        final Timer timer = sut.timer("test");
+        timer.record(10);
+        timer.record(30);
+        timer.record(20);
+        final MetricsSnapshot.Distribution result = sut.snapshot().getTimer("test");
+        assertEquals(3, result.getCount());
+        assertEquals(60, result.getSum());
+        assertEquals(10, result.getMin());
+        assertEquals(30, result.getMax());
+        assertEquals(20.0, result.getMean());
+    }
+
+    @Test
+    void timerStopRecordsElapsedTimeSinceStart() {
+        final Timer timer = sut.timer("test");
+        final long start = timer.start();
+        timer.stop(start);
+        final MetricsSnapshot.Distribution result = sut.snapshot().getTimer("test");
+        assertEquals(1, result.getCount());
+        assertTrue(result.getSum() >= 0);
+    }
+
+    @Test
+    void histogramRecordsValues() {
+        sut.histogram("test").record(5);
+        sut.histogram("test").record(7);
+        final MetricsSnapshot.Distribution result = sut.snapshot().getHistogram("test");
+        assertEquals(2, result.getCount());
+        assertEquals(5, result.getMin());
+        assertEquals(7, result.getMax());
+    }
+
+    @Test
+    void snapshotIsNotAffectedBySubsequentRecording() {
+        sut.counter("test").increment();
+        final MetricsSnapshot snapshot = sut.snapshot();
+        sut.counter("test").increment();
+        assertEquals(1, snapshot.getCount("test"));
+        assertEquals(2, sut.snapshot().getCount("test"));
+    }
+
+    @Test
+    void resetClearsRecordedMetrics() {
+        sut.counter("test").increment();
+        sut.timer("timer").record(100);
+        sut.reset();
+        final MetricsSnapshot result = sut.snapshot();
+        assertEquals(0, result.getCount("test"));
+        assertEquals(0, result.getTimer("timer").getCount());
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.metrics;
+
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsFactoryTest {
+
+    @Test
+    void createRegistryReturnsDisabledRegistryByDefault() {
+        final MetricsRegistry result = MetricsFactory.createRegistry(Collections.emptyMap());
+        assertFalse(result.isEnabled());
+        assertSame(MetricsRegistry.disabled(), result);
+    }
+
+    @Test
+    void createRegistryReturnsInMemoryRegistryWhenMetricsAreEnabled() {
+        final MetricsRegistry result = MetricsFactory
+                .createRegistry(Collections.singletonMap(JOPAPersistenceProperties.METRICS_ENABLED, "true"));
+        assertTrue(result.isEnabled());
+        assertTrue(result instanceof InMemoryMetricsRegistry);
+    }
+
+    @Test
+    void createRegistryInstantiatesConfiguredRegistryClass() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(JOPAPersistenceProperties.METRICS_ENABLED, Boolean.TRUE.toString());
+        properties.put(JOPAPersistenceProperties.METRICS_REGISTRY_CLASS, CustomRegistry.class.getName());
+        assertTrue(MetricsFactory.createRegistry(properties) instanceof CustomRegistry);
+    }
+
+    @Test
+    void createRegistryThrowsIllegalArgumentExceptionForClassNotImplementingRegistry() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(JOPAPersistenceProperties.METRICS_ENABLED, Boolean.TRUE.toString());
+        properties.put(JOPAPersistenceProperties.METRICS_REGISTRY_CLASS, String.class.getName());
+        assertThrows(IllegalArgumentException.class, () -> MetricsFactory.createRegistry(properties));
+    }
+
+    @Test
+    void createRegistryThrowsIllegalArgumentExceptionForUnknownClass() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(JOPAPersistenceProperties.METRICS_ENABLED, Boolean.TRUE.toString());
+        properties.put(JOPAPersistenceProperties.METRICS_REGISTRY_CLASS, "cz.cvut.kbss.jopa.metrics.Unknown");
+        assertThrows(IllegalArgumentException.class, () -> MetricsFactory.createRegistry(properties));
+    }
+
+    public static class CustomRegistry extends InMemoryMetricsRegistry {
+    }
+}
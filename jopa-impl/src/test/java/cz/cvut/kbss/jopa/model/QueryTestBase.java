@@ -21,6 +21,7 @@ import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
 import cz.cvut.kbss.jopa.exceptions.NoResultException;
 import cz.cvut.kbss.jopa.model.query.Parameter;
 import cz.cvut.kbss.jopa.model.query.Query;
+import cz.cvut.kbss.jopa.query.QueryTemplateCache;
 import cz.cvut.kbss.jopa.query.sparql.SparqlQueryFactory;
 import cz.cvut.kbss.jopa.sessions.ConnectionWrapper;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
@@ -35,6 +36,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -82,6 +84,7 @@ abstract class QueryTestBase {
         when(resultSetIterator.next()).thenReturn(resultRow);
         when(resultSetMock.stream()).thenCallRealMethod();
         when(resultSetMock.spliterator()).thenCallRealMethod();
+        when(uowMock.getQueryTemplateCache()).thenReturn(new QueryTemplateCache(uowMock, Collections.emptyMap()));
         this.queryFactory = new SparqlQueryFactory(uowMock, connectionWrapperMock);
     }
 
@@ -32,10 +32,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -84,13 +81,14 @@ class TypedQueryImplTest extends QueryTestBase {
     private List<String> initDataForQuery(int count) throws Exception {
         final List<String> uris = new ArrayList<>(count);
         final List<Boolean> hasNext = new ArrayList<>(count);
+        final Map<URI, OWLClassA> instances = new HashMap<>();
         for (int i = 0; i < count; i++) {
             final String u = "http://uri" + i;
             uris.add(u);
-            when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(u)), any()))
-                    .thenReturn(new OWLClassA(URI.create(u)));
+            instances.put(URI.create(u), new OWLClassA(URI.create(u)));
             hasNext.add(true);
         }
+        initEntityLoading(instances);
         hasNext.add(false);
         when(resultRow.getString(0))
                 .thenReturn(uris.get(0), uris.subList(1, uris.size()).toArray(new String[count]));
@@ -100,6 +98,13 @@ class TypedQueryImplTest extends QueryTestBase {
         return uris;
     }
 
+    private void initEntityLoading(Map<URI, OWLClassA> instances) {
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class))).thenAnswer(inv -> {
+            final List<?> identifiers = inv.getArgument(1);
+            return identifiers.stream().map(instances::get).collect(Collectors.toList());
+        });
+    }
+
     private void verifyResults(List<String> uris, List<OWLClassA> results, int expectedCount) {
         assert expectedCount <= uris.size();
         assertEquals(expectedCount, results.size());
@@ -162,7 +167,7 @@ class TypedQueryImplTest extends QueryTestBase {
         final Boolean result = query.getSingleResult();
         assertNotNull(result);
         assertTrue(result);
-        verify(uowMock, never()).readObject(eq(Boolean.class), any(), any(Descriptor.class));
+        verify(uowMock, never()).readObjects(eq(Boolean.class), anyList(), any(Descriptor.class));
     }
 
     private void initAskQueryData(boolean result) throws Exception {
@@ -195,8 +200,7 @@ class TypedQueryImplTest extends QueryTestBase {
                 Generators.createIndividualIdentifier().toString());
         when(resultRow.isBound(0)).thenReturn(true);
         when(resultRow.getString(0)).thenReturn(uris.get(0), uris.get(1));
-        when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(uris.get(0))), any(Descriptor.class)))
-                .thenReturn(new OWLClassA(URI.create(uris.get(0))));
+        initEntityLoading(Collections.singletonMap(URI.create(uris.get(0)), new OWLClassA(URI.create(uris.get(0)))));
 
         final TypedQuery<OWLClassA> q = create(SELECT_QUERY, OWLClassA.class);
         final List<OWLClassA> result = q.getResultList();
@@ -345,9 +349,23 @@ class TypedQueryImplTest extends QueryTestBase {
         final List<String> uris = initDataForQuery(count);
         final Descriptor descriptor = new EntityDescriptor(URI.create("http://contextOne"));
         query.setDescriptor(descriptor).getResultList();
-        for (String uri : uris) {
-            verify(uowMock).readObject(OWLClassA.class, URI.create(uri), descriptor);
-        }
+        verify(uowMock).readObjects(OWLClassA.class, uris.stream().map(URI::create).collect(Collectors.toList()),
+                descriptor);
+    }
+
+    @Test
+    void getResultListLoadsEntitiesInBatches() throws Exception {
+        final TypedQuery<OWLClassA> query = create(SELECT_QUERY, OWLClassA.class);
+        final int count = TypedQueryImpl.ENTITY_LOADING_BATCH_SIZE * 2 + 5;
+        final List<String> uris = initDataForQuery(count);
+        final List<OWLClassA> result = query.getResultList();
+        verifyResults(uris, result, count);
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(uowMock, times(3)).readObjects(eq(OWLClassA.class), captor.capture(), any(Descriptor.class));
+        assertEquals(TypedQueryImpl.ENTITY_LOADING_BATCH_SIZE, captor.getAllValues().get(0).size());
+        assertEquals(TypedQueryImpl.ENTITY_LOADING_BATCH_SIZE, captor.getAllValues().get(1).size());
+        assertEquals(5, captor.getAllValues().get(2).size());
+        verify(uowMock, never()).readObject(eq(OWLClassA.class), any(), any(Descriptor.class));
     }
 
     @Test
@@ -386,10 +404,9 @@ class TypedQueryImplTest extends QueryTestBase {
         when(resultSetMock.hasNext()).thenReturn(true, true, false);
         when(resultSetMock.isBound(0)).thenReturn(true);
         when(resultSetMock.getString(0)).thenReturn(uris.get(0), uris.get(1));
-        when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(uris.get(0))), any(Descriptor.class)))
-                .thenReturn(new OWLClassA(URI.create(uris.get(0))));
-        when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(uris.get(1))), any(Descriptor.class)))
-                .thenReturn(new OWLClassA(URI.create(uris.get(1))));
+        final Map<URI, OWLClassA> instances = new HashMap<>();
+        uris.forEach(u -> instances.put(URI.create(u), new OWLClassA(URI.create(u))));
+        initEntityLoading(instances);
         final TypedQuery<OWLClassA> sut = create(SELECT_QUERY, OWLClassA.class);
         final Stream<OWLClassA> result = sut.getResultStream();
         final List<OWLClassA> asList = result.collect(Collectors.toList());
@@ -404,13 +421,38 @@ class TypedQueryImplTest extends QueryTestBase {
         when(resultSetMock.hasNext()).thenReturn(true, false);
         when(resultSetMock.isBound(0)).thenReturn(true);
         when(resultSetMock.getString(0)).thenReturn(uris.get(0));
-        when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(uris.get(0))), any(Descriptor.class)))
-                .thenReturn(new OWLClassA(URI.create(uris.get(0))));
+        initEntityLoading(Collections.singletonMap(URI.create(uris.get(0)), new OWLClassA(URI.create(uris.get(0)))));
         final TypedQuery<OWLClassA> sut = create(SELECT_QUERY, OWLClassA.class);
         sut.getResultStream().forEach(a -> assertTrue(uris.contains(a.getUri().toString())));
         verify(statementMock).close();
     }
 
+    @Test
+    void getResultStreamLoadsEntitiesInBatches() throws Exception {
+        final int count = TypedQueryImpl.ENTITY_LOADING_BATCH_SIZE + 1;
+        final List<Boolean> hasNext = new ArrayList<>(Collections.nCopies(count, true));
+        hasNext.add(false);
+        final List<String> uris = new ArrayList<>(count);
+        final Map<URI, OWLClassA> instances = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            final URI u = Generators.createIndividualIdentifier();
+            uris.add(u.toString());
+            instances.put(u, new OWLClassA(u));
+        }
+        when(resultSetMock.isOpen()).thenReturn(true);
+        when(resultSetMock.hasNext())
+                .thenReturn(hasNext.get(0), hasNext.subList(1, hasNext.size()).toArray(new Boolean[0]));
+        when(resultSetMock.isBound(0)).thenReturn(true);
+        when(resultSetMock.getString(0))
+                .thenReturn(uris.get(0), uris.subList(1, uris.size()).toArray(new String[0]));
+        initEntityLoading(instances);
+        final TypedQuery<OWLClassA> sut = create(SELECT_QUERY, OWLClassA.class);
+        final List<OWLClassA> result = sut.getResultStream().collect(Collectors.toList());
+        assertEquals(uris, result.stream().map(a -> a.getUri().toString()).collect(Collectors.toList()));
+        verify(uowMock, times(2)).readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class));
+        verify(statementMock).close();
+    }
+
     @Test
     void getResultStreamClosesStatementWhenStreamProcessingThrowsException() throws Exception {
         final List<String> uris = Collections.singletonList(Generators.createIndividualIdentifier().toString());
@@ -418,7 +460,7 @@ class TypedQueryImplTest extends QueryTestBase {
         when(resultSetMock.hasNext()).thenReturn(true, false);
         when(resultSetMock.isBound(0)).thenReturn(true);
         when(resultSetMock.getString(0)).thenReturn(uris.get(0));
-        when(uowMock.readObject(eq(OWLClassA.class), eq(URI.create(uris.get(0))), any(Descriptor.class)))
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any(Descriptor.class)))
                 .thenThrow(OWLPersistenceException.class);
         final TypedQuery<OWLClassA> sut = create(SELECT_QUERY, OWLClassA.class);
         try {
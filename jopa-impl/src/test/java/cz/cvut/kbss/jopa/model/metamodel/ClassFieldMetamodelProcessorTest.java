@@ -16,14 +16,18 @@ package cz.cvut.kbss.jopa.model.metamodel;
 
 import cz.cvut.kbss.jopa.environment.OWLClassJ;
 import cz.cvut.kbss.jopa.exception.MetamodelInitializationException;
+import cz.cvut.kbss.jopa.model.TimeOrderedIdentifierGenerator;
+import cz.cvut.kbss.jopa.model.annotations.Id;
 import cz.cvut.kbss.jopa.utils.NamespaceResolver;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.lang.reflect.Field;
+import java.net.URI;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class ClassFieldMetamodelProcessorTest {
@@ -69,4 +73,43 @@ class ClassFieldMetamodelProcessorTest {
         verify(etMock).addDeclaredAttribute(eq(field.getName()), captor.capture());
         assertTrue(captor.getValue().isNonEmpty());
     }
+
+    @Test
+    void processIdentifierFieldWithGeneratorSetsSharedGeneratorInstanceOnIdentifier() throws Exception {
+        final EntityTypeImpl<ClassWithGeneratedId> etOne = mock(EntityTypeImpl.class);
+        when(etOne.getJavaType()).thenReturn(ClassWithGeneratedId.class);
+        final EntityTypeImpl<ClassWithGeneratedId> etTwo = mock(EntityTypeImpl.class);
+        when(etTwo.getJavaType()).thenReturn(ClassWithGeneratedId.class);
+        final Field field = ClassWithGeneratedId.class.getDeclaredField("uri");
+        new ClassFieldMetamodelProcessor<>(new TypeBuilderContext<>(etOne, new NamespaceResolver()), metamodelBuilder)
+                .processField(field);
+        new ClassFieldMetamodelProcessor<>(new TypeBuilderContext<>(etTwo, new NamespaceResolver()), metamodelBuilder)
+                .processField(field);
+
+        final ArgumentCaptor<Identifier> captorOne = ArgumentCaptor.forClass(Identifier.class);
+        verify(etOne).setIdentifier(captorOne.capture());
+        final ArgumentCaptor<Identifier> captorTwo = ArgumentCaptor.forClass(Identifier.class);
+        verify(etTwo).setIdentifier(captorTwo.capture());
+        assertTrue(captorOne.getValue().isGenerated());
+        assertThat(captorOne.getValue().getGenerator(), instanceOf(TimeOrderedIdentifierGenerator.class));
+        assertSame(captorOne.getValue().getGenerator(), captorTwo.getValue().getGenerator());
+    }
+
+    private static final class ClassWithGeneratedId {
+
+        @Id(generated = true, generator = TimeOrderedIdentifierGenerator.class)
+        private URI uri;
+    }
+
+    @Test
+    void processIdentifierFieldWithoutGeneratorLeavesGenerationToDriver() throws Exception {
+        final EntityTypeImpl<OWLClassJ> etMock = mock(EntityTypeImpl.class);
+        when(etMock.getJavaType()).thenReturn(OWLClassJ.class);
+        new ClassFieldMetamodelProcessor<>(new TypeBuilderContext<>(etMock, new NamespaceResolver()), metamodelBuilder)
+                .processField(OWLClassJ.class.getDeclaredField("uri"));
+
+        final ArgumentCaptor<Identifier> captor = ArgumentCaptor.forClass(Identifier.class);
+        verify(etMock).setIdentifier(captor.capture());
+        assertNull(captor.getValue().getGenerator());
+    }
 }
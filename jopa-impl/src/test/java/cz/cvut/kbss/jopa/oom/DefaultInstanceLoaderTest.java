@@ -30,8 +30,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 
+import java.net.URI;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -105,7 +108,57 @@ class DefaultInstanceLoaderTest extends InstanceLoaderTestBase {
                 .thenReturn(entityA);
         final OWLClassA res = instanceLoader.loadEntity(loadingParameters);
         assertNotNull(res);
-        verify(cacheMock, never()).contains(etAMock.getJavaType(), IDENTIFIER, descriptor);
+        verify(cacheMock, never()).get(etAMock.getJavaType(), IDENTIFIER, descriptor);
+    }
+
+    @Test
+    void loadEntitiesLoadsAxiomsOfAllEntitiesInBulkAndReconstructsEntities() throws Exception {
+        final URI otherIdentifier = Generators.createIndividualIdentifier();
+        final AxiomDescriptor otherDescriptor = new AxiomDescriptor(NamedResource.create(otherIdentifier));
+        when(descriptorFactoryMock
+                .createForEntityLoading(new LoadingParameters<>(OWLClassA.class, otherIdentifier, descriptor), etAMock))
+                .thenReturn(otherDescriptor);
+        final Collection<Axiom<?>> entityAAxioms = Collections.singletonList(mock(Axiom.class));
+        final Map<NamedResource, Collection<Axiom<?>>> axioms =
+                Collections.singletonMap(INDIVIDUAL, entityAAxioms);
+        when(connectionMock.findAll(anyCollection())).thenReturn(axioms);
+        when(entityConstructorMock.reconstructEntity(IDENTIFIER, etAMock, descriptor, entityAAxioms))
+                .thenReturn(entityA);
+
+        final Map<URI, OWLClassA> result =
+                instanceLoader.loadEntities(OWLClassA.class, Arrays.asList(IDENTIFIER, otherIdentifier), descriptor);
+        assertEquals(Collections.singletonMap(IDENTIFIER, entityA), result);
+        verify(connectionMock).findAll(Arrays.asList(axiomDescriptor, otherDescriptor));
+        verify(connectionMock, never()).find(any());
+    }
+
+    @Test
+    void loadEntitiesRetrievesCachedEntitiesFromCache() throws Exception {
+        when(cacheMock.contains(OWLClassA.class, IDENTIFIER, descriptor)).thenReturn(true);
+        when(cacheMock.get(OWLClassA.class, IDENTIFIER, descriptor)).thenReturn(entityA);
+
+        final Map<URI, OWLClassA> result =
+                instanceLoader.loadEntities(OWLClassA.class, Collections.singletonList(IDENTIFIER), descriptor);
+        assertEquals(Collections.singletonMap(IDENTIFIER, entityA), result);
+        verify(connectionMock, never()).findAll(anyCollection());
+    }
+
+    @Test
+    void loadEntitiesLooksUpEachInstanceInCacheOnce() throws Exception {
+        final Collection<Axiom<?>> entityAAxioms = Collections.singletonList(mock(Axiom.class));
+        when(connectionMock.findAll(anyCollection())).thenReturn(Collections.singletonMap(INDIVIDUAL, entityAAxioms));
+        when(entityConstructorMock.reconstructEntity(IDENTIFIER, etAMock, descriptor, entityAAxioms))
+                .thenReturn(entityA);
+
+        instanceLoader.loadEntities(OWLClassA.class, Collections.singletonList(IDENTIFIER), descriptor);
+        verify(cacheMock).get(OWLClassA.class, IDENTIFIER, descriptor);
+    }
+
+    @Test
+    void loadEntitiesThrowsStorageAccessExceptionOnDriverException() throws Exception {
+        when(connectionMock.findAll(anyCollection())).thenThrow(new OntoDriverException());
+        assertThrows(StorageAccessException.class, () -> instanceLoader
+                .loadEntities(OWLClassA.class, Collections.singletonList(IDENTIFIER), descriptor));
     }
 
     @Test
@@ -312,6 +312,18 @@ class EntityDeconstructorTest {
         assertTrue(containsDPAssertion(res, OWLClassA.getStrAttField(), entityA.getStringAttribute(), true));
     }
 
+    @Test
+    void mapFieldsToAxiomsMapsAllSpecifiedFieldsToSingleAxiomDescriptor() throws Exception {
+        final Descriptor mDescriptor = new EntityDescriptor();
+        final AxiomValueGatherer builder = sut.mapFieldsToAxioms(URI.create(entityM.getKey()), entityM,
+                Arrays.asList(OWLClassM.getBooleanAttributeField(), OWLClassM.getIntAttributeField()),
+                mocks.forOwlClassM().entityType(), mDescriptor);
+        final AxiomValueDescriptor res = getAxiomValueDescriptor(builder);
+        assertEquals(2, res.getAssertions().size());
+        assertTrue(containsDPAssertion(res, OWLClassM.getBooleanAttributeField(), entityM.getBooleanAttribute(), true));
+        assertTrue(containsDPAssertion(res, OWLClassM.getIntAttributeField(), entityM.getIntAttribute(), true));
+    }
+
     @Test
     void mapsEntityDataPropertyWithNullValueToAxiomDescriptor() throws Exception {
         final Descriptor aDescriptor = new EntityDescriptor();
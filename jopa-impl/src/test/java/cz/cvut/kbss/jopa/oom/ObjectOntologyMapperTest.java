@@ -20,6 +20,7 @@ import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
 import cz.cvut.kbss.jopa.environment.utils.TestEnvironmentUtils;
 import cz.cvut.kbss.jopa.exceptions.OWLEntityExistsException;
 import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
+import cz.cvut.kbss.jopa.model.IdentifierGenerator;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.model.SequencesVocabulary;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
@@ -194,6 +195,23 @@ class ObjectOntologyMapperTest {
         verify(madMock).persist(connectionMock);
     }
 
+    @Test
+    void persistEntityWithGeneratedUriUsesIdentifierGeneratorOfEntityTypeWhenSpecified() throws Exception {
+        final OWLClassA a = new OWLClassA();
+        final AxiomValueGatherer madMock = mock(AxiomValueGatherer.class);
+        final URI generatedUri = URI.create("http://generatedUri" + System.currentTimeMillis());
+        final IdentifierGenerator generatorMock = mock(IdentifierGenerator.class);
+        when(generatorMock.generateIdentifier(etAMock.getIRI().toURI())).thenReturn(generatedUri);
+        when(etAMock.getIdentifier().getGenerator()).thenReturn(generatorMock);
+        when(entityDeconstructorMock.mapEntityToAxioms(generatedUri, a, etAMock, aDescriptor))
+                .thenReturn(madMock);
+
+        mapper.persistEntity(null, a, aDescriptor);
+        assertEquals(generatedUri, a.getUri());
+        verify(connectionMock, never()).generateIdentifier(any());
+        verify(madMock).persist(connectionMock);
+    }
+
     @Test
     void testGetEntityFromCacheOrOntologyFromCache() {
         when(cacheMock.contains(OWLClassA.class, IDENTIFIER, aDescriptor)).thenReturn(Boolean.TRUE);
@@ -267,6 +285,17 @@ class ObjectOntologyMapperTest {
         verify(axiomBuilderMock).update(connectionMock);
     }
 
+    @Test
+    void updatesMultipleFieldValuesInTheOntologyInSingleUpdate() throws Exception {
+        final AxiomValueGatherer axiomBuilderMock = mock(AxiomValueGatherer.class);
+        final List<Field> fields = Arrays.asList(OWLClassA.getStrAttField(), OWLClassA.getTypesField());
+        when(entityDeconstructorMock.mapFieldsToAxioms(IDENTIFIER, entityA, fields, etAMock, aDescriptor))
+                .thenReturn(axiomBuilderMock);
+        mapper.updateFieldValues(entityA, fields, aDescriptor);
+        verify(entityDeconstructorMock).mapFieldsToAxioms(IDENTIFIER, entityA, fields, etAMock, aDescriptor);
+        verify(axiomBuilderMock).update(connectionMock);
+    }
+
     @Test
     void removeEntityCreatesDescriptorForRemovalOfAllEntityAttributes() {
         when(descriptorFactoryMock
@@ -338,6 +367,22 @@ class ObjectOntologyMapperTest {
         verify(twoStepLoader).loadEntity(loadingParameters);
     }
 
+    @Test
+    void loadEntitiesUsesInstanceLoaderAndPutsLoadedEntitiesIntoCache() throws Exception {
+        final Field instanceLoaderField = ObjectOntologyMapperImpl.class.getDeclaredField("defaultInstanceLoader");
+        instanceLoaderField.setAccessible(true);
+        EntityInstanceLoader loader = spy((EntityInstanceLoader) instanceLoaderField.get(mapper));
+        instanceLoaderField.set(mapper, loader);
+        final List<URI> identifiers = Arrays.asList(IDENTIFIER, Generators.createIndividualIdentifier());
+        doReturn(Collections.singletonMap(IDENTIFIER, entityA)).when(loader)
+                                                               .loadEntities(OWLClassA.class, identifiers, aDescriptor);
+
+        final Map<URI, OWLClassA> result = mapper.loadEntities(OWLClassA.class, identifiers, aDescriptor);
+        assertEquals(Collections.singletonMap(IDENTIFIER, entityA), result);
+        verify(loader).loadEntities(OWLClassA.class, identifiers, aDescriptor);
+        verify(cacheMock).add(IDENTIFIER, entityA, aDescriptor);
+    }
+
     @Test
     void loadEntityLoadsInstanceFromCacheWhenItIsPresentThere() throws Exception {
         when(cacheMock.contains(OWLClassA.class, IDENTIFIER, loadingParameters.getDescriptor())).thenReturn(true);
@@ -21,10 +21,12 @@ import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
 import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
 import cz.cvut.kbss.jopa.sessions.LoadingParameters;
 import cz.cvut.kbss.ontodriver.Types;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.AxiomImpl;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.model.Value;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +38,7 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.containsString;
@@ -126,6 +129,45 @@ class TwoStepInstanceLoaderTest extends InstanceLoaderTestBase {
         assertThat(ex.getMessage(), containsString(msg));
     }
 
+    @Test
+    void loadEntitiesLoadsTypesInBulkAndLoadsEntitiesOfDeterminedEntityTypes() throws Exception {
+        final AxiomDescriptor typesDescriptor = new AxiomDescriptor(INDIVIDUAL);
+        when(descriptorFactoryMock.createForTypesLoading(IDENTIFIER, null)).thenReturn(typesDescriptor);
+        final Collection<Axiom<?>> types = Collections.singleton(
+                new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
+                        new Value<>(NamedResource.create(OWLClassR.getClassIri()))));
+        when(connectionMock.findAll(Collections.singletonList(typesDescriptor)))
+                .thenReturn(Collections.singletonMap(INDIVIDUAL, types));
+        final Collection<Axiom<?>> axioms = new HashSet<>(types);
+        when(connectionMock.findAll(Collections.singletonList(axiomDescriptor)))
+                .thenReturn(Collections.singletonMap(INDIVIDUAL, axioms));
+        final OWLClassR entityR = new OWLClassR();
+        when(entityConstructorMock
+                .reconstructEntity(IDENTIFIER, metamodelMock.entity(OWLClassR.class), descriptor, axioms))
+                .thenReturn(entityR);
+
+        final Map<URI, OWLClassS> result =
+                instanceLoader.loadEntities(OWLClassS.class, Collections.singletonList(IDENTIFIER), descriptor);
+        assertEquals(Collections.singletonMap(IDENTIFIER, entityR), result);
+        verify(typesMock, never()).getTypes(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void loadEntitiesSkipsIndividualsWithoutMatchingEntityType() throws Exception {
+        final AxiomDescriptor typesDescriptor = new AxiomDescriptor(INDIVIDUAL);
+        when(descriptorFactoryMock.createForTypesLoading(IDENTIFIER, null)).thenReturn(typesDescriptor);
+        final Collection<Axiom<?>> types = Collections.singleton(
+                new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
+                        new Value<>(NamedResource.create(OWLClassA.getClassIri()))));
+        when(connectionMock.findAll(Collections.singletonList(typesDescriptor)))
+                .thenReturn(Collections.singletonMap(INDIVIDUAL, types));
+
+        final Map<URI, OWLClassS> result =
+                instanceLoader.loadEntities(OWLClassS.class, Collections.singletonList(IDENTIFIER), descriptor);
+        assertTrue(result.isEmpty());
+        verify(connectionMock).findAll(anyCollection());
+    }
+
     @Test
     void loadReferenceLoadsReferenceFromStorageWhenEntityTypeIsDetermined() throws Exception {
         final Axiom<URI> type = new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
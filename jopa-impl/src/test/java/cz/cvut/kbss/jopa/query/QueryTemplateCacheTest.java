@@ -0,0 +1,186 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.query;
+
+import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
+import cz.cvut.kbss.jopa.exception.QueryParserException;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
+import cz.cvut.kbss.jopa.query.sparql.SparqlQueryHolder;
+import cz.cvut.kbss.jopa.sessions.AbstractSession;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class QueryTemplateCacheTest {
+
+    private static final String QUERY = "SELECT ?x WHERE { ?x a ?type . }";
+    private static final String SOQL_QUERY = "SELECT a FROM OWLClassA a";
+
+    @Mock
+    private AbstractSession sessionMock;
+
+    private ParameterValueFactory valueFactory;
+
+    private QueryTemplateCache sut;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        final MetamodelImpl metamodel = mock(MetamodelImpl.class);
+        new MetamodelMocks().setMocks(metamodel);
+        when(sessionMock.getMetamodel()).thenReturn(metamodel);
+        this.valueFactory = new ParameterValueFactory(sessionMock);
+        this.sut = new QueryTemplateCache(sessionMock, Collections.emptyMap());
+    }
+
+    @Test
+    public void getSparqlQueryReturnsNewHolderForEachCall() {
+        final SparqlQueryHolder first = sut.getSparqlQuery(QUERY, valueFactory);
+        final SparqlQueryHolder second = sut.getSparqlQuery(QUERY, valueFactory);
+        assertNotSame(first, second);
+        assertEquals(QUERY, first.assembleQuery());
+        assertEquals(QUERY, second.assembleQuery());
+    }
+
+    @Test
+    public void getSparqlQueryReturnsHoldersWithIndependentParameterState() {
+        final SparqlQueryHolder first = sut.getSparqlQuery(QUERY, valueFactory);
+        first.setParameter(first.getParameter("type"), "test", "en");
+        first.setMaxResults(5);
+        final SparqlQueryHolder second = sut.getSparqlQuery(QUERY, valueFactory);
+        assertEquals(QUERY, second.assembleQuery());
+        assertThat(first.assembleQuery(), containsString("\"test\"@en"));
+    }
+
+    @Test
+    public void getSoqlQueryTranslatesQueryOnlyOnce() {
+        final SparqlQueryHolder first = sut.getSoqlQuery(SOQL_QUERY, valueFactory);
+        final SparqlQueryHolder second = sut.getSoqlQuery(SOQL_QUERY, valueFactory);
+        assertEquals(first.assembleQuery(), second.assembleQuery());
+        verify(sessionMock).getMetamodel();
+    }
+
+    @Test
+    public void getSparqlQueryDoesNotCacheQueriesWhenCapacityIsZero() {
+        this.sut = new QueryTemplateCache(sessionMock,
+                Collections.singletonMap(JOPAPersistenceProperties.QUERY_CACHE_CAPACITY, "0"));
+        sut.getSoqlQuery(SOQL_QUERY, valueFactory);
+        sut.getSoqlQuery(SOQL_QUERY, valueFactory);
+        verify(sessionMock, times(2)).getMetamodel();
+    }
+
+    @Test
+    public void getSparqlQueryEvictsTemplatesWhenCapacityIsExceeded() {
+        this.sut = new QueryTemplateCache(sessionMock,
+                Collections.singletonMap(JOPAPersistenceProperties.QUERY_CACHE_CAPACITY, "1"));
+        sut.getSoqlQuery(SOQL_QUERY, valueFactory);
+        sut.getSparqlQuery(QUERY, valueFactory);
+        sut.getSoqlQuery(SOQL_QUERY, valueFactory);
+        verify(sessionMock, times(2)).getMetamodel();
+    }
+
+    @Test
+    public void getSparqlQueryEvictsLeastRecentlyUsedTemplate() {
+        this.sut = new QueryTemplateCache(sessionMock,
+                Collections.singletonMap(JOPAPersistenceProperties.QUERY_CACHE_CAPACITY, "2"));
+        final String anotherSoqlQuery = "SELECT b FROM OWLClassA b";
+        sut.getSoqlQuery(SOQL_QUERY, valueFactory);
+        sut.getSoqlQuery(anotherSoqlQuery, valueFactory);
+        sut.getSoqlQuery(SOQL_QUERY, valueFactory);
+        sut.getSparqlQuery(QUERY, valueFactory);
+        sut.getSoqlQuery(SOQL_QUERY, valueFactory);
+        verify(sessionMock, times(2)).getMetamodel();
+        sut.getSoqlQuery(anotherSoqlQuery, valueFactory);
+        verify(sessionMock, times(3)).getMetamodel();
+    }
+
+    @Test
+    public void getSparqlQueryReturnsCorrectTemplatesAndStaysBoundedUnderConcurrentAccess() throws Exception {
+        final int capacity = 16;
+        final int threadCount = 8;
+        this.sut = new QueryTemplateCache(sessionMock,
+                Collections.singletonMap(JOPAPersistenceProperties.QUERY_CACHE_CAPACITY, Integer.toString(capacity)));
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                final int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        final String query = "SELECT ?x WHERE { ?x a <http://example.org/Type" + (i + offset) % 40 +
+                                "> . }";
+                        assertEquals(query, sut.getSparqlQuery(query, valueFactory).assembleQuery());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Eviction is skipped while another thread is evicting, so each thread may leave one extra template behind
+        assertTrue(sut.size() <= capacity + threadCount);
+    }
+
+    @Test
+    public void invalidCapacitySettingIsReplacedWithDefault() {
+        this.sut = new QueryTemplateCache(sessionMock,
+                Collections.singletonMap(JOPAPersistenceProperties.QUERY_CACHE_CAPACITY, "abc"));
+        assertEquals(QueryTemplateCache.DEFAULT_CAPACITY, sut.getCapacity());
+    }
+
+    @Test
+    public void getNamedQueryReturnsCopyOfPrecompiledQuery() {
+        final NamedQueryManager queryManager = new NamedQueryManager();
+        queryManager.addNamedQuery("test", QUERY);
+        sut.precompileNamedQueries(queryManager);
+        final SparqlQueryHolder first = sut.getNamedQuery("test", QUERY, valueFactory);
+        final SparqlQueryHolder second = sut.getNamedQuery("test", QUERY, valueFactory);
+        assertNotSame(first, second);
+        assertEquals(QUERY, first.assembleQuery());
+    }
+
+    @Test
+    public void precompileNamedQueriesSkipsInvalidQueries() {
+        final NamedQueryManager queryManager = new NamedQueryManager();
+        final String invalidQuery = "SELECT ?x WHERE { ?x a ? . }";
+        queryManager.addNamedQuery("invalid", invalidQuery);
+        queryManager.addNamedQuery("test", QUERY);
+        sut.precompileNamedQueries(queryManager);
+        assertEquals(QUERY, sut.getNamedQuery("test", QUERY, valueFactory).assembleQuery());
+        try {
+            sut.getNamedQuery("invalid", invalidQuery, valueFactory);
+            fail("Invalid query should have been reported.");
+        } catch (QueryParserException e) {
+            // Expected
+        }
+    }
+}
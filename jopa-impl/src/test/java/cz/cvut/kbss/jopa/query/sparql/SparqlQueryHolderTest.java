@@ -20,12 +20,15 @@ import cz.cvut.kbss.jopa.sessions.MetamodelProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.mockito.Mockito.mock;
 
 class SparqlQueryHolderTest {
@@ -78,4 +81,17 @@ class SparqlQueryHolderTest {
         assertThat(result, containsString("LIMIT 10"));
         assertThat(result, containsString("OFFSET 5"));
     }
+
+    @Test
+    void copyCreatesHolderWithSameQueryAndIndependentParameters() {
+        sut.setParameter(sut.getParameter("type"), URI.create("http://krizik.felk.cvut.cz/ontologies/jopa#OWLClassA"));
+        sut.setMaxResults(10);
+        final SparqlQueryHolder copy = sut.copy(new ParameterValueFactory(mock(MetamodelProvider.class)));
+        assertEquals(QUERY, copy.getQuery());
+        assertEquals(sut.getParameters(), copy.getParameters());
+        assertNotSame(sut.getParameter("type"), copy.getParameter("type"));
+        assertEquals(QUERY, copy.assembleQuery());
+        copy.setParameter(copy.getParameter("x"), URI.create("http://krizik.felk.cvut.cz/ontologies/jopa#x"));
+        assertThat(sut.assembleQuery(), containsString("?x"));
+    }
 }
@@ -17,6 +17,7 @@ package cz.cvut.kbss.jopa.sessions;
 import cz.cvut.kbss.jopa.environment.OWLClassM;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -64,7 +65,7 @@ public class DateInstanceBuilderTest {
         final Date orig = new Date();
         final Date clone = new Date(System.currentTimeMillis() - 100000);
         entityM.setDateAttribute(orig);
-        builder.mergeChanges(dateField, entityM, orig, clone);
+        builder.mergeChanges(FieldAccessor.of(dateField), entityM, orig, clone);
         assertEquals(clone, entityM.getDateAttribute());
     }
 }
\ No newline at end of file
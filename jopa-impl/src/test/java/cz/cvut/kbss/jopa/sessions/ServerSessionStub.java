@@ -17,14 +17,20 @@ package cz.cvut.kbss.jopa.sessions;
 import cz.cvut.kbss.jopa.environment.utils.TestEnvironmentUtils;
 import cz.cvut.kbss.jopa.model.AbstractEntityManager;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.query.QueryTemplateCache;
 import cz.cvut.kbss.jopa.transactions.EntityTransaction;
 
+import java.util.Collections;
+
 public class ServerSessionStub extends ServerSession {
 
     private ConnectionWrapper connection;
 
+    private final QueryTemplateCache queryTemplateCache;
+
     public ServerSessionStub(ConnectionWrapper conn) {
         this.connection = conn;
+        this.queryTemplateCache = new QueryTemplateCache(this, Collections.emptyMap());
     }
 
     protected ConnectionWrapper acquireConnection() {
@@ -42,6 +48,11 @@ public class ServerSessionStub extends ServerSession {
         return TestEnvironmentUtils.getManagedTypes().contains(cls);
     }
 
+    @Override
+    public QueryTemplateCache getQueryTemplateCache() {
+        return queryTemplateCache;
+    }
+
     @Override
     public void transactionStarted(EntityTransaction t, AbstractEntityManager em) {
         // Do nothing
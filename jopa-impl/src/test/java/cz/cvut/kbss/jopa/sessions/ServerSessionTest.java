@@ -20,6 +20,7 @@ import cz.cvut.kbss.jopa.model.AbstractEntityManager;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
+import cz.cvut.kbss.jopa.query.NamedQueryManager;
 import cz.cvut.kbss.jopa.transactions.EntityTransaction;
 import cz.cvut.kbss.jopa.utils.Configuration;
 import cz.cvut.kbss.ontodriver.OntologyStorageProperties;
@@ -31,6 +32,7 @@ import org.mockito.MockitoAnnotations;
 import java.net.URI;
 import java.util.Collections;
 
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.*;
@@ -49,9 +51,16 @@ public class ServerSessionTest {
                 URI.create("http://krizik.felk.cvut.cz/ontologies/jopa")).physicalUri(
                 URI.create("file://tmp/jopa")).driver(DataSourceStub.class.getCanonicalName()).build();
         when(metamodelMock.getEntities()).thenReturn(Collections.emptySet());
+        when(metamodelMock.getNamedQueryManager()).thenReturn(new NamedQueryManager());
         this.session = new ServerSession(storageProperties, new Configuration(Collections.emptyMap()), metamodelMock);
     }
 
+    @Test
+    public void initializationPrecompilesNamedQueriesIntoQueryTemplateCache() {
+        verify(metamodelMock).getNamedQueryManager();
+        assertNotNull(session.getQueryTemplateCache());
+    }
+
     @Test
     public void testClose() {
         final EntityTransaction et = mock(EntityTransaction.class);
@@ -105,6 +105,65 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
         verify(storageMock, never()).find(any());
     }
 
+    @Test
+    void readObjectsLoadsObjectsFromStorageInBulk() {
+        final OWLClassA another = Generators.generateOwlClassAInstance();
+        final Map<URI, OWLClassA> loaded = new HashMap<>();
+        loaded.put(entityA.getUri(), entityA);
+        loaded.put(another.getUri(), another);
+        when(storageMock.findAll(eq(OWLClassA.class), anyCollection(), eq(descriptor))).thenReturn(loaded);
+
+        final List<OWLClassA> result =
+                uow.readObjects(OWLClassA.class, Arrays.asList(entityA.getUri(), another.getUri()), descriptor);
+        assertEquals(2, result.size());
+        assertEquals(entityA.getUri(), result.get(0).getUri());
+        assertEquals(another.getUri(), result.get(1).getUri());
+        assertTrue(uow.contains(result.get(0)));
+        assertTrue(uow.contains(result.get(1)));
+        final ArgumentCaptor<Collection<URI>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(storageMock).findAll(eq(OWLClassA.class), captor.capture(), eq(descriptor));
+        assertEquals(new HashSet<>(Arrays.asList(entityA.getUri(), another.getUri())),
+                new HashSet<>(captor.getValue()));
+        verify(storageMock, never()).find(any());
+    }
+
+    @Test
+    void readObjectsReturnsNullForIdentifiersWhichWereNotFound() {
+        final URI unknown = Generators.createIndividualIdentifier();
+        when(storageMock.findAll(eq(OWLClassA.class), anyCollection(), eq(descriptor)))
+                .thenReturn(Collections.singletonMap(entityA.getUri(), entityA));
+
+        final List<OWLClassA> result =
+                uow.readObjects(OWLClassA.class, Arrays.asList(unknown, entityA.getUri()), descriptor);
+        assertEquals(2, result.size());
+        assertNull(result.get(0));
+        assertEquals(entityA.getUri(), result.get(1).getUri());
+    }
+
+    @Test
+    void readObjectsDoesNotLoadAlreadyManagedObjectsFromStorage() {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        final OWLClassA another = Generators.generateOwlClassAInstance();
+        when(storageMock.findAll(eq(OWLClassA.class), anyCollection(), eq(descriptor)))
+                .thenReturn(Collections.singletonMap(another.getUri(), another));
+
+        final List<OWLClassA> result =
+                uow.readObjects(OWLClassA.class, Arrays.asList(entityA.getUri(), another.getUri()), descriptor);
+        assertSame(clone, result.get(0));
+        assertEquals(another.getUri(), result.get(1).getUri());
+        verify(storageMock).findAll(OWLClassA.class, Collections.singleton(another.getUri()), descriptor);
+    }
+
+    @Test
+    void readObjectsDoesNotAccessStorageWhenAllObjectsAreManaged() {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+
+        final List<OWLClassA> result =
+                uow.readObjects(OWLClassA.class, Collections.singletonList(entityA.getUri()), descriptor);
+        assertEquals(Collections.singletonList(clone), result);
+        verify(storageMock, never()).findAll(any(), anyCollection(), any());
+    }
+
     @Test
     void testCalculateNewObjects() {
         uow.registerNewObject(entityA, descriptor);
@@ -932,7 +991,29 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
         uow.registerExistingObject(entityA, descriptor);
         uow.registerNewObject(entityB, descriptor);
         uow.commit();
-        verify(cacheManagerMock).evictInferredObjects();
+        verify(cacheManagerMock).evictInferredObjects(Collections.singleton(entityB.getUri()));
+    }
+
+    @Test
+    void commitEvictsInferredObjectsReferencedByNewObjects() {
+        uow.registerExistingObject(entityA, descriptor);
+        uow.registerNewObject(entityD, descriptor);
+        uow.commit();
+        verify(cacheManagerMock)
+                .evictInferredObjects(new HashSet<>(Arrays.asList(entityD.getUri(), entityA.getUri())));
+    }
+
+    @Test
+    void commitEvictsInferredObjectsReferencedByChangedObjectsBeforeAndAfterChange() throws Exception {
+        when(transactionMock.isActive()).thenReturn(Boolean.TRUE);
+        final OWLClassD clone = (OWLClassD) uow.registerExistingObject(entityD, descriptor);
+        final OWLClassA newA = Generators.generateOwlClassAInstance();
+        final OWLClassA newAClone = (OWLClassA) uow.registerExistingObject(newA, descriptor);
+        clone.setOwlClassA(newAClone);
+        uow.attributeChanged(clone, OWLClassD.getOwlClassAField());
+        uow.commit();
+        verify(cacheManagerMock).evictInferredObjects(
+                new HashSet<>(Arrays.asList(entityD.getUri(), entityA.getUri(), newA.getUri())));
     }
 
     @Test
@@ -1047,7 +1128,8 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
     void getManagedOriginalThrowsEntityExistsExceptionWhenIndividualIsManagedAsDifferentType() {
         when(transactionMock.isActive()).thenReturn(true);
         uow.registerExistingObject(entityA, descriptor);
-        assertThrows(OWLEntityExistsException.class, () -> uow.getManagedOriginal(OWLClassB.class, entityA.getUri(), descriptor));
+        assertThrows(OWLEntityExistsException.class,
+                () -> uow.getManagedOriginal(OWLClassB.class, entityA.getUri(), descriptor));
     }
 
     @Test
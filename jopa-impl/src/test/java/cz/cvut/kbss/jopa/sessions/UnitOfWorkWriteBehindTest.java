@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UnitOfWorkWriteBehindTest extends UnitOfWorkTestBase {
+
+    @BeforeEach
+    protected void setUp() throws Exception {
+        super.setUp();
+        serverSessionStub.getConfiguration().set(JOPAPersistenceProperties.WRITE_BEHIND, Boolean.TRUE.toString());
+        this.uow = new UnitOfWorkImpl(serverSessionStub);
+        uow.setEntityManager(emMock);
+        when(transactionMock.isActive()).thenReturn(Boolean.TRUE);
+    }
+
+    @Test
+    void attributeChangedDoesNotWriteChangeIntoStorage() throws Exception {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        uow.attributeChanged(clone, OWLClassA.getStrAttField());
+
+        verify(storageMock, never()).merge(any(), any(Field.class), any());
+        verify(storageMock, never()).merge(any(), anyCollection(), any());
+    }
+
+    @Test
+    void commitWritesAllPendingChangesOfInstanceInSingleUpdate() throws Exception {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        uow.attributeChanged(clone, OWLClassA.getStrAttField());
+        uow.attributeChanged(clone, OWLClassA.getTypesField());
+        uow.attributeChanged(clone, OWLClassA.getStrAttField());
+        uow.commit();
+
+        final ArgumentCaptor<Collection<Field>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(storageMock).merge(eq(clone), captor.capture(), eq(descriptor));
+        assertEquals(new HashSet<>(Arrays.asList(OWLClassA.getStrAttField(), OWLClassA.getTypesField())),
+                new HashSet<>(captor.getValue()));
+        verify(storageMock, never()).merge(any(), any(Field.class), any());
+    }
+
+    @Test
+    void writeUncommittedChangesWritesPendingChanges() throws Exception {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        uow.attributeChanged(clone, OWLClassA.getStrAttField());
+        uow.writeUncommittedChanges();
+
+        verify(storageMock).merge(clone, Arrays.asList(OWLClassA.getStrAttField()), descriptor);
+    }
+
+    @Test
+    void pendingChangesAreWrittenOnlyOnce() throws Exception {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        uow.attributeChanged(clone, OWLClassA.getStrAttField());
+        uow.writePendingChanges();
+        uow.writePendingChanges();
+
+        verify(storageMock).merge(eq(clone), anyCollection(), eq(descriptor));
+    }
+
+    @Test
+    void removeObjectDiscardsPendingChanges() throws Exception {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        uow.attributeChanged(clone, OWLClassA.getStrAttField());
+        uow.removeObject(clone);
+        uow.writePendingChanges();
+
+        verify(storageMock, never()).merge(any(), anyCollection(), any());
+        verify(storageMock).remove(entityA.getUri(), OWLClassA.class, descriptor);
+    }
+
+    @Test
+    void unregisterObjectWritesPendingChanges() throws Exception {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        uow.attributeChanged(clone, OWLClassA.getStrAttField());
+        uow.unregisterObject(clone);
+
+        verify(storageMock).merge(clone, Arrays.asList(OWLClassA.getStrAttField()), descriptor);
+    }
+
+    @Test
+    void isConsistentWritesPendingChangesBeforeCheckingConsistency() throws Exception {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        uow.attributeChanged(clone, OWLClassA.getStrAttField());
+        uow.isConsistent(CONTEXT_URI);
+
+        final InOrder inOrder = inOrder(storageMock);
+        inOrder.verify(storageMock).merge(eq(clone), anyCollection(), eq(descriptor));
+        inOrder.verify(storageMock).isConsistent(CONTEXT_URI);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.metrics.InMemoryMetricsRegistry;
+import cz.cvut.kbss.jopa.metrics.MetricNames;
+import cz.cvut.kbss.jopa.metrics.MetricsSnapshot;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
+import cz.cvut.kbss.jopa.sessions.CacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InstrumentedCacheManagerTest {
+
+    @Mock
+    private CacheManager delegateMock;
+
+    private final Descriptor descriptor = new EntityDescriptor();
+
+    private InMemoryMetricsRegistry metrics;
+
+    private InstrumentedCacheManager sut;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+        this.metrics = new InMemoryMetricsRegistry();
+        this.sut = new InstrumentedCacheManager(delegateMock, metrics);
+    }
+
+    @Test
+    void getCountsHitWhenDelegateReturnsInstance() {
+        final OWLClassA a = Generators.generateOwlClassAInstance();
+        when(delegateMock.get(OWLClassA.class, a.getUri(), descriptor)).thenReturn(a);
+        assertSame(a, sut.get(OWLClassA.class, a.getUri(), descriptor));
+        final MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.getCount(MetricNames.CACHE_HIT_PREFIX + OWLClassA.class.getName()));
+        assertEquals(0, snapshot.getCount(MetricNames.CACHE_MISS_PREFIX + OWLClassA.class.getName()));
+    }
+
+    @Test
+    void getCountsMissWhenDelegateDoesNotContainInstance() {
+        final URI id = Generators.createIndividualIdentifier();
+        assertNull(sut.get(OWLClassA.class, id, descriptor));
+        sut.get(OWLClassA.class, id, descriptor);
+        final MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.getCount(MetricNames.CACHE_HIT_PREFIX + OWLClassA.class.getName()));
+        assertEquals(2, snapshot.getCount(MetricNames.CACHE_MISS_PREFIX + OWLClassA.class.getName()));
+    }
+
+    @Test
+    void containsDoesNotCountLookup() {
+        final URI id = Generators.createIndividualIdentifier();
+        when(delegateMock.contains(OWLClassA.class, id, descriptor)).thenReturn(true);
+        assertTrue(sut.contains(OWLClassA.class, id, descriptor));
+        assertFalse(sut.contains(OWLClassA.class, Generators.createIndividualIdentifier(), descriptor));
+        final MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.getCount(MetricNames.CACHE_HIT_PREFIX + OWLClassA.class.getName()));
+        assertEquals(0, snapshot.getCount(MetricNames.CACHE_MISS_PREFIX + OWLClassA.class.getName()));
+    }
+
+    @Test
+    void addDelegatesToUnderlyingCache() {
+        final OWLClassA a = Generators.generateOwlClassAInstance();
+        sut.add(a.getUri(), a, descriptor);
+        verify(delegateMock).add(a.getUri(), a, descriptor);
+    }
+
+    @Test
+    void evictAllDelegatesToUnderlyingCache() {
+        sut.evictAll();
+        verify(delegateMock).evictAll();
+    }
+}
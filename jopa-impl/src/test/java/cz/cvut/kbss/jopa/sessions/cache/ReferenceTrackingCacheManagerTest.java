@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassD;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
+import cz.cvut.kbss.jopa.sessions.CacheManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ReferenceTrackingCacheManagerTest {
+
+    @Mock
+    private CacheManager delegateMock;
+
+    @Mock
+    private MetamodelImpl metamodelMock;
+
+    private final Descriptor descriptor = new EntityDescriptor();
+
+    private ReferenceTrackingCacheManager manager;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        final MetamodelMocks mocks = new MetamodelMocks();
+        mocks.setMocks(metamodelMock);
+        when(mocks.forOwlClassD().owlClassAAtt().isInferred()).thenReturn(true);
+        when(metamodelMock.isEntityType(any())).thenAnswer(inv -> inv.getArguments()[0] == OWLClassA.class ||
+                inv.getArguments()[0] == OWLClassD.class);
+        this.manager = new ReferenceTrackingCacheManager(delegateMock, metamodelMock);
+        manager.setInferredClasses(new HashSet<>(Arrays.asList(OWLClassA.class, OWLClassD.class)));
+    }
+
+    @Test
+    public void addDelegatesToUnderlyingCache() {
+        final OWLClassA a = Generators.generateOwlClassAInstance();
+        manager.add(a.getUri(), a, descriptor);
+        verify(delegateMock).add(a.getUri(), a, descriptor);
+    }
+
+    @Test
+    public void setInferredClassesPassesClassesToUnderlyingCache() {
+        verify(delegateMock).setInferredClasses(new HashSet<>(Arrays.asList(OWLClassA.class, OWLClassD.class)));
+    }
+
+    @Test
+    public void evictInferredObjectsEvictsInstanceWithChangedIdentifier() {
+        final OWLClassA a = Generators.generateOwlClassAInstance();
+        manager.add(a.getUri(), a, descriptor);
+
+        manager.evictInferredObjects(Collections.singleton(a.getUri()));
+        verify(delegateMock).evict(OWLClassA.class, a.getUri(), descriptor.getContext());
+    }
+
+    @Test
+    public void evictInferredObjectsEvictsInstanceReferencingChangedIdentifierViaInferredAttribute() {
+        final OWLClassA a = Generators.generateOwlClassAInstance();
+        final OWLClassD d = new OWLClassD(Generators.createIndividualIdentifier());
+        d.setOwlClassA(a);
+        manager.add(d.getUri(), d, descriptor);
+
+        manager.evictInferredObjects(Collections.singleton(a.getUri()));
+        verify(delegateMock).evict(OWLClassD.class, d.getUri(), descriptor.getContext());
+    }
+
+    @Test
+    public void evictInferredObjectsDoesNotEvictUnrelatedInstances() {
+        final OWLClassA a = Generators.generateOwlClassAInstance();
+        final OWLClassD d = new OWLClassD(Generators.createIndividualIdentifier());
+        d.setOwlClassA(a);
+        manager.add(a.getUri(), a, descriptor);
+        manager.add(d.getUri(), d, descriptor);
+
+        manager.evictInferredObjects(Collections.singleton(Generators.createIndividualIdentifier()));
+        verify(delegateMock, never()).evict(any(Class.class), any(), any(URI.class));
+    }
+
+    @Test
+    public void evictInferredObjectsDoesNotEvictInstancesOfNonInferredClasses() {
+        manager.setInferredClasses(Collections.singleton(OWLClassD.class));
+        final OWLClassA a = Generators.generateOwlClassAInstance();
+        manager.add(a.getUri(), a, descriptor);
+
+        manager.evictInferredObjects(Collections.singleton(a.getUri()));
+        verify(delegateMock, never()).evict(any(Class.class), any(), any(URI.class));
+    }
+
+    @Test
+    public void evictAllClearsReferenceIndex() {
+        final OWLClassA a = Generators.generateOwlClassAInstance();
+        manager.add(a.getUri(), a, descriptor);
+        manager.evictAll();
+        verify(delegateMock).evictAll();
+
+        manager.evictInferredObjects(Collections.singleton(a.getUri()));
+        verify(delegateMock, never()).evict(any(Class.class), any(), any(URI.class));
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class StripedCacheManagerTest extends AbstractCacheManagerTest<StripedCacheManager> {
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        this.manager = new StripedCacheManager();
+    }
+
+    @Override
+    Map<?, ?> extractDescriptors() throws Exception {
+        final Field contextsField = StripedCacheManager.class.getDeclaredField("contexts");
+        contextsField.setAccessible(true);
+        final Map<?, ?> contexts = (Map<?, ?>) contextsField.get(manager);
+        final Map<Object, Object> descriptors = new IdentityHashMap<>();
+        for (Object ctxMap : contexts.values()) {
+            for (Object entry : ((Map<?, ?>) ctxMap).values()) {
+                final Field entityField = entry.getClass().getDeclaredField("entity");
+                entityField.setAccessible(true);
+                final Field descriptorField = entry.getClass().getDeclaredField("descriptor");
+                descriptorField.setAccessible(true);
+                descriptors.put(entityField.get(entry), descriptorField.get(entry));
+            }
+        }
+        return descriptors;
+    }
+
+    @Test
+    public void initializationUsesDefaultCapacityWhenNoneIsSpecified() {
+        assertEquals(LruCacheManager.DEFAULT_CAPACITY, manager.getCapacity());
+    }
+
+    @Test
+    public void initializationUsesConfiguredCapacity() {
+        this.manager = new StripedCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, "117"));
+        assertEquals(117, manager.getCapacity());
+    }
+
+    @Test
+    public void cacheFactoryCreatesStripedCacheForStripedCacheType() {
+        assertTrue(CacheFactory.createCache(Collections.singletonMap(JOPAPersistenceProperties.CACHE_TYPE,
+                "striped")) instanceof StripedCacheManager);
+    }
+
+    @Test
+    public void addEvictsEntriesWhenCapacityIsExceeded() {
+        final int capacity = 10;
+        this.manager = new StripedCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, Integer.toString(capacity)));
+        final List<OWLClassA> instances = generateInstances(capacity * 3);
+        instances.forEach(a -> manager.add(a.getUri(), a, descriptor(null)));
+
+        final long cachedCount = instances.stream()
+                                          .filter(a -> manager.contains(OWLClassA.class, a.getUri(), descriptor(null)))
+                                          .count();
+        assertTrue(cachedCount <= capacity);
+        assertTrue(manager.contains(OWLClassA.class, instances.get(instances.size() - 1).getUri(), descriptor(null)));
+    }
+
+    private static List<OWLClassA> generateInstances(int count) {
+        final List<OWLClassA> instances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            instances.add(new OWLClassA(Generators.createIndividualIdentifier()));
+        }
+        return instances;
+    }
+
+    @Test
+    public void addRetainsRecentlyAccessedEntriesWhenEvicting() throws Exception {
+        final int capacity = 4;
+        this.manager = new StripedCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, Integer.toString(capacity)));
+        final Descriptor descriptor = descriptor(CONTEXT_ONE);
+        final List<OWLClassA> instances = generateInstances(capacity);
+        for (OWLClassA a : instances) {
+            manager.add(a.getUri(), a, descriptor);
+            Thread.sleep(1);
+        }
+        final OWLClassA accessed = instances.get(0);
+        assertNotNull(manager.get(OWLClassA.class, accessed.getUri(), descriptor));
+        final OWLClassA newA = new OWLClassA(Generators.createIndividualIdentifier());
+        manager.add(newA.getUri(), newA, descriptor);
+
+        assertTrue(manager.contains(OWLClassA.class, accessed.getUri(), descriptor));
+        assertTrue(manager.contains(OWLClassA.class, newA.getUri(), descriptor));
+        assertFalse(manager.contains(OWLClassA.class, instances.get(1).getUri(), descriptor));
+    }
+
+    @Test
+    public void concurrentAccessKeepsCacheConsistent() throws Exception {
+        final int capacity = 64;
+        this.manager = new StripedCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, Integer.toString(capacity)));
+        final int threadCount = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(threadCount);
+            for (int i = 0; i < threadCount; i++) {
+                final URI context = i % 2 == 0 ? CONTEXT_ONE : CONTEXT_TWO;
+                futures.add(executor.submit(() -> {
+                    for (OWLClassA a : generateInstances(capacity * 4)) {
+                        final Descriptor descriptor = descriptor(context);
+                        manager.add(a.getUri(), a, descriptor);
+                        // The entry may have already been evicted by another thread
+                        final OWLClassA cached = manager.get(OWLClassA.class, a.getUri(), descriptor);
+                        assertTrue(cached == null || cached == a);
+                        manager.evict(OWLClassA.class, a.getUri(), context);
+                        manager.add(a.getUri(), a, descriptor);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        final OWLClassA last = new OWLClassA(Generators.createIndividualIdentifier());
+        manager.add(last.getUri(), last, descriptor(null));
+        assertTrue(extractDescriptors().size() <= capacity);
+    }
+}
@@ -22,8 +22,10 @@ import cz.cvut.kbss.jopa.model.LoadState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class InstanceDescriptorTest {
 
@@ -110,4 +112,27 @@ class InstanceDescriptorTest {
 
         assertEquals(LoadState.LOADED, sut.isLoaded());
     }
-}
\ No newline at end of file
+
+    @Test
+    void setDirtyMarksAttributeAsDirty() {
+        final OWLClassA instance = new OWLClassA();
+        final InstanceDescriptor<OWLClassA> sut = new InstanceDescriptor<>(instance,
+                metamodelMocks.forOwlClassA().entityType());
+        assertTrue(sut.getDirtyAttributes().isEmpty());
+        sut.setDirty(metamodelMocks.forOwlClassA().stringAttribute());
+        sut.setDirty(metamodelMocks.forOwlClassA().typesSpec());
+        sut.setDirty(metamodelMocks.forOwlClassA().stringAttribute());
+        assertEquals(new HashSet<>(Arrays.asList(metamodelMocks.forOwlClassA().stringAttribute(),
+                metamodelMocks.forOwlClassA().typesSpec())), sut.getDirtyAttributes());
+    }
+
+    @Test
+    void clearDirtyAttributesUnmarksAllDirtyAttributes() {
+        final OWLClassA instance = new OWLClassA();
+        final InstanceDescriptor<OWLClassA> sut = new InstanceDescriptor<>(instance,
+                metamodelMocks.forOwlClassA().entityType());
+        sut.setDirty(metamodelMocks.forOwlClassA().stringAttribute());
+        sut.clearDirtyAttributes();
+        assertTrue(sut.getDirtyAttributes().isEmpty());
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.validator;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassL;
+import cz.cvut.kbss.jopa.environment.OWLClassN;
+import cz.cvut.kbss.jopa.environment.Vocabulary;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.exceptions.CardinalityConstraintViolatedException;
+import cz.cvut.kbss.jopa.loaders.PersistenceUnitClassFinder;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.model.annotations.ParticipationConstraint;
+import cz.cvut.kbss.jopa.model.annotations.ParticipationConstraints;
+import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
+import cz.cvut.kbss.jopa.model.metamodel.Attribute;
+import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
+import cz.cvut.kbss.jopa.sessions.ObjectChangeSet;
+import cz.cvut.kbss.jopa.sessions.change.ChangeRecordImpl;
+import cz.cvut.kbss.jopa.sessions.change.ObjectChangeSetImpl;
+import cz.cvut.kbss.jopa.utils.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+class EntityTypeConstraintsValidatorTest {
+
+    private MetamodelImpl metamodel;
+
+    @BeforeEach
+    void setUp() {
+        final Configuration config = new Configuration(
+                Collections.singletonMap(JOPAPersistenceProperties.SCAN_PACKAGE, "cz.cvut.kbss.jopa.environment"));
+        this.metamodel = new MetamodelImpl(config);
+        metamodel.build(new PersistenceUnitClassFinder());
+    }
+
+    private <T> EntityTypeConstraintsValidator<T> validator(Class<T> cls) {
+        return ((EntityTypeImpl<T>) metamodel.entity(cls)).getConstraintsValidator();
+    }
+
+    @Test
+    void metamodelBuildCompilesValidatorsForEntityTypes() {
+        assertNotNull(validator(OWLClassA.class));
+        assertFalse(validator(OWLClassA.class).hasConstraints());
+        assertTrue(validator(OWLClassL.class).hasConstraints());
+    }
+
+    @Test
+    void validateSkipsLazilyLoadedAttributesWhenConfiguredTo() {
+        final OWLClassL instance = new OWLClassL(Generators.createIndividualIdentifier());
+        instance.setSingleA(new OWLClassA());
+        final EntityTypeConstraintsValidator<OWLClassL> sut = validator(OWLClassL.class);
+
+        assertDoesNotThrow(() -> sut.validate(instance, true));
+        assertThrows(CardinalityConstraintViolatedException.class, () -> sut.validate(instance, false));
+    }
+
+    @Test
+    void validateReportsInstanceIdentifierAndAttributeInViolationMessage() throws Exception {
+        final OWLClassL instance = new OWLClassL(Generators.createIndividualIdentifier());
+        instance.setSingleA(new OWLClassA());
+        instance.setSimpleList(Collections.singletonList(new OWLClassA()));
+
+        final CardinalityConstraintViolatedException ex = assertThrows(CardinalityConstraintViolatedException.class,
+                () -> validator(OWLClassL.class).validate(instance, false));
+        assertTrue(ex.getMessage().contains(instance.getUri().toString()));
+        assertTrue(ex.getMessage().contains("OWLClassL." + OWLClassL.getSetField().getName()));
+    }
+
+    @Test
+    void validateChangeSetValidatesOnlyChangedAttributes() throws Exception {
+        final OWLClassN original = new OWLClassN();
+        original.setId(Generators.createIndividualIdentifier().toString());
+        final OWLClassN clone = new OWLClassN();
+        clone.setId(original.getId());
+        clone.setAnnotationProperty("annotation");
+        final ObjectChangeSet changeSet = new ObjectChangeSetImpl(original, clone, new EntityDescriptor());
+        changeSet.addChangeRecord(new ChangeRecordImpl(metamodel.entity(OWLClassN.class).getFieldSpecification(
+                OWLClassN.getAnnotationPropertyField().getName()), clone.getAnnotationProperty()));
+
+        // stringAttribute is nonEmpty, but it is not part of the change set
+        assertDoesNotThrow(() -> validator(OWLClassN.class).validate(changeSet));
+    }
+
+    @Test
+    void validateAttributeIgnoresAttributesWithoutConstraints() throws Exception {
+        final OWLClassN instance = new OWLClassN();
+        final EntityTypeConstraintsValidator<OWLClassN> sut = validator(OWLClassN.class);
+
+        assertDoesNotThrow(() -> sut.validate(instance, metamodel.entity(OWLClassN.class).getFieldSpecification(
+                OWLClassN.getAnnotationPropertyField().getName())));
+        assertThrows(CardinalityConstraintViolatedException.class,
+                () -> sut.validate(instance, metamodel.entity(OWLClassN.class).getFieldSpecification(
+                        OWLClassN.getStringAttributeField().getName())));
+    }
+
+    @Test
+    void validateChecksMultipleConstraintsInDeclarationOrder() throws Exception {
+        final Attribute<? super OWLClassL, ?> setAtt = spy(metamodel.entity(OWLClassL.class).getAttribute(
+                OWLClassL.getSetField().getName()));
+        doReturn(MultipleConstraints.getConstraints()).when(setAtt).getConstraints();
+        final EntityTypeImpl<OWLClassL> et = spy((EntityTypeImpl<OWLClassL>) metamodel.entity(OWLClassL.class));
+        doReturn(Collections.singleton(setAtt)).when(et).getAttributes();
+        final EntityTypeConstraintsValidator<OWLClassL> sut = EntityTypeConstraintsValidator.compile(et);
+        final OWLClassL instance = new OWLClassL(Generators.createIndividualIdentifier());
+        final CardinalityConstraintsValidator reference = new CardinalityConstraintsValidator();
+
+        instance.setSet(new HashSet<>(Generators.generateInstances(4)));
+        CardinalityConstraintViolatedException ex =
+                assertThrows(CardinalityConstraintViolatedException.class, () -> sut.validate(instance, false));
+        assertTrue(ex.getMessage().startsWith("At most 3 values"));
+        assertEquals(assertThrows(CardinalityConstraintViolatedException.class,
+                () -> reference.validate(instance.getUri(), setAtt, instance.getSet())).getMessage(), ex.getMessage());
+
+        instance.setSet(Collections.emptySet());
+        ex = assertThrows(CardinalityConstraintViolatedException.class, () -> sut.validate(instance, false));
+        assertTrue(ex.getMessage().startsWith("At least 5 values"));
+    }
+
+    private static class MultipleConstraints {
+
+        @ParticipationConstraints({
+                @ParticipationConstraint(max = 3, owlObjectIRI = Vocabulary.c_OwlClassA),
+                @ParticipationConstraint(min = 5, owlObjectIRI = Vocabulary.c_OwlClassA)
+        })
+        private Set<OWLClassA> set;
+
+        private static ParticipationConstraint[] getConstraints() throws NoSuchFieldException {
+            return MultipleConstraints.class.getDeclaredField("set").getAnnotation(ParticipationConstraints.class)
+                                            .value();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.utils;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassM;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.loaders.PersistenceUnitClassFinder;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.model.metamodel.AccessibleFieldSpecification;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldAccessorTest {
+
+    @Test
+    void getValueReturnsValueOfPrivateField() throws Exception {
+        final OWLClassA instance = Generators.generateOwlClassAInstance();
+        final FieldAccessor sut = FieldAccessor.of(OWLClassA.getStrAttField());
+        assertEquals(instance.getStringAttribute(), sut.getValue(instance));
+    }
+
+    @Test
+    void setValueSetsValueOfPrivateField() throws Exception {
+        final OWLClassA instance = new OWLClassA();
+        final FieldAccessor sut = FieldAccessor.of(OWLClassA.getStrAttField());
+        sut.setValue(instance, "test");
+        assertEquals("test", instance.getStringAttribute());
+    }
+
+    @Test
+    void getAndSetValueHandlePrimitiveFields() throws Exception {
+        final PrimitiveHolder instance = new PrimitiveHolder();
+        final FieldAccessor sut = FieldAccessor.of(PrimitiveHolder.class.getDeclaredField("value"));
+        sut.setValue(instance, 117);
+        assertEquals(117, instance.value);
+        assertEquals(117, sut.getValue(instance));
+    }
+
+    @Test
+    void ofReturnsSameAccessorForSameField() throws Exception {
+        assertSame(FieldAccessor.of(OWLClassA.getStrAttField()), FieldAccessor.of(OWLClassA.getStrAttField()));
+    }
+
+    @Test
+    void metamodelAttributesProvideAccessorsResolvedWhenMetamodelIsBuilt() throws Exception {
+        final Configuration config = new Configuration(
+                Collections.singletonMap(JOPAPersistenceProperties.SCAN_PACKAGE, "cz.cvut.kbss.jopa.environment"));
+        final MetamodelImpl metamodel = new MetamodelImpl(config);
+        metamodel.build(new PersistenceUnitClassFinder());
+        final FieldSpecification<?, ?> att =
+                metamodel.entity(OWLClassA.class).getFieldSpecification(OWLClassA.getStrAttField().getName());
+
+        assertTrue(att instanceof AccessibleFieldSpecification);
+        final FieldAccessor accessor = ((AccessibleFieldSpecification<?, ?>) att).getFieldAccessor();
+        assertNotNull(accessor);
+        assertSame(accessor, EntityPropertiesUtils.getFieldAccessor(att));
+        final OWLClassA instance = Generators.generateOwlClassAInstance();
+        assertEquals(instance.getStringAttribute(), EntityPropertiesUtils.getAttributeValue(att, instance));
+    }
+
+    @Test
+    void setValueThrowsIllegalArgumentExceptionWhenValueHasIncompatibleType() throws Exception {
+        final FieldAccessor sut = FieldAccessor.of(OWLClassA.getStrAttField());
+        assertThrows(IllegalArgumentException.class, () -> sut.setValue(new OWLClassA(), 117));
+    }
+
+    @Test
+    void setValueThrowsIllegalArgumentExceptionWhenNullIsAssignedToPrimitiveField() throws Exception {
+        final FieldAccessor sut = FieldAccessor.of(PrimitiveHolder.class.getDeclaredField("value"));
+        assertThrows(IllegalArgumentException.class, () -> sut.setValue(new PrimitiveHolder(), null));
+    }
+
+    @Test
+    void getValueThrowsIllegalArgumentExceptionWhenInstanceDoesNotDeclareField() throws Exception {
+        final FieldAccessor sut = FieldAccessor.of(OWLClassA.getStrAttField());
+        assertThrows(IllegalArgumentException.class, () -> sut.getValue(new OWLClassM()));
+    }
+
+    @Test
+    void getAndSetValueHandleStaticFields() throws Exception {
+        final Field field = PrimitiveHolder.class.getDeclaredField("staticValue");
+        final FieldAccessor sut = FieldAccessor.of(field);
+        sut.setValue(null, "test");
+        assertEquals("test", sut.getValue(null));
+    }
+
+    @Test
+    void setValueSupportsFinalFields() throws Exception {
+        final PrimitiveHolder instance = new PrimitiveHolder();
+        final FieldAccessor sut = FieldAccessor.of(PrimitiveHolder.class.getDeclaredField("finalValue"));
+        sut.setValue(instance, "test");
+        assertEquals("test", sut.getValue(instance));
+    }
+
+    @SuppressWarnings("unused")
+    private static class PrimitiveHolder {
+        private static String staticValue;
+
+        private int value;
+
+        private final String finalValue = null;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.maven;
+
+import cz.cvut.kbss.jopa.model.annotations.*;
+import cz.cvut.kbss.jopa.utils.PersistenceClassIndex;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generates {@link PersistenceClassIndex} of the compiled project classes.
+ * <p>
+ * The index lists entities and classes declaring named native queries or SPARQL result set mappings, so that the
+ * persistence provider does not have to scan the classpath at startup.
+ */
+@Mojo(name = "generate-class-index", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+      requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class ClassIndexMojo extends AbstractMojo {
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private static final Set<String> INDEXED_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            OWLClass.class.getName(), NamedNativeQuery.class.getName(), NamedNativeQueries.class.getName(),
+            SparqlResultSetMapping.class.getName(), SparqlResultSetMappings.class.getName()));
+
+    @Parameter(defaultValue = "${project.build.outputDirectory}", readonly = true, required = true)
+    private File outputDirectory;
+
+    @Parameter(defaultValue = "${project.compileClasspathElements}", readonly = true, required = true)
+    private List<String> classpathElements;
+
+    /**
+     * Package whose classes are indexed. All classes in the output directory are indexed if not specified.
+     */
+    @Parameter(alias = "package")
+    private String pPackage;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (!outputDirectory.isDirectory()) {
+            getLog().info("Output directory " + outputDirectory + " does not exist. Skipping class index generation.");
+            return;
+        }
+        final List<String> indexed;
+        try (final URLClassLoader loader = new URLClassLoader(classpathUrls(), null)) {
+            indexed = findClassNames().stream().filter(name -> isIndexed(name, loader)).sorted()
+                                      .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to scan classes in " + outputDirectory, e);
+        }
+        final Path index = outputDirectory.toPath().resolve(PersistenceClassIndex.LOCATION);
+        try {
+            Files.createDirectories(index.getParent());
+            try (final OutputStream out = Files.newOutputStream(index)) {
+                PersistenceClassIndex.write(indexed, out);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to write class index to " + index, e);
+        }
+        getLog().info("Generated class index " + index + " with " + indexed.size() + " classes.");
+    }
+
+    private URL[] classpathUrls() throws MalformedURLException {
+        final List<URL> urls = new ArrayList<>();
+        urls.add(outputDirectory.toURI().toURL());
+        for (String element : classpathElements) {
+            urls.add(new File(element).toURI().toURL());
+        }
+        return urls.toArray(new URL[0]);
+    }
+
+    private List<String> findClassNames() throws IOException {
+        final Path root = outputDirectory.toPath();
+        final String prefix = pPackage != null && !pPackage.isEmpty() ? pPackage + '.' : "";
+        try (final Stream<Path> files = Files.walk(root)) {
+            return files.filter(p -> p.toString().endsWith(CLASS_FILE_SUFFIX)).map(p -> {
+                final String relative = root.relativize(p).toString();
+                return relative.substring(0, relative.length() - CLASS_FILE_SUFFIX.length())
+                               .replace(File.separatorChar, '.');
+            }).filter(name -> name.startsWith(prefix)).collect(Collectors.toList());
+        }
+    }
+
+    private boolean isIndexed(String className, ClassLoader loader) {
+        try {
+            // Do not initialize the class, only its annotations are of interest
+            final Class<?> cls = Class.forName(className, false, loader);
+            if (cls.isInterface() || cls.isAnnotation()) {
+                return false;
+            }
+            for (Annotation a : cls.getDeclaredAnnotations()) {
+                if (INDEXED_ANNOTATIONS.contains(a.annotationType().getName())) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (ClassNotFoundException | LinkageError e) {
+            getLog().debug("Unable to load class " + className + ", skipping it.", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.maven;
+
+import cz.cvut.kbss.jopa.maven.environment.Entity;
+import cz.cvut.kbss.jopa.maven.environment.WithQuery;
+import cz.cvut.kbss.jopa.maven.environment.sub.SubEntity;
+import cz.cvut.kbss.jopa.model.annotations.OWLClass;
+import cz.cvut.kbss.jopa.utils.PersistenceClassIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ClassIndexMojoTest {
+
+    private static final String ENVIRONMENT_PACKAGE = "cz.cvut.kbss.jopa.maven.environment";
+
+    private final ClassIndexMojo sut = new ClassIndexMojo();
+
+    @Test
+    void executeWritesIndexOfEntitiesAndClassesDeclaringQueries(@TempDir Path outputDir) throws Exception {
+        copyEnvironmentClasses(outputDir);
+        configure(outputDir, null);
+
+        sut.execute();
+        assertEquals(Arrays.asList(Entity.class.getName(), WithQuery.class.getName(), SubEntity.class.getName()),
+                readIndex(outputDir));
+    }
+
+    private static void copyEnvironmentClasses(Path target) throws Exception {
+        final Path testClasses = Paths.get(Entity.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final Path environment = testClasses.resolve(ENVIRONMENT_PACKAGE.replace('.', '/'));
+        try (final Stream<Path> files = Files.walk(environment)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                final Path copy = target.resolve(testClasses.relativize(file).toString());
+                if (Files.isDirectory(file)) {
+                    Files.createDirectories(copy);
+                } else {
+                    Files.copy(file, copy);
+                }
+            }
+        }
+    }
+
+    private void configure(Path outputDir, String pPackage) throws Exception {
+        final Path api = Paths.get(OWLClass.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        setField("outputDirectory", outputDir.toFile());
+        setField("classpathElements", Collections.singletonList(api.toString()));
+        setField("pPackage", pPackage);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        final Field field = ClassIndexMojo.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(sut, value);
+    }
+
+    private static List<String> readIndex(Path outputDir) throws Exception {
+        try (final InputStream in = Files.newInputStream(outputDir.resolve(PersistenceClassIndex.LOCATION))) {
+            return PersistenceClassIndex.read(in);
+        }
+    }
+
+    @Test
+    void executeIndexesOnlyClassesInConfiguredPackage(@TempDir Path outputDir) throws Exception {
+        copyEnvironmentClasses(outputDir);
+        configure(outputDir, SubEntity.class.getPackage().getName());
+
+        sut.execute();
+        assertEquals(Collections.singletonList(SubEntity.class.getName()), readIndex(outputDir));
+    }
+
+    @Test
+    void executeSkipsIndexGenerationWhenOutputDirectoryDoesNotExist(@TempDir Path dir) throws Exception {
+        final Path outputDir = dir.resolve("classes");
+        configure(outputDir, null);
+
+        sut.execute();
+        assertFalse(Files.exists(outputDir));
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.owlapi.identityreasoner;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Index of axioms of one type, keyed by an axiom component (e.g., subject individual or property).
+ * <p>
+ * An axiom may be indexed under multiple keys, e.g., an equivalent classes axiom is indexed under each of its class
+ * expressions.
+ * <p>
+ * The index is built from the ontology on the first lookup. Changes reported before that are ignored, as the build
+ * reads the current state of the ontology.
+ *
+ * @param <A> Type of the indexed axioms
+ */
+class AxiomIndex<A extends OWLAxiom> {
+
+    private final OWLOntology ontology;
+    private final AxiomType<A> axiomType;
+    private final Function<A, Stream<?>> keyExtractor;
+
+    private final Map<Object, Set<A>> index = new ConcurrentHashMap<>();
+    private volatile boolean built;
+
+    /**
+     * @param ontology     Ontology whose axioms are indexed, imports are not included
+     * @param axiomType    Type of the indexed axioms
+     * @param keyExtractor Extracts keys under which an axiom is indexed
+     */
+    AxiomIndex(OWLOntology ontology, AxiomType<A> axiomType, Function<A, Stream<?>> keyExtractor) {
+        this.ontology = ontology;
+        this.axiomType = axiomType;
+        this.keyExtractor = keyExtractor;
+    }
+
+    AxiomType<A> getAxiomType() {
+        return axiomType;
+    }
+
+    boolean isBuilt() {
+        return built;
+    }
+
+    private synchronized void build() {
+        if (built) {
+            return;
+        }
+        ontology.axioms(axiomType).forEach(this::index);
+        this.built = true;
+    }
+
+    private void index(A axiom) {
+        keyExtractor.apply(axiom)
+                    .forEach(key -> index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(axiom));
+    }
+
+    synchronized void add(OWLAxiom axiom) {
+        assert axiom.getAxiomType() == axiomType;
+        if (built) {
+            index(axiomType.getActualClass().cast(axiom));
+        }
+    }
+
+    synchronized void remove(OWLAxiom axiom) {
+        assert axiom.getAxiomType() == axiomType;
+        if (!built) {
+            return;
+        }
+        final A a = axiomType.getActualClass().cast(axiom);
+        keyExtractor.apply(a).forEach(key -> index.computeIfPresent(key, (k, axioms) -> {
+            axioms.remove(a);
+            return axioms.isEmpty() ? null : axioms;
+        }));
+    }
+
+    /**
+     * Gets axioms indexed under the specified key.
+     * <p>
+     * Builds the index if it has not been built yet.
+     *
+     * @param key Index key
+     * @return Unmodifiable set of matching axioms, possibly empty
+     */
+    Set<A> get(Object key) {
+        if (!built) {
+            build();
+        }
+        final Set<A> result = index.get(key);
+        return result != null ? Collections.unmodifiableSet(result) : Collections.emptySet();
+    }
+}
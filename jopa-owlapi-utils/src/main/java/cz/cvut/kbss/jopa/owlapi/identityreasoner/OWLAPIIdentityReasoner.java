@@ -19,23 +19,94 @@ import org.semanticweb.owlapi.search.EntitySearcher;
 import org.semanticweb.owlapi.util.Version;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+/**
+ * Reasoner which entails only the asserted axioms of the ontology.
+ * <p>
+ * Lookups are served from axiom indexes, each built on its first lookup. The indexes are kept up to date with the
+ * ontology by an ontology change listener, which is unregistered when the reasoner is disposed.
+ */
 @Deprecated
 class OWLAPIIdentityReasoner implements OWLReasoner {
 
     private final OWLOntology o;
 
+    private final Map<AxiomType<?>, List<AxiomIndex<?>>> indexes = new HashMap<>();
+
+    private final AxiomIndex<OWLClassAssertionAxiom> classAssertions;
+    private final AxiomIndex<OWLDataPropertyAssertionAxiom> dataPropertyAssertions;
+    private final AxiomIndex<OWLObjectPropertyAssertionAxiom> objectPropertyAssertions;
+    private final AxiomIndex<OWLDifferentIndividualsAxiom> differentIndividuals;
+    private final AxiomIndex<OWLSameIndividualAxiom> sameIndividuals;
+    private final AxiomIndex<OWLEquivalentClassesAxiom> equivalentClasses;
+    private final AxiomIndex<OWLEquivalentObjectPropertiesAxiom> equivalentObjectProperties;
+    private final AxiomIndex<OWLInverseObjectPropertiesAxiom> inverseObjectProperties;
+    private final AxiomIndex<OWLDataPropertyDomainAxiom> dataPropertyDomains;
+    private final AxiomIndex<OWLObjectPropertyDomainAxiom> objectPropertyDomains;
+    private final AxiomIndex<OWLObjectPropertyRangeAxiom> objectPropertyRanges;
+    private final AxiomIndex<OWLSubClassOfAxiom> subClassesBySuperClass;
+    private final AxiomIndex<OWLSubClassOfAxiom> superClassesBySubClass;
+    private final AxiomIndex<OWLSubDataPropertyOfAxiom> subDataPropertiesBySuperProperty;
+    private final AxiomIndex<OWLSubDataPropertyOfAxiom> superDataPropertiesBySubProperty;
+    private final AxiomIndex<OWLSubObjectPropertyOfAxiom> subObjectPropertiesBySuperProperty;
+    private final AxiomIndex<OWLSubObjectPropertyOfAxiom> superObjectPropertiesBySubProperty;
+
+    private final OWLOntologyChangeListener changeListener = this::applyChanges;
+
     public OWLAPIIdentityReasoner(final OWLOntology o) {
         this.o = o;
+        this.classAssertions = index(AxiomType.CLASS_ASSERTION, a -> Stream.of(a.getClassExpression()));
+        this.dataPropertyAssertions = index(AxiomType.DATA_PROPERTY_ASSERTION, a -> Stream.of(a.getSubject()));
+        this.objectPropertyAssertions = index(AxiomType.OBJECT_PROPERTY_ASSERTION, a -> Stream.of(a.getSubject()));
+        this.differentIndividuals = index(AxiomType.DIFFERENT_INDIVIDUALS, OWLNaryIndividualAxiom::individuals);
+        this.sameIndividuals = index(AxiomType.SAME_INDIVIDUAL, OWLNaryIndividualAxiom::individuals);
+        this.equivalentClasses = index(AxiomType.EQUIVALENT_CLASSES, OWLNaryClassAxiom::classExpressions);
+        this.equivalentObjectProperties =
+                index(AxiomType.EQUIVALENT_OBJECT_PROPERTIES, OWLNaryPropertyAxiom::properties);
+        this.inverseObjectProperties = index(AxiomType.INVERSE_OBJECT_PROPERTIES,
+                a -> Stream.of(a.getFirstProperty(), a.getSecondProperty()));
+        this.dataPropertyDomains = index(AxiomType.DATA_PROPERTY_DOMAIN, a -> Stream.of(a.getProperty()));
+        this.objectPropertyDomains = index(AxiomType.OBJECT_PROPERTY_DOMAIN, a -> Stream.of(a.getProperty()));
+        this.objectPropertyRanges = index(AxiomType.OBJECT_PROPERTY_RANGE, a -> Stream.of(a.getProperty()));
+        this.subClassesBySuperClass = index(AxiomType.SUBCLASS_OF, a -> Stream.of(a.getSuperClass()));
+        this.superClassesBySubClass = index(AxiomType.SUBCLASS_OF, a -> Stream.of(a.getSubClass()));
+        this.subDataPropertiesBySuperProperty =
+                index(AxiomType.SUB_DATA_PROPERTY, a -> Stream.of(a.getSuperProperty()));
+        this.superDataPropertiesBySubProperty = index(AxiomType.SUB_DATA_PROPERTY, a -> Stream.of(a.getSubProperty()));
+        this.subObjectPropertiesBySuperProperty =
+                index(AxiomType.SUB_OBJECT_PROPERTY, a -> Stream.of(a.getSuperProperty()));
+        this.superObjectPropertiesBySubProperty =
+                index(AxiomType.SUB_OBJECT_PROPERTY, a -> Stream.of(a.getSubProperty()));
+        o.getOWLOntologyManager().addOntologyChangeListener(changeListener);
+    }
+
+    private <A extends OWLAxiom> AxiomIndex<A> index(AxiomType<A> axiomType, Function<A, Stream<?>> keyExtractor) {
+        final AxiomIndex<A> index = new AxiomIndex<>(o, axiomType, keyExtractor);
+        indexes.computeIfAbsent(axiomType, t -> new ArrayList<>()).add(index);
+        return index;
+    }
+
+    private void applyChanges(List<? extends OWLOntologyChange> changes) {
+        for (OWLOntologyChange change : changes) {
+            if (!change.isAxiomChange() || !o.equals(change.getOntology())) {
+                continue;
+            }
+            final OWLAxiom axiom = change.getAxiom();
+            final List<AxiomIndex<?>> affected = indexes.getOrDefault(axiom.getAxiomType(), Collections.emptyList());
+            if (change.isAddAxiom()) {
+                affected.forEach(index -> index.add(axiom));
+            } else if (change.isRemoveAxiom()) {
+                affected.forEach(index -> index.remove(axiom));
+            }
+        }
     }
 
 
     public void dispose() {
-        // do nothing
+        o.getOWLOntologyManager().removeOntologyChangeListener(changeListener);
     }
 
 
@@ -73,8 +144,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                     boolean direct) {
         final OWLClassNodeSet s = new OWLClassNodeSet();
 
-        for (final OWLDataPropertyDomainAxiom a : o.getAxioms(AxiomType.DATA_PROPERTY_DOMAIN)) {
-            if (a.getProperty().equals(pe) && !a.getDomain().isAnonymous()) {
+        for (final OWLDataPropertyDomainAxiom a : dataPropertyDomains.get(pe)) {
+            if (!a.getDomain().isAnonymous()) {
                 s.addEntity(a.getDomain().asOWLClass());
             }
         }
@@ -88,8 +159,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                  @Nonnull OWLDataProperty pe) {
         final Set<OWLLiteral> literals = new HashSet<>();
 
-        for (final OWLDataPropertyAssertionAxiom a : o.getAxioms(AxiomType.DATA_PROPERTY_ASSERTION)) {
-            if (a.getProperty().equals(pe) && a.getSubject().equals(ind)) {
+        for (final OWLDataPropertyAssertionAxiom a : dataPropertyAssertions.get(ind)) {
+            if (a.getProperty().equals(pe)) {
                 literals.add(a.getObject());
             }
         }
@@ -102,12 +173,10 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
     public NodeSet<OWLNamedIndividual> getDifferentIndividuals(@Nonnull OWLNamedIndividual ind) {
         final OWLNamedIndividualNodeSet pn = new OWLNamedIndividualNodeSet();
 
-        for (final OWLDifferentIndividualsAxiom a : o.getAxioms(AxiomType.DIFFERENT_INDIVIDUALS)) {
-            if (a.getIndividuals().contains(ind)) {
-                for (OWLIndividual e : a.getIndividuals()) {
-                    if (e.isNamed()) {
-                        pn.addEntity(e.asOWLNamedIndividual());
-                    }
+        for (final OWLDifferentIndividualsAxiom a : differentIndividuals.get(ind)) {
+            for (OWLIndividual e : a.getIndividuals()) {
+                if (e.isNamed()) {
+                    pn.addEntity(e.asOWLNamedIndividual());
                 }
             }
         }
@@ -119,12 +188,10 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
     public Node<OWLClass> getEquivalentClasses(@Nonnull OWLClassExpression ce) {
         final OWLClassNode pn = new OWLClassNode();
 
-        for (final OWLEquivalentClassesAxiom a : o.getAxioms(AxiomType.EQUIVALENT_CLASSES)) {
-            if (a.getClassExpressions().contains(ce)) {
-                for (OWLClassExpression e : a.getClassExpressions()) {
-                    if (!e.isAnonymous()) {
-                        pn.add(e.asOWLClass());
-                    }
+        for (final OWLEquivalentClassesAxiom a : equivalentClasses.get(ce)) {
+            for (OWLClassExpression e : a.getClassExpressions()) {
+                if (!e.isAnonymous()) {
+                    pn.add(e.asOWLClass());
                 }
             }
         }
@@ -150,12 +217,10 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
     public Node<OWLObjectPropertyExpression> getEquivalentObjectProperties(@Nonnull OWLObjectPropertyExpression pe) {
         final OWLObjectPropertyNode pn = new OWLObjectPropertyNode();
 
-        for (final OWLEquivalentObjectPropertiesAxiom a : o.getAxioms(AxiomType.EQUIVALENT_OBJECT_PROPERTIES)) {
-            if (a.getProperties().contains(pe)) {
-                for (OWLObjectPropertyExpression e : a.getProperties()) {
-                    if (!e.isAnonymous()) {
-                        pn.add(e.asOWLObjectProperty());
-                    }
+        for (final OWLEquivalentObjectPropertiesAxiom a : equivalentObjectProperties.get(pe)) {
+            for (OWLObjectPropertyExpression e : a.getProperties()) {
+                if (!e.isAnonymous()) {
+                    pn.add(e.asOWLObjectProperty());
                 }
             }
         }
@@ -174,9 +239,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
     public NodeSet<OWLNamedIndividual> getInstances(@Nonnull OWLClassExpression ce, boolean direct) {
         final OWLNamedIndividualNodeSet s = new OWLNamedIndividualNodeSet();
 
-        for (final OWLClassAssertionAxiom a : o.getAxioms(AxiomType.CLASS_ASSERTION)) {
-            if (a.getClassExpression().equals(ce)
-                    && a.getIndividual().isNamed()) {
+        for (final OWLClassAssertionAxiom a : classAssertions.get(ce)) {
+            if (a.getIndividual().isNamed()) {
                 s.addEntity(a.getIndividual().asOWLNamedIndividual());
             }
         }
@@ -188,7 +252,7 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
     public Node<OWLObjectPropertyExpression> getInverseObjectProperties(@Nonnull OWLObjectPropertyExpression pe) {
         final OWLObjectPropertyNode s = new OWLObjectPropertyNode();
 
-        for (final OWLInverseObjectPropertiesAxiom a : o.getAxioms(AxiomType.INVERSE_OBJECT_PROPERTIES)) {
+        for (final OWLInverseObjectPropertiesAxiom a : inverseObjectProperties.get(pe)) {
             if (a.getFirstProperty().equals(pe) && !a.getSecondProperty().isAnonymous()) {
                 s.add(a.getSecondProperty().asOWLObjectProperty());
             } else if (a.getSecondProperty().equals(pe) && !a.getFirstProperty().isAnonymous()) {
@@ -203,8 +267,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
     public NodeSet<OWLClass> getObjectPropertyDomains(@Nonnull OWLObjectPropertyExpression pe, boolean direct) {
         final OWLClassNodeSet s = new OWLClassNodeSet();
 
-        for (final OWLObjectPropertyDomainAxiom a : o.getAxioms(AxiomType.OBJECT_PROPERTY_DOMAIN)) {
-            if (a.getProperty().equals(pe) && !a.getDomain().isAnonymous()) {
+        for (final OWLObjectPropertyDomainAxiom a : objectPropertyDomains.get(pe)) {
+            if (!a.getDomain().isAnonymous()) {
                 s.addEntity(a.getDomain().asOWLClass());
             }
         }
@@ -217,8 +281,8 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
             @Nonnull OWLObjectPropertyExpression pe, boolean direct) {
         final OWLClassNodeSet s = new OWLClassNodeSet();
 
-        for (final OWLObjectPropertyRangeAxiom a : o.getAxioms(AxiomType.OBJECT_PROPERTY_RANGE)) {
-            if (a.getProperty().equals(pe) && !a.getRange().isAnonymous()) {
+        for (final OWLObjectPropertyRangeAxiom a : objectPropertyRanges.get(pe)) {
+            if (!a.getRange().isAnonymous()) {
                 s.addEntity(a.getRange().asOWLClass());
             }
         }
@@ -231,8 +295,11 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
             OWLObjectPropertyExpression pe) {
         final OWLNamedIndividualNodeSet pn = new OWLNamedIndividualNodeSet();
 
-        EntitySearcher.getObjectPropertyValues(ind, pe, o).filter(OWLIndividual::isNamed)
-                      .forEach(i -> pn.addEntity(i.asOWLNamedIndividual()));
+        for (final OWLObjectPropertyAssertionAxiom a : objectPropertyAssertions.get(ind)) {
+            if (a.getProperty().equals(pe) && a.getObject().isNamed()) {
+                pn.addEntity(a.getObject().asOWLNamedIndividual());
+            }
+        }
 
         return pn;
     }
@@ -278,12 +345,10 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
     public Node<OWLNamedIndividual> getSameIndividuals(@Nonnull OWLNamedIndividual ind) {
         final OWLNamedIndividualNode pn = new OWLNamedIndividualNode();
 
-        for (final OWLSameIndividualAxiom a : o.getAxioms(AxiomType.SAME_INDIVIDUAL)) {
-            if (a.getIndividuals().contains(ind)) {
-                for (OWLIndividual e : a.getIndividuals()) {
-                    if (e.isNamed()) {
-                        pn.add(e.asOWLNamedIndividual());
-                    }
+        for (final OWLSameIndividualAxiom a : sameIndividuals.get(ind)) {
+            for (OWLIndividual e : a.getIndividuals()) {
+                if (e.isNamed()) {
+                    pn.add(e.asOWLNamedIndividual());
                 }
             }
         }
@@ -296,11 +361,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
     public NodeSet<OWLClass> getSubClasses(@Nonnull OWLClassExpression ce, boolean direct) {
         final OWLClassNodeSet pn = new OWLClassNodeSet();
 
-        for (final OWLSubClassOfAxiom a : o.getAxioms(AxiomType.SUBCLASS_OF)) {
-            if (a.getSuperClass().equals(ce)) {
-                if (!a.getSubClass().isAnonymous()) {
-                    pn.addEntity(a.getSubClass().asOWLClass());
-                }
+        for (final OWLSubClassOfAxiom a : subClassesBySuperClass.get(ce)) {
+            if (!a.getSubClass().isAnonymous()) {
+                pn.addEntity(a.getSubClass().asOWLClass());
             }
         }
 
@@ -313,11 +376,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                          boolean direct) {
         final OWLDataPropertyNodeSet pn = new OWLDataPropertyNodeSet();
 
-        for (final OWLSubDataPropertyOfAxiom a : o.getAxioms(AxiomType.SUB_DATA_PROPERTY)) {
-            if (a.getSuperProperty().equals(pe)) {
-                if (!a.getSubProperty().isAnonymous()) {
-                    pn.addEntity(a.getSubProperty().asOWLDataProperty());
-                }
+        for (final OWLSubDataPropertyOfAxiom a : subDataPropertiesBySuperProperty.get(pe)) {
+            if (!a.getSubProperty().isAnonymous()) {
+                pn.addEntity(a.getSubProperty().asOWLDataProperty());
             }
         }
 
@@ -330,11 +391,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
             @Nonnull OWLObjectPropertyExpression pe, boolean direct) {
         final OWLObjectPropertyNodeSet pn = new OWLObjectPropertyNodeSet();
 
-        for (final OWLSubObjectPropertyOfAxiom a : o.getAxioms(AxiomType.SUB_OBJECT_PROPERTY)) {
-            if (a.getSuperProperty().equals(pe)) {
-                if (!a.getSubProperty().isAnonymous()) {
-                    pn.addEntity(a.getSubProperty().asOWLObjectProperty());
-                }
+        for (final OWLSubObjectPropertyOfAxiom a : subObjectPropertiesBySuperProperty.get(pe)) {
+            if (!a.getSubProperty().isAnonymous()) {
+                pn.addEntity(a.getSubProperty().asOWLObjectProperty());
             }
         }
 
@@ -347,11 +406,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                              boolean direct) throws ClassExpressionNotInProfileException {
         final OWLClassNodeSet pn = new OWLClassNodeSet();
 
-        for (final OWLSubClassOfAxiom a : o.getAxioms(AxiomType.SUBCLASS_OF)) {
-            if (a.getSubClass().equals(ce)) {
-                if (!a.getSuperClass().isAnonymous()) {
-                    pn.addEntity(a.getSuperClass().asOWLClass());
-                }
+        for (final OWLSubClassOfAxiom a : superClassesBySubClass.get(ce)) {
+            if (!a.getSuperClass().isAnonymous()) {
+                pn.addEntity(a.getSuperClass().asOWLClass());
             }
         }
 
@@ -364,11 +421,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
                                                            boolean direct) {
         final OWLDataPropertyNodeSet pn = new OWLDataPropertyNodeSet();
 
-        for (final OWLSubDataPropertyOfAxiom a : o.getAxioms(AxiomType.SUB_DATA_PROPERTY)) {
-            if (a.getSubProperty().equals(pe)) {
-                if (!a.getSuperProperty().isAnonymous()) {
-                    pn.addEntity(a.getSuperProperty().asOWLDataProperty());
-                }
+        for (final OWLSubDataPropertyOfAxiom a : superDataPropertiesBySubProperty.get(pe)) {
+            if (!a.getSuperProperty().isAnonymous()) {
+                pn.addEntity(a.getSuperProperty().asOWLDataProperty());
             }
         }
 
@@ -381,11 +436,9 @@ class OWLAPIIdentityReasoner implements OWLReasoner {
             @Nonnull OWLObjectPropertyExpression pe, boolean direct) {
         final OWLObjectPropertyNodeSet pn = new OWLObjectPropertyNodeSet();
 
-        for (final OWLSubObjectPropertyOfAxiom a : o.getAxioms(AxiomType.SUB_OBJECT_PROPERTY)) {
-            if (a.getSubProperty().equals(pe)) {
-                if (!a.getSuperProperty().isAnonymous()) {
-                    pn.addEntity(a.getSuperProperty().asOWLObjectProperty());
-                }
+        for (final OWLSubObjectPropertyOfAxiom a : superObjectPropertiesBySubProperty.get(pe)) {
+            if (!a.getSuperProperty().isAnonymous()) {
+                pn.addEntity(a.getSuperProperty().asOWLObjectProperty());
             }
         }
 
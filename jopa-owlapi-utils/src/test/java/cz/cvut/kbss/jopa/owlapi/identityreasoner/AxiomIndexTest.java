@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.owlapi.identityreasoner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AxiomIndexTest {
+
+    private static final String BASE = "http://krizik.felk.cvut.cz/ontologies/jopa/identity-reasoner#";
+
+    private OWLOntologyManager manager;
+    private OWLDataFactory dataFactory;
+    private OWLOntology ontology;
+
+    private AxiomIndex<OWLSubClassOfAxiom> sut;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.manager = OWLManager.createOWLOntologyManager();
+        this.dataFactory = manager.getOWLDataFactory();
+        this.ontology = manager.createOntology(IRI.create(BASE));
+        this.sut = new AxiomIndex<>(ontology, AxiomType.SUBCLASS_OF,
+                a -> Stream.of(a.getSubClass(), a.getSuperClass()));
+    }
+
+    private OWLClass owlClass(String name) {
+        return dataFactory.getOWLClass(IRI.create(BASE + name));
+    }
+
+    @Test
+    void indexIsBuiltOnFirstLookup() {
+        final OWLSubClassOfAxiom axiom = dataFactory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B"));
+        manager.addAxiom(ontology, axiom);
+        assertFalse(sut.isBuilt());
+
+        assertEquals(Collections.singleton(axiom), sut.get(owlClass("A")));
+        assertTrue(sut.isBuilt());
+    }
+
+    @Test
+    void getReturnsAxiomUnderEachOfItsKeys() {
+        final OWLSubClassOfAxiom axiom = dataFactory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B"));
+        manager.addAxiom(ontology, axiom);
+
+        assertEquals(Collections.singleton(axiom), sut.get(owlClass("A")));
+        assertEquals(Collections.singleton(axiom), sut.get(owlClass("B")));
+        assertTrue(sut.get(owlClass("C")).isEmpty());
+    }
+
+    @Test
+    void addIndexesAxiomWhenIndexIsBuilt() {
+        assertTrue(sut.get(owlClass("A")).isEmpty());
+        final OWLSubClassOfAxiom axiom = dataFactory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B"));
+        sut.add(axiom);
+
+        assertEquals(Collections.singleton(axiom), sut.get(owlClass("A")));
+    }
+
+    @Test
+    void addIsIgnoredBeforeIndexIsBuilt() {
+        final OWLSubClassOfAxiom axiom = dataFactory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B"));
+        // Not in the ontology, so the build does not pick it up
+        sut.add(axiom);
+
+        assertFalse(sut.isBuilt());
+        assertTrue(sut.get(owlClass("A")).isEmpty());
+    }
+
+    @Test
+    void removeRemovesAxiomFromAllItsKeys() {
+        final OWLSubClassOfAxiom axiom = dataFactory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B"));
+        final OWLSubClassOfAxiom other = dataFactory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("C"));
+        manager.addAxioms(ontology, Stream.of(axiom, other));
+        assertEquals(2, sut.get(owlClass("A")).size());
+
+        sut.remove(axiom);
+        assertEquals(Collections.singleton(other), sut.get(owlClass("A")));
+        assertTrue(sut.get(owlClass("B")).isEmpty());
+    }
+
+    @Test
+    void getReturnsUnmodifiableSet() {
+        manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+
+        assertThrows(UnsupportedOperationException.class, () -> sut.get(owlClass("A")).clear());
+    }
+}
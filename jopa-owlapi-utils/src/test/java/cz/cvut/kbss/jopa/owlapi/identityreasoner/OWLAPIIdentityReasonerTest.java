@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.owlapi.identityreasoner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SuppressWarnings("deprecation")
+class OWLAPIIdentityReasonerTest {
+
+    private static final String BASE = "http://krizik.felk.cvut.cz/ontologies/jopa/identity-reasoner#";
+
+    private OWLOntologyManager manager;
+    private OWLDataFactory dataFactory;
+    private OWLOntology ontology;
+
+    private final OWLNamedIndividual individual = OWLManager.getOWLDataFactory()
+                                                            .getOWLNamedIndividual(IRI.create(BASE + "individual"));
+    private final OWLClass owlClass = OWLManager.getOWLDataFactory().getOWLClass(IRI.create(BASE + "Class"));
+
+    private OWLAPIIdentityReasoner sut;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.manager = OWLManager.createOWLOntologyManager();
+        this.dataFactory = manager.getOWLDataFactory();
+        this.ontology = manager.createOntology(IRI.create(BASE));
+        this.sut = new OWLAPIIdentityReasoner(ontology);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.dispose();
+    }
+
+    private boolean isInstance() {
+        return sut.getInstances(owlClass, false).containsEntity(individual);
+    }
+
+    @Test
+    void lookupReflectsAxiomAddedToOntology() {
+        assertFalse(isInstance());
+        manager.addAxiom(ontology, dataFactory.getOWLClassAssertionAxiom(owlClass, individual));
+
+        assertTrue(isInstance());
+    }
+
+    @Test
+    void lookupReflectsAxiomAddedAndThenRemovedFromOntology() {
+        assertFalse(isInstance());
+        final OWLClassAssertionAxiom axiom = dataFactory.getOWLClassAssertionAxiom(owlClass, individual);
+        manager.addAxiom(ontology, axiom);
+        manager.removeAxiom(ontology, axiom);
+
+        assertFalse(isInstance());
+    }
+
+    @Test
+    void lookupReflectsAxiomsAddedAndRemovedBeforeFirstLookup() {
+        final OWLClassAssertionAxiom axiom = dataFactory.getOWLClassAssertionAxiom(owlClass, individual);
+        final OWLClassAssertionAxiom other = dataFactory.getOWLClassAssertionAxiom(owlClass,
+                dataFactory.getOWLNamedIndividual(IRI.create(BASE + "other")));
+        manager.addAxiom(ontology, axiom);
+        manager.addAxiom(ontology, other);
+        manager.removeAxiom(ontology, other);
+
+        assertTrue(isInstance());
+        assertFalse(sut.getInstances(owlClass, false).containsEntity(other.getIndividual().asOWLNamedIndividual()));
+    }
+
+    @Test
+    void changesOfOtherOntologyAreIgnored() throws Exception {
+        assertFalse(isInstance());
+        final OWLOntology other = manager.createOntology(IRI.create(BASE + "other"));
+        manager.addAxiom(other, dataFactory.getOWLClassAssertionAxiom(owlClass, individual));
+
+        assertFalse(isInstance());
+    }
+
+    @Test
+    void disposeUnregistersChangeListener() {
+        assertFalse(isInstance());
+        sut.dispose();
+        manager.addAxiom(ontology, dataFactory.getOWLClassAssertionAxiom(owlClass, individual));
+
+        assertFalse(isInstance());
+    }
+}
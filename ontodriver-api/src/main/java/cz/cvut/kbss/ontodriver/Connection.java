@@ -21,8 +21,7 @@ import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 
 public interface Connection extends AutoCloseable, Wrapper {
 
@@ -137,6 +136,35 @@ public interface Connection extends AutoCloseable, Wrapper {
      */
     Collection<Axiom<?>> find(AxiomDescriptor descriptor) throws OntoDriverException;
 
+    /**
+     * Finds axioms for multiple subjects at once.
+     * <p>
+     * This is a bulk version of {@link #find(AxiomDescriptor)}. It allows to load several individuals without having to
+     * access the storage separately for each of them.
+     * <p>
+     * The default implementation simply invokes {@link #find(AxiomDescriptor)} for each descriptor, drivers are
+     * encouraged to provide a more efficient implementation.
+     *
+     * @param descriptors Loading descriptors, each specifying subject, properties to load and possible contexts to work
+     *                    with
+     * @return Axioms matching the specified criteria, grouped by subject. Subjects for which no axioms were found need
+     * not be present in the result
+     * @throws OntoDriverException   If an ontology access error occurs
+     * @throws IllegalStateException If called on a closed connection
+     */
+    default Map<NamedResource, Collection<Axiom<?>>> findAll(Collection<AxiomDescriptor> descriptors)
+            throws OntoDriverException {
+        Objects.requireNonNull(descriptors);
+        final Map<NamedResource, Collection<Axiom<?>>> result = new HashMap<>(descriptors.size());
+        for (AxiomDescriptor descriptor : descriptors) {
+            final Collection<Axiom<?>> axioms = find(descriptor);
+            if (!axioms.isEmpty()) {
+                result.computeIfAbsent(descriptor.getSubject(), k -> new ArrayList<>()).addAll(axioms);
+            }
+        }
+        return result;
+    }
+
     /**
      * Persists new individual and its property values specified by the descriptor.
      *
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.util;
+
+import java.util.*;
+
+/**
+ * Matches nodes of an existing list to values of its update, so that the update can be written with minimal changes.
+ * <p>
+ * Nodes whose value remains in the list are kept, regardless of their position. The remaining nodes are reused for new
+ * values in their original order, only nodes beyond the size of the update have to be removed. The list then only has
+ * to be relinked where the node order changes.
+ */
+public final class ListNodeMatcher {
+
+    /**
+     * Marks an updated value for which a new node has to be created.
+     */
+    public static final int NEW_NODE = -1;
+
+    private ListNodeMatcher() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Matches the original list values to the updated ones.
+     *
+     * @param original Values of the original list, in list order
+     * @param update   Values of the updated list, in list order
+     * @return Array containing for every updated value the index of the original node which should hold it, or {@link
+     * #NEW_NODE} if a new node has to be created for the value
+     */
+    public static int[] match(List<?> original, List<?> update) {
+        Objects.requireNonNull(original);
+        Objects.requireNonNull(update);
+        final Map<Object, Deque<Integer>> nodesByValue = new HashMap<>(original.size());
+        for (int i = 0; i < original.size(); i++) {
+            nodesByValue.computeIfAbsent(original.get(i), k -> new ArrayDeque<>(1)).add(i);
+        }
+        final int[] result = new int[update.size()];
+        final boolean[] used = new boolean[original.size()];
+        for (int i = 0; i < update.size(); i++) {
+            final Deque<Integer> nodes = nodesByValue.get(update.get(i));
+            if (nodes != null && !nodes.isEmpty()) {
+                result[i] = nodes.poll();
+                used[result[i]] = true;
+            } else {
+                result[i] = NEW_NODE;
+            }
+        }
+        int unused = 0;
+        for (int i = 0; i < update.size(); i++) {
+            if (result[i] != NEW_NODE) {
+                continue;
+            }
+            while (unused < used.length && used[unused]) {
+                unused++;
+            }
+            if (unused == used.length) {
+                break;
+            }
+            result[i] = unused;
+            used[unused] = true;
+        }
+        return result;
+    }
+}
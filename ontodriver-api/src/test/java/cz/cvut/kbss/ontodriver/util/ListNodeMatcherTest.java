@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class ListNodeMatcherTest {
+
+    private static final int NEW = ListNodeMatcher.NEW_NODE;
+
+    @Test
+    void matchKeepsAllOriginalNodesWhenValueIsInsertedAtHead() {
+        final int[] result = ListNodeMatcher.match(Arrays.asList("a", "b", "c"), Arrays.asList("x", "a", "b", "c"));
+        assertArrayEquals(new int[]{NEW, 0, 1, 2}, result);
+    }
+
+    @Test
+    void matchReusesNodeOfReplacedValue() {
+        final int[] result = ListNodeMatcher.match(Arrays.asList("a", "b", "c"), Arrays.asList("a", "x", "c"));
+        assertArrayEquals(new int[]{0, 1, 2}, result);
+    }
+
+    @Test
+    void matchKeepsNodesOfMovedValues() {
+        final int[] result =
+                ListNodeMatcher.match(Arrays.asList("a", "b", "c", "d"), Arrays.asList("d", "a", "b", "c"));
+        assertArrayEquals(new int[]{3, 0, 1, 2}, result);
+    }
+
+    @Test
+    void matchOmitsNodesOfRemovedValues() {
+        final int[] result = ListNodeMatcher.match(Arrays.asList("a", "b", "c", "d"), Arrays.asList("a", "d"));
+        assertArrayEquals(new int[]{0, 3}, result);
+    }
+
+    @Test
+    void matchHandlesDuplicateValues() {
+        final int[] result = ListNodeMatcher.match(Arrays.asList("a", "b", "a"), Arrays.asList("a", "a", "a"));
+        assertArrayEquals(new int[]{0, 2, 1}, result);
+    }
+
+    @Test
+    void matchReturnsNewNodesForEmptyOriginal() {
+        final int[] result = ListNodeMatcher.match(Collections.emptyList(), Arrays.asList("a", "b"));
+        assertArrayEquals(new int[]{NEW, NEW}, result);
+    }
+}
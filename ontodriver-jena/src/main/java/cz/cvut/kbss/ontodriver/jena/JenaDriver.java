@@ -35,7 +35,7 @@ class JenaDriver implements Closeable, ConnectionListener {
     private static final List<ConfigurationParameter> CONFIGS = Arrays
             .asList(DriverConfigParam.AUTO_COMMIT, DriverConfigParam.REASONER_FACTORY_CLASS,
                     JenaConfigParam.ISOLATION_STRATEGY, JenaConfigParam.STORAGE_TYPE,
-                    JenaConfigParam.TREAT_DEFAULT_GRAPH_AS_UNION);
+                    JenaConfigParam.TREAT_DEFAULT_GRAPH_AS_UNION, JenaConfigParam.FILE_JOURNAL);
 
     private volatile boolean open;
 
@@ -54,6 +54,7 @@ public class JenaOntoDriverProperties {
      * <li>{@link #FILE}</li>
      * <li>{@link #IN_MEMORY}</li>
      * <li>{@link #TDB}</li>
+     * <li>{@link #TDB2}</li>
      * <li>{@link #SDB} - SDB storage is currently not supported (and probably won't be, since SDB development has stopped)</li>
      * </ul>
      */
@@ -80,6 +81,16 @@ public class JenaOntoDriverProperties {
      */
     public static final String TDB = "tdb";
 
+    /**
+     * Jena TDB2 storage.
+     * <p>
+     * Driver transactions are mapped onto TDB2 read/write transactions, so readers are not blocked by a running write
+     * transaction and committed changes are durable without explicit synchronization with the file system.
+     *
+     * @see #JENA_STORAGE_TYPE
+     */
+    public static final String TDB2 = "tdb2";
+
     /**
      * Jena SDB storage.
      *
@@ -98,6 +109,20 @@ public class JenaOntoDriverProperties {
      */
     public static final String JENA_TREAT_DEFAULT_GRAPH_AS_UNION = "cz.cvut.kbss.ontodriver.jena.default_graph_as_union";
 
+    /**
+     * Parameter specifying whether {@link #FILE} storage should record committed changes in an append-only journal
+     * instead of rewriting the whole file on every commit.
+     * <p>
+     * The journal is stored next to the storage file (with suffix {@code .journal}), replayed on startup and compacted
+     * into the storage file in the background when it grows too large and when the storage is closed.
+     * <p>
+     * Note that blank nodes are identified by their labels in the journal, so changes of statements with blank nodes
+     * loaded from the storage file may not be replayed correctly after a restart.
+     * <p>
+     * Defaults to {@code false}.
+     */
+    public static final String JENA_FILE_JOURNAL = "cz.cvut.kbss.ontodriver.jena.file_journal";
+
     private JenaOntoDriverProperties() {
         throw new AssertionError();
     }
@@ -28,6 +28,7 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * File storage accessor.
@@ -36,7 +37,7 @@ import java.io.IOException;
  */
 class FileStorage extends Storage {
 
-    private final String location;
+    final String location;
 
     FileStorage(DriverConfiguration configuration) {
         super(configuration);
@@ -76,13 +77,32 @@ class FileStorage extends Storage {
     @Override
     void writeChanges() throws JenaDriverException {
         try (final BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(location))) {
-            final String language = FileUtils.guessLang(location);
-            RDFDataMgr.write(out, dataset.getDefaultModel(), RDFLanguages.nameToLang(language));
+            writeModel(out);
         } catch (IOException e) {
             throw new JenaDriverException("Unable to write out dataset changes.", e);
         }
     }
 
+    /**
+     * Writes the default model into the specified stream, using the language corresponding to the storage file.
+     *
+     * @param out Stream to write into
+     */
+    void writeModel(OutputStream out) {
+        writeModel(dataset.getDefaultModel(), out);
+    }
+
+    /**
+     * Writes the specified model into the specified stream, using the language corresponding to the storage file.
+     *
+     * @param model Model to write
+     * @param out   Stream to write into
+     */
+    void writeModel(Model model, OutputStream out) {
+        final String language = FileUtils.guessLang(location);
+        RDFDataMgr.write(out, model, RDFLanguages.nameToLang(language));
+    }
+
     /**
      * Reloads data from the underlying file.
      */
@@ -16,22 +16,21 @@ package cz.cvut.kbss.ontodriver.jena.connector;
 
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class InferenceConnectorFactory extends SharedConnectorBasedConnectorFactory {
 
-    private final Map<String, String> reasonerConfig;
+    private final SharedInference inference;
 
     public InferenceConnectorFactory(DriverConfiguration configuration, Map<String, String> reasonerConfig) {
         super(configuration);
-        this.reasonerConfig = new HashMap<>(reasonerConfig);
+        this.inference = new SharedInference(configuration, reasonerConfig, centralConnector.getStorage());
     }
 
     @Override
     public StorageConnector createConnector() {
         ensureOpen();
-        return new SnapshotStorageConnectorWithInference(centralConnector, reasonerConfig);
+        return new SnapshotStorageConnectorWithInference(centralConnector, inference);
     }
 
     @Override
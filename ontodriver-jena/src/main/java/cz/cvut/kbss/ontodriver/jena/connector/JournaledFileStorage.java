@@ -0,0 +1,382 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverInitializationException;
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * File storage accessor which records committed changes in an append-only journal instead of rewriting the whole file.
+ * <p>
+ * Every commit appends the statements added to and removed from the default graph to the journal (one N-Triples
+ * statement per line, prefixed with {@link #ADDED} or {@link #REMOVED}) followed by a {@link #COMMIT} marker, and
+ * forces the journal to disk. Commit latency is thus proportional to the size of the change, not of the storage.
+ * <p>
+ * On startup, the storage file is loaded and changes of complete transactions recorded in the journal are replayed on
+ * top of it. An incomplete transaction at the end of the journal (e.g., after a crash during commit) is discarded.
+ * <p>
+ * The journal is compacted into the storage file in the background when it grows larger than half of the storage file
+ * and when the storage is closed. Background compaction copies the data while holding the storage lock, but writes the
+ * storage file without it, so commits are blocked only for the duration of the in-memory copy. The storage file is
+ * replaced atomically, so a crash during compaction does not corrupt it.
+ */
+class JournaledFileStorage extends FileStorage implements StorageListener {
+
+    static final String JOURNAL_SUFFIX = ".journal";
+
+    static final String ADDED = "A";
+    static final String REMOVED = "D";
+    static final String COMMIT = "C";
+
+    /**
+     * Journal smaller than this is never compacted in the background.
+     */
+    static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+
+    private final File journalFile;
+
+    /**
+     * Journal records of changes which have not been written into the journal, yet.
+     */
+    private final List<String> pending = new ArrayList<>();
+
+    private FileOutputStream journal;
+
+    /**
+     * Incremented whenever the journal is truncated or reopened, so that background compaction can detect it.
+     */
+    private int journalGeneration;
+
+    private long storageFileSize;
+
+    private ExecutorService compactionExecutor;
+    private boolean compactionScheduled;
+
+    JournaledFileStorage(DriverConfiguration configuration) {
+        super(configuration);
+        this.journalFile = new File(location + JOURNAL_SUFFIX);
+    }
+
+    @Override
+    public void initialize() {
+        closeJournal();
+        super.initialize();
+        try {
+            replayJournal();
+            this.journal = new FileOutputStream(journalFile, true);
+        } catch (IOException | RuntimeException e) {
+            throw new OntoDriverInitializationException("Unable to replay journal of file storage at " + location, e);
+        }
+        this.storageFileSize = new File(location).length();
+        journalGeneration++;
+        pending.clear();
+        addListener(this);
+    }
+
+    private void replayJournal() throws IOException {
+        if (!journalFile.exists()) {
+            return;
+        }
+        final Graph graph = dataset.getDefaultModel().getGraph();
+        final List<String> transaction = new ArrayList<>();
+        long position = 0;
+        long committed = 0;
+        try (final BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                position += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (COMMIT.equals(line)) {
+                    transaction.forEach(record -> replay(graph, record));
+                    transaction.clear();
+                    committed = position;
+                } else {
+                    transaction.add(line);
+                }
+            }
+        }
+        final long length = journalFile.length();
+        if (committed < length) {
+            LOG.warn("Discarding incomplete transaction at the end of journal {}.", journalFile);
+            try (final FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(committed);
+                channel.force(true);
+            }
+        } else if (committed > length) {
+            // The last commit marker is not terminated by line separator
+            try (final FileOutputStream out = new FileOutputStream(journalFile, true)) {
+                out.write('\n');
+                out.getFD().sync();
+            }
+        }
+    }
+
+    private static void replay(Graph graph, String record) {
+        final Graph parsed = GraphFactory.createDefaultGraph();
+        RDFParser.fromString(record.substring(ADDED.length() + 1)).lang(Lang.NTRIPLES)
+                 .labelToNode(LabelToNode.createUseLabelEncoded()).parse(parsed);
+        final Triple triple = parsed.find().next();
+        if (record.startsWith(ADDED)) {
+            graph.add(triple);
+        } else {
+            graph.delete(triple);
+        }
+    }
+
+    @Override
+    public void statementChanged(Node graphName, Triple triple, boolean added) {
+        // File storage supports only the default graph
+        if (Quad.defaultGraphIRI.equals(graphName)) {
+            pending.add((added ? ADDED : REMOVED) + ' ' + NodeFmtLib.str(triple) + " .\n");
+        }
+    }
+
+    @Override
+    void writeChanges() throws JenaDriverException {
+        try {
+            appendPending();
+        } catch (IOException e) {
+            throw new JenaDriverException("Unable to write changes into journal " + journalFile, e);
+        }
+    }
+
+    @Override
+    public void changesCommitted() {
+        // Changes done by update outside of a transaction are not written out by writeChanges
+        try {
+            appendPending();
+        } catch (IOException e) {
+            LOG.error("Unable to write changes into journal {}.", journalFile, e);
+        }
+    }
+
+    @Override
+    public void changesRolledBack() {
+        pending.clear();
+    }
+
+    @Override
+    public void dataReplaced() {
+        pending.clear();
+    }
+
+    private void appendPending() throws IOException {
+        if (pending.isEmpty() || journal == null) {
+            return;
+        }
+        final StringBuilder sb = new StringBuilder();
+        pending.forEach(sb::append);
+        sb.append(COMMIT).append('\n');
+        final FileChannel channel = journal.getChannel();
+        final long length = channel.size();
+        try {
+            journal.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+            channel.force(false);
+        } catch (IOException e) {
+            // Do not leave a partial transaction in the journal, it would be merged with the next one
+            channel.truncate(length);
+            throw e;
+        } finally {
+            pending.clear();
+        }
+        if (!compactionScheduled && channel.size() > Math.max(MIN_COMPACTION_SIZE, storageFileSize / 2)) {
+            scheduleCompaction();
+        }
+    }
+
+    private void scheduleCompaction() {
+        if (compactionExecutor == null) {
+            this.compactionExecutor = Executors.newSingleThreadExecutor(r -> {
+                final Thread t = new Thread(r, "jena-journal-compaction");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        this.compactionScheduled = true;
+        compactionExecutor.execute(() -> {
+            try {
+                compactInBackground();
+            } catch (IOException | RuntimeException e) {
+                LOG.error("Unable to compact journal {}.", journalFile, e);
+            }
+        });
+    }
+
+    /**
+     * Compacts the journal, holding the storage lock only while the data are copied and while the journal is
+     * truncated.
+     */
+    void compactInBackground() throws IOException {
+        final CompactionSnapshot snapshot = calculateLocked(() -> {
+            this.compactionScheduled = false;
+            try {
+                return journal != null && journal.getChannel().size() > 0 ?
+                       new CompactionSnapshot(journal.getChannel().size()) : null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (snapshot == null) {
+            return;
+        }
+        writeStorageFile(out -> writeModel(snapshot.data, out));
+        calculateLocked(() -> {
+            // If the journal has been reopened in the meantime, it is compacted by the next run
+            if (snapshot.journalGeneration == journalGeneration) {
+                try {
+                    truncateJournal(snapshot.journalPosition);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Writes current content of the storage into the storage file and truncates the journal.
+     * <p>
+     * Has to be called while no changes of the storage are in progress.
+     */
+    void compact() throws IOException {
+        this.compactionScheduled = false;
+        if (journal == null || journal.getChannel().size() == 0) {
+            return;
+        }
+        final long journalPosition = journal.getChannel().size();
+        writeStorageFile(out -> Txn.executeRead(dataset, () -> writeModel(out)));
+        truncateJournal(journalPosition);
+    }
+
+    private void writeStorageFile(Consumer<OutputStream> writer) throws IOException {
+        final File tmpFile = new File(location + ".tmp");
+        try (final FileOutputStream out = new FileOutputStream(tmpFile)) {
+            final BufferedOutputStream bufferedOut = new BufferedOutputStream(out);
+            writer.accept(bufferedOut);
+            bufferedOut.flush();
+            out.getFD().sync();
+        }
+        Files.move(tmpFile.toPath(), new File(location).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Removes journal records up to the specified position, which have already been written into the storage file.
+     * <p>
+     * Replaying the journal on the already compacted file is harmless, so a crash before truncation is fine.
+     */
+    private void truncateJournal(long position) throws IOException {
+        final FileChannel channel = journal.getChannel();
+        if (position < channel.size()) {
+            // Keep records of transactions committed after the data were copied
+            final File tmpFile = new File(journalFile + ".tmp");
+            try (final FileChannel in = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ);
+                 final FileOutputStream out = new FileOutputStream(tmpFile)) {
+                long copied = position;
+                final long size = in.size();
+                while (copied < size) {
+                    copied += in.transferTo(copied, size - copied, out.getChannel());
+                }
+                out.getFD().sync();
+            }
+            closeJournal();
+            Files.move(tmpFile.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            this.journal = new FileOutputStream(journalFile, true);
+        } else {
+            channel.truncate(0);
+            channel.force(true);
+        }
+        journalGeneration++;
+        this.storageFileSize = new File(location).length();
+    }
+
+    /**
+     * Copy of the storage data and the corresponding journal position, taken while holding the storage lock.
+     */
+    private final class CompactionSnapshot {
+        private final Model data;
+        private final long journalPosition;
+        private final int journalGeneration;
+
+        private CompactionSnapshot(long journalPosition) {
+            final Graph copy = GraphFactory.createGraphMem();
+            Txn.executeRead(dataset, () -> GraphUtil.addInto(copy, dataset.getDefaultModel().getGraph()));
+            this.data = ModelFactory.createModelForGraph(copy);
+            this.journalPosition = journalPosition;
+            this.journalGeneration = JournaledFileStorage.this.journalGeneration;
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOG.error("Unable to close journal {}.", journalFile, e);
+        }
+        this.journal = null;
+    }
+
+    @Override
+    void close() {
+        if (compactionExecutor != null) {
+            compactionExecutor.shutdown();
+            try {
+                compactionExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        calculateLocked(() -> {
+            try {
+                compact();
+            } catch (IOException | RuntimeException e) {
+                LOG.error("Unable to compact journal {}, it will be replayed on next startup.", journalFile, e);
+            }
+            closeJournal();
+            return null;
+        });
+        super.close();
+    }
+}
@@ -0,0 +1,542 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.jena.exception.ReasonerInitializationException;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.reasoner.IllegalParameterException;
+import org.apache.jena.reasoner.InfGraph;
+import org.apache.jena.reasoner.Reasoner;
+import org.apache.jena.reasoner.ReasonerFactory;
+import org.apache.jena.reasoner.rulesys.FBRuleInfGraph;
+import org.apache.jena.reasoner.rulesys.FBRuleReasoner;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
+import org.apache.jena.vocabulary.ReasonerVocabulary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.apache.jena.rdf.model.ResourceFactory.createProperty;
+
+/**
+ * Inference over data of the central storage, shared by all transactional snapshots.
+ * <p>
+ * The reasoner is bound to a copy of each central graph only once, when the graph is first needed. Changes committed
+ * into the central storage are then applied to the shared inference graphs incrementally, so that the inference does
+ * not have to be run from scratch in every transaction.
+ * <p>
+ * Snapshots access the shared graphs through a {@link Pin}, which ensures that they see inference over the data as they
+ * were when the snapshot was created. A shared graph pinned by a snapshot is never changed. Changes committed into its
+ * central graph are kept as a backlog of the graph instead and applied incrementally once the graph is no longer
+ * pinned. Snapshots created in the meantime get a version of the graph with the committed additions layered on top of
+ * it (see {@link SharedGraph#layer(Graph)}), so that they neither see the graph of older snapshots nor have to wait
+ * for it to be released. Only if the backlog contains removals (which the reasoners cannot process incrementally
+ * anyway) or the reasoner does not support layering, the pinned graph is retired and a new shared graph is built for
+ * the new snapshots.
+ * <p>
+ * If the reasoner supports it (this is the case of the forward-backward rule reasoners), snapshots can layer their own
+ * additions on top of the shared inference graph (see {@link SharedGraph#layer(Graph)}).
+ */
+class SharedInference implements StorageListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SharedInference.class);
+
+    /**
+     * Configuration parameters supported by at least one of the Jena reasoners. Used to pre-filter reasoner config.
+     */
+    private static final Set<String> SUPPORTED_CONFIG = new HashSet<>(Arrays.asList(
+            ReasonerVocabulary.PROPderivationLogging.getURI(),
+            ReasonerVocabulary.PROPenableCMPScan.getURI(),
+            ReasonerVocabulary.PROPenableFunctorFiltering.getURI(),
+            ReasonerVocabulary.PROPenableOWLTranslation.getURI(),
+            ReasonerVocabulary.PROPenableTGCCaching.getURI(),
+            ReasonerVocabulary.PROPruleMode.getURI(),
+            ReasonerVocabulary.PROPruleSet.getURI(),
+            ReasonerVocabulary.PROPsetRDFSLevel.getURI(),
+            ReasonerVocabulary.PROPtraceOn.getURI()
+    ));
+
+    private final Storage central;
+
+    private final ReasonerFactory reasonerFactory;
+    private final Map<String, String> reasonerConfig;
+
+    private final Map<Node, SharedGraph> graphs = new ConcurrentHashMap<>();
+
+    /**
+     * Statements changed by the current write transaction on the central storage, applied to the shared graphs on
+     * commit.
+     * <p>
+     * Accessed only from listener notifications, which the central storage never runs concurrently.
+     */
+    private final List<Change> pendingChanges = new ArrayList<>();
+
+    /**
+     * Incremented whenever the shared graphs change, so that graphs built concurrently with a change can be discarded.
+     */
+    private int revision;
+
+    /**
+     * Revision in which the central graph was last changed, for graphs changed since the central data were replaced.
+     */
+    private final Map<Node, Integer> changeRevisions = new HashMap<>();
+
+    /**
+     * Revision in which the central data were last replaced altogether.
+     */
+    private int replaceRevision;
+
+    SharedInference(DriverConfiguration configuration, Map<String, String> reasonerConfig, Storage central) {
+        this.central = central;
+        this.reasonerFactory = initReasonerFactory(configuration);
+        this.reasonerConfig = reasonerConfig.entrySet().stream()
+                                            .filter(e -> SUPPORTED_CONFIG.contains(e.getKey()))
+                                            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        central.addListener(this);
+    }
+
+    private static ReasonerFactory initReasonerFactory(DriverConfiguration configuration) {
+        final String factoryClass = configuration.getProperty(DriverConfigParam.REASONER_FACTORY_CLASS, "");
+        LOG.trace("Creating reasoner using reasoner factory class {}.", factoryClass);
+        try {
+            final Class<? extends ReasonerFactory> rfClass =
+                    (Class<? extends ReasonerFactory>) Class.forName(factoryClass);
+            final Method instanceMethod = rfClass.getMethod("theInstance");
+            return (ReasonerFactory) instanceMethod.invoke(null);
+        } catch (ClassNotFoundException e) {
+            throw new ReasonerInitializationException("Reasoner factory class " + factoryClass + " not found.", e);
+        } catch (NoSuchMethodException e) {
+            throw new ReasonerInitializationException("Class " + factoryClass +
+                    " is not a ReasonerFactory implementation or does not contain static 'theInstance' method.");
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new ReasonerInitializationException(
+                    "Unable to instantiate Jena reasoner from factory " + factoryClass, e);
+        }
+    }
+
+    Reasoner createReasoner() {
+        final Reasoner reasoner = reasonerFactory.create(null);
+        reasonerConfig.forEach((key, value) -> {
+            final Property prop = createProperty(key);
+            try {
+                reasoner.setParameter(prop, value);
+            } catch (IllegalParameterException ex) {
+                LOG.error("Failed to set property " + prop + " on reasoner.", ex);
+            }
+        });
+        return reasoner;
+    }
+
+    /**
+     * Pins the current state of the shared inference for a snapshot created by the specified operation.
+     * <p>
+     * The operation is run atomically with respect to notifications of commits into the central storage, so that the
+     * snapshot data and the pinned inference correspond to the same state of the central storage. It does not wait for
+     * a write transaction in progress.
+     *
+     * @param snapshotCreation Creates the snapshot, e.g., registers it as listener of the central storage
+     * @return Pin through which the snapshot accesses the shared graphs
+     */
+    Pin pin(Runnable snapshotCreation) {
+        return central.calculateBetweenNotifications(() -> {
+            snapshotCreation.run();
+            synchronized (this) {
+                return new Pin(revision);
+            }
+        });
+    }
+
+    /**
+     * Gets shared inference graph over the specified central graph, building it if necessary.
+     *
+     * @param graphName Name of the graph, {@link Quad#defaultGraphIRI} for the default graph
+     * @return Shared inference graph
+     */
+    SharedGraph getGraph(Node graphName) {
+        while (true) {
+            synchronized (this) {
+                final SharedGraph current = currentVersion(graphName);
+                if (current != null) {
+                    return current;
+                }
+            }
+            build(graphName);
+        }
+    }
+
+    /**
+     * Gets version of the shared graph which corresponds to the current data of the specified central graph.
+     *
+     * @return Current version, {@code null} if it has to be built
+     */
+    private SharedGraph currentVersion(Node graphName) {
+        assert Thread.holdsLock(this);
+        final SharedGraph graph = graphs.get(graphName);
+        if (graph == null || graph.backlog.isEmpty()) {
+            return graph;
+        }
+        if (graph.pins == 0) {
+            graph.applyBacklog();
+            return graph;
+        }
+        if (graph.supportsLayering() && graph.backlog.stream().allMatch(c -> c.added)) {
+            return graph.backlogVersion();
+        }
+        // Snapshots using the graph must not see the changes
+        graphs.remove(graphName);
+        return null;
+    }
+
+    private void build(Node graphName) {
+        final int[] copyRevision = new int[1];
+        final Graph data = central.readBetweenCommits(() -> {
+            synchronized (this) {
+                copyRevision[0] = revision;
+            }
+            return copyCentralGraph(graphName);
+        });
+        // Running the inference is the expensive part, so it is done without holding any locks
+        final SharedGraph candidate = new SharedGraph(createReasoner(), data);
+        synchronized (this) {
+            if (!changedSince(graphName, copyRevision[0])) {
+                graphs.putIfAbsent(graphName, candidate);
+            }
+        }
+    }
+
+    private Graph copyCentralGraph(Node graphName) {
+        final Graph copy = GraphFactory.createGraphMem();
+        final Dataset dataset = central.getDataset();
+        Txn.executeRead(dataset, () -> {
+            final DatasetGraph dsg = dataset.asDatasetGraph();
+            GraphUtil.addInto(copy, Quad.isDefaultGraph(graphName) ? dsg.getDefaultGraph() : dsg.getGraph(graphName));
+        });
+        return copy;
+    }
+
+    @Override
+    public void statementChanged(Node graphName, Triple triple, boolean added) {
+        pendingChanges.add(new Change(graphName, triple, added));
+    }
+
+    @Override
+    public void changesCommitted() {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        final Map<Node, List<Change>> changesByGraph = pendingChanges.stream().collect(
+                Collectors.groupingBy(c -> c.graphName, LinkedHashMap::new, Collectors.toList()));
+        pendingChanges.clear();
+        synchronized (this) {
+            revision++;
+            changesByGraph.forEach((name, changes) -> {
+                changeRevisions.put(name, revision);
+                final SharedGraph graph = graphs.get(name);
+                if (graph == null) {
+                    return;
+                }
+                graph.addToBacklog(changes);
+                if (graph.pins == 0) {
+                    graph.applyBacklog();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void changesRolledBack() {
+        pendingChanges.clear();
+    }
+
+    @Override
+    public void dataReplaced() {
+        pendingChanges.clear();
+        synchronized (this) {
+            graphs.clear();
+            changeRevisions.clear();
+            revision++;
+            this.replaceRevision = revision;
+        }
+    }
+
+    private boolean changedSince(Node graphName, int rev) {
+        assert Thread.holdsLock(this);
+        return replaceRevision > rev || changeRevisions.getOrDefault(graphName, 0) > rev;
+    }
+
+    /**
+     * Shared inference graphs used by one snapshot.
+     * <p>
+     * A shared graph is available to the snapshot only if its central graph has not changed since the snapshot was
+     * created. Otherwise, the snapshot has to run the inference over its own data.
+     */
+    class Pin {
+
+        private final int revision;
+
+        /**
+         * Graphs pinned by the snapshot, guarded by the enclosing {@link SharedInference}.
+         */
+        private final Map<Node, SharedGraph> pinned = new HashMap<>();
+
+        private boolean released;
+
+        private Pin(int revision) {
+            this.revision = revision;
+        }
+
+        /**
+         * Gets shared inference graph over the specified central graph as it was when the snapshot was created.
+         *
+         * @param graphName Name of the graph, {@link Quad#defaultGraphIRI} for the default graph
+         * @return Shared inference graph, {@code null} if the central graph has changed since the snapshot was created
+         */
+        SharedGraph getGraph(Node graphName) {
+            while (true) {
+                synchronized (SharedInference.this) {
+                    assert !released;
+                    final SharedGraph graph = pinned.get(graphName);
+                    if (graph != null) {
+                        return graph;
+                    }
+                    if (changedSince(graphName, revision)) {
+                        return null;
+                    }
+                    final SharedGraph current = currentVersion(graphName);
+                    if (current != null) {
+                        current.root().pins++;
+                        pinned.put(graphName, current);
+                        return current;
+                    }
+                }
+                // Build the graph and try pinning it again
+                build(graphName);
+            }
+        }
+
+        /**
+         * Releases the pinned graphs, so that changes committed into the central storage can be applied to them.
+         */
+        void release() {
+            synchronized (SharedInference.this) {
+                if (!released) {
+                    pinned.values().forEach(g -> g.root().pins--);
+                    pinned.clear();
+                    this.released = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Inference graph bound to a copy of one central graph.
+     * <p>
+     * The graph is prepared whenever it changes, under the write lock, so that queries never trigger preparation.
+     * Queries may then run concurrently under the read lock, because the rule engines synchronize the state they
+     * modify when answering queries (e.g., tabled goals of the backward engine).
+     * <p>
+     * A version of the graph with the additions from its backlog layered on top of it is represented by a graph with a
+     * base. Such a version shares the lock and pins of its base.
+     */
+    static class SharedGraph {
+
+        private final InfGraph inference;
+
+        /**
+         * Reasoner with the shared inference graph bound as schema, {@code null} if the reasoner does not support
+         * layering.
+         */
+        private final Reasoner boundReasoner;
+
+        private final ReadWriteLock lock;
+
+        /**
+         * Graph on top of which additions of this version are layered, {@code null} if this is not a version.
+         */
+        private final SharedGraph base;
+
+        /**
+         * Additions layered on top of the base graph, {@code null} if this is not a version.
+         */
+        private final Graph additions;
+
+        /**
+         * Number of snapshots which pinned this graph or its versions, guarded by the owning {@link SharedInference}.
+         */
+        private int pins;
+
+        /**
+         * Changes committed into the central graph while this graph was pinned, guarded by the owning {@link
+         * SharedInference}.
+         */
+        private final List<Change> backlog = new ArrayList<>();
+
+        /**
+         * Version of this graph including the whole backlog, {@code null} if not created yet. Guarded by the owning
+         * {@link SharedInference}.
+         */
+        private SharedGraph backlogVersion;
+
+        private SharedGraph(Reasoner reasoner, Graph data) {
+            this.lock = new ReentrantReadWriteLock();
+            this.base = null;
+            this.additions = null;
+            final Reasoner bound = reasoner instanceof FBRuleReasoner ? reasoner.bindSchema(data) : null;
+            if (bound != null) {
+                // Binding the reasoner to schema already runs the inference over the data
+                this.inference = (InfGraph) ((FBRuleReasoner) bound).getBoundSchema();
+                this.boundReasoner = inference instanceof FBRuleInfGraph ? bound : null;
+            } else {
+                this.inference = reasoner.bind(data);
+                this.boundReasoner = null;
+            }
+            inference.prepare();
+        }
+
+        private SharedGraph(SharedGraph base, Graph additions) {
+            this.lock = base.lock;
+            this.base = base;
+            this.additions = additions;
+            this.boundReasoner = base.boundReasoner;
+            this.inference = base.read(() -> base.layer(additions));
+        }
+
+        private SharedGraph root() {
+            return base != null ? base : this;
+        }
+
+        Reasoner getReasoner() {
+            return inference.getReasoner();
+        }
+
+        /**
+         * Executes the specified query on the shared inference graph.
+         * <p>
+         * The query has to consume any results it obtains from the graph.
+         */
+        <T> T query(Function<InfGraph, T> query) {
+            lock.readLock().lock();
+            try {
+                return query.apply(inference);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Executes the specified operation on graphs layered on top of this graph, preventing concurrent changes of
+         * this graph.
+         */
+        <T> T read(Supplier<T> operation) {
+            lock.readLock().lock();
+            try {
+                return operation.get();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean supportsLayering() {
+            return boundReasoner != null;
+        }
+
+        /**
+         * Creates an inference graph over the specified additions, layered on top of this graph.
+         * <p>
+         * The layered graph reuses deductions of this graph, so preparing it costs only inference over the additions.
+         * It has to be used within {@link #read(Supplier)}.
+         *
+         * @param additions Statements to layer on top of this graph
+         * @return Layered inference graph
+         */
+        InfGraph layer(Graph additions) {
+            assert supportsLayering();
+            if (base != null) {
+                final Graph all = GraphFactory.createGraphMem();
+                GraphUtil.addInto(all, this.additions);
+                GraphUtil.addInto(all, additions);
+                return base.layer(all);
+            }
+            final InfGraph layer = boundReasoner.bind(additions);
+            layer.prepare();
+            return layer;
+        }
+
+        private void addToBacklog(List<Change> changes) {
+            backlog.addAll(changes);
+            this.backlogVersion = null;
+        }
+
+        private SharedGraph backlogVersion() {
+            if (backlogVersion == null) {
+                final Graph backlogAdditions = GraphFactory.createGraphMem();
+                backlog.forEach(c -> backlogAdditions.add(c.triple));
+                this.backlogVersion = new SharedGraph(this, backlogAdditions);
+            }
+            return backlogVersion;
+        }
+
+        private void applyBacklog() {
+            assert base == null && pins == 0;
+            lock.writeLock().lock();
+            try {
+                // Additions are processed incrementally, removals make the reasoner prepare the graph again
+                backlog.forEach(c -> {
+                    if (c.added) {
+                        inference.add(c.triple);
+                    } else {
+                        inference.delete(c.triple);
+                    }
+                });
+                inference.prepare();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            backlog.clear();
+            this.backlogVersion = null;
+        }
+    }
+
+    private static class Change {
+        private final Node graphName;
+        private final Triple triple;
+        private final boolean added;
+
+        private Change(Node graphName, Triple triple, boolean added) {
+            this.graphName = graphName;
+            this.triple = triple;
+            this.added = added;
+        }
+    }
+}
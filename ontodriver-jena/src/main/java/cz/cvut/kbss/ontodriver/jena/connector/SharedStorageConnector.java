@@ -23,11 +23,9 @@ import cz.cvut.kbss.ontodriver.jena.query.SelectResultSet;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.*;
 import org.apache.jena.system.Txn;
-import org.apache.jena.update.UpdateAction;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -104,10 +102,11 @@ public class SharedStorageConnector extends AbstractStorageConnector {
     @Override
     public List<String> getContexts() {
         ensureOpen();
-        final Iterator<String> it = Txn.calculateRead(storage.getDataset(), () -> storage.getDataset().listNames());
-        final List<String> contexts = new ArrayList<>();
-        it.forEachRemaining(contexts::add);
-        return contexts;
+        return Txn.calculateRead(storage.getDataset(), () -> {
+            final List<String> contexts = new ArrayList<>();
+            storage.getDataset().listNames().forEachRemaining(contexts::add);
+            return contexts;
+        });
     }
 
     @Override
@@ -136,6 +135,13 @@ public class SharedStorageConnector extends AbstractStorageConnector {
     public AbstractResultSet executeSelectQuery(Query query, StatementOntology target) throws JenaDriverException {
         ensureOpen();
         try {
+            if (storage.isTransactionRequired()) {
+                return Txn.calculateRead(storage.getDataset(), () -> {
+                    final QueryExecution exec = QueryExecutionFactory.create(query, storage.getDataset());
+                    // Results cannot be read after the transaction ends, so they are copied
+                    return new SelectResultSet(exec, ResultSetFactory.copyResults(exec.execSelect()));
+                });
+            }
             QueryExecution exec = QueryExecutionFactory.create(query, storage.getDataset());
             final org.apache.jena.query.ResultSet rs = exec.execSelect();
             // The QueryExecution is closed by the SelectResultSet (so that it has access to the results)
@@ -153,6 +159,9 @@ public class SharedStorageConnector extends AbstractStorageConnector {
     public AbstractResultSet executeAskQuery(Query query, StatementOntology target) throws JenaDriverException {
         ensureOpen();
         try (final QueryExecution exec = QueryExecutionFactory.create(query, storage.getDataset())) {
+            if (storage.isTransactionRequired()) {
+                return new AskResultSet(Txn.calculateRead(storage.getDataset(), exec::execAsk));
+            }
             return new AskResultSet(exec.execAsk());
         } catch (RuntimeException e) {
             throw queryFailed(query, e);
@@ -163,7 +172,7 @@ public class SharedStorageConnector extends AbstractStorageConnector {
     public void executeUpdate(String query, StatementOntology target) throws JenaDriverException {
         ensureOpen();
         try {
-            UpdateAction.parseExecute(query, storage.getDataset());
+            storage.executeUpdate(query);
         } catch (RuntimeException e) {
             throw queryFailed(query, e);
         }
@@ -187,7 +196,7 @@ public class SharedStorageConnector extends AbstractStorageConnector {
      */
     public synchronized void reloadStorage() {
         ensureOpen();
-        storage.reload();
+        storage.replaceData(storage::reload);
     }
 
     /**
@@ -199,6 +208,6 @@ public class SharedStorageConnector extends AbstractStorageConnector {
      */
     public synchronized void setDataset(Dataset dataset) {
         ensureOpen();
-        storage.setDataset(dataset);
+        storage.replaceData(() -> storage.setDataset(dataset));
     }
 }
@@ -15,31 +15,338 @@
 package cz.cvut.kbss.ontodriver.jena.connector;
 
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.Delta;
+import org.apache.jena.graph.impl.GraphBase;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphMapLink;
+import org.apache.jena.sparql.core.mem.DatasetGraphInMemory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
 import org.apache.jena.system.Txn;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
 
-import java.util.Iterator;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
-class SnapshotStorage extends Storage {
+/**
+ * Copy-on-write snapshot of the central storage.
+ * <p>
+ * The snapshot does not copy the central data. Instead, it reads through to the central storage, which notifies it
+ * before any of its statements is added or removed (see {@link #statementChanged(Node, Triple, boolean)}). The
+ * snapshot then remembers the original state of the statement, so that it keeps seeing the data as they were when the
+ * snapshot was created. Changes made to the snapshot itself are kept in an overlay over this frozen view.
+ * <p>
+ * Creating a snapshot is therefore cheap and its size is proportional to the amount of data written in the snapshot and
+ * in the central storage during the snapshot's lifetime. It does not wait for a write transaction in progress on the
+ * central storage, such a transaction appears to the snapshot as if it started after the snapshot was created (see
+ * {@link Storage#addListener(StorageListener)}).
+ * <p>
+ * How the central data are read depends on the central dataset:
+ * <ul>
+ * <li>In-memory datasets are read without copying. Their iterators traverse an immutable version of the data, so they
+ * remain valid after the read transaction ends. This is how {@code DatasetGraphInMemory} is implemented, but it is not
+ * part of its documented contract, so it is verified by tests.</li>
+ * <li>TDB datasets are streamed from within a read transaction of the reading thread, which ends when all the streamed
+ * iterators are exhausted or closed, or when the snapshot is closed (see {@link Storage#streamRead}). Iterators
+ * therefore have to be consumed by the thread which created them.</li>
+ * <li>Other datasets are read in a read transaction whose results are copied, so memory used by a read is
+ * proportional to its result size. Streaming would keep writers of such datasets blocked by their lock.</li>
+ * </ul>
+ */
+class SnapshotStorage extends Storage implements StorageListener {
+
+    private final Storage central;
+
+    private final Map<Node, FrozenGraph> frozenGraphs = new ConcurrentHashMap<>();
 
-    SnapshotStorage(DriverConfiguration configuration) {
+    /**
+     * Copy of the frozen view of the central data, created when the snapshot is detached from the central storage.
+     */
+    private volatile Dataset detachedCopy;
+
+    SnapshotStorage(DriverConfiguration configuration, Storage central) {
         super(configuration);
+        this.central = central;
     }
 
     @Override
     void initialize() {
-        this.dataset = DatasetFactory.create();
+        this.dataset = DatasetFactory.wrap(new SnapshotDatasetGraph());
+        central.addListener(this);
+    }
+
+    /**
+     * Preserves original state of the specified statement, which is about to be changed in the central storage.
+     * <p>
+     * Only the first change of a statement is relevant, because it determines the state the statement was in when this
+     * snapshot was created.
+     */
+    @Override
+    public void statementChanged(Node graphName, Triple triple, boolean added) {
+        // Statement which is being removed was present in the storage, added statement was not
+        frozenGraph(graphName).preserve(triple, !added);
+    }
+
+    /**
+     * Detaches this snapshot from the central storage, because the central data are about to be replaced altogether.
+     */
+    @Override
+    public void dataReplaced() {
+        detach();
+        central.removeListener(this);
+    }
+
+    /**
+     * Detaches this snapshot from the central storage by copying the frozen view of the central data.
+     */
+    private void detach() {
+        final Dataset copy = DatasetFactory.createTxnMem();
+        final DatasetGraph copyGraph = copy.asDatasetGraph();
+        Txn.executeWrite(copy, () -> {
+            GraphUtil.addInto(copyGraph.getDefaultGraph(), frozenGraph(Quad.defaultGraphIRI));
+            for (Node name : frozenGraphNames()) {
+                GraphUtil.addInto(copyGraph.getGraph(name), frozenGraph(name));
+            }
+        });
+        // Readers obtain the preserved statements before the source, so they never combine the detached copy with
+        // an empty set of preserved statements
+        this.detachedCopy = copy;
+        frozenGraphs.values().forEach(FrozenGraph::reset);
     }
 
-    void addCentralData(Dataset central) {
-        Txn.executeRead(central, () -> {
-            final Iterator<String> it = central.listNames();
-            while (it.hasNext()) {
-                final String name = it.next();
-                dataset.addNamedModel(name, central.getNamedModel(name));
+    private Dataset source() {
+        final Dataset copy = detachedCopy;
+        return copy != null ? copy : central.getDataset();
+    }
+
+    private FrozenGraph frozenGraph(Node name) {
+        return frozenGraphs.computeIfAbsent(name, FrozenGraph::new);
+    }
+
+    private Set<Node> frozenGraphNames() {
+        final Dataset source = source();
+        final Set<Node> names = new LinkedHashSet<>();
+        Txn.executeRead(source, () -> source.asDatasetGraph().listGraphNodes().forEachRemaining(names::add));
+        final Set<Node> visible = new LinkedHashSet<>();
+        for (Node name : names) {
+            final FrozenGraph graph = frozenGraphs.get(name);
+            if (graph == null || !graph.isEmpty()) {
+                visible.add(name);
+            }
+        }
+        frozenGraphs.forEach((name, graph) -> {
+            if (!Quad.isDefaultGraph(name) && !names.contains(name) && !graph.isEmpty()) {
+                visible.add(name);
             }
-            dataset.setDefaultModel(central.getDefaultModel());
         });
+        return visible;
+    }
+
+    @Override
+    void close() {
+        central.removeListener(this);
+        // Releases the read transaction of iterators which were not consumed
+        central.endStreamingRead();
+    }
+
+    /**
+     * Dataset consisting of frozen views of the central graphs with the changes made in this snapshot on top of them.
+     */
+    private class SnapshotDatasetGraph extends DatasetGraphMapLink {
+
+        private SnapshotDatasetGraph() {
+            super(new Delta(frozenGraph(Quad.defaultGraphIRI)));
+        }
+
+        @Override
+        protected Graph getGraphCreate(Node graphNode) {
+            return new Delta(frozenGraph(graphNode));
+        }
+
+        @Override
+        public boolean containsGraph(Node graphNode) {
+            return Quad.isDefaultGraph(graphNode) || Quad.isUnionGraph(graphNode) || graphNames().contains(graphNode);
+        }
+
+        @Override
+        public Iterator<Node> listGraphNodes() {
+            return graphNames().iterator();
+        }
+
+        private Set<Node> graphNames() {
+            final Set<Node> names = frozenGraphNames();
+            super.listGraphNodes().forEachRemaining(n -> {
+                if (!((Delta) getGraph(n)).getAdditions().isEmpty()) {
+                    names.add(n);
+                }
+            });
+            return names;
+        }
+    }
+
+    /**
+     * Read-only view of a central graph as it was when this snapshot was created.
+     */
+    private class FrozenGraph extends GraphBase {
+
+        private final Node name;
+
+        private volatile PreservedStatements preserved = new PreservedStatements();
+
+        private FrozenGraph(Node name) {
+            this.name = name;
+        }
+
+        private Graph sourceGraph(Dataset source) {
+            return Quad.isDefaultGraph(name) ? source.asDatasetGraph().getDefaultGraph() :
+                   source.asDatasetGraph().getGraph(name);
+        }
+
+        @Override
+        protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+            // Preserved statements have to be obtained before the source, see detach()
+            final PreservedStatements current = preserved;
+            final Dataset source = source();
+            final ExtendedIterator<Triple> sourceTriples;
+            if (source.asDatasetGraph() instanceof DatasetGraphInMemory) {
+                // Iterators of the in-memory dataset traverse an immutable version of the data, so they remain valid
+                // after the read transaction ends and the matching triples need not be copied
+                sourceTriples = Txn.calculateRead(source, () -> sourceGraph(source).find(triplePattern));
+            } else if (source == central.getDataset() && central.supportsStreamingReads()) {
+                sourceTriples = central.streamRead(() -> sourceGraph(source).find(triplePattern));
+            } else {
+                sourceTriples = WrappedIterator.create(
+                        Txn.calculateRead(source, () -> sourceGraph(source).find(triplePattern).toList()).iterator());
+            }
+            return current.apply(triplePattern, sourceTriples);
+        }
+
+        @Override
+        protected boolean graphBaseContains(Triple t) {
+            if (!t.isConcrete()) {
+                return super.graphBaseContains(t);
+            }
+            final PreservedStatements current = preserved;
+            final Dataset source = source();
+            final boolean contains = Txn.calculateRead(source, () -> sourceGraph(source).contains(t));
+            final Boolean original = current.originalState(t);
+            return original != null ? original : contains;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            final PreservedStatements current = preserved;
+            if (current.hasRestored()) {
+                return false;
+            }
+            final Dataset source = source();
+            return Txn.calculateRead(source, () -> {
+                final ExtendedIterator<Triple> it = sourceGraph(source).find();
+                try {
+                    while (it.hasNext()) {
+                        if (!current.isHidden(it.next())) {
+                            return false;
+                        }
+                    }
+                    return true;
+                } finally {
+                    it.close();
+                }
+            });
+        }
+
+        private void preserve(Triple triple, boolean present) {
+            preserved.preserve(triple, present);
+        }
+
+        private void reset() {
+            this.preserved = new PreservedStatements();
+        }
+    }
+
+    /**
+     * Original state of statements changed in a central graph after this snapshot was created.
+     */
+    private static class PreservedStatements {
+
+        /**
+         * Statements added to the central graph after this snapshot was created.
+         */
+        private final Graph hidden = GraphFactory.createGraphMem();
+        /**
+         * Statements removed from the central graph after this snapshot was created.
+         */
+        private final Graph restored = GraphFactory.createGraphMem();
+
+        private synchronized void preserve(Triple triple, boolean present) {
+            if (!hidden.contains(triple) && !restored.contains(triple)) {
+                (present ? restored : hidden).add(triple);
+            }
+        }
+
+        /**
+         * Lazily replaces the changed statements in the specified source triples with their original state.
+         * <p>
+         * The original state is evaluated when the source triples are iterated, so it may include changes made after
+         * the source triples were obtained. This is consistent, because such changes cannot be reflected in the source
+         * triples.
+         */
+        private ExtendedIterator<Triple> apply(Triple pattern, ExtendedIterator<Triple> sourceTriples) {
+            if (isEmpty()) {
+                return sourceTriples;
+            }
+            return sourceTriples.filterDrop(this::isPreserved).andThen(new NiceIterator<Triple>() {
+                private Iterator<Triple> restoredTriples;
+
+                @Override
+                public boolean hasNext() {
+                    if (restoredTriples == null) {
+                        this.restoredTriples = findRestored(pattern);
+                    }
+                    return restoredTriples.hasNext();
+                }
+
+                @Override
+                public Triple next() {
+                    ensureHasNext();
+                    return restoredTriples.next();
+                }
+            });
+        }
+
+        private synchronized boolean isEmpty() {
+            return hidden.isEmpty() && restored.isEmpty();
+        }
+
+        private synchronized boolean isPreserved(Triple triple) {
+            return hidden.contains(triple) || restored.contains(triple);
+        }
+
+        private synchronized Iterator<Triple> findRestored(Triple pattern) {
+            return restored.find(pattern).toList().iterator();
+        }
+
+        private synchronized Boolean originalState(Triple triple) {
+            if (hidden.contains(triple)) {
+                return Boolean.FALSE;
+            }
+            return restored.contains(triple) ? Boolean.TRUE : null;
+        }
+
+        private synchronized boolean isHidden(Triple triple) {
+            return hidden.contains(triple);
+        }
+
+        private synchronized boolean hasRestored() {
+            return !restored.isEmpty();
+        }
     }
 }
@@ -60,9 +60,8 @@ public class SnapshotStorageConnector extends SharedStorageConnector {
     }
 
     void snapshotCentralDataset() {
-        final SnapshotStorage s = new SnapshotStorage(configuration);
+        final SnapshotStorage s = new SnapshotStorage(configuration, centralConnector.getStorage());
         s.initialize();
-        s.addCentralData(centralConnector.getStorage().getDataset());
         this.storage = s;
     }
 
@@ -70,17 +69,23 @@ public class SnapshotStorageConnector extends SharedStorageConnector {
     public void commit() throws JenaDriverException {
         ensureTransactionalState();
         transaction.commit();
+        // Release the snapshot first, so that it does not have to track the changes written into the central storage
+        closeSnapshot();
         try {
             centralConnector.begin();
-            applyRemovals();
-            applyAdditions();
-            applyTransactionUpdateQueries();
-            centralConnector.commit();
+            try {
+                applyRemovals();
+                applyAdditions();
+                applyTransactionUpdateQueries();
+                centralConnector.commit();
+            } catch (JenaDriverException | RuntimeException e) {
+                centralConnector.rollback();
+                throw e;
+            }
         } finally {
             cleanup();
             transaction.afterCommit();
         }
-
     }
 
     private void applyRemovals() {
@@ -112,11 +117,18 @@ public class SnapshotStorageConnector extends SharedStorageConnector {
     }
 
     private void cleanup() {
-        this.storage = null;
+        closeSnapshot();
         this.transactionalChanges = null;
         this.transactionalUpdates = null;
     }
 
+    private void closeSnapshot() {
+        if (storage != null) {
+            storage.close();
+            this.storage = null;
+        }
+    }
+
     @Override
     public List<Statement> find(Resource subject, Property property, RDFNode value, String context) {
         ensureTransactionalState();
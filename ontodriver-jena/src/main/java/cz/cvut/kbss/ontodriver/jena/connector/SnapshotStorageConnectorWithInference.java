@@ -20,27 +20,24 @@ import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * This connector implementation supports proper inference.
  */
 class SnapshotStorageConnectorWithInference extends SnapshotStorageConnector implements InferredStorageConnector {
 
-    //    private SnapshotStorageWithInference storage;
-    private final Map<String, String> reasonerConfig;
+    private final SharedInference inference;
 
-    SnapshotStorageConnectorWithInference(AbstractStorageConnector centralConnector,
-                                          Map<String, String> reasonerConfig) {
+    SnapshotStorageConnectorWithInference(AbstractStorageConnector centralConnector, SharedInference inference) {
         super(centralConnector);
-        this.reasonerConfig = reasonerConfig;
+        this.inference = inference;
     }
 
     @Override
     void snapshotCentralDataset() {
-        final SnapshotStorageWithInference s = new SnapshotStorageWithInference(configuration, reasonerConfig);
+        final SnapshotStorageWithInference s =
+                new SnapshotStorageWithInference(configuration, centralConnector.getStorage(), inference);
         s.initialize();
-        s.addCentralData(centralConnector.getStorage().getDataset());
         this.storage = s;
     }
 
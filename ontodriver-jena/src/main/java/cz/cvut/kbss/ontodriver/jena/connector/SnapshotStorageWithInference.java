@@ -12,142 +12,324 @@
  */
 package cz.cvut.kbss.ontodriver.jena.connector;
 
-import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
-import cz.cvut.kbss.ontodriver.jena.exception.ReasonerInitializationException;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.Delta;
+import org.apache.jena.graph.impl.GraphBase;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.rdf.model.InfModel;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
-import org.apache.jena.rdf.model.Property;
-import org.apache.jena.reasoner.IllegalParameterException;
+import org.apache.jena.reasoner.Derivation;
+import org.apache.jena.reasoner.InfGraph;
 import org.apache.jena.reasoner.Reasoner;
-import org.apache.jena.reasoner.ReasonerFactory;
 import org.apache.jena.reasoner.ValidityReport;
-import org.apache.jena.system.Txn;
-import org.apache.jena.vocabulary.ReasonerVocabulary;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphMapLink;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.*;
-import java.util.stream.Collectors;
-
-import static org.apache.jena.rdf.model.ResourceFactory.createProperty;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
+/**
+ * Copy-on-write snapshot of the central storage with inference.
+ * <p>
+ * Inference is provided by the {@link SharedInference} of the central storage. Graphs which are not changed in the
+ * snapshot are read directly from the shared inference graphs, additions made in the snapshot are layered on top of
+ * them. Only when statements are removed from a graph in the snapshot, inference has to run over the whole graph,
+ * because reasoners do not support incremental removal.
+ * <p>
+ * The shared inference graphs are pinned when the snapshot is created, so the inferred statements are based on the same
+ * data as the raw statements. If a central graph changes before the snapshot first reads it, inference runs over the
+ * snapshot data of the graph as well.
+ */
 class SnapshotStorageWithInference extends SnapshotStorage {
 
+    private final SharedInference inference;
+
+    private SharedInference.Pin pin;
+
+    private final Map<Node, InfModel> inferredGraphs = new ConcurrentHashMap<>();
+
     /**
-     * Configuration parameters supported by at least one of the Jena reasoners. Used to pre-filter reasoner config.
+     * Snapshot data without inference.
      */
-    private static final Set<String> SUPPORTED_CONFIG = new HashSet<>(Arrays.asList(
-            ReasonerVocabulary.PROPderivationLogging.getURI(),
-            ReasonerVocabulary.PROPenableCMPScan.getURI(),
-            ReasonerVocabulary.PROPenableFunctorFiltering.getURI(),
-            ReasonerVocabulary.PROPenableOWLTranslation.getURI(),
-            ReasonerVocabulary.PROPenableTGCCaching.getURI(),
-            ReasonerVocabulary.PROPruleMode.getURI(),
-            ReasonerVocabulary.PROPruleSet.getURI(),
-            ReasonerVocabulary.PROPsetRDFSLevel.getURI(),
-            ReasonerVocabulary.PROPtraceOn.getURI()
-    ));
-
-    private final ReasonerFactory reasonerFactory;
-    private final Map<String, String> reasonerConfig;
-
-    private final Map<String, InfModel> inferredGraphs = new HashMap<>();
-
-    SnapshotStorageWithInference(DriverConfiguration configuration, Map<String, String> reasonerConfig) {
-        super(configuration);
-        this.reasonerFactory = initReasonerFactory(configuration);
-        this.reasonerConfig = reasonerConfig.entrySet().stream()
-                                            .filter(e -> SUPPORTED_CONFIG.contains(e.getKey()))
-                                            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-    }
+    private Dataset rawDataset;
 
-    private ReasonerFactory initReasonerFactory(DriverConfiguration configuration) {
-        final String factoryClass = configuration.getProperty(DriverConfigParam.REASONER_FACTORY_CLASS, "");
-        LOG.trace("Creating reasoner using reasoner factory class {}.", factoryClass);
-        try {
-            final Class<? extends ReasonerFactory> rfClass =
-                    (Class<? extends ReasonerFactory>) Class.forName(factoryClass);
-            final Method instanceMethod = rfClass.getMethod("theInstance");
-            return (ReasonerFactory) instanceMethod.invoke(null);
-        } catch (ClassNotFoundException e) {
-            throw new ReasonerInitializationException("Reasoner factory class " + factoryClass + " not found.", e);
-        } catch (NoSuchMethodException e) {
-            throw new ReasonerInitializationException("Class " + factoryClass +
-                    " is not a ReasonerFactory implementation or does not contain static 'theInstance' method.");
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new ReasonerInitializationException(
-                    "Unable to instantiate Jena reasoner from factory " + factoryClass, e);
-        }
+    SnapshotStorageWithInference(DriverConfiguration configuration, Storage central, SharedInference inference) {
+        super(configuration, central);
+        this.inference = inference;
     }
 
     @Override
     void initialize() {
-        this.dataset = DatasetFactory.createGeneral();
+        this.pin = inference.pin(super::initialize);
+        this.rawDataset = dataset;
+        this.dataset = DatasetFactory.wrap(new InferredDatasetGraph());
     }
 
-    @Override
-    void addCentralData(Dataset central) {
-        Txn.executeRead(central, () -> {
-            final Iterator<String> it = central.listNames();
-            InfModel clonedModel;
-            while (it.hasNext()) {
-                final String name = it.next();
-                clonedModel = cloneModel(central.getNamedModel(name));
-                inferredGraphs.put(name, clonedModel);
-                dataset.addNamedModel(name, clonedModel);
-            }
-            clonedModel = cloneModel(central.getDefaultModel());
-            inferredGraphs.put(null, clonedModel);
-            dataset.setDefaultModel(clonedModel);
-        });
-    }
-
-    private InfModel cloneModel(Model model) {
-        return ModelFactory.createInfModel(createReasoner(), ModelFactory.createDefaultModel().add(model));
+    private InfModel inferredGraph(Node graphName) {
+        return inferredGraphs.computeIfAbsent(graphName, n -> ModelFactory.createInfModel(new InferredGraph(n)));
     }
 
     @Override
     InfModel getDefaultGraph() {
-        return inferredGraphs.get(null);
-    }
-
-    private Reasoner createReasoner() {
-        final Reasoner reasoner = reasonerFactory.create(null);
-        reasonerConfig.forEach((key, value) -> {
-            final Property prop = createProperty(key);
-            try {
-                reasoner.setParameter(prop, value);
-            } catch (IllegalParameterException ex) {
-                LOG.error("Failed to set property " + prop + " on reasoner.", ex);
-            }
-        });
-        return reasoner;
+        return inferredGraph(Quad.defaultGraphIRI);
     }
 
     Model getRawDefaultGraph() {
-        return inferredGraphs.containsKey(null) ? inferredGraphs.get(null).getRawModel() : dataset.getDefaultModel();
+        return rawDataset.getDefaultModel();
     }
 
     @Override
     InfModel getNamedGraph(String context) {
-        return inferredGraphs.computeIfAbsent(context, c -> {
-            // If the context does not exist, we need to create it, so that the default Dataset behavior is preserved
-            final InfModel model = ModelFactory.createInfModel(createReasoner(), ModelFactory.createDefaultModel());
-            dataset.addNamedModel(context, model);
-            return model;
-        });
+        return inferredGraph(NodeFactory.createURI(context));
     }
 
     Model getRawNamedGraph(String context) {
-        return inferredGraphs.containsKey(context) ? inferredGraphs.get(context).getRawModel() :
-               dataset.getNamedModel(context);
+        return rawDataset.getNamedModel(context);
+    }
+
+    @Override
+    void close() {
+        super.close();
+        pin.release();
     }
 
     ValidityReport checkConsistency(String context) {
         return context != null ? getNamedGraph(context).validate() : getDefaultGraph().validate();
     }
+
+    /**
+     * Dataset consisting of inferred views of the snapshot graphs.
+     */
+    private class InferredDatasetGraph extends DatasetGraphMapLink {
+
+        private InferredDatasetGraph() {
+            super(inferredGraph(Quad.defaultGraphIRI).getGraph());
+        }
+
+        @Override
+        protected Graph getGraphCreate(Node graphNode) {
+            return inferredGraph(graphNode).getGraph();
+        }
+
+        @Override
+        public boolean containsGraph(Node graphNode) {
+            return rawDataset.asDatasetGraph().containsGraph(graphNode);
+        }
+
+        @Override
+        public Iterator<Node> listGraphNodes() {
+            return rawDataset.asDatasetGraph().listGraphNodes();
+        }
+    }
+
+    /**
+     * Inferred view of a snapshot graph.
+     * <p>
+     * Changes made through the view are written into the raw snapshot graph.
+     */
+    private class InferredGraph extends GraphBase implements InfGraph {
+
+        private final Node name;
+
+        private SharedInference.SharedGraph shared;
+        private boolean sharedResolved;
+
+        /**
+         * Inference over changes made in the snapshot, {@code null} if not created yet.
+         */
+        private InfGraph local;
+        /**
+         * Whether the local inference is layered on top of the shared graph or runs over the whole snapshot graph.
+         */
+        private boolean layered;
+
+        private InferredGraph(Node name) {
+            this.name = name;
+        }
+
+        private Delta raw() {
+            final DatasetGraph dsg = rawDataset.asDatasetGraph();
+            return (Delta) (Quad.isDefaultGraph(name) ? dsg.getDefaultGraph() : dsg.getGraph(name));
+        }
+
+        /**
+         * Gets the pinned shared graph, {@code null} if it is not available and inference has to run locally.
+         */
+        private SharedInference.SharedGraph shared() {
+            if (!sharedResolved) {
+                this.shared = pin.getGraph(name);
+                this.sharedResolved = true;
+            }
+            return shared;
+        }
+
+        private <T> T calculate(Function<InfGraph, T> operation) {
+            final Delta raw = raw();
+            final SharedInference.SharedGraph sharedGraph = shared();
+            if (sharedGraph == null) {
+                return operation.apply(localInference(raw));
+            }
+            if (raw.getAdditions().isEmpty() && raw.getDeletions().isEmpty()) {
+                this.local = null;
+                return sharedGraph.query(operation);
+            }
+            if (raw.getDeletions().isEmpty() && sharedGraph.supportsLayering()) {
+                return sharedGraph.read(() -> operation.apply(layeredInference(raw)));
+            }
+            return operation.apply(localInference(raw));
+        }
+
+        private InfGraph layeredInference(Delta raw) {
+            if (local == null || !layered) {
+                this.local = shared.layer(copy(raw.getAdditions()));
+                this.layered = true;
+            }
+            return local;
+        }
+
+        private InfGraph localInference(Delta raw) {
+            if (local == null || layered) {
+                this.local = inference.createReasoner().bind(copy(raw));
+                this.layered = false;
+            }
+            return local;
+        }
+
+        @Override
+        protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+            return WrappedIterator.create(calculate(g -> g.find(triplePattern).toList()).iterator());
+        }
+
+        @Override
+        public ExtendedIterator<Triple> find(Node subject, Node property, Node object, Graph param) {
+            return WrappedIterator.create(calculate(g -> g.find(subject, property, object, param).toList()).iterator());
+        }
+
+        @Override
+        protected boolean graphBaseContains(Triple t) {
+            return calculate(g -> g.contains(t));
+        }
+
+        @Override
+        protected int graphBaseSize() {
+            return calculate(Graph::size);
+        }
+
+        @Override
+        public void performAdd(Triple t) {
+            raw().add(t);
+            if (local != null) {
+                if (layered) {
+                    shared.read(() -> {
+                        local.add(t);
+                        return null;
+                    });
+                } else {
+                    local.add(t);
+                }
+            }
+        }
+
+        @Override
+        public void performDelete(Triple t) {
+            raw().delete(t);
+            if (local != null) {
+                if (layered) {
+                    // Layered inference cannot handle removal, it will be created again if possible
+                    this.local = null;
+                } else {
+                    local.delete(t);
+                }
+            }
+        }
+
+        @Override
+        public Graph getRawGraph() {
+            return raw();
+        }
+
+        @Override
+        public Reasoner getReasoner() {
+            final SharedInference.SharedGraph sharedGraph = shared();
+            return sharedGraph != null ? sharedGraph.getReasoner() : localInference(raw()).getReasoner();
+        }
+
+        @Override
+        public void rebind(Graph data) {
+            throw new UnsupportedOperationException("Snapshot inference graph cannot be bound to different data.");
+        }
+
+        @Override
+        public void rebind() {
+            this.local = null;
+        }
+
+        @Override
+        public void prepare() {
+            calculate(g -> {
+                g.prepare();
+                return null;
+            });
+        }
+
+        @Override
+        public void reset() {
+            this.local = null;
+        }
+
+        @Override
+        public Node getGlobalProperty(Node property) {
+            return calculate(g -> g.getGlobalProperty(property));
+        }
+
+        @Override
+        public boolean testGlobalProperty(Node property) {
+            return calculate(g -> g.testGlobalProperty(property));
+        }
+
+        @Override
+        public ValidityReport validate() {
+            return calculate(InfGraph::validate);
+        }
+
+        @Override
+        public void setDerivationLogging(boolean logOn) {
+            throw new UnsupportedOperationException("Derivation logging has to be configured on the reasoner.");
+        }
+
+        @Override
+        public Iterator<Derivation> getDerivation(Triple triple) {
+            final List<Derivation> derivations = calculate(g -> {
+                final Iterator<Derivation> it = g.getDerivation(triple);
+                return it != null ? Iter.toList(it) : null;
+            });
+            return derivations != null ? derivations.iterator() : null;
+        }
+
+        @Override
+        public Graph getDeductionsGraph() {
+            return calculate(g -> g.getDeductionsGraph() != null ? copy(g.getDeductionsGraph()) : null);
+        }
+    }
+
+    private static Graph copy(Graph graph) {
+        final Graph copy = GraphFactory.createGraphMem();
+        GraphUtil.addInto(copy, graph);
+        return copy;
+    }
 }
@@ -19,16 +19,33 @@ import cz.cvut.kbss.ontodriver.exception.OntoDriverInitializationException;
 import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
 import cz.cvut.kbss.ontodriver.jena.config.JenaOntoDriverProperties;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.query.ReadWrite;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.sparql.core.DatasetChanges;
+import org.apache.jena.sparql.core.DatasetGraphMonitor;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.core.QuadAction;
+import org.apache.jena.system.Txn;
+import org.apache.jena.update.UpdateAction;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 abstract class Storage {
 
@@ -38,6 +55,66 @@ abstract class Storage {
 
     Dataset dataset;
 
+    /**
+     * Listeners notified of changes of data in this storage, e.g., copy-on-write snapshots.
+     */
+    private final Set<StorageListener> listeners = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Held while data in this storage are being changed, so that changes are not interleaved.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Guards registration of listeners and their notification. Unlike the write lock, it is not held for the whole
+     * duration of a write transaction, so that listeners can be registered while data are being changed.
+     * <p>
+     * Data of this storage must not be read while holding this lock, because the writer may need it to report a change
+     * while holding the dataset's own lock (e.g., the exclusive lock of a non-transactional dataset).
+     */
+    private final Object listenerLock = new Object();
+
+    /**
+     * Whether changes should be recorded even if there are no listeners, set when the first listener is registered.
+     */
+    private volatile boolean trackChanges;
+
+    /**
+     * Changes made by the write in progress, replayed to listeners registered before it is finished. {@code null} if
+     * there is no write in progress or it does not record its changes.
+     * <p>
+     * Guarded by {@link #listenerLock}.
+     */
+    private List<StatementChange> writeChanges;
+
+    /**
+     * Whether a write whose changes are not recorded is in progress, so that listeners cannot be registered before it
+     * is finished.
+     * <p>
+     * Guarded by {@link #listenerLock}.
+     */
+    private boolean untrackedWrite;
+
+    /**
+     * Whether changes are being made visible to readers, i.e., a write transaction is being committed, an update is
+     * executed outside of a transaction or the data are being replaced.
+     * <p>
+     * Guarded by {@link #listenerLock}.
+     */
+    private boolean publishing;
+
+    /**
+     * Number of finished publications of changes, see {@link #publishing}.
+     * <p>
+     * Guarded by {@link #listenerLock}.
+     */
+    private long publications;
+
+    /**
+     * Read transaction shared by iterators streaming data of this storage in the current thread.
+     */
+    private final ThreadLocal<StreamingRead> streamingRead = new ThreadLocal<>();
+
     Storage(DriverConfiguration configuration) {
         this.defaultAsUnion = configuration.is(JenaConfigParam.TREAT_DEFAULT_GRAPH_AS_UNION);
     }
@@ -48,6 +125,17 @@ abstract class Storage {
 
     abstract void initialize();
 
+    /**
+     * Whether data in this storage can be accessed only within a transaction.
+     * <p>
+     * If so, reads and updates executed outside of a driver transaction have to be wrapped in a storage transaction.
+     *
+     * @return {@code false} by default
+     */
+    boolean isTransactionRequired() {
+        return false;
+    }
+
     Dataset getDataset() {
         return dataset;
     }
@@ -62,15 +150,98 @@ abstract class Storage {
     }
 
     void begin(ReadWrite readWrite) {
-        dataset.begin(readWrite);
+        endStreamingRead();
+        if (readWrite == ReadWrite.WRITE) {
+            writeLock.lock();
+        }
+        try {
+            dataset.begin(readWrite);
+            if (readWrite == ReadWrite.WRITE) {
+                startWrite();
+            }
+        } catch (RuntimeException e) {
+            releaseWriteLock();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts recording changes of the write which has just acquired the write lock, if they may be needed by
+     * listeners.
+     */
+    private void startWrite() {
+        synchronized (listenerLock) {
+            if (trackChanges || !listeners.isEmpty()) {
+                this.writeChanges = new ArrayList<>();
+            } else {
+                this.untrackedWrite = true;
+            }
+        }
     }
 
     void commit() {
-        dataset.commit();
+        try {
+            startPublishing();
+            dataset.commit();
+            notifyCommitted();
+        } catch (RuntimeException e) {
+            notifyRolledBack();
+            throw e;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    private void startPublishing() {
+        if (writeLock.isHeldByCurrentThread()) {
+            synchronized (listenerLock) {
+                this.publishing = true;
+            }
+        }
     }
 
     void rollback() {
-        dataset.abort();
+        try {
+            dataset.abort();
+        } finally {
+            notifyRolledBack();
+            releaseWriteLock();
+        }
+    }
+
+    private void notifyCommitted() {
+        if (writeLock.isHeldByCurrentThread()) {
+            synchronized (listenerLock) {
+                finishWrite();
+                listeners.forEach(StorageListener::changesCommitted);
+            }
+        }
+    }
+
+    private void notifyRolledBack() {
+        if (writeLock.isHeldByCurrentThread()) {
+            synchronized (listenerLock) {
+                finishWrite();
+                listeners.forEach(StorageListener::changesRolledBack);
+            }
+        }
+    }
+
+    private void finishWrite() {
+        assert Thread.holdsLock(listenerLock);
+        this.writeChanges = null;
+        this.untrackedWrite = false;
+        if (publishing) {
+            this.publishing = false;
+            publications++;
+            listenerLock.notifyAll();
+        }
+    }
+
+    private void releaseWriteLock() {
+        if (writeLock.isHeldByCurrentThread()) {
+            writeLock.unlock();
+        }
     }
 
     void close() {
@@ -78,37 +249,274 @@ abstract class Storage {
     }
 
     void add(List<Statement> statements, String context) {
+        final Dataset target = writableDataset();
         if (context != null) {
-            dataset.getNamedModel(context).add(statements);
+            target.getNamedModel(context).add(statements);
         } else {
-            dataset.getDefaultModel().add(statements);
+            target.getDefaultModel().add(statements);
         }
     }
 
     void remove(List<Statement> statements, String context) {
+        final Dataset target = writableDataset();
         if (context != null) {
-            dataset.getNamedModel(context).remove(statements);
+            target.getNamedModel(context).remove(statements);
         } else {
-            dataset.getDefaultModel().remove(statements);
+            target.getDefaultModel().remove(statements);
             if (defaultAsUnion) {
-                dataset.listNames().forEachRemaining(n -> dataset.getNamedModel(n).remove(statements));
+                target.listNames().forEachRemaining(n -> target.getNamedModel(n).remove(statements));
             }
         }
     }
 
     void remove(StmtIterator iterator, String context) {
+        final Dataset target = writableDataset();
         if (context != null) {
-            dataset.getNamedModel(context).remove(iterator);
+            target.getNamedModel(context).remove(iterator);
         } else {
             iterator.forEachRemaining(statement -> {
-                dataset.getDefaultModel().remove(statement);
+                target.getDefaultModel().remove(statement);
                 if (defaultAsUnion) {
-                    dataset.listNames().forEachRemaining(n -> dataset.getNamedModel(n).remove(statement));
+                    target.listNames().forEachRemaining(n -> target.getNamedModel(n).remove(statement));
                 }
             });
         }
     }
 
+    void executeUpdate(String update) {
+        endStreamingRead();
+        writeLock.lock();
+        if (writeLock.getHoldCount() == 1) {
+            // Not part of a transaction, changes are visible as soon as they are applied
+            startWrite();
+            startPublishing();
+        }
+        try {
+            final Dataset target = writableDataset();
+            if (isTransactionRequired()) {
+                // Joins the current write transaction, if there is one
+                Txn.executeWrite(dataset, () -> UpdateAction.parseExecute(update, target));
+            } else {
+                UpdateAction.parseExecute(update, target);
+            }
+        } finally {
+            if (writeLock.getHoldCount() == 1) {
+                // Not part of a transaction, changes have already been applied
+                notifyCommitted();
+            }
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets dataset through which data in this storage should be modified.
+     * <p>
+     * If there are any listeners registered on this storage or changes are being recorded, the returned dataset reports
+     * every statement which is actually added or removed.
+     */
+    private Dataset writableDataset() {
+        final boolean recording;
+        synchronized (listenerLock) {
+            recording = writeChanges != null;
+        }
+        if (!recording && listeners.isEmpty()) {
+            return dataset;
+        }
+        return DatasetFactory.wrap(new DatasetGraphMonitor(dataset.asDatasetGraph(), new ChangeNotifier(), true));
+    }
+
+    /**
+     * Registers the specified listener of changes of this storage.
+     * <p>
+     * From now on, the listener will be notified before any statement in this storage is added or removed. If a write
+     * is in progress, the listener is first notified of the statements it has already changed, so that it can treat
+     * the registration as if it happened before the write.
+     * <p>
+     * Registration does not wait for the write in progress, unless it is the first registration on this storage and
+     * the write thus does not record its changes.
+     *
+     * @param listener The listener to register
+     */
+    void addListener(StorageListener listener) {
+        calculateBetweenNotifications(() -> {
+            this.trackChanges = true;
+            listeners.add(listener);
+            if (writeChanges != null) {
+                writeChanges.forEach(c -> listener.statementChanged(c.graphName, c.triple, c.added));
+            }
+            return null;
+        });
+    }
+
+    void removeListener(StorageListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Executes the specified operation while no changes of data in this storage are in progress.
+     * <p>
+     * This means that the operation sees data committed by the last write transaction and that listeners have already
+     * been notified of it.
+     *
+     * @param operation The operation to execute
+     * @param <T>       Result type
+     * @return Result of the operation
+     */
+    <T> T calculateLocked(Supplier<T> operation) {
+        writeLock.lock();
+        try {
+            return operation.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Executes the specified operation atomically with respect to notifications of listeners of this storage.
+     * <p>
+     * Unlike {@link #calculateLocked(Supplier)}, the operation does not wait for a write in progress, it is only never
+     * run concurrently with a listener notification. If a write transaction is in progress, it thus appears to the
+     * operation as if it had not started, even if its changes are already being committed. The operation is typically
+     * used to register a listener together with capturing the state of other listeners.
+     * <p>
+     * The operation must not read data of this storage (see {@link #listenerLock}).
+     *
+     * @param operation The operation to execute
+     * @param <T>       Result type
+     * @return Result of the operation
+     */
+    <T> T calculateBetweenNotifications(Supplier<T> operation) {
+        synchronized (listenerLock) {
+            if (!untrackedWrite) {
+                return operation.get();
+            }
+        }
+        // Changes of the write in progress are not recorded, so they could not be replayed to new listeners
+        writeLock.lock();
+        try {
+            synchronized (listenerLock) {
+                return operation.get();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Executes the specified read of data in this storage so that it sees data committed by a write transaction only
+     * after listeners have been notified of the commit.
+     * <p>
+     * The read does not wait for a write transaction in progress. It waits only if the write's changes are just being
+     * made visible (e.g., committed) and it is repeated if changes are made visible while it runs. It should thus not
+     * have side effects other than capturing state related to the data.
+     *
+     * @param read The read to execute
+     * @param <T>  Result type
+     * @return Result of the read
+     */
+    <T> T readBetweenCommits(Supplier<T> read) {
+        while (true) {
+            final long before = awaitPublished();
+            final T result = read.get();
+            synchronized (listenerLock) {
+                if (!publishing && publications == before) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    private long awaitPublished() {
+        synchronized (listenerLock) {
+            boolean interrupted = false;
+            while (publishing) {
+                try {
+                    listenerLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return publications;
+        }
+    }
+
+    /**
+     * Executes the specified operation which replaces all data in this storage (e.g., reloads them).
+     * <p>
+     * Listeners are notified before the operation is run, so that, for instance, active snapshots can detach from this
+     * storage and keep their view of the data.
+     *
+     * @param operation The operation to execute
+     */
+    void replaceData(Runnable operation) {
+        writeLock.lock();
+        try {
+            synchronized (listenerLock) {
+                this.untrackedWrite = true;
+                this.publishing = true;
+                listeners.forEach(StorageListener::dataReplaced);
+            }
+            operation.run();
+        } finally {
+            synchronized (listenerLock) {
+                finishWrite();
+            }
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Whether data of this storage can be streamed from within a read transaction while it is being changed (see
+     * {@link #streamRead(Supplier)}).
+     *
+     * @return {@code false} by default
+     */
+    boolean supportsStreamingReads() {
+        return false;
+    }
+
+    /**
+     * Streams the triples found by the specified reader from within a read transaction.
+     * <p>
+     * The read transaction is shared by all iterators streamed by the current thread and it ends when the last of them
+     * is exhausted or closed. The iterators thus have to be consumed by the thread which created them. If the thread
+     * begins a transaction on this storage before that, the read transaction ends and the iterators can no longer be
+     * used (see also {@link #endStreamingRead()}).
+     * <p>
+     * If the current thread is already in a transaction not started by this method, the found triples are copied,
+     * because the transaction may end before they are consumed.
+     *
+     * @param reader Finds the triples in the dataset of this storage
+     * @return Iterator over the found triples
+     */
+    ExtendedIterator<Triple> streamRead(Supplier<ExtendedIterator<Triple>> reader) {
+        StreamingRead read = streamingRead.get();
+        if (read == null) {
+            if (dataset.isInTransaction()) {
+                return WrappedIterator.create(reader.get().toList().iterator());
+            }
+            read = new StreamingRead(dataset);
+            streamingRead.set(read);
+        }
+        return read.stream(reader);
+    }
+
+    /**
+     * Ends the read transaction of iterators streamed by the current thread, if there is one.
+     * <p>
+     * This releases the transaction of iterators which have been neither exhausted nor closed. They can no longer be
+     * used.
+     */
+    void endStreamingRead() {
+        final StreamingRead read = streamingRead.get();
+        if (read != null) {
+            read.end();
+        }
+    }
+
     void reload() {
         // Do nothing by default
     }
@@ -124,6 +532,131 @@ abstract class Storage {
         throw new UnsupportedOperationException("Cannot set dataset on storage of type " + getClass().getSimpleName());
     }
 
+    /**
+     * Read transaction shared by streaming iterators of one thread.
+     */
+    private class StreamingRead {
+
+        private final Dataset target;
+
+        private int open;
+
+        private StreamingRead(Dataset target) {
+            this.target = target;
+            target.begin(ReadWrite.READ);
+        }
+
+        private ExtendedIterator<Triple> stream(Supplier<ExtendedIterator<Triple>> reader) {
+            final ExtendedIterator<Triple> source;
+            try {
+                source = reader.get();
+            } catch (RuntimeException e) {
+                if (open == 0) {
+                    end();
+                }
+                throw e;
+            }
+            open++;
+            return new NiceIterator<Triple>() {
+                private boolean closed;
+
+                @Override
+                public boolean hasNext() {
+                    if (closed) {
+                        return false;
+                    }
+                    if (!source.hasNext()) {
+                        close();
+                        return false;
+                    }
+                    return true;
+                }
+
+                @Override
+                public Triple next() {
+                    ensureHasNext();
+                    return source.next();
+                }
+
+                @Override
+                public void close() {
+                    if (!closed) {
+                        this.closed = true;
+                        source.close();
+                        release();
+                    }
+                }
+            };
+        }
+
+        private void release() {
+            open--;
+            if (open == 0) {
+                end();
+            }
+        }
+
+        private void end() {
+            if (streamingRead.get() == this) {
+                streamingRead.remove();
+                target.end();
+            }
+        }
+    }
+
+    /**
+     * Statement changed by a write in progress.
+     */
+    private static class StatementChange {
+
+        private final Node graphName;
+        private final Triple triple;
+        private final boolean added;
+
+        private StatementChange(Node graphName, Triple triple, boolean added) {
+            this.graphName = graphName;
+            this.triple = triple;
+            this.added = added;
+        }
+    }
+
+    /**
+     * Notifies the registered listeners of changed statements.
+     */
+    private class ChangeNotifier implements DatasetChanges {
+
+        @Override
+        public void start() {
+            // Do nothing
+        }
+
+        @Override
+        public void change(QuadAction action, Node graph, Node subject, Node predicate, Node object) {
+            if (action != QuadAction.ADD && action != QuadAction.DELETE) {
+                return;
+            }
+            final Node graphName = Quad.isDefaultGraph(graph) ? Quad.defaultGraphIRI : graph;
+            final Triple triple = Triple.create(subject, predicate, object);
+            final boolean added = action == QuadAction.ADD;
+            synchronized (listenerLock) {
+                if (writeChanges != null) {
+                    writeChanges.add(new StatementChange(graphName, triple, added));
+                }
+                listeners.forEach(l -> l.statementChanged(graphName, triple, added));
+            }
+        }
+
+        @Override
+        public void finish() {
+            // Do nothing
+        }
+
+        @Override
+        public void reset() {
+            // Do nothing
+        }
+    }
+
     /**
      * Creates a storage accessor according to the specified configuration.
      *
@@ -139,11 +672,15 @@ abstract class Storage {
                 storage = new MemoryStorage(configuration);
                 break;
             case JenaOntoDriverProperties.FILE:
-                storage = new FileStorage(configuration);
+                storage = configuration.is(JenaConfigParam.FILE_JOURNAL) ? new JournaledFileStorage(configuration) :
+                          new FileStorage(configuration);
                 break;
             case JenaOntoDriverProperties.TDB:
                 storage = new TDBStorage(configuration);
                 break;
+            case JenaOntoDriverProperties.TDB2:
+                storage = new TDB2Storage(configuration);
+                break;
             case JenaOntoDriverProperties.SDB:
                 throw new UnsupportedOperationException("Not implemented, yet.");
             default:
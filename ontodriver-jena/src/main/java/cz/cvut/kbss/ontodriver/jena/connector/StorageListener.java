@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+
+/**
+ * Listener notified of changes of data in a {@link Storage}.
+ * <p>
+ * Listeners are invoked by the thread changing the storage. The storage never notifies listeners concurrently. A
+ * listener registered while a write is in progress is first notified of the statements already changed by the write,
+ * by the registering thread.
+ */
+interface StorageListener {
+
+    /**
+     * Called before a statement is added to or removed from the storage.
+     * <p>
+     * Only actual changes are reported, e.g., adding a statement which is already present in the storage is not.
+     *
+     * @param graphName Name of the graph in which the statement is changed, {@link
+     *                  org.apache.jena.sparql.core.Quad#defaultGraphIRI} for the default graph
+     * @param triple    The changed statement
+     * @param added     Whether the statement is being added ({@code true}) or removed ({@code false})
+     */
+    void statementChanged(Node graphName, Triple triple, boolean added);
+
+    /**
+     * Called after changes reported since the last commit or rollback have been committed.
+     */
+    default void changesCommitted() {
+        // Do nothing by default
+    }
+
+    /**
+     * Called after changes reported since the last commit or rollback have been rolled back.
+     */
+    default void changesRolledBack() {
+        // Do nothing by default
+    }
+
+    /**
+     * Called before all data in the storage are replaced (e.g., reloaded).
+     */
+    void dataReplaced();
+}
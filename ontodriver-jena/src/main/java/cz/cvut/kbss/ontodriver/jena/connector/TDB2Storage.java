@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import org.apache.jena.tdb2.TDB2Factory;
+
+/**
+ * Jena TDB2 storage accessor.
+ * <p>
+ * TDB2 uses MVCC transactions, so read transactions see the last committed state of the data and are not blocked by a
+ * running write transaction. Changes are durable once a write transaction is committed, so, unlike TDB, no explicit
+ * synchronization with the file system is necessary.
+ * <p>
+ * TDB2 does not allow accessing data outside of a transaction.
+ */
+class TDB2Storage extends Storage {
+
+    private final String location;
+
+    TDB2Storage(DriverConfiguration configuration) {
+        super(configuration);
+        this.location = configuration.getStorageProperties().getPhysicalURI().toString();
+    }
+
+    @Override
+    void initialize() {
+        this.dataset = TDB2Factory.connectDataset(location);
+    }
+
+    @Override
+    boolean isTransactionRequired() {
+        return true;
+    }
+
+    @Override
+    boolean supportsStreamingReads() {
+        return true;
+    }
+}
@@ -33,6 +33,11 @@ class TDBStorage extends Storage {
         this.dataset = TDBFactory.createDataset(location);
     }
 
+    @Override
+    boolean supportsStreamingReads() {
+        return true;
+    }
+
     @Override
     void writeChanges() throws JenaDriverException {
         try {
@@ -19,12 +19,16 @@ import cz.cvut.kbss.ontodriver.descriptor.ListValueDescriptor;
 import cz.cvut.kbss.ontodriver.jena.connector.StorageConnector;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-import static org.apache.jena.rdf.model.ResourceFactory.createResource;
+import static org.apache.jena.rdf.model.ResourceFactory.*;
 
 public abstract class ListHandler<D extends ListDescriptor, V extends ListValueDescriptor> {
 
@@ -58,28 +62,72 @@ public abstract class ListHandler<D extends ListDescriptor, V extends ListValueD
 
     abstract void appendNewNodes(V descriptor, int index, Resource lastNode);
 
+    /**
+     * Updates the list, writing only the differences between the original and the updated list into the storage.
+     * <p>
+     * See {@link #resolveUpdatedNodes(ListValueDescriptor, List, List, List, List)} for details on node reuse.
+     *
+     * @param descriptor Describes the updated list
+     */
     void updateList(V descriptor) {
+        final List<Resource> originalNodes = new ArrayList<>();
+        final List<Resource> originalContents = new ArrayList<>();
         final AbstractListIterator it = iterator(descriptor);
-        int i = 0;
-        while (it.hasNext() && i < descriptor.getValues().size()) {
-            final NamedResource update = descriptor.getValues().get(i);
-            final NamedResource existing = it.nextValue();
-            if (!existing.equals(update)) {
-                it.replace(createResource(update.getIdentifier().toString()));
+        while (it.hasNext()) {
+            originalContents.add(createResource(it.nextValue().getIdentifier().toString()));
+            originalNodes.add(it.getCurrentNode());
+        }
+        if (originalNodes.isEmpty()) {
+            persistList(descriptor);
+            return;
+        }
+        final List<Statement> toAdd = new ArrayList<>();
+        final List<Statement> toRemove = new ArrayList<>();
+        final List<Resource> nodes = resolveUpdatedNodes(descriptor, originalNodes, originalContents, toAdd, toRemove);
+        final Set<Statement> originalLinks = new HashSet<>(createLinks(descriptor, originalNodes));
+        for (Statement link : createLinks(descriptor, nodes)) {
+            if (!originalLinks.remove(link)) {
+                toAdd.add(link);
             }
-            i++;
         }
-        removeObsoleteNodes(it);
-        if (i < descriptor.getValues().size()) {
-            appendNewNodes(descriptor, i, it.getCurrentNode());
+        toRemove.addAll(originalLinks);
+        final String context = descriptor.getContext() != null ? descriptor.getContext().toString() : null;
+        if (!toRemove.isEmpty()) {
+            connector.remove(toRemove, context);
+        }
+        if (!toAdd.isEmpty()) {
+            connector.add(toAdd, context);
         }
     }
 
-    private static void removeObsoleteNodes(AbstractListIterator it) {
-        while (it.hasNext()) {
-            it.nextValue();
-            it.removeWithoutReconnect();
+    /**
+     * Resolves nodes of the updated list.
+     * <p>
+     * Original nodes should be reused where possible. Statements necessary to change node content are added to the
+     * specified lists, links between the nodes are resolved by the caller.
+     *
+     * @param descriptor       Describes the updated list
+     * @param originalNodes    Nodes of the original list
+     * @param originalContents Content of the original nodes
+     * @param toAdd            Statements to add
+     * @param toRemove         Statements to remove
+     * @return Nodes of the updated list, in list order
+     */
+    abstract List<Resource> resolveUpdatedNodes(V descriptor, List<Resource> originalNodes,
+                                                List<Resource> originalContents, List<Statement> toAdd,
+                                                List<Statement> toRemove);
+
+    private static List<Statement> createLinks(ListValueDescriptor descriptor, List<Resource> nodes) {
+        final Property hasNext = createProperty(descriptor.getNextNode().getIdentifier().toString());
+        final List<Statement> links = new ArrayList<>(nodes.size());
+        Resource previous = createResource(descriptor.getListOwner().getIdentifier().toString());
+        Property property = createProperty(descriptor.getListProperty().getIdentifier().toString());
+        for (Resource node : nodes) {
+            links.add(createStatement(previous, property, node));
+            previous = node;
+            property = hasNext;
         }
+        return links;
     }
 
     public static SimpleListHandler simpleListHandler(StorageConnector connector) {
@@ -18,14 +18,14 @@ import cz.cvut.kbss.ontodriver.descriptor.ReferencedListDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.ReferencedListValueDescriptor;
 import cz.cvut.kbss.ontodriver.jena.connector.StorageConnector;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import cz.cvut.kbss.ontodriver.util.ListNodeMatcher;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.apache.jena.rdf.model.ResourceFactory.*;
 
@@ -53,30 +53,67 @@ class ReferencedListHandler extends ListHandler<ReferencedListDescriptor, Refere
         final Property hasNext = createProperty(descriptor.getNextNode().getIdentifier().toString());
         final Property hasContent = createProperty(descriptor.getNodeContent().getIdentifier().toString());
         final String context = descriptor.getContext() != null ? descriptor.getContext().toString() : null;
+        final Set<Resource> generated = new HashSet<>();
         for (; i < descriptor.getValues().size(); i++) {
-            lastNode =
-                    appendNode(lastNode, descriptor.getValues().get(i), i == 0 ? hasList : hasNext, hasContent, context,
-                            toAdd);
+            lastNode = appendNode(lastNode, descriptor.getValues().get(i), i == 0 ? hasList : hasNext, hasContent,
+                    context, generated, toAdd);
         }
         connector.add(toAdd, context);
     }
 
     private Resource appendNode(Resource previousNode, NamedResource value, Property link, Property hasContent,
-                                String context, List<Statement> statements) {
-        final Resource node = generateNewListNode(value.getIdentifier(), context);
+                                String context, Set<Resource> generated, List<Statement> statements) {
+        final Resource node = generateNewListNode(value.getIdentifier(), context, generated);
         statements.add(createStatement(previousNode, link, node));
         statements.add(createStatement(node, hasContent, createResource(value.getIdentifier().toString())));
         return node;
     }
 
-    private Resource generateNewListNode(URI baseUri, String context) {
+    private Resource generateNewListNode(URI baseUri, String context, Set<Resource> generated) {
         Resource node;
         int index = 0;
-        Collection<Statement> statements;
         do {
             node = createResource(baseUri.toString() + "-SEQ_" + index++);
-            statements = connector.find(node, null, null, context);
-        } while (!statements.isEmpty());
+        } while (generated.contains(node) || !connector.find(node, null, null, context).isEmpty());
+        generated.add(node);
         return node;
     }
+
+    @Override
+    List<Resource> resolveUpdatedNodes(ReferencedListValueDescriptor descriptor, List<Resource> originalNodes,
+                                       List<Resource> originalContents, List<Statement> toAdd,
+                                       List<Statement> toRemove) {
+        final Property hasContent = createProperty(descriptor.getNodeContent().getIdentifier().toString());
+        final String context = descriptor.getContext() != null ? descriptor.getContext().toString() : null;
+        final List<Resource> values = descriptor.getValues().stream()
+                                                .map(v -> createResource(v.getIdentifier().toString()))
+                                                .collect(Collectors.toList());
+        final int[] matches = ListNodeMatcher.match(originalContents, values);
+        final boolean[] kept = new boolean[originalNodes.size()];
+        final Set<Resource> generated = new HashSet<>();
+        final List<Resource> nodes = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            final Resource content = values.get(i);
+            final Resource node;
+            if (matches[i] == ListNodeMatcher.NEW_NODE) {
+                node = generateNewListNode(descriptor.getValues().get(i).getIdentifier(), context, generated);
+                toAdd.add(createStatement(node, hasContent, content));
+            } else {
+                node = originalNodes.get(matches[i]);
+                kept[matches[i]] = true;
+                final Resource originalContent = originalContents.get(matches[i]);
+                if (!originalContent.equals(content)) {
+                    toRemove.add(createStatement(node, hasContent, originalContent));
+                    toAdd.add(createStatement(node, hasContent, content));
+                }
+            }
+            nodes.add(node);
+        }
+        for (int i = 0; i < kept.length; i++) {
+            if (!kept[i]) {
+                toRemove.add(createStatement(originalNodes.get(i), hasContent, originalContents.get(i)));
+            }
+        }
+        return nodes;
+    }
 }
@@ -26,6 +26,7 @@ import org.apache.jena.rdf.model.Statement;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.apache.jena.rdf.model.ResourceFactory.createResource;
 
@@ -64,4 +65,13 @@ class SimpleListHandler extends ListHandler<SimpleListDescriptor, SimpleListValu
         statements.add(ResourceFactory.createStatement(previous, property, node));
         return node;
     }
+
+    @Override
+    List<Resource> resolveUpdatedNodes(SimpleListValueDescriptor descriptor, List<Resource> originalNodes,
+                                       List<Resource> originalContents, List<Statement> toAdd,
+                                       List<Statement> toRemove) {
+        // Nodes of a simple list are the values themselves
+        return descriptor.getValues().stream().map(v -> createResource(v.getIdentifier().toString()))
+                         .collect(Collectors.toList());
+    }
 }
@@ -14,7 +14,9 @@
  */
 package cz.cvut.kbss.ontodriver.jena.connector;
 
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import org.apache.jena.reasoner.rulesys.RDFSRuleReasonerFactory;
 import org.junit.Test;
 
 import java.lang.reflect.Field;
@@ -26,6 +28,7 @@ public class InferenceConnectorFactoryTest extends ConnectorFactoryTestBase {
 
     @Override
     ConnectorFactory connectorFactory(DriverConfiguration configuration) {
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
         return new InferenceConnectorFactory(configuration, Collections.emptyMap());
     }
 
@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.jena.rdf.model.ResourceFactory.createResource;
+import static org.apache.jena.rdf.model.ResourceFactory.createStatement;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.*;
+
+public class JournaledFileStorageTest extends StorageTestUtil {
+
+    private File file;
+    private File journalFile;
+
+    private JournaledFileStorage storage;
+
+    @Before
+    public void setUp() throws Exception {
+        this.file = Files.createTempFile("jena-onto", ".ttl").toFile();
+        file.deleteOnExit();
+        this.journalFile = new File(file.getAbsolutePath() + JournaledFileStorage.JOURNAL_SUFFIX);
+        journalFile.deleteOnExit();
+        this.storage = createStorage();
+    }
+
+    private JournaledFileStorage createStorage() {
+        final JournaledFileStorage result = new JournaledFileStorage(createConfiguration(file.getAbsolutePath()));
+        result.initialize();
+        return result;
+    }
+
+    @After
+    public void tearDown() {
+        storage.close();
+    }
+
+    private void commit(Statement statement, boolean add) throws Exception {
+        storage.begin(ReadWrite.WRITE);
+        if (add) {
+            storage.add(Collections.singletonList(statement), null);
+        } else {
+            storage.remove(Collections.singletonList(statement), null);
+        }
+        storage.writeChanges();
+        storage.commit();
+    }
+
+    @Test
+    public void writeChangesAppendsChangesToJournalWithoutRewritingStorageFile() throws Exception {
+        final Statement statement = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+        commit(statement, true);
+
+        assertEquals(0, file.length());
+        final List<String> lines = Files.readAllLines(journalFile.toPath());
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith(JournaledFileStorage.ADDED + " <" + SUBJECT + ">"));
+        assertThat(lines.get(0), containsString(TYPE_ONE));
+        assertEquals(JournaledFileStorage.COMMIT, lines.get(1));
+    }
+
+    @Test
+    public void rolledBackChangesAreNotWrittenToJournal() {
+        storage.begin(ReadWrite.WRITE);
+        storage.add(Collections.singletonList(
+                createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE))), null);
+        storage.rollback();
+
+        assertEquals(0, journalFile.length());
+    }
+
+    @Test
+    public void initializeReplaysJournalOnTopOfStorageFile() throws Exception {
+        final Statement added = createStatement(createResource(SUBJECT), RDFS.label,
+                ResourceFactory.createLangLiteral("Příliš \"žluťoučký\"\nkůň", "cs"));
+        final Statement removed = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+        commit(removed, true);
+        storage.compact();
+        commit(added, true);
+        commit(removed, false);
+
+        // Simulate crash - the journal is not compacted
+        final JournaledFileStorage restarted = createStorage();
+        try {
+            final Model model = restarted.getDefaultGraph();
+            assertTrue(model.contains(added));
+            assertFalse(model.contains(removed));
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    public void initializeDiscardsIncompleteTransactionAtTheEndOfJournal() throws Exception {
+        final Statement committed = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+        commit(committed, true);
+        final long committedLength = journalFile.length();
+        try (final FileOutputStream out = new FileOutputStream(journalFile, true)) {
+            out.write((JournaledFileStorage.ADDED + " <" + SUBJECT + "> <" + RDF.type.getURI() + "> <" + TYPE_TWO)
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        final JournaledFileStorage restarted = createStorage();
+        try {
+            final Model model = restarted.getDefaultGraph();
+            assertTrue(model.contains(committed));
+            assertFalse(model.contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
+            assertEquals(committedLength, journalFile.length());
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    public void closeCompactsJournalIntoStorageFile() throws Exception {
+        final Statement statement = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+        final Literal literal = ResourceFactory.createTypedLiteral(117);
+        final Statement other = createStatement(createResource(SUBJECT), RDFS.comment, literal);
+        commit(statement, true);
+        commit(other, true);
+
+        storage.close();
+        assertEquals(0, journalFile.length());
+        final Model model = RDFDataMgr.loadModel(file.getAbsolutePath());
+        assertTrue(model.contains(statement));
+        assertTrue(model.contains(other));
+        this.storage = createStorage();
+    }
+
+    @Test
+    public void compactInBackgroundAllowsCommitsWhileWritingStorageFileAndKeepsTheirJournalRecords() throws Exception {
+        final Statement compacted = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+        final Statement concurrent = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        storage.close();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        this.storage = new JournaledFileStorage(createConfiguration(file.getAbsolutePath())) {
+            @Override
+            void writeModel(Model model, OutputStream out) {
+                try {
+                    executor.submit(() -> {
+                        JournaledFileStorageTest.this.commit(concurrent, true);
+                        return null;
+                    }).get(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                super.writeModel(model, out);
+            }
+        };
+        storage.initialize();
+        commit(compacted, true);
+        storage.compactInBackground();
+        executor.shutdown();
+
+        final Model fileContent = RDFDataMgr.loadModel(file.getAbsolutePath());
+        assertTrue(fileContent.contains(compacted));
+        assertFalse(fileContent.contains(concurrent));
+        final List<String> lines = Files.readAllLines(journalFile.toPath());
+        assertEquals(2, lines.size());
+        assertThat(lines.get(0), containsString(TYPE_TWO));
+        final JournaledFileStorage restarted = createStorage();
+        try {
+            assertTrue(restarted.getDefaultGraph().contains(compacted));
+            assertTrue(restarted.getDefaultGraph().contains(concurrent));
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    public void reloadReplaysJournalAgain() throws Exception {
+        final Statement statement = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+        commit(statement, true);
+
+        storage.reload();
+        assertTrue(storage.getDefaultGraph().contains(statement));
+        assertThat(String.join("\n", Files.readAllLines(file.toPath())), not(containsString(SUBJECT)));
+    }
+
+    @Test
+    public void updateOutsideOfTransactionIsWrittenToJournal() throws Exception {
+        storage.executeUpdate("INSERT DATA { <" + SUBJECT + "> a <" + TYPE_TWO + "> . }");
+
+        final List<String> lines = Files.readAllLines(journalFile.toPath());
+        assertEquals(2, lines.size());
+        assertThat(lines.get(0), containsString(TYPE_TWO));
+    }
+}
@@ -0,0 +1,304 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.jena.exception.ReasonerInitializationException;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.reasoner.ReasonerFactory;
+import org.apache.jena.reasoner.rulesys.OWLFBRuleReasonerFactory;
+import org.apache.jena.reasoner.rulesys.RDFSRuleReasonerFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static cz.cvut.kbss.ontodriver.jena.connector.StorageTestUtil.*;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.isA;
+import static org.junit.Assert.*;
+
+public class SharedInferenceTest {
+
+    private static final Triple TYPE_ONE_ASSERTION = triple(SUBJECT, RDF.type.getURI(), TYPE_ONE);
+    private static final Triple TYPE_TWO_INFERENCE = triple(SUBJECT, RDF.type.getURI(), TYPE_TWO);
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private DriverConfiguration configuration;
+
+    private Storage central;
+
+    @Before
+    public void setUp() {
+        this.configuration = createConfiguration("urn:storage-test");
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
+        this.central = new MemoryStorage(configuration);
+        central.initialize();
+        Txn.executeWrite(central.getDataset(), () -> generateTestData(central.getDataset()));
+    }
+
+    private static Triple triple(String subject, String property, String value) {
+        return Triple.create(NodeFactory.createURI(subject), NodeFactory.createURI(property),
+                NodeFactory.createURI(value));
+    }
+
+    @Test
+    public void initializationCreatesRDFSReasonerBasedOnConfiguredReasonerFactoryClass() throws Exception {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        assertTrue(getReasonerFactory(sut) instanceof RDFSRuleReasonerFactory);
+    }
+
+    private static ReasonerFactory getReasonerFactory(SharedInference sut) throws Exception {
+        final Field rfField = SharedInference.class.getDeclaredField("reasonerFactory");
+        rfField.setAccessible(true);
+        return (ReasonerFactory) rfField.get(sut);
+    }
+
+    @Test
+    public void initializationThrowsReasonerInitializationExceptionWhenUnknownReasonerFactoryClassIsSpecified() {
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS,
+                "cz.cvut.kbss.ontodriver.jena.UnknownReasonerFactory");
+        thrown.expect(ReasonerInitializationException.class);
+        thrown.expectCause(isA(ClassNotFoundException.class));
+        thrown.expectMessage(containsString("Reasoner factory class"));
+        thrown.expectMessage(containsString("not found"));
+        new SharedInference(configuration, Collections.emptyMap(), central);
+    }
+
+    @Test
+    public void initializationThrowsReasonerInitializationExceptionWhenClassIsNotReasonerFactory() {
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, String.class.getName());
+        thrown.expect(ReasonerInitializationException.class);
+        thrown.expectMessage(
+                containsString("Class " + String.class.getName() + " is not a ReasonerFactory implementation"));
+        new SharedInference(configuration, Collections.emptyMap(), central);
+    }
+
+    @Test
+    public void initializationCreatesOWLReasonerBasedOnConfiguredReasonerFactoryClass() throws Exception {
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, OWLFBRuleReasonerFactory.class.getName());
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        assertTrue(getReasonerFactory(sut) instanceof OWLFBRuleReasonerFactory);
+    }
+
+    @Test
+    public void getGraphBuildsInferenceOverCentralGraphOnlyOnce() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.SharedGraph result = sut.getGraph(Quad.defaultGraphIRI);
+        assertTrue(result.query(g -> g.contains(TYPE_TWO_INFERENCE)));
+        assertSame(result, sut.getGraph(Quad.defaultGraphIRI));
+    }
+
+    @Test
+    public void getGraphBuildsInferenceOverCentralNamedGraph() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.SharedGraph result = sut.getGraph(NodeFactory.createURI(NAMED_GRAPH));
+        assertTrue(result.query(g -> g.contains(TYPE_TWO_INFERENCE)));
+        assertFalse(result.query(g -> g.contains(TYPE_ONE_ASSERTION)));
+    }
+
+    @Test
+    public void committedAdditionsAreAppliedToExistingSharedGraph() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.SharedGraph graph = sut.getGraph(Quad.defaultGraphIRI);
+        central.begin(ReadWrite.WRITE);
+        central.add(Collections.singletonList(statement(TYPE_ONE + "-instance", RDF.type.getURI(), TYPE_ONE)), null);
+        central.commit();
+        assertSame(graph, sut.getGraph(Quad.defaultGraphIRI));
+        assertTrue(graph.query(g -> g.contains(triple(TYPE_ONE + "-instance", RDF.type.getURI(), TYPE_TWO))));
+    }
+
+    @Test
+    public void committedRemovalsAreAppliedToExistingSharedGraph() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.SharedGraph graph = sut.getGraph(Quad.defaultGraphIRI);
+        central.begin(ReadWrite.WRITE);
+        central.remove(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        central.commit();
+        assertFalse(graph.query(g -> g.contains(TYPE_ONE_ASSERTION)));
+        assertFalse(graph.query(g -> g.contains(TYPE_TWO_INFERENCE)));
+    }
+
+    @Test
+    public void rolledBackChangesAreNotAppliedToSharedGraph() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.SharedGraph graph = sut.getGraph(Quad.defaultGraphIRI);
+        central.begin(ReadWrite.WRITE);
+        central.remove(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        central.rollback();
+        assertTrue(graph.query(g -> g.contains(TYPE_TWO_INFERENCE)));
+        central.begin(ReadWrite.WRITE);
+        central.commit();
+        assertTrue(graph.query(g -> g.contains(TYPE_TWO_INFERENCE)));
+    }
+
+    @Test
+    public void replacingCentralDataDiscardsSharedGraphs() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.SharedGraph graph = sut.getGraph(Quad.defaultGraphIRI);
+        central.replaceData(() -> central.setDataset(DatasetFactory.createTxnMem()));
+        final SharedInference.SharedGraph result = sut.getGraph(Quad.defaultGraphIRI);
+        assertNotSame(graph, result);
+        assertFalse(result.query(g -> g.contains(TYPE_TWO_INFERENCE)));
+    }
+
+    @Test
+    public void layerInfersOverAdditionsOnTopOfSharedGraph() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.SharedGraph graph = sut.getGraph(Quad.defaultGraphIRI);
+        assertTrue(graph.supportsLayering());
+        final Triple addition = triple(TYPE_ONE + "-instance", RDF.type.getURI(), TYPE_ONE);
+        final Graph additions = GraphFactory.createGraphMem();
+        additions.add(addition);
+        graph.read(() -> {
+            final Graph layer = graph.layer(additions);
+            assertTrue(layer.contains(triple(TYPE_ONE + "-instance", RDF.type.getURI(), TYPE_TWO)));
+            assertTrue(layer.contains(TYPE_TWO_INFERENCE));
+            return null;
+        });
+        assertFalse(graph.query(g -> g.contains(addition)));
+    }
+
+    @Test
+    public void pinnedGraphIsRetiredInsteadOfChangedWhenChangesAreCommitted() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.Pin pin = sut.pin(() -> {
+        });
+        final SharedInference.SharedGraph pinned = pin.getGraph(Quad.defaultGraphIRI);
+        central.begin(ReadWrite.WRITE);
+        central.remove(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        central.commit();
+
+        assertSame(pinned, pin.getGraph(Quad.defaultGraphIRI));
+        assertTrue(pinned.query(g -> g.contains(TYPE_TWO_INFERENCE)));
+        final SharedInference.SharedGraph current = sut.getGraph(Quad.defaultGraphIRI);
+        assertNotSame(pinned, current);
+        assertFalse(current.query(g -> g.contains(TYPE_TWO_INFERENCE)));
+    }
+
+    @Test
+    public void pinDoesNotProvideGraphChangedAfterPinning() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.SharedGraph graph = sut.getGraph(Quad.defaultGraphIRI);
+        final SharedInference.Pin pin = sut.pin(() -> {
+        });
+        central.begin(ReadWrite.WRITE);
+        central.remove(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        central.commit();
+
+        assertNull(pin.getGraph(Quad.defaultGraphIRI));
+        assertNotNull(pin.getGraph(NodeFactory.createURI(NAMED_GRAPH)));
+        assertSame(graph, sut.getGraph(Quad.defaultGraphIRI));
+    }
+
+    @Test
+    public void releasedGraphIsChangedIncrementallyAgain() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.Pin pin = sut.pin(() -> {
+        });
+        final SharedInference.SharedGraph graph = pin.getGraph(Quad.defaultGraphIRI);
+        pin.release();
+        central.begin(ReadWrite.WRITE);
+        central.remove(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        central.commit();
+
+        assertSame(graph, sut.getGraph(Quad.defaultGraphIRI));
+        assertFalse(graph.query(g -> g.contains(TYPE_TWO_INFERENCE)));
+    }
+
+    @Test
+    public void additionsCommittedIntoPinnedGraphAreLayeredForNewPinsAndAppliedAfterRelease() {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.Pin pin = sut.pin(() -> {
+        });
+        final SharedInference.SharedGraph pinned = pin.getGraph(Quad.defaultGraphIRI);
+        final String subject = SUBJECT + "-added";
+        central.begin(ReadWrite.WRITE);
+        central.add(Collections.singletonList(statement(subject, RDF.type.getURI(), TYPE_ONE)), null);
+        central.commit();
+
+        final Triple inferred = triple(subject, RDF.type.getURI(), TYPE_TWO);
+        assertFalse(pinned.query(g -> g.contains(inferred)));
+        final SharedInference.Pin newPin = sut.pin(() -> {
+        });
+        final SharedInference.SharedGraph version = newPin.getGraph(Quad.defaultGraphIRI);
+        assertNotSame(pinned, version);
+        assertTrue(version.query(g -> g.contains(inferred)));
+        assertTrue(version.query(g -> g.contains(TYPE_TWO_INFERENCE)));
+        pin.release();
+        newPin.release();
+
+        assertSame(pinned, sut.getGraph(Quad.defaultGraphIRI));
+        assertTrue(pinned.query(g -> g.contains(inferred)));
+    }
+
+    @Test(timeout = 30000)
+    public void additionsCommittedWhileGraphIsRepeatedlyPinnedDoNotRebuildIt() throws Exception {
+        final SharedInference sut = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SharedInference.SharedGraph graph = sut.getGraph(Quad.defaultGraphIRI);
+        final int count = 20;
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread reader = new Thread(() -> {
+            try {
+                while (writing.get()) {
+                    final SharedInference.Pin pin = sut.pin(() -> {
+                    });
+                    final SharedInference.SharedGraph pinned = pin.getGraph(Quad.defaultGraphIRI);
+                    if (!pinned.query(g -> g.contains(TYPE_TWO_INFERENCE))) {
+                        throw new AssertionError("Pinned graph is missing inferred statement.");
+                    }
+                    pin.release();
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < count; i++) {
+                central.begin(ReadWrite.WRITE);
+                central.add(Collections.singletonList(statement(SUBJECT + i, RDF.type.getURI(), TYPE_ONE)), null);
+                central.commit();
+            }
+        } finally {
+            writing.set(false);
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertSame(graph, sut.getGraph(Quad.defaultGraphIRI));
+        for (int i = 0; i < count; i++) {
+            final Triple inferred = triple(SUBJECT + i, RDF.type.getURI(), TYPE_TWO);
+            assertTrue(graph.query(g -> g.contains(inferred)));
+        }
+    }
+}
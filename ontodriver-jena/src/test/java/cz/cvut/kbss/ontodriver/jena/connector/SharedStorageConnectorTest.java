@@ -18,6 +18,7 @@ import cz.cvut.kbss.ontodriver.ResultSet;
 import cz.cvut.kbss.ontodriver.Statement.StatementOntology;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
+import cz.cvut.kbss.ontodriver.jena.config.JenaOntoDriverProperties;
 import cz.cvut.kbss.ontodriver.jena.environment.Generator;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import org.apache.jena.graph.Graph;
@@ -26,11 +27,14 @@ import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryFactory;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.system.Txn;
 import org.apache.jena.vocabulary.RDF;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -405,6 +409,58 @@ public class SharedStorageConnectorTest {
         connector.executeUpdate(update, StatementOntology.CENTRAL);
     }
 
+    @Test
+    public void executeSelectQueryReadsDataInTransactionWhenStorageRequiresIt() throws Exception {
+        final File storageDir = Files.createTempDirectory("tdb2-test").toFile();
+        try {
+            final SharedStorageConnector connector = initTDB2Connector(storageDir);
+            final Query query = QueryFactory.create("SELECT * WHERE { ?x a <" + TYPE_ONE + "> . }");
+            try (ResultSet result = connector.executeSelectQuery(query, StatementOntology.CENTRAL)) {
+                assertTrue(result.hasNext());
+                result.next();
+                assertEquals(SUBJECT, result.getString("x"));
+            }
+            connector.close();
+        } finally {
+            StorageTestUtil.deleteStorageDir(storageDir);
+        }
+    }
+
+    private static SharedStorageConnector initTDB2Connector(File storageDir) {
+        final DriverConfiguration configuration = StorageTestUtil.createConfiguration(storageDir.getAbsolutePath());
+        configuration.setProperty(JenaConfigParam.STORAGE_TYPE, JenaOntoDriverProperties.TDB2);
+        final SharedStorageConnector connector = new SharedStorageConnector(configuration);
+        Txn.executeWrite(connector.storage.getDataset(), () -> generateTestData(connector.storage.getDataset()));
+        return connector;
+    }
+
+    @Test
+    public void executeAskQueryReadsDataInTransactionWhenStorageRequiresIt() throws Exception {
+        final File storageDir = Files.createTempDirectory("tdb2-test").toFile();
+        try {
+            final SharedStorageConnector connector = initTDB2Connector(storageDir);
+            final Query query = QueryFactory.create("ASK WHERE { ?x a <" + TYPE_ONE + "> . }");
+            final ResultSet result = connector.executeAskQuery(query, StatementOntology.CENTRAL);
+            result.next();
+            assertTrue(result.getBoolean(0));
+            connector.close();
+        } finally {
+            StorageTestUtil.deleteStorageDir(storageDir);
+        }
+    }
+
+    @Test
+    public void getContextsReadsContextsInTransactionWhenStorageRequiresIt() throws Exception {
+        final File storageDir = Files.createTempDirectory("tdb2-test").toFile();
+        try {
+            final SharedStorageConnector connector = initTDB2Connector(storageDir);
+            assertEquals(Collections.singletonList(NAMED_GRAPH), connector.getContexts());
+            connector.close();
+        } finally {
+            StorageTestUtil.deleteStorageDir(storageDir);
+        }
+    }
+
     @Test
     public void reloadStorageReloadsUnderlyingStorage() {
         final SharedStorageConnector connector = initConnector();
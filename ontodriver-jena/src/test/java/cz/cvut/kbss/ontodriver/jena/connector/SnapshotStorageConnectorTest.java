@@ -60,7 +60,7 @@ public class SnapshotStorageConnectorTest {
     }
 
     @Test
-    public void beginCopiesDatasetFromCentralConnector() throws JenaDriverException {
+    public void beginCreatesSnapshotOfCentralConnectorDataset() throws JenaDriverException {
         centralConnector.begin();
         final Statement existing = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
         centralConnector.add(Collections.singletonList(existing), null);
@@ -77,7 +77,7 @@ public class SnapshotStorageConnectorTest {
     }
 
     @Test
-    public void beginCopiesDatasetNamedGraphsFromCentralConnector() throws JenaDriverException {
+    public void beginCreatesSnapshotOfCentralConnectorNamedGraphs() throws JenaDriverException {
         final String context = Generator.generateUri().toString();
         centralConnector.begin();
         final Statement existing = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
@@ -56,7 +56,8 @@ public class SnapshotStorageConnectorWithInferenceTest {
         final DriverConfiguration configuration = StorageTestUtil.createConfiguration("test:uri");
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
         this.centralConnector = spy(new SharedStorageConnector(configuration));
-        this.connector = new SnapshotStorageConnectorWithInference(centralConnector, Collections.emptyMap());
+        this.connector = new SnapshotStorageConnectorWithInference(centralConnector,
+                new SharedInference(configuration, Collections.emptyMap(), centralConnector.getStorage()));
     }
 
     @Test
@@ -156,6 +157,20 @@ public class SnapshotStorageConnectorWithInferenceTest {
         assertFalse(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO), null));
     }
 
+    @Test
+    public void commitUpdatesInferenceSharedWithSubsequentTransactions() throws Exception {
+        generateTestData(null);
+        connector.begin();
+        assertTrue(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO), null));
+        final Resource another = createResource(Generator.generateUri().toString());
+        connector.add(Collections.singletonList(statement(another.getURI(), RDF.type.getURI(), TYPE_ONE)), null);
+        connector.commit();
+
+        connector.begin();
+        assertTrue(connector.containsWithInference(another, RDF.type, createResource(TYPE_TWO), null));
+        connector.rollback();
+    }
+
     @Test
     public void isConsistentVerifiesConsistencyOfDefaultGraph() throws Exception {
         generateTestData(null);
@@ -187,7 +202,8 @@ public class SnapshotStorageConnectorWithInferenceTest {
             config.setProperty(JenaConfigParam.STORAGE_TYPE, JenaOntoDriverProperties.TDB);
             config.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
             this.centralConnector = new SharedStorageConnector(config);
-            this.connector = new SnapshotStorageConnectorWithInference(centralConnector, Collections.emptyMap());
+            this.connector = new SnapshotStorageConnectorWithInference(centralConnector,
+                    new SharedInference(config, Collections.emptyMap(), centralConnector.getStorage()));
             connector.begin();
             assertFalse(connector.contains(createResource(SUBJECT), RDF.type, null, null));
         } finally {
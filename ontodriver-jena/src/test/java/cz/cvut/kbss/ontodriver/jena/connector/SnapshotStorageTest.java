@@ -14,21 +14,33 @@
  */
 package cz.cvut.kbss.ontodriver.jena.connector;
 
+import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.query.ReadWrite;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
-import org.apache.jena.tdb.TDBFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.update.UpdateAction;
 import org.apache.jena.vocabulary.RDF;
 import org.junit.After;
 import org.junit.Test;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static cz.cvut.kbss.ontodriver.jena.connector.StorageTestUtil.*;
 import static org.apache.jena.rdf.model.ResourceFactory.createResource;
-import static org.junit.Assert.assertTrue;
+import static org.apache.jena.rdf.model.ResourceFactory.createStatement;
+import static org.junit.Assert.*;
 
 public class SnapshotStorageTest {
 
@@ -42,17 +54,303 @@ public class SnapshotStorageTest {
     }
 
     @Test
-    public void initializationFromCentralTDBConnectorSupportsNonTransactionalModels() throws Exception {
+    public void initializationFromCentralTDBStorageSupportsNonTransactionalModels() throws Exception {
         this.storageDir = Files.createTempDirectory("tdb-test").toFile();
         storageDir.deleteOnExit();
-        final Dataset tdbDataset = TDBFactory.createDataset(storageDir.getAbsolutePath());
-        tdbDataset.begin(ReadWrite.WRITE);
-        generateTestData(tdbDataset);
-        tdbDataset.commit();
-        final SnapshotStorage storage = new SnapshotStorage(createConfiguration(storageDir.getAbsolutePath()));
-        storage.initialize();
-        storage.addCentralData(tdbDataset);
+        final Storage central = new TDBStorage(createConfiguration(storageDir.getAbsolutePath()));
+        central.initialize();
+        central.begin(ReadWrite.WRITE);
+        generateTestData(central.getDataset());
+        central.commit();
+        final SnapshotStorage storage = snapshot(central);
         final Model defaultGraph = storage.getDefaultGraph();
         assertTrue(defaultGraph.contains(createResource(SUBJECT), RDF.type, (RDFNode) null));
+        assertTrue(storage.getNamedGraph(NAMED_GRAPH).contains(createResource(SUBJECT), RDF.type, (RDFNode) null));
+        central.close();
     }
-}
\ No newline at end of file
+
+    private static SnapshotStorage snapshot(Storage central) {
+        final SnapshotStorage snapshot = new SnapshotStorage(createConfiguration("urn:test"), central);
+        snapshot.initialize();
+        return snapshot;
+    }
+
+    private static Storage centralWithTestData() {
+        final Storage central = new MemoryStorage(createConfiguration("urn:test"));
+        central.initialize();
+        central.begin(ReadWrite.WRITE);
+        generateTestData(central.getDataset());
+        central.commit();
+        return central;
+    }
+
+    @Test
+    public void snapshotDoesNotSeeStatementsAddedToCentralStorageAfterItsCreation() {
+        final Storage central = centralWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        central.begin(ReadWrite.WRITE);
+        central.add(Collections.singletonList(added), null);
+        central.commit();
+
+        assertFalse(storage.getDefaultGraph().contains(added));
+        assertEquals(2, storage.getDefaultGraph().listStatements().toList().size());
+        assertTrue(central.getDataset().getDefaultModel().contains(added));
+    }
+
+    @Test
+    public void snapshotKeepsStatementsRemovedAndReAddedInCentralStorage() {
+        final Storage central = centralWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        final Statement existing = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        central.begin(ReadWrite.WRITE);
+        central.remove(Collections.singletonList(existing), NAMED_GRAPH);
+        central.commit();
+        assertTrue(storage.getNamedGraph(NAMED_GRAPH).contains(existing));
+        central.begin(ReadWrite.WRITE);
+        central.add(Collections.singletonList(existing), NAMED_GRAPH);
+        central.commit();
+
+        final List<Statement> result = storage.getNamedGraph(NAMED_GRAPH).listStatements().toList();
+        assertEquals(Collections.singletonList(existing), result);
+    }
+
+    @Test
+    public void iteratingStatementsIsNotAffectedByChangesCommittedInCentralStorageDuringIteration() {
+        final Storage central = centralWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        final List<Statement> expected = storage.getDefaultGraph().listStatements().toList();
+        final StmtIterator it = storage.getDefaultGraph().listStatements();
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        central.begin(ReadWrite.WRITE);
+        central.remove(expected, null);
+        central.add(Collections.singletonList(added), null);
+        central.commit();
+
+        final List<Statement> result = it.toList();
+        assertEquals(expected.size(), result.size());
+        assertTrue(result.containsAll(expected));
+    }
+
+    @Test
+    public void snapshotDoesNotSeeStatementsChangedByUpdateInCentralStorage() {
+        final Storage central = centralWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        central.executeUpdate("DELETE WHERE { GRAPH ?g { ?x ?y ?z . } }");
+
+        assertTrue(storage.getNamedGraph(NAMED_GRAPH)
+                          .contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
+        assertFalse(central.getDataset().containsNamedModel(NAMED_GRAPH));
+    }
+
+    @Test
+    public void listNamesDoesNotContainGraphsCreatedInCentralStorageAfterSnapshotCreation() {
+        final Storage central = centralWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        final String context = "urn:context";
+        central.begin(ReadWrite.WRITE);
+        central.add(Collections.singletonList(createStatement(RESOURCE, RDF.type, createResource(TYPE_ONE))), context);
+        central.commit();
+
+        final List<String> names = Iter.toList(storage.getDataset().listNames());
+        assertEquals(Collections.singletonList(NAMED_GRAPH), names);
+    }
+
+    @Test
+    public void changesInSnapshotAreNotWrittenIntoCentralStorage() {
+        final Storage central = centralWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        final Statement removed = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+        storage.add(Collections.singletonList(added), null);
+        storage.remove(Collections.singletonList(removed), null);
+        UpdateAction.parseExecute("INSERT DATA { GRAPH <urn:context> { <" + SUBJECT + "> a <" + TYPE_ONE + "> . } }",
+                storage.getDataset());
+
+        assertTrue(storage.getDefaultGraph().contains(added));
+        assertFalse(storage.getDefaultGraph().contains(removed));
+        assertTrue(Iter.toList(storage.getDataset().listNames()).contains("urn:context"));
+        final Dataset centralDataset = central.getDataset();
+        centralDataset.begin(ReadWrite.READ);
+        assertFalse(centralDataset.getDefaultModel().contains(added));
+        assertTrue(centralDataset.getDefaultModel().contains(removed));
+        assertFalse(centralDataset.containsNamedModel("urn:context"));
+        centralDataset.end();
+    }
+
+    @Test
+    public void snapshotKeepsItsViewWhenCentralDatasetIsReplaced() {
+        final Storage central = centralWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        central.begin(ReadWrite.WRITE);
+        central.add(Collections.singletonList(added), null);
+        central.commit();
+        central.replaceData(() -> central.setDataset(DatasetFactory.createTxnMem()));
+
+        assertFalse(storage.getDefaultGraph().contains(added));
+        assertEquals(2, storage.getDefaultGraph().listStatements().toList().size());
+        assertTrue(storage.getNamedGraph(NAMED_GRAPH)
+                          .contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
+    }
+
+    @Test
+    public void closeStopsTrackingOfCentralChanges() {
+        final Storage central = centralWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        storage.close();
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        central.begin(ReadWrite.WRITE);
+        central.add(Collections.singletonList(added), null);
+        central.commit();
+
+        assertTrue(storage.getDefaultGraph().contains(added));
+    }
+
+    @Test
+    public void inMemoryDatasetIteratorsRemainValidAfterReadTransactionEnds() {
+        // Snapshots rely on this undocumented property of DatasetGraphInMemory
+        final Dataset dataset = DatasetFactory.createTxnMem();
+        dataset.begin(ReadWrite.WRITE);
+        generateTestData(dataset);
+        dataset.commit();
+        dataset.begin(ReadWrite.READ);
+        final StmtIterator it = dataset.getDefaultModel().listStatements();
+        final List<Statement> expected = dataset.getDefaultModel().listStatements().toList();
+        dataset.end();
+        dataset.begin(ReadWrite.WRITE);
+        dataset.getDefaultModel().removeAll();
+        dataset.commit();
+
+        final List<Statement> result = it.toList();
+        assertEquals(expected.size(), result.size());
+        assertTrue(result.containsAll(expected));
+    }
+
+    @Test(timeout = 10000)
+    public void snapshotCreationDoesNotWaitForWriteTransactionInProgress() throws Exception {
+        final Storage central = centralWithTestData();
+        // The first registration enables recording of changes, so that they can be replayed to later snapshots
+        snapshot(central).close();
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        final CountDownLatch changed = new CountDownLatch(1);
+        final CountDownLatch snapshotCreated = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> writer = executor.submit(() -> {
+                central.begin(ReadWrite.WRITE);
+                central.add(Collections.singletonList(added), null);
+                changed.countDown();
+                awaitLatch(snapshotCreated);
+                central.commit();
+            });
+            assertTrue(changed.await(5, TimeUnit.SECONDS));
+            final SnapshotStorage storage = snapshot(central);
+            snapshotCreated.countDown();
+            writer.get(5, TimeUnit.SECONDS);
+
+            assertFalse(storage.getDefaultGraph().contains(added));
+            assertEquals(2, storage.getDefaultGraph().listStatements().toList().size());
+            assertTrue(central.getDataset().getDefaultModel().contains(added));
+        } finally {
+            snapshotCreated.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void firstSnapshotWaitsForWriteTransactionInProgressWhoseChangesAreNotRecorded() throws Exception {
+        final Storage central = centralWithTestData();
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        central.begin(ReadWrite.WRITE);
+        central.add(Collections.singletonList(added), null);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<SnapshotStorage> snapshot = executor.submit(() -> snapshot(central));
+            Thread.sleep(100);
+            assertFalse(snapshot.isDone());
+            central.commit();
+
+            final SnapshotStorage storage = snapshot.get(5, TimeUnit.SECONDS);
+            assertTrue(storage.getDefaultGraph().contains(added));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Storage centralTDBStorageWithTestData() throws Exception {
+        this.storageDir = Files.createTempDirectory("tdb-test").toFile();
+        storageDir.deleteOnExit();
+        final Storage central = new TDBStorage(createConfiguration(storageDir.getAbsolutePath()));
+        central.initialize();
+        central.begin(ReadWrite.WRITE);
+        generateTestData(central.getDataset());
+        central.commit();
+        return central;
+    }
+
+    @Test
+    public void readingFromCentralTDBStorageStreamsStatementsWithinReadTransactionEndedWhenIteratorIsExhausted()
+            throws Exception {
+        final Storage central = centralTDBStorageWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        final StmtIterator it = storage.getDefaultGraph().listStatements();
+        assertTrue(it.hasNext());
+        assertTrue(central.getDataset().isInTransaction());
+
+        assertEquals(2, it.toList().size());
+        assertFalse(central.getDataset().isInTransaction());
+        storage.close();
+        central.close();
+    }
+
+    @Test
+    public void closeEndsReadTransactionOfIteratorsWhichWereNotConsumed() throws Exception {
+        final Storage central = centralTDBStorageWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        assertTrue(storage.getDefaultGraph().listStatements().hasNext());
+        assertTrue(storage.getNamedGraph(NAMED_GRAPH).listStatements().hasNext());
+        assertTrue(central.getDataset().isInTransaction());
+
+        storage.close();
+        assertFalse(central.getDataset().isInTransaction());
+        central.close();
+    }
+
+    @Test
+    public void iteratingStatementsStreamedFromCentralTDBStorageIsNotAffectedByConcurrentlyCommittedChanges()
+            throws Exception {
+        final Storage central = centralTDBStorageWithTestData();
+        final SnapshotStorage storage = snapshot(central);
+        final List<Statement> expected = storage.getDefaultGraph().listStatements().toList();
+        final StmtIterator it = storage.getDefaultGraph().listStatements();
+        assertTrue(it.hasNext());
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                central.begin(ReadWrite.WRITE);
+                central.remove(expected, null);
+                central.add(Collections.singletonList(added), null);
+                central.commit();
+            }).get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final List<Statement> result = it.toList();
+        assertEquals(expected.size(), result.size());
+        assertTrue(result.containsAll(expected));
+        assertFalse(storage.getDefaultGraph().contains(added));
+        storage.close();
+        central.close();
+    }
+}
@@ -41,6 +41,7 @@ import org.junit.rules.ExpectedException;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -65,61 +66,32 @@ public class SnapshotStorageWithInferenceTest {
         this.configuration = createConfiguration("urn:storage-test");
     }
 
-    @Test
-    public void initializationCreatesRDFSReasonerBasedOnConfiguredReasonerFactoryClass() throws Exception {
-        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        assertTrue(getReasonerFactory() instanceof RDFSRuleReasonerFactory);
-    }
-
-    private ReasonerFactory getReasonerFactory() throws Exception {
-        final Field rfField = SnapshotStorageWithInference.class.getDeclaredField("reasonerFactory");
-        rfField.setAccessible(true);
-        return (ReasonerFactory) rfField.get(storage);
-    }
-
-    @Test
-    public void initializationThrowsReasonerInitializationExceptionWhenUnknownReasonerFactoryClassIsSpecified() {
-        configuration
-                .setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, "cz.cvut.kbss.ontodriver.jena.UnknownReasonerFactory");
-        thrown.expect(ReasonerInitializationException.class);
-        thrown.expectCause(isA(ClassNotFoundException.class));
-        thrown.expectMessage(containsString("Reasoner factory class"));
-        thrown.expectMessage(containsString("not found"));
-        new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-    }
-
-    @Test
-    public void initializationThrowsReasonerInitializationExceptionWhenClassIsNotReasonerFactory() {
-        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, String.class.getName());
-        thrown.expect(ReasonerInitializationException.class);
-        thrown.expectMessage(
-                containsString("Class " + String.class.getName() + " is not a ReasonerFactory implementation"));
-        new SnapshotStorageWithInference(configuration, Collections.emptyMap());
+    private SnapshotStorageWithInference snapshot(Dataset centralData, Map<String, String> reasonerConfig) {
+        final Storage central = new MemoryStorage(configuration);
+        central.initialize();
+        central.setDataset(centralData);
+        return snapshot(central, reasonerConfig);
     }
 
-    @Test
-    public void initializationCreatesOWLReasonerBasedOnConfiguredReasonerFactoryClass() throws Exception {
-        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, OWLFBRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        assertTrue(getReasonerFactory() instanceof OWLFBRuleReasonerFactory);
+    private SnapshotStorageWithInference snapshot(Storage central, Map<String, String> reasonerConfig) {
+        final SharedInference inference = new SharedInference(configuration, reasonerConfig, central);
+        final SnapshotStorageWithInference snapshot =
+                new SnapshotStorageWithInference(configuration, central, inference);
+        snapshot.initialize();
+        return snapshot;
     }
 
     @Test
     public void initializationEagerlyCreatesInferredModelForDefaultGraph() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDefaultModel());
+        this.storage = snapshot(getDatasetWithDefaultModel(), Collections.emptyMap());
         assertTrue(storage.dataset.getDefaultModel().getGraph() instanceof InfGraph);
     }
 
     @Test
     public void getDefaultGraphReturnsInferredDefaultGraph() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDefaultModel());
+        this.storage = snapshot(getDatasetWithDefaultModel(), Collections.emptyMap());
         final Model result = storage.getDefaultGraph();
         assertNotNull(result);
         assertTrue(result.contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
@@ -141,9 +113,7 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void getDefaultGraphReusesInfModelAfterFirstCall() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDefaultModel());
+        this.storage = snapshot(getDatasetWithDefaultModel(), Collections.emptyMap());
         final Model result = storage.getDefaultGraph();
         assertEquals(result, storage.getDefaultGraph());
     }
@@ -151,9 +121,7 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void getRawDefaultModelReturnsDefaultGraphWithoutInference() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDefaultModel());
+        this.storage = snapshot(getDatasetWithDefaultModel(), Collections.emptyMap());
         final Model result = storage.getRawDefaultGraph();
         assertTrue(result.contains(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE)));
         assertFalse(result.contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
@@ -162,9 +130,7 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void getRawDefaultModelReturnsDefaultGraphWithoutInferenceWhenInferredModelExists() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDefaultModel());
+        this.storage = snapshot(getDatasetWithDefaultModel(), Collections.emptyMap());
         assertTrue(storage.getDefaultGraph().contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
         final Model result = storage.getRawDefaultGraph();
         assertFalse(result instanceof InfModel);
@@ -175,18 +141,14 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void initializationEagerlyCreatesInfModelForNamedGraphsFromCentral() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDataInNamedGraph());
+        this.storage = snapshot(getDatasetWithDataInNamedGraph(), Collections.emptyMap());
         assertTrue(storage.getDataset().getNamedModel(NAMED_GRAPH).getGraph() instanceof InfGraph);
     }
 
     @Test
     public void getNamedGraphReturnsModelWithInferences() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDataInNamedGraph());
+        this.storage = snapshot(getDatasetWithDataInNamedGraph(), Collections.emptyMap());
         final Model result = storage.getNamedGraph(NAMED_GRAPH);
         assertTrue(result.contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
     }
@@ -200,9 +162,7 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void getNamedGraphReusesInfModelAfterFirstCall() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDataInNamedGraph());
+        this.storage = snapshot(getDatasetWithDataInNamedGraph(), Collections.emptyMap());
         final Model first = storage.getNamedGraph(NAMED_GRAPH);
         assertEquals(first, storage.getNamedGraph(NAMED_GRAPH));
     }
@@ -210,9 +170,7 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void getRawNamedGraphReturnsGraphWithoutInference() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDataInNamedGraph());
+        this.storage = snapshot(getDatasetWithDataInNamedGraph(), Collections.emptyMap());
         final Model result = storage.getRawNamedGraph(NAMED_GRAPH);
         assertTrue(result.contains(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE)));
         assertFalse(result.contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
@@ -221,9 +179,7 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void getRawNamedGraphReturnsGraphWithoutInferenceWhenInferredAlreadyExists() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDataInNamedGraph());
+        this.storage = snapshot(getDatasetWithDataInNamedGraph(), Collections.emptyMap());
         assertTrue(storage.getNamedGraph(NAMED_GRAPH)
                           .contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
         final Model result = storage.getRawNamedGraph(NAMED_GRAPH);
@@ -234,9 +190,7 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void checkConsistencyReturnsValidityReportForDefaultGraph() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDefaultModel());
+        this.storage = snapshot(getDatasetWithDefaultModel(), Collections.emptyMap());
         final ValidityReport result = storage.checkConsistency(null);
         assertNotNull(result);
         assertTrue(result.isValid());
@@ -245,9 +199,7 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void checkConsistencyReturnsValidityReportForNamedGraph() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDataInNamedGraph());
+        this.storage = snapshot(getDatasetWithDataInNamedGraph(), Collections.emptyMap());
         final ValidityReport result = storage.checkConsistency(NAMED_GRAPH);
         assertNotNull(result);
         assertTrue(result.isValid());
@@ -256,9 +208,7 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void checkConsistencyReturnsValidityReportForInconsistentDefaultGraph() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, OWLMiniReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getInconsistentDataset());
+        this.storage = snapshot(getInconsistentDataset(), Collections.emptyMap());
         final ValidityReport result = storage.checkConsistency(null);
         assertNotNull(result);
         assertFalse(result.isValid());
@@ -281,9 +231,7 @@ public class SnapshotStorageWithInferenceTest {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
         final Map<String, String> config =
                 Collections.singletonMap(ReasonerVocabulary.PROPtraceOn.getURI(), Boolean.TRUE.toString());
-        this.storage = new SnapshotStorageWithInference(configuration, config);
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDefaultModel());
+        this.storage = snapshot(getDatasetWithDefaultModel(), config);
         final InfModel infModel = storage.getDefaultGraph();
         final Reasoner reasoner = infModel.getReasoner();
         assertTrue(((RDFSRuleReasoner) reasoner).isTraceOn());
@@ -295,9 +243,7 @@ public class SnapshotStorageWithInferenceTest {
         final Map<String, String> config = new HashMap<>(4);
         config.put(JenaOntoDriverProperties.JENA_ISOLATION_STRATEGY, JenaOntoDriverProperties.SNAPSHOT);
         config.put(JenaOntoDriverProperties.JENA_STORAGE_TYPE, JenaOntoDriverProperties.IN_MEMORY);
-        this.storage = new SnapshotStorageWithInference(configuration, config);
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDefaultModel());
+        this.storage = snapshot(getDatasetWithDefaultModel(), config);
         final InfModel infModel = storage.getDefaultGraph();
         final Reasoner reasoner = infModel.getReasoner();
         assertFalse(((RDFSRuleReasoner) reasoner).isTraceOn());
@@ -310,9 +256,7 @@ public class SnapshotStorageWithInferenceTest {
         config.put(ReasonerVocabulary.PROPtraceOn.getURI(), Boolean.TRUE.toString());
         // This is not supported by the RDFSRuleReasoner
         config.put(ReasonerVocabulary.PROPruleMode.getURI(), "yadayada");
-        this.storage = new SnapshotStorageWithInference(configuration, config);
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDefaultModel());
+        this.storage = snapshot(getDatasetWithDefaultModel(), config);
         final InfModel infModel = storage.getDefaultGraph();
         final Reasoner reasoner = infModel.getReasoner();
         assertTrue(((GenericRuleReasoner) reasoner).isTraceOn());
@@ -321,10 +265,8 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void initializationFromCentralConnectorCreatesIndependentDefaultGraph() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
         final Dataset central = getDatasetWithDefaultModel();
-        storage.addCentralData(central);
+        this.storage = snapshot(central, Collections.emptyMap());
         final Model result = storage.getRawDefaultGraph();
         result.add(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
         assertFalse(central.getDefaultModel().contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
@@ -333,10 +275,8 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void initializationFromCentralConnectorCreatesIndependentNamedGraphs() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
         final Dataset central = getDatasetWithDataInNamedGraph();
-        storage.addCentralData(central);
+        this.storage = snapshot(central, Collections.emptyMap());
         final Model result = storage.getRawNamedGraph(NAMED_GRAPH);
         result.add(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
         assertFalse(central.getNamedModel(NAMED_GRAPH)
@@ -347,16 +287,16 @@ public class SnapshotStorageWithInferenceTest {
     public void initializationFromCentralTDBConnectorSupportsNonTransactionalModels() throws Exception {
         final File storageDir = Files.createTempDirectory("tdb-test").toFile();
         try {
-            final Dataset tdbDataset = TDBFactory.createDataset(storageDir.getAbsolutePath());
-            tdbDataset.begin(ReadWrite.WRITE);
-            generateTestData(tdbDataset);
-            tdbDataset.commit();
+            final Storage central = new TDBStorage(createConfiguration(storageDir.getAbsolutePath()));
+            central.initialize();
+            central.begin(ReadWrite.WRITE);
+            generateTestData(central.getDataset());
+            central.commit();
             configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-            this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-            storage.initialize();
-            storage.addCentralData(tdbDataset);
+            this.storage = snapshot(central, Collections.emptyMap());
             final Model defaultGraph = storage.getDefaultGraph();
             assertTrue(defaultGraph.contains(createResource(SUBJECT), RDF.type, (RDFNode) null));
+            central.close();
         } finally {
             StorageTestUtil.deleteStorageDir(storageDir);
         }
@@ -365,11 +305,59 @@ public class SnapshotStorageWithInferenceTest {
     @Test
     public void getNamedModelReturnsInfModelAlsoForUnknownContextName() {
         configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
-        this.storage = new SnapshotStorageWithInference(configuration, Collections.emptyMap());
-        storage.initialize();
-        storage.addCentralData(getDatasetWithDefaultModel());
+        this.storage = snapshot(getDatasetWithDefaultModel(), Collections.emptyMap());
         // Does not exist
         final InfModel result = storage.getNamedGraph(NAMED_GRAPH);
         assertNotNull(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void additionsInSnapshotAreInferredOnTopOfCentralData() {
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
+        final Dataset central = getDatasetWithDefaultModel();
+        this.storage = snapshot(central, Collections.emptyMap());
+        final Resource another = createResource(Generator.generateUri().toString());
+        storage.add(Collections.singletonList(statement(another.getURI(), RDF.type.getURI(), TYPE_ONE)), null);
+        assertTrue(storage.getDefaultGraph().contains(another, RDF.type, createResource(TYPE_TWO)));
+        assertTrue(storage.getDefaultGraph().contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
+        assertFalse(central.getDefaultModel().contains(another, RDF.type, (RDFNode) null));
+    }
+
+    @Test
+    public void removalsInSnapshotAreReflectedByInference() {
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
+        final Dataset central = getDatasetWithDefaultModel();
+        this.storage = snapshot(central, Collections.emptyMap());
+        assertTrue(storage.getDefaultGraph().contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
+        storage.remove(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        assertFalse(storage.getDefaultGraph().contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
+        assertTrue(central.getDefaultModel().contains(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE)));
+    }
+
+    @Test
+    public void inferenceDoesNotReflectChangesCommittedIntoCentralStorageAfterSnapshotCreation() {
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
+        final Storage central = new MemoryStorage(configuration);
+        central.initialize();
+        central.setDataset(getDatasetWithDefaultModel());
+        final SharedInference inference = new SharedInference(configuration, Collections.emptyMap(), central);
+        final SnapshotStorageWithInference first = new SnapshotStorageWithInference(configuration, central, inference);
+        first.initialize();
+        assertTrue(first.getDefaultGraph().contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
+        this.storage = new SnapshotStorageWithInference(configuration, central, inference);
+        storage.initialize();
+        final Resource another = createResource(Generator.generateUri().toString());
+        central.begin(ReadWrite.WRITE);
+        central.remove(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        central.add(Collections.singletonList(statement(another.getURI(), RDF.type.getURI(), TYPE_ONE)), null);
+        central.commit();
+
+        // The first snapshot has pinned the shared graph, the second one has not read it before the commit
+        for (SnapshotStorageWithInference snapshot : Arrays.asList(first, storage)) {
+            final Model result = snapshot.getDefaultGraph();
+            assertTrue(result.contains(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO)));
+            assertFalse(result.contains(another, RDF.type, createResource(TYPE_TWO)));
+        }
+        first.close();
+    }
+}
@@ -20,7 +20,11 @@ import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
 import cz.cvut.kbss.ontodriver.jena.config.JenaOntoDriverProperties;
 import cz.cvut.kbss.ontodriver.jena.environment.Generator;
 import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.system.Txn;
 import org.apache.jena.vocabulary.RDF;
 import org.junit.Rule;
 import org.junit.Test;
@@ -28,9 +32,16 @@ import org.junit.rules.ExpectedException;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 public class StorageTest extends StorageTestUtil {
 
@@ -99,4 +110,54 @@ public class StorageTest extends StorageTestUtil {
         thrown.expect(UnsupportedOperationException.class);
         storage.setDataset(DatasetFactory.create());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void addListenerNotifiesListenerOfStatementsChangedByWriteInProgress() {
+        final Storage storage = Storage.create(createConfiguration("test:uri"));
+        storage.addListener(mock(StorageListener.class));
+        final Statement added = statement(SUBJECT, RDF.type.getURI(), TYPE_ONE);
+        storage.begin(ReadWrite.WRITE);
+        storage.add(Collections.singletonList(added), null);
+        final StorageListener listener = mock(StorageListener.class);
+        storage.addListener(listener);
+
+        verify(listener).statementChanged(Quad.defaultGraphIRI, added.asTriple(), true);
+        storage.commit();
+        verify(listener).changesCommitted();
+    }
+
+    @Test
+    public void readBetweenCommitsRepeatsReadWhenChangesAreCommittedDuringIt() throws Exception {
+        final Storage storage = Storage.create(createConfiguration("test:uri"));
+        storage.addListener(mock(StorageListener.class));
+        final Statement added = statement(SUBJECT, RDF.type.getURI(), TYPE_ONE);
+        final AtomicInteger reads = new AtomicInteger();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final boolean result = storage.readBetweenCommits(() -> {
+                final boolean contains = Txn.calculateRead(storage.getDataset(),
+                        () -> storage.getDataset().getDefaultModel().contains(added));
+                if (reads.getAndIncrement() == 0) {
+                    commitInOtherThread(executor, storage, added);
+                }
+                return contains;
+            });
+            assertTrue(result);
+            assertEquals(2, reads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void commitInOtherThread(ExecutorService executor, Storage storage, Statement added) {
+        try {
+            executor.submit(() -> {
+                storage.begin(ReadWrite.WRITE);
+                storage.add(Collections.singletonList(added), null);
+                storage.commit();
+            }).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -60,7 +60,11 @@ class StorageTestUtil {
         if (directory.exists()) {
             if (directory.listFiles() != null) {
                 for (File f : directory.listFiles()) {
-                    f.delete();
+                    if (f.isDirectory()) {
+                        deleteStorageDir(f);
+                    } else {
+                        f.delete();
+                    }
                 }
             }
             directory.delete();
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
+import cz.cvut.kbss.ontodriver.jena.config.JenaOntoDriverProperties;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static cz.cvut.kbss.ontodriver.jena.connector.StorageTestUtil.*;
+import static org.apache.jena.rdf.model.ResourceFactory.createResource;
+import static org.junit.Assert.*;
+
+public class TDB2StorageTest {
+
+    private TDB2Storage storage;
+
+    private File storageDir;
+
+    @After
+    public void tearDown() {
+        if (storageDir != null) {
+            StorageTestUtil.deleteStorageDir(storageDir);
+        }
+    }
+
+    @Test
+    public void initializeCreatesNewTDB2Storage() throws Exception {
+        initTDB2Storage();
+        assertTrue(storageDir.exists());
+        final File[] files = storageDir.listFiles();
+        assertNotNull(files);
+        assertTrue(files.length > 0);
+    }
+
+    private void initTDB2Storage() throws IOException {
+        this.storageDir = Files.createTempDirectory("tdb2-test").toFile();
+        storageDir.deleteOnExit();
+        this.storage = new TDB2Storage(createConfiguration(storageDir.getAbsolutePath()));
+        storage.initialize();
+    }
+
+    @Test
+    public void initializeLoadsExistingTDB2Dataset() throws Exception {
+        this.storageDir = Files.createTempDirectory("tdb2-test").toFile();
+        storageDir.deleteOnExit();
+        final Dataset dataset = TDB2Factory.connectDataset(storageDir.getAbsolutePath());
+        Txn.executeWrite(dataset, () -> generateTestData(dataset));
+
+        this.storage = new TDB2Storage(createConfiguration(storageDir.getAbsolutePath()));
+        storage.initialize();
+        storage.begin(ReadWrite.READ);
+        assertTrue(storage.getDataset().getDefaultModel().contains(RESOURCE, RDF.type, createResource(TYPE_ONE)));
+        storage.commit();
+    }
+
+    @Test
+    public void commitMakesChangesVisibleToSubsequentReadTransactions() throws Exception {
+        initTDB2Storage();
+        storage.begin(ReadWrite.WRITE);
+        generateTestData(storage.getDataset());
+        storage.commit();
+
+        final Dataset result = storage.getDataset();
+        assertTrue(Txn.calculateRead(result,
+                () -> result.getDefaultModel().contains(RESOURCE, RDF.type, createResource(TYPE_ONE))));
+    }
+
+    @Test
+    public void readTransactionIsNotBlockedByRunningWriteTransaction() throws Exception {
+        initTDB2Storage();
+        storage.begin(ReadWrite.WRITE);
+        generateTestData(storage.getDataset());
+        try {
+            final Dataset dataset = storage.getDataset();
+            final boolean result = CompletableFuture.supplyAsync(() -> Txn.calculateRead(dataset,
+                    () -> dataset.getDefaultModel().contains(RESOURCE, RDF.type, createResource(TYPE_ONE))))
+                                                    .get(10, TimeUnit.SECONDS);
+            // Uncommitted changes are not visible to the reader
+            assertFalse(result);
+        } finally {
+            storage.rollback();
+        }
+    }
+
+    @Test
+    public void executeUpdateOutsideOfTransactionRunsUpdateInWriteTransaction() throws Exception {
+        initTDB2Storage();
+        storage.executeUpdate("INSERT DATA { <" + SUBJECT + "> <" + RDF.type.getURI() + "> <" + TYPE_ONE + "> . }");
+
+        final Dataset dataset = storage.getDataset();
+        assertTrue(Txn.calculateRead(dataset,
+                () -> dataset.getDefaultModel().contains(RESOURCE, RDF.type, createResource(TYPE_ONE))));
+    }
+
+    @Test
+    public void createReturnsTDB2StorageForTDB2StorageType() throws Exception {
+        this.storageDir = Files.createTempDirectory("tdb2-test").toFile();
+        storageDir.deleteOnExit();
+        final DriverConfiguration configuration = createConfiguration(storageDir.getAbsolutePath());
+        configuration.setProperty(JenaConfigParam.STORAGE_TYPE, JenaOntoDriverProperties.TDB2);
+        assertTrue(Storage.create(configuration) instanceof TDB2Storage);
+    }
+}
@@ -25,10 +25,13 @@ import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
 import java.net.URI;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.apache.jena.rdf.model.ResourceFactory.createProperty;
@@ -37,6 +40,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -94,4 +98,16 @@ abstract class ListHandlerTestBase<D extends ListDescriptor, V extends ListValue
         handler.persistList(descriptor);
         verify(connectorMock, never()).add(anyListOf(Statement.class), anyString());
     }
+
+    Set<Statement> verifyRemovedStatements(String context) {
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(connectorMock).remove(captor.capture(), eq(context));
+        return new HashSet<Statement>(captor.getValue());
+    }
+
+    List<Statement> verifyAddedStatements(String context) {
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(connectorMock).add(captor.capture(), eq(context));
+        return captor.getValue();
+    }
 }
@@ -31,13 +31,17 @@ import org.mockito.MockitoAnnotations;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.apache.jena.rdf.model.ResourceFactory.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 public class ReferencedListHandlerTest
@@ -115,15 +119,14 @@ public class ReferencedListHandlerTest
         list.forEach(item -> descriptor.addValue(NamedResource.create(item)));
         descriptor.addValue(NamedResource.create(newItem));
         handler.updateList(descriptor);
-        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
-        verify(connectorMock).add(captor.capture(), eq(null));
-        final List<Statement> added = captor.getValue();
+        final List<Statement> added = verifyAddedStatements(null);
         assertEquals(2, added.size());
+        assertEquals(HAS_CONTENT_PROPERTY, added.get(0).getPredicate());
+        assertEquals(createResource(newItem.toString()), added.get(0).getObject());
         final List<Resource> nodes = listUtil.getReferencedListNodes();
-        assertEquals(nodes.get(nodes.size() - 1), added.get(0).getSubject());
-        assertEquals(HAS_NEXT_PROPERTY, added.get(0).getPredicate());
-        assertEquals(HAS_CONTENT_PROPERTY, added.get(1).getPredicate());
-        assertEquals(createResource(newItem.toString()), added.get(1).getObject());
+        assertEquals(createStatement(nodes.get(nodes.size() - 1), HAS_NEXT_PROPERTY, added.get(0).getSubject()),
+                added.get(1));
+        verify(connectorMock, never()).remove(anyListOf(Statement.class), any());
     }
 
     @Test
@@ -135,11 +138,15 @@ public class ReferencedListHandlerTest
         update.forEach(item -> descriptor.addValue(NamedResource.create(item)));
         handler.updateList(descriptor);
 
+        final List<Resource> nodes = listUtil.getReferencedListNodes();
+        final Set<Statement> expectedRemoved = new HashSet<>();
         for (int i = update.size(); i < list.size(); i++) {
-            verify(connectorMock).remove(listUtil.getReferencedListNodes().get(i - 1), HAS_NEXT_PROPERTY,
-                    listUtil.getReferencedListNodes().get(i), null);
-            verify(connectorMock).remove(listUtil.getReferencedListNodes().get(i), HAS_CONTENT_PROPERTY, null, null);
+            expectedRemoved.add(createStatement(nodes.get(i - 1), HAS_NEXT_PROPERTY, nodes.get(i)));
+            expectedRemoved
+                    .add(createStatement(nodes.get(i), HAS_CONTENT_PROPERTY, createResource(list.get(i).toString())));
         }
+        assertEquals(expectedRemoved, verifyRemovedStatements(null));
+        verify(connectorMock, never()).add(anyListOf(Statement.class), any());
     }
 
     @Test
@@ -154,10 +161,11 @@ public class ReferencedListHandlerTest
         update.forEach(item -> descriptor.addValue(NamedResource.create(item)));
         handler.updateList(descriptor);
 
-        verify(connectorMock).remove(listUtil.getReferencedListNodes().get(index), HAS_CONTENT_PROPERTY, null, null);
-        final Statement added = createStatement(listUtil.getReferencedListNodes().get(index), HAS_CONTENT_PROPERTY,
-                createResource(replace.toString()));
-        verify(connectorMock).add(Collections.singletonList(added), null);
+        final Resource node = listUtil.getReferencedListNodes().get(index);
+        verify(connectorMock).remove(Collections.singletonList(
+                createStatement(node, HAS_CONTENT_PROPERTY, createResource(list.get(index).toString()))), null);
+        verify(connectorMock).add(Collections.singletonList(
+                createStatement(node, HAS_CONTENT_PROPERTY, createResource(replace.toString()))), null);
     }
 
     @Test
@@ -167,17 +175,18 @@ public class ReferencedListHandlerTest
                 new ReferencedListValueDescriptor(OWNER, HAS_LIST, HAS_NEXT, HAS_CONTENT);
         handler.updateList(descriptor);
 
+        final Set<Statement> expectedRemoved = new HashSet<>();
         for (int i = 0; i < list.size(); i++) {
             final Resource node = listUtil.getReferencedListNodes().get(i);
             if (i == 0) {
-                verify(connectorMock)
-                        .remove(createResource(OWNER.getIdentifier().toString()), HAS_LIST_PROPERTY, node, null);
+                expectedRemoved.add(createStatement(OWNER_RESOURCE, HAS_LIST_PROPERTY, node));
             } else {
-                verify(connectorMock)
-                        .remove(listUtil.getReferencedListNodes().get(i - 1), HAS_NEXT_PROPERTY, node, null);
+                expectedRemoved
+                        .add(createStatement(listUtil.getReferencedListNodes().get(i - 1), HAS_NEXT_PROPERTY, node));
             }
-            verify(connectorMock).remove(node, HAS_CONTENT_PROPERTY, null, null);
+            expectedRemoved.add(createStatement(node, HAS_CONTENT_PROPERTY, createResource(list.get(i).toString())));
         }
+        assertEquals(expectedRemoved, verifyRemovedStatements(null));
     }
 
     @Test
@@ -209,19 +218,37 @@ public class ReferencedListHandlerTest
         handler.updateList(descriptor);
 
         final List<Resource> nodes = listUtil.getReferencedListNodes();
-        verify(connectorMock)
-                .remove(nodes.get(0), HAS_CONTENT_PROPERTY, null, context.toString());
-        verify(connectorMock).add(Collections.singletonList(
-                createStatement(nodes.get(0), HAS_CONTENT_PROPERTY,
-                        createResource(firstReplaced.toString()))), context.toString());
-        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
-        verify(connectorMock, times(2)).add(captor.capture(), eq(context.toString()));
-        final List<Statement> statementsInserted =
-                captor.getAllValues().get(1);    // First was the content insert in list head
-        assertEquals(nodes.get(nodes.size() - 1), statementsInserted.get(0).getSubject());
-        assertEquals(HAS_NEXT_PROPERTY, statementsInserted.get(0).getPredicate());
-        assertEquals(statementsInserted.get(0).getObject(), statementsInserted.get(1).getSubject());
+        verify(connectorMock).remove(Collections.singletonList(
+                createStatement(nodes.get(0), HAS_CONTENT_PROPERTY, createResource(list.get(0).toString()))),
+                context.toString());
+        final List<Statement> statementsInserted = verifyAddedStatements(context.toString());
+        assertEquals(3, statementsInserted.size());
+        assertEquals(createStatement(nodes.get(0), HAS_CONTENT_PROPERTY, createResource(firstReplaced.toString())),
+                statementsInserted.get(0));
         assertEquals(HAS_CONTENT_PROPERTY, statementsInserted.get(1).getPredicate());
         assertEquals(added.toString(), statementsInserted.get(1).getObject().asResource().getURI());
+        assertEquals(createStatement(nodes.get(nodes.size() - 1), HAS_NEXT_PROPERTY,
+                statementsInserted.get(1).getSubject()), statementsInserted.get(2));
+    }
+
+    @Test
+    public void updateInsertingValueToListHeadKeepsExistingNodes() {
+        final List<URI> list = generateList(null);
+        final ReferencedListValueDescriptor descriptor = listValueDescriptor();
+        final URI inserted = Generator.generateUri();
+        descriptor.addValue(NamedResource.create(inserted));
+        list.forEach(item -> descriptor.addValue(NamedResource.create(item)));
+        handler.updateList(descriptor);
+
+        final Resource head = listUtil.getReferencedListNodes().get(0);
+        verify(connectorMock)
+                .remove(Collections.singletonList(createStatement(OWNER_RESOURCE, HAS_LIST_PROPERTY, head)), null);
+        final List<Statement> added = verifyAddedStatements(null);
+        assertEquals(3, added.size());
+        final Resource newNode = added.get(0).getSubject();
+        assertEquals(createStatement(newNode, HAS_CONTENT_PROPERTY, createResource(inserted.toString())),
+                added.get(0));
+        assertTrue(added.contains(createStatement(OWNER_RESOURCE, HAS_LIST_PROPERTY, newNode)));
+        assertTrue(added.contains(createStatement(newNode, HAS_NEXT_PROPERTY, head)));
     }
-}
\ No newline at end of file
+}
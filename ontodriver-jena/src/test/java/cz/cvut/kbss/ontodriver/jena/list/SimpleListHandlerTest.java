@@ -30,11 +30,18 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.apache.jena.rdf.model.ResourceFactory.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescriptor, SimpleListValueDescriptor> {
@@ -119,11 +126,13 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
         final List<URI> update = list.subList(0, list.size() / 2);
         update.forEach(item -> descriptor.addValue(NamedResource.create(item)));
         handler.updateList(descriptor);
-        final Property hasNext = createProperty(HAS_NEXT.getIdentifier().toString());
+        final Set<Statement> expectedRemoved = new HashSet<>();
         for (int i = update.size() - 1; i < list.size() - 1; i++) {
-            verify(connectorMock).remove(createResource(list.get(i).toString()), hasNext,
-                    createResource(list.get(i + 1).toString()), null);
+            expectedRemoved.add(createStatement(createResource(list.get(i).toString()), HAS_NEXT_PROPERTY,
+                    createResource(list.get(i + 1).toString())));
         }
+        assertEquals(expectedRemoved, verifyRemovedStatements(null));
+        verify(connectorMock, never()).add(anyListOf(Statement.class), any());
     }
 
     @Test
@@ -141,8 +150,9 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
         final Resource removed = createResource(list.get(index).toString());
         final Resource next = createResource(list.get(index + 1).toString());
         final Property previousLink = index == 0 ? HAS_LIST_PROPERTY : HAS_NEXT_PROPERTY;
-        verify(connectorMock).remove(previous, previousLink, removed, null);
-        verify(connectorMock).remove(removed, HAS_NEXT_PROPERTY, next, null);
+        final Set<Statement> expectedRemoved = new HashSet<>(Arrays.asList(
+                createStatement(previous, previousLink, removed), createStatement(removed, HAS_NEXT_PROPERTY, next)));
+        assertEquals(expectedRemoved, verifyRemovedStatements(null));
         final List<Statement> expectedAdded = new ArrayList<>(2);
         expectedAdded.add(createStatement(previous, previousLink, createResource(replace.toString())));
         expectedAdded.add(createStatement(createResource(replace.toString()),
@@ -155,15 +165,17 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
         final List<URI> list = generateList(null);
         final SimpleListValueDescriptor descriptor = new SimpleListValueDescriptor(OWNER, HAS_LIST, HAS_NEXT);
         handler.updateList(descriptor);
+        final Set<Statement> expectedRemoved = new HashSet<>();
         for (int i = 0; i < list.size(); i++) {
             if (i == 0) {
-                verify(connectorMock).remove(OWNER_RESOURCE,
-                        HAS_LIST_PROPERTY, createResource(list.get(i).toString()), null);
+                expectedRemoved.add(createStatement(OWNER_RESOURCE,
+                        HAS_LIST_PROPERTY, createResource(list.get(i).toString())));
             } else {
-                verify(connectorMock).remove(createResource(list.get(i - 1).toString()),
-                        HAS_NEXT_PROPERTY, createResource(list.get(i).toString()), null);
+                expectedRemoved.add(createStatement(createResource(list.get(i - 1).toString()),
+                        HAS_NEXT_PROPERTY, createResource(list.get(i).toString())));
             }
         }
+        assertEquals(expectedRemoved, verifyRemovedStatements(null));
     }
 
     @Test
@@ -194,16 +206,38 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
         final URI added = Generator.generateUri();
         descriptor.addValue(NamedResource.create(added));
         handler.updateList(descriptor);
-        verify(connectorMock)
-                .remove(OWNER_RESOURCE, HAS_LIST_PROPERTY, createResource(list.get(0).toString()), context.toString());
-        verify(connectorMock).remove(createResource(list.get(0).toString()), HAS_NEXT_PROPERTY,
-                createResource(list.get(1).toString()), context.toString());
+        final Set<Statement> expectedRemoved = new HashSet<>(Arrays.asList(
+                createStatement(OWNER_RESOURCE, HAS_LIST_PROPERTY, createResource(list.get(0).toString())),
+                createStatement(createResource(list.get(0).toString()), HAS_NEXT_PROPERTY,
+                        createResource(list.get(1).toString()))));
+        assertEquals(expectedRemoved, verifyRemovedStatements(context.toString()));
         verify(connectorMock).add(Arrays.asList(
                 createStatement(OWNER_RESOURCE, HAS_LIST_PROPERTY, createResource(firstReplaced.toString())),
                 createStatement(createResource(firstReplaced.toString()), HAS_NEXT_PROPERTY,
-                        createResource(list.get(1).toString()))), context.toString());
-        verify(connectorMock).add(Collections
-                .singletonList(createStatement(createResource(list.get(list.size() - 1).toString()), HAS_NEXT_PROPERTY,
-                        createProperty(added.toString()))), context.toString());
+                        createResource(list.get(1).toString())),
+                createStatement(createResource(list.get(list.size() - 1).toString()), HAS_NEXT_PROPERTY,
+                        createResource(added.toString()))), context.toString());
+    }
+
+    @Test
+    public void updateMovingElementToListHeadRelinksOnlyAffectedNodes() {
+        final List<URI> list = generateList(null);
+        final SimpleListValueDescriptor descriptor = new SimpleListValueDescriptor(OWNER, HAS_LIST, HAS_NEXT);
+        final List<URI> update = new ArrayList<>(list);
+        final URI moved = update.remove(2);
+        update.add(0, moved);
+        update.forEach(item -> descriptor.addValue(NamedResource.create(item)));
+        handler.updateList(descriptor);
+        final Set<Statement> expectedRemoved = new HashSet<>(Arrays.asList(
+                createStatement(OWNER_RESOURCE, HAS_LIST_PROPERTY, createResource(list.get(0).toString())),
+                createStatement(createResource(list.get(1).toString()), HAS_NEXT_PROPERTY,
+                        createResource(list.get(2).toString())),
+                createStatement(createResource(list.get(2).toString()), HAS_NEXT_PROPERTY,
+                        createResource(list.get(3).toString()))));
+        assertEquals(expectedRemoved, verifyRemovedStatements(null));
+        final Set<Statement> added = new HashSet<>(verifyAddedStatements(null));
+        assertEquals(3, added.size());
+        final Statement head = createStatement(OWNER_RESOURCE, HAS_LIST_PROPERTY, createResource(moved.toString()));
+        assertTrue(added.contains(head));
     }
-}
\ No newline at end of file
+}
@@ -35,7 +35,6 @@ class AxiomSaver {
 
     private final OwlapiAdapter adapter;
 
-    private final OWLOntology ontology;
     private final OntologySnapshot snapshot;
 
     private final AxiomAdapter axiomAdapter;
@@ -43,7 +42,6 @@ class AxiomSaver {
     AxiomSaver(OwlapiAdapter adapter, OntologySnapshot snapshot) {
         this.adapter = adapter;
         this.snapshot = snapshot;
-        this.ontology = snapshot.getOntology();
         this.axiomAdapter = new AxiomAdapter(snapshot.getDataFactory());
     }
 
@@ -97,7 +95,8 @@ class AxiomSaver {
         if (axioms.isEmpty()) {
             return;
         }
-        final List<OWLOntologyChange> changes = axioms.stream().map(axiom -> new MutableAddAxiom(ontology, axiom))
+        final OWLOntology target = snapshot.getChangeTarget();
+        final List<OWLOntologyChange> changes = axioms.stream().map(axiom -> new MutableAddAxiom(target, axiom))
                                                       .collect(Collectors.toList());
         adapter.addTransactionalChanges(snapshot.applyChanges(changes));
     }
@@ -125,6 +124,7 @@ class AxiomSaver {
 
     private void persistPropertyValues(NamedResource subject, Assertion assertion, Collection<Value<?>> values) {
         final IRI property = IRI.create(assertion.getIdentifier());
+        final OWLOntology ontology = snapshot.getOntology();
         if (ontology.containsDataPropertyInSignature(property)) {
             persistDataPropertyValues(subject, assertion, values);
         } else if (ontology.containsObjectPropertyInSignature(property)) {
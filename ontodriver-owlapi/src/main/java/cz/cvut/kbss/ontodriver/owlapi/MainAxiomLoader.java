@@ -53,7 +53,32 @@ class MainAxiomLoader {
         return result;
     }
 
+    /**
+     * Loads axioms for all the specified descriptors.
+     * <p>
+     * The descriptors are processed against the same ontology snapshot, so that loading multiple subjects requires
+     * only a single call to the driver. The ontology is held in memory and its axioms are indexed by individual, so
+     * looking up each subject separately involves no additional storage round trips, whereas a single pass over the
+     * ontology would be proportional to its size instead of to the number of subjects.
+     *
+     * @param descriptors Descriptors of axioms to load
+     * @return Matching axioms grouped by subject, subjects without any axioms are not present in the result
+     */
+    Map<NamedResource, Collection<Axiom<?>>> findAxioms(Collection<AxiomDescriptor> descriptors) {
+        final Map<NamedResource, Collection<Axiom<?>>> result = new HashMap<>(descriptors.size());
+        for (AxiomDescriptor descriptor : descriptors) {
+            final Collection<Axiom<?>> axioms = findAxioms(descriptor);
+            if (!axioms.isEmpty()) {
+                result.computeIfAbsent(descriptor.getSubject(), k -> new ArrayList<>()).addAll(axioms);
+            }
+        }
+        return result;
+    }
+
     private void resolveInferredAssertions(AxiomDescriptor descriptor) {
+        inferredAssertionUris.clear();
+        inferredAssertions.clear();
+        explicitAssertions.clear();
         descriptor.getAssertions().forEach(assertion -> {
             if (assertion.isInferred()) {
                 inferredAssertionUris.add(assertion.getIdentifier());
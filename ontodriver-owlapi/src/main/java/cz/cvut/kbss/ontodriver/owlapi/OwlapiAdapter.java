@@ -16,6 +16,7 @@ package cz.cvut.kbss.ontodriver.owlapi;
 
 import cz.cvut.kbss.ontodriver.descriptor.*;
 import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.owlapi.connector.Connector;
 import cz.cvut.kbss.ontodriver.owlapi.connector.OntologySnapshot;
 import cz.cvut.kbss.ontodriver.owlapi.exception.OwlapiDriverException;
@@ -35,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Adapter between OntoDriver API and OWLAPI.
@@ -163,6 +165,11 @@ public class OwlapiAdapter {
         return new MainAxiomLoader(this, ontologySnapshot).findAxioms(descriptor);
     }
 
+    Map<NamedResource, Collection<Axiom<?>>> findAll(Collection<AxiomDescriptor> descriptors) {
+        startTransactionIfNotActive();
+        return new MainAxiomLoader(this, ontologySnapshot).findAxioms(descriptors);
+    }
+
     void persist(AxiomValueDescriptor descriptor) {
         startTransactionIfNotActive();
         new AxiomSaver(this, ontologySnapshot).persist(descriptor);
@@ -223,6 +230,8 @@ public class OwlapiAdapter {
         if (cls.isAssignableFrom(this.getClass())) {
             return cls.cast(this);
         } else if (cls.isAssignableFrom(OWLOntology.class)) {
+            // The client may modify the ontology directly
+            ontologySnapshot.isolate();
             return cls.cast(ontologySnapshot.getOntology());
         }
         throw new OwlapiDriverException("Unsupported type " + cls);
@@ -34,7 +34,7 @@ class OwlapiDriver implements Closeable, ConnectionListener {
             .asList(DriverConfigParam.AUTO_COMMIT, DriverConfigParam.MODULE_EXTRACTION_SIGNATURE,
                     DriverConfigParam.REASONER_FACTORY_CLASS,
                     OwlapiConfigParam.IRI_MAPPING_DELIMITER, OwlapiConfigParam.MAPPING_FILE_LOCATION,
-                    OwlapiConfigParam.WRITE_ON_COMMIT);
+                    OwlapiConfigParam.WRITE_ON_COMMIT, OwlapiConfigParam.COMMIT_DURABILITY);
 
     private final DriverConfiguration configuration;
     private volatile boolean open = true;
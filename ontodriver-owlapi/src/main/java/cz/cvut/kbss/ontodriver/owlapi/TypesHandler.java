@@ -19,7 +19,6 @@ import cz.cvut.kbss.ontodriver.owlapi.connector.OntologySnapshot;
 import cz.cvut.kbss.ontodriver.owlapi.util.MutableAddAxiom;
 import cz.cvut.kbss.ontodriver.owlapi.util.MutableRemoveAxiom;
 import org.semanticweb.owlapi.model.*;
-import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.search.EntitySearcher;
 
 import java.net.URI;
@@ -31,9 +30,7 @@ import java.util.stream.Collectors;
 
 class TypesHandler {
 
-    private final OWLOntology ontology;
     private final OWLDataFactory dataFactory;
-    private final OWLReasoner reasoner;
     private final OntologySnapshot snapshot;
 
     private final OwlapiAdapter adapter;
@@ -41,9 +38,7 @@ class TypesHandler {
     TypesHandler(OwlapiAdapter adapter, OntologySnapshot snapshot) {
         this.adapter = adapter;
         this.snapshot = snapshot;
-        this.ontology = snapshot.getOntology();
         this.dataFactory = snapshot.getDataFactory();
-        this.reasoner = snapshot.getReasoner();
     }
 
     Set<Axiom<URI>> getTypes(NamedResource subject, URI context, boolean includeInferred) {
@@ -57,7 +52,8 @@ class TypesHandler {
     }
 
     private Collection<OWLClassExpression> loadExplicitClasses(NamedResource subject) {
-        return EntitySearcher.getTypes(getIndividual(subject), ontology.importsClosure()).collect(Collectors.toSet());
+        return EntitySearcher.getTypes(getIndividual(subject), snapshot.getOntology().importsClosure())
+                             .collect(Collectors.toSet());
     }
 
     private OWLNamedIndividual getIndividual(NamedResource subject) {
@@ -73,14 +69,15 @@ class TypesHandler {
 
     private Collection<? extends OWLClassExpression> inferClasses(NamedResource subject) {
         final OWLNamedIndividual individual = getIndividual(subject);
-        return reasoner.getTypes(individual, false).entities().collect(Collectors.toSet());
+        return snapshot.getReasoner().getTypes(individual, false).entities().collect(Collectors.toSet());
     }
 
     void addTypes(NamedResource subject, URI context, Set<URI> types) {
         assert !types.isEmpty();
 
         final List<OWLAxiom> axioms = getOwlAxiomsForTypes(subject, types);
-        final List<OWLOntologyChange> changes = axioms.stream().map(axiom -> new MutableAddAxiom(ontology, axiom))
+        final OWLOntology target = snapshot.getChangeTarget();
+        final List<OWLOntologyChange> changes = axioms.stream().map(axiom -> new MutableAddAxiom(target, axiom))
                                                       .collect(Collectors.toList());
 
         adapter.addTransactionalChanges(snapshot.applyChanges(changes));
@@ -99,7 +96,8 @@ class TypesHandler {
         assert !types.isEmpty();
 
         final List<OWLAxiom> axioms = getOwlAxiomsForTypes(subject, types);
-        final List<OWLOntologyChange> changes = axioms.stream().map(axiom -> new MutableRemoveAxiom(ontology, axiom))
+        final OWLOntology target = snapshot.getChangeTarget();
+        final List<OWLOntologyChange> changes = axioms.stream().map(axiom -> new MutableRemoveAxiom(target, axiom))
                                                       .collect(Collectors.toList());
 
         adapter.addTransactionalChanges(snapshot.applyChanges(changes));
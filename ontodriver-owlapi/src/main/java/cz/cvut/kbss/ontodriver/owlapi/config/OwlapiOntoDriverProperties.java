@@ -33,9 +33,40 @@ public abstract class OwlapiOntoDriverProperties {
 
     /**
      * When set to true, the driver will write the content of the ontology into its file after commit.
+     * <p>
+     * Defaults to {@code true}. The ontology is always written into its file when the driver is closed.
      */
     public static final String WRITE_ON_COMMIT = "cz.cvut.kbss.ontodriver.owlapi.writeOnCommit";
 
+    /**
+     * Specifies whether commit waits until the ontology is written into its file.
+     * <p>
+     * Applies only when {@link #WRITE_ON_COMMIT} is enabled. The ontology is written by a background writer, which
+     * coalesces writes requested by commits made in the meantime into a single one.
+     * <p>
+     * Possible values are:
+     * <ul>
+     * <li>{@link #SYNC_DURABILITY} - commit waits until the ontology is written (default)</li>
+     * <li>{@link #ASYNC_DURABILITY} - commit returns as soon as changes are applied in memory, so the latest commits
+     * may be lost in case of a crash</li>
+     * </ul>
+     */
+    public static final String COMMIT_DURABILITY = "cz.cvut.kbss.ontodriver.owlapi.commitDurability";
+
+    /**
+     * Commit waits until the ontology is written into its file.
+     *
+     * @see #COMMIT_DURABILITY
+     */
+    public static final String SYNC_DURABILITY = "sync";
+
+    /**
+     * Commit does not wait until the ontology is written into its file.
+     *
+     * @see #COMMIT_DURABILITY
+     */
+    public static final String ASYNC_DURABILITY = "async";
+
     /**
      * Default IRI mapping delimiter.
      *
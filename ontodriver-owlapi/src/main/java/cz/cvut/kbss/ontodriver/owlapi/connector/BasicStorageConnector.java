@@ -19,6 +19,7 @@ import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.owlapi.config.OwlapiConfigParam;
+import cz.cvut.kbss.ontodriver.owlapi.config.OwlapiOntoDriverProperties;
 import cz.cvut.kbss.ontodriver.owlapi.exception.*;
 import cz.cvut.kbss.ontodriver.owlapi.util.DefaultOntologyIriMapper;
 import cz.cvut.kbss.ontodriver.owlapi.util.MappingFileParser;
@@ -46,6 +47,18 @@ import java.util.stream.Collectors;
  * Each call to {@link #getOntologySnapshot()} returns a new snapshot of the current state of the ontology. The changes
  * are the applied to a shared ontology, which represents the current state of the underlying storage.
  * <p>
+ * Snapshots share the current version of the live ontology (and its reasoner) until they need to see their own changes,
+ * at which point they create an isolated copy (see {@link TransactionalSnapshot}). A version shared by any snapshot is never modified, changes are instead applied to a
+ * copy of it, which becomes the new live ontology. The copy is created before the write lock is acquired, so that
+ * readers are not blocked while the ontology is copied.
+ * <p>
+ * The reasoner of the live ontology is used by all transactions sharing it, so calls to it are serialized (see
+ * {@link SynchronizedReasoner}).
+ * <p>
+ * Unless disabled by {@link OwlapiConfigParam#WRITE_ON_COMMIT}, the ontology is written into its file by a background
+ * writer after commit. The write lock is held only while changes are applied in memory. The writer shares the current
+ * version like a snapshot while copying it, so it neither holds the lock nor blocks writers.
+ * <p>
  * Note: This connector currently does not handle concurrent updates.
  */
 public class BasicStorageConnector extends AbstractConnector {
@@ -61,6 +74,15 @@ public class BasicStorageConnector extends AbstractConnector {
     private OWLReasoner reasoner;
     private OWLReasonerFactory reasonerFactory;
 
+    /**
+     * Current version of the live ontology, shared by unmodified transaction snapshots.
+     */
+    private SharedOntology shared;
+
+    private OntologyWriter writer;
+    private OWLOntologyManager writerManager;
+    private boolean waitForWrite;
+
     private OWLOntologyIRIMapper iriMapper;
 
     BasicStorageConnector(DriverConfiguration configuration) throws OwlapiDriverException {
@@ -80,7 +102,62 @@ public class BasicStorageConnector extends AbstractConnector {
         setIriMapper(ontologyManager);
         loadOntology(storageProperties);
         initializeReasonerFactory();
-        this.reasoner = getReasoner(ontology);
+        this.reasoner = getSharedReasoner(ontology);
+        this.shared = new SharedOntology(ontology, reasoner);
+        initializeWriter(storageProperties);
+    }
+
+    private void initializeWriter(OntologyStorageProperties storageProperties) {
+        if (configuration.isSet(OwlapiConfigParam.WRITE_ON_COMMIT) &&
+                !configuration.is(OwlapiConfigParam.WRITE_ON_COMMIT)) {
+            return;
+        }
+        this.writerManager = OWLManager.createOWLOntologyManager();
+        this.writer = new OntologyWriter(storageProperties.getPhysicalURI(), this::copyForWriting);
+        this.waitForWrite = !OwlapiOntoDriverProperties.ASYNC_DURABILITY
+                .equals(configuration.getProperty(OwlapiConfigParam.COMMIT_DURABILITY,
+                        OwlapiOntoDriverProperties.SYNC_DURABILITY));
+    }
+
+    /**
+     * Copies the current version of the live ontology into a separate manager, so that it can be written without
+     * holding the lock.
+     * <p>
+     * The version is acquired only for the duration of the copy, so it is not modified in the meantime and the lock is
+     * held just to acquire it. The ID is captured at the same time, because the ID of a version retired during the copy
+     * is reset.
+     */
+    private OWLOntology copyForWriting() {
+        final SharedOntology version;
+        final OWLOntologyID ontologyId;
+        READ.lock();
+        try {
+            version = shared;
+            version.acquire();
+            ontologyId = version.getOntology().getOntologyID();
+        } finally {
+            READ.unlock();
+        }
+        try {
+            final OWLOntology source = version.getOntology();
+            final OWLOntology copy = writerManager.createOntology(ontologyId);
+            writerManager.addAxioms(copy, source.axioms());
+            writerManager.applyChanges(
+                    source.importsDeclarations().map(i -> new AddImport(copy, i)).collect(Collectors.toList()));
+            copyFormat(source, writerManager, copy);
+            return copy;
+        } catch (OWLOntologyCreationException e) {
+            throw new OntologySnapshotException("Unable to copy ontology for writing.", e);
+        } finally {
+            version.release();
+        }
+    }
+
+    private void copyFormat(OWLOntology source, OWLOntologyManager targetManager, OWLOntology target) {
+        final OWLDocumentFormat format = ontologyManager.getOntologyFormat(source);
+        if (format != null) {
+            targetManager.setOntologyFormat(target, format);
+        }
     }
 
     private void resolveIriMapper() {
@@ -158,25 +235,120 @@ public class BasicStorageConnector extends AbstractConnector {
         ensureOpen();
         READ.lock();
         try {
-            final OWLOntology snapshot = ontologyManager.createOntology();
-            cloneOntologyContent(snapshot);
-            return new OntologySnapshot(snapshot, ontologyManager, ontologyManager.getOWLDataFactory(),
-                    getReasoner(snapshot));
-        } catch (OWLOntologyCreationException e) {
-            throw new OntologySnapshotException("Unable to create ontology snapshot.", e);
+            shared.acquire();
+            return new TransactionalSnapshot(shared, ontologyManager, this::copyOntology, this::getReasoner);
         } finally {
             READ.unlock();
         }
     }
 
-    private void cloneOntologyContent(OWLOntology target) {
-        ontologyManager.addAxioms(target, ontology.axioms());
+    /**
+     * Copies the specified ontology.
+     * <p>
+     * The source ontology is a shared version, which is not modified, so no locking is necessary.
+     */
+    private OWLOntology copyOntology(OWLOntology source) {
+        try {
+            final OWLOntology target = ontologyManager.createOntology();
+            cloneOntologyContent(source, target);
+            return target;
+        } catch (OWLOntologyCreationException e) {
+            throw new OntologySnapshotException("Unable to create ontology snapshot.", e);
+        }
+    }
+
+    private void cloneOntologyContent(OWLOntology source, OWLOntology target) {
+        ontologyManager.addAxioms(target, source.axioms());
         ontologyManager
                 .applyChanges(
-                        ontology.importsDeclarations().map(i -> new AddImport(target, i)).collect(
+                        source.importsDeclarations().map(i -> new AddImport(target, i)).collect(
                                 Collectors.toList()));
     }
 
+    /**
+     * Copies the current version of the live ontology if it is shared by any snapshot, so that the copy can replace it
+     * in {@link #prepareLiveOntologyForChange(LiveOntologyCopy)}.
+     * <p>
+     * Has to be called without holding the write lock. The version is acquired while it is being copied, so it is not
+     * modified in the meantime and no lock is needed for copying.
+     *
+     * @return Copy of the current version, {@code null} if it is not shared and can be modified in place
+     */
+    private LiveOntologyCopy copyLiveOntologyIfShared() {
+        final SharedOntology source;
+        READ.lock();
+        try {
+            source = shared;
+            if (!source.acquireIfShared()) {
+                return null;
+            }
+        } finally {
+            READ.unlock();
+        }
+        try {
+            final OWLOntology copy = copyOntology(source.getOntology());
+            return new LiveOntologyCopy(source, copy, getSharedReasoner(copy));
+        } catch (RuntimeException e) {
+            source.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Prepares the live ontology for modification.
+     * <p>
+     * If the current version is shared by any snapshot, it is retired and replaced by its copy, which takes over the
+     * ontology ID. Otherwise, the live ontology is modified in place.
+     * <p>
+     * Has to be called while holding the write lock.
+     *
+     * @param prepared Copy created before the write lock was acquired, possibly {@code null}. It is used only if it
+     *                 is a copy of the current version
+     */
+    private void prepareLiveOntologyForChange(LiveOntologyCopy prepared) {
+        if (prepared != null) {
+            prepared.source.release();
+        }
+        if (!shared.retire()) {
+            discard(prepared);
+            return;
+        }
+        final OWLOntology copy;
+        final OWLReasoner copyReasoner;
+        if (prepared != null && prepared.source == shared) {
+            copy = prepared.ontology;
+            copyReasoner = prepared.reasoner;
+        } else {
+            // Another writer has replaced the version in the meantime
+            discard(prepared);
+            copy = copyOntology(ontology);
+            copyReasoner = getSharedReasoner(copy);
+        }
+        final OWLOntologyID ontologyId = ontology.getOntologyID();
+        copyFormat(ontology, ontologyManager, copy);
+        ontologyManager.applyChange(new SetOntologyID(ontology, new OWLOntologyID()));
+        ontologyManager.applyChange(new SetOntologyID(copy, ontologyId));
+        this.ontology = copy;
+        this.reasoner = copyReasoner;
+        this.shared = new SharedOntology(ontology, reasoner);
+    }
+
+    private void discard(LiveOntologyCopy copy) {
+        if (copy == null) {
+            return;
+        }
+        if (copy.reasoner != null) {
+            copy.reasoner.dispose();
+        }
+        ontologyManager.removeOntology(copy.ontology);
+    }
+
+    private void flushReasoner() {
+        if (reasoner != null) {
+            reasoner.flush();
+        }
+    }
+
     private OntologySnapshot getLiveOntology() {
         ensureOpen();
         return new OntologySnapshot(ontology, ontologyManager, ontologyManager.getOWLDataFactory(), reasoner);
@@ -196,14 +368,24 @@ public class BasicStorageConnector extends AbstractConnector {
     @Override
     public void executeWrite(Consumer<OntologySnapshot> function) {
         ensureOpen();
+        final LiveOntologyCopy copy = copyLiveOntologyIfShared();
         WRITE.lock();
         try {
+            prepareLiveOntologyForChange(copy);
             function.accept(getLiveOntology());
+            flushReasoner();
         } finally {
             WRITE.unlock();
         }
     }
 
+    /**
+     * Creates reasoner for a version of the live ontology, which may be used by several threads concurrently.
+     */
+    private OWLReasoner getSharedReasoner(OWLOntology ontology) {
+        return SynchronizedReasoner.wrap(getReasoner(ontology));
+    }
+
     private OWLReasoner getReasoner(OWLOntology ontology) {
         if (reasonerFactory == null) {
             LOG.warn(
@@ -217,26 +399,37 @@ public class BasicStorageConnector extends AbstractConnector {
     public void applyChanges(List<OWLOntologyChange> changes) {
         ensureOpen();
         assert changes != null;
+        final LiveOntologyCopy copy = copyLiveOntologyIfShared();
         WRITE.lock();
         try {
+            prepareLiveOntologyForChange(copy);
             changes.stream().filter(ch -> ch instanceof MutableAxiomChange)
                    .forEach(ch -> ((MutableAxiomChange) ch).setOntology(ontology));
             ontologyManager.applyChanges(changes);
-            try {
-                writeToFile();
-            } catch (OntologyStorageException e) {
-                LOG.error("Unable to write out ontology." + e);
-            }
+            flushReasoner();
         } finally {
             WRITE.unlock();
         }
+        if (writer != null) {
+            final long generation = writer.requestWrite();
+            if (waitForWrite) {
+                writer.awaitWrite(generation);
+            }
+        }
     }
 
     @Override
     public void closeSnapshot(OntologySnapshot snapshot) {
         ensureOpen();
         assert snapshot != null;
-        ontologyManager.removeOntology(snapshot.getOntology());
+        if (snapshot instanceof TransactionalSnapshot) {
+            ((TransactionalSnapshot) snapshot).close();
+        } else {
+            if (snapshot.getReasoner() != null) {
+                snapshot.getReasoner().dispose();
+            }
+            ontologyManager.removeOntology(snapshot.getOntology());
+        }
     }
 
     @Override
@@ -245,7 +438,8 @@ public class BasicStorageConnector extends AbstractConnector {
         try {
             ontologyManager.clearOntologies();
             loadOntology(configuration.getStorageProperties());
-            this.reasoner = getReasoner(ontology);
+            this.reasoner = getSharedReasoner(ontology);
+            this.shared = new SharedOntology(ontology, reasoner);
         } finally {
             WRITE.unlock();
         }
@@ -256,6 +450,10 @@ public class BasicStorageConnector extends AbstractConnector {
         if (!isOpen()) {
             return;
         }
+        if (writer != null) {
+            // Writer needs the read lock to finish
+            writer.close();
+        }
         WRITE.lock();
         try {
             writeToFile();
@@ -266,11 +464,21 @@ public class BasicStorageConnector extends AbstractConnector {
     }
 
     private void writeToFile() throws OntologyStorageException {
-        try {
-            ontologyManager.saveOntology(ontology, IRI.create(configuration.getStorageProperties().getPhysicalURI()));
-        } catch (OWLOntologyStorageException e) {
-            throw new OntologyStorageException(
-                    "Error when saving ontology to " + configuration.getStorageProperties().getPhysicalURI(), e);
+        OntologyWriter.write(ontology, configuration.getStorageProperties().getPhysicalURI());
+    }
+
+    /**
+     * Copy of a shared version of the live ontology, created without holding the write lock.
+     */
+    private static final class LiveOntologyCopy {
+        private final SharedOntology source;
+        private final OWLOntology ontology;
+        private final OWLReasoner reasoner;
+
+        private LiveOntologyCopy(SharedOntology source, OWLOntology ontology, OWLReasoner reasoner) {
+            this.source = source;
+            this.ontology = ontology;
+            this.reasoner = reasoner;
         }
     }
 }
@@ -39,7 +39,8 @@ public interface Connector {
      * Gets snapshot of the underlying ontology.
      * <p>
      * The snapshot is completely independent of the live ontology, so any changes to either are not visible to the
-     * other.
+     * other. However, the snapshot may share data with the live ontology until it is modified or {@link
+     * OntologySnapshot#isolate()} is called on it.
      *
      * @return Value object with the ontology snapshot
      */
@@ -55,6 +55,28 @@ public class OntologySnapshot {
         return reasoner;
     }
 
+    /**
+     * Gets the ontology which changes created for this snapshot should refer to.
+     * <p>
+     * Unlike {@link #getOntology()}, the ontology need not reflect changes applied to this snapshot so far, so it can
+     * be used to create new changes without making the snapshot apply the ones it may have buffered.
+     *
+     * @return Ontology to which changes should refer
+     */
+    public OWLOntology getChangeTarget() {
+        return getOntology();
+    }
+
+    /**
+     * Makes sure this snapshot does not share its ontology with other snapshots, so that the ontology can be modified
+     * directly (e.g., by a SPARQL update or by the client).
+     * <p>
+     * Does nothing by default, as the snapshot is isolated.
+     */
+    public void isolate() {
+        // Do nothing by default
+    }
+
     /**
      * Applies the specified changes to this ontology snapshot.
      *
@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import cz.cvut.kbss.ontodriver.owlapi.exception.OntologyStorageException;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLOntologyStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Supplier;
+
+/**
+ * Writes ontology into its file in a background thread.
+ * <p>
+ * Writes requested while the writer is busy are coalesced into a single one, which writes the ontology state current
+ * at the time the write starts. Callers can wait until the ontology state existing at the time of their request has
+ * been written.
+ */
+class OntologyWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OntologyWriter.class);
+
+    private final URI target;
+    private final Supplier<OWLOntology> ontologySupplier;
+
+    private Thread thread;
+
+    private long requested;
+    private long written;
+    private boolean closed;
+
+    /**
+     * @param target           Physical location of the ontology
+     * @param ontologySupplier Supplies a detached copy of the ontology to write. The copy is removed from its manager
+     *                         after it is written
+     */
+    OntologyWriter(URI target, Supplier<OWLOntology> ontologySupplier) {
+        this.target = target;
+        this.ontologySupplier = ontologySupplier;
+    }
+
+    /**
+     * Requests the ontology to be written.
+     *
+     * @return Generation of the request, which can be used to wait for it to be written
+     * @see #awaitWrite(long)
+     */
+    synchronized long requestWrite() {
+        if (thread == null) {
+            this.thread = new Thread(this::run, "owlapi-ontology-writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        requested++;
+        notifyAll();
+        return requested;
+    }
+
+    /**
+     * Waits until the ontology has been written after the request with the specified generation was made.
+     * <p>
+     * Note that a failed write counts as written, the failure is logged.
+     *
+     * @param generation Generation of the write request
+     */
+    synchronized void awaitWrite(long generation) {
+        while (written < generation) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            final long generation;
+            synchronized (this) {
+                while (requested == written && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                generation = requested;
+            }
+            writeCopy();
+            synchronized (this) {
+                this.written = generation;
+                notifyAll();
+            }
+        }
+    }
+
+    private void writeCopy() {
+        try {
+            final OWLOntology copy = ontologySupplier.get();
+            try {
+                write(copy, target);
+            } finally {
+                copy.getOWLOntologyManager().removeOntology(copy);
+            }
+        } catch (OntologyStorageException | RuntimeException e) {
+            LOG.error("Unable to write out ontology.", e);
+        }
+    }
+
+    /**
+     * Stops the background writer.
+     * <p>
+     * Pending write requests are discarded, it is expected that the caller writes the ontology afterwards. Callers
+     * waiting for a write are released.
+     */
+    void close() {
+        final Thread t;
+        synchronized (this) {
+            this.closed = true;
+            notifyAll();
+            t = thread;
+        }
+        if (t != null) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            this.written = requested;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Writes the specified ontology into the target location.
+     * <p>
+     * Files are written into a temporary file first, which then atomically replaces the target file, so that a crash
+     * during write does not corrupt it.
+     *
+     * @param ontology Ontology to write
+     * @param target   Target location
+     * @throws OntologyStorageException When unable to write the ontology
+     */
+    static void write(OWLOntology ontology, URI target) throws OntologyStorageException {
+        final OWLOntologyManager manager = ontology.getOWLOntologyManager();
+        try {
+            if (!"file".equals(target.getScheme())) {
+                manager.saveOntology(ontology, IRI.create(target));
+                return;
+            }
+            final Path path = Paths.get(target);
+            final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (final FileOutputStream out = new FileOutputStream(tmp.toFile())) {
+                final BufferedOutputStream bufferedOut = new BufferedOutputStream(out);
+                manager.saveOntology(ontology, bufferedOut);
+                bufferedOut.flush();
+                out.getFD().sync();
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (OWLOntologyStorageException | IOException e) {
+            throw new OntologyStorageException("Error when saving ontology to " + target, e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+/**
+ * Version of the live ontology shared by transaction snapshots which have not modified it, yet.
+ * <p>
+ * While any snapshot shares the version, the ontology must not be modified. Instead, the connector retires the version
+ * and continues with a copy of the ontology. A retired version is removed from its manager once the last snapshot
+ * sharing it is released.
+ */
+class SharedOntology {
+
+    private final OWLOntology ontology;
+    private final OWLReasoner reasoner;
+
+    private int snapshotCount;
+    private boolean retired;
+
+    SharedOntology(OWLOntology ontology, OWLReasoner reasoner) {
+        this.ontology = ontology;
+        this.reasoner = reasoner;
+    }
+
+    OWLOntology getOntology() {
+        return ontology;
+    }
+
+    OWLReasoner getReasoner() {
+        return reasoner;
+    }
+
+    synchronized void acquire() {
+        assert !retired;
+        snapshotCount++;
+    }
+
+    /**
+     * Acquires this version only if it is already shared by a snapshot and has not been retired.
+     * <p>
+     * Used by writers, which copy the version before it is retired. There is no need to copy a version which is not
+     * shared, because it can be modified in place.
+     *
+     * @return Whether this version has been acquired
+     */
+    synchronized boolean acquireIfShared() {
+        if (snapshotCount == 0 || retired) {
+            return false;
+        }
+        snapshotCount++;
+        return true;
+    }
+
+    synchronized void release() {
+        assert snapshotCount > 0;
+        snapshotCount--;
+        if (snapshotCount == 0 && retired) {
+            if (reasoner != null) {
+                reasoner.dispose();
+            }
+            ontology.getOWLOntologyManager().removeOntology(ontology);
+        }
+    }
+
+    /**
+     * Retires this version if it is shared by any snapshot.
+     *
+     * @return {@code true} if this version has been retired and the ontology thus must not be modified, {@code false}
+     * if it is not shared and can be modified
+     */
+    synchronized boolean retire() {
+        if (snapshotCount == 0) {
+            return false;
+        }
+        this.retired = true;
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Objects;
+
+/**
+ * Serializes access to a reasoner shared by concurrent transactions.
+ * <p>
+ * OWLAPI reasoners are not thread-safe, but the reasoner of the live ontology is used by all transactions sharing it
+ * and by reads on the live ontology. The returned view thus executes each reasoner call while holding the reasoner's
+ * monitor.
+ */
+final class SynchronizedReasoner implements InvocationHandler {
+
+    private final OWLReasoner reasoner;
+
+    private SynchronizedReasoner(OWLReasoner reasoner) {
+        this.reasoner = reasoner;
+    }
+
+    /**
+     * Creates a view of the specified reasoner which serializes calls to it.
+     *
+     * @param reasoner The reasoner to wrap, possibly {@code null}
+     * @return Synchronized view of the reasoner, {@code null} if the argument is {@code null}
+     */
+    static OWLReasoner wrap(OWLReasoner reasoner) {
+        if (reasoner == null) {
+            return null;
+        }
+        return (OWLReasoner) Proxy.newProxyInstance(SynchronizedReasoner.class.getClassLoader(),
+                new Class<?>[]{OWLReasoner.class}, new SynchronizedReasoner(reasoner));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "SynchronizedReasoner{" + reasoner + "}";
+            default:
+                break;
+        }
+        synchronized (reasoner) {
+            try {
+                return method.invoke(reasoner, args);
+            } catch (InvocationTargetException e) {
+                throw Objects.requireNonNull(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import cz.cvut.kbss.ontodriver.owlapi.util.MutableAxiomChange;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Transaction snapshot which shares a version of the live ontology until it is modified.
+ * <p>
+ * Read-only transactions thus do not copy the ontology or create a reasoner. Changes applied to the snapshot are
+ * buffered as long as they only add or remove axioms. The shared version is copied only once the transaction reads the
+ * snapshot after changing it (or explicitly requires isolation), at which point the buffered changes are applied to
+ * the copy. A transaction which only writes therefore never copies the ontology. The reasoner of the copy is created
+ * only when the transaction asks for it.
+ */
+class TransactionalSnapshot extends OntologySnapshot {
+
+    private final SharedOntology shared;
+    private final Function<OWLOntology, OWLOntology> copier;
+    private final Function<OWLOntology, OWLReasoner> reasonerFactory;
+
+    /**
+     * Changes applied to this snapshot while it shares the ontology.
+     */
+    private final List<OWLOntologyChange> bufferedChanges = new ArrayList<>();
+
+    private OWLOntology isolated;
+    private OWLReasoner isolatedReasoner;
+    private boolean reasonerCreated;
+
+    /**
+     * @param shared          Shared version of the live ontology. Must already be acquired for this snapshot
+     * @param ontologyManager Ontology manager
+     * @param copier          Creates an isolated copy of the specified ontology
+     * @param reasonerFactory Creates reasoner for an isolated copy, may return {@code null}
+     */
+    TransactionalSnapshot(SharedOntology shared, OWLOntologyManager ontologyManager,
+                          Function<OWLOntology, OWLOntology> copier,
+                          Function<OWLOntology, OWLReasoner> reasonerFactory) {
+        super(shared.getOntology(), ontologyManager, ontologyManager.getOWLDataFactory(), shared.getReasoner());
+        this.shared = shared;
+        this.copier = copier;
+        this.reasonerFactory = reasonerFactory;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Isolates this snapshot first if it has buffered any changes, so that they are visible in the ontology.
+     */
+    @Override
+    public OWLOntology getOntology() {
+        if (!bufferedChanges.isEmpty()) {
+            isolate();
+        }
+        return isolated != null ? isolated : super.getOntology();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Isolates this snapshot first if it has buffered any changes, so that the reasoner takes them into account.
+     */
+    @Override
+    public OWLReasoner getReasoner() {
+        if (!bufferedChanges.isEmpty()) {
+            isolate();
+        }
+        if (isolated == null) {
+            return super.getReasoner();
+        }
+        if (!reasonerCreated) {
+            this.isolatedReasoner = reasonerFactory.apply(isolated);
+            this.reasonerCreated = true;
+        }
+        return isolatedReasoner;
+    }
+
+    @Override
+    public OWLOntology getChangeTarget() {
+        return isolated != null ? isolated : super.getOntology();
+    }
+
+    boolean isIsolated() {
+        return isolated != null;
+    }
+
+    @Override
+    public void isolate() {
+        if (isolated != null) {
+            return;
+        }
+        this.isolated = copier.apply(shared.getOntology());
+        shared.release();
+        if (!bufferedChanges.isEmpty()) {
+            final List<OWLOntologyChange> changes = new ArrayList<>(bufferedChanges);
+            bufferedChanges.clear();
+            applyToIsolated(changes);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Changes adding or removing axioms are only buffered while this snapshot shares the ontology. Other changes
+     * isolate this snapshot first. Changes created for the shared ontology are redirected to the isolated one.
+     */
+    @Override
+    public List<OWLOntologyChange> applyChanges(List<OWLOntologyChange> changes) {
+        if (isolated == null && changes.stream().allMatch(ch -> ch instanceof MutableAxiomChange)) {
+            bufferedChanges.addAll(changes);
+            return changes;
+        }
+        isolate();
+        return applyToIsolated(changes);
+    }
+
+    private List<OWLOntologyChange> applyToIsolated(List<OWLOntologyChange> changes) {
+        changes.stream().filter(ch -> ch instanceof MutableAxiomChange)
+               .map(ch -> (MutableAxiomChange) ch)
+               .filter(ch -> ch.getOntology() == shared.getOntology())
+               .forEach(ch -> ch.setOntology(isolated));
+        return super.applyChanges(changes);
+    }
+
+    /**
+     * Releases resources held by this snapshot.
+     * <p>
+     * The reasoner of the isolated copy is disposed, so that it does not keep listening to changes of the ontology
+     * manager.
+     */
+    void close() {
+        if (isolated != null) {
+            if (isolatedReasoner != null) {
+                isolatedReasoner.dispose();
+            }
+            getOntologyManager().removeOntology(isolated);
+        } else {
+            shared.release();
+        }
+    }
+}
@@ -31,15 +31,19 @@ public abstract class ListHandler<D extends ListDescriptor, V extends ListValueD
     protected final OwlapiAdapter owlapiAdapter;
     protected final AxiomAdapter axiomAdapter;
 
-    protected final OWLOntology ontology;
-
     protected final OntologySnapshot snapshot;
 
     protected ListHandler(OwlapiAdapter owlapiAdapter, OntologySnapshot snapshot) {
         this.owlapiAdapter = owlapiAdapter;
         this.axiomAdapter = new AxiomAdapter(snapshot.getDataFactory());
         this.snapshot = snapshot;
-        this.ontology = snapshot.getOntology();
+    }
+
+    /**
+     * Gets the snapshot ontology, which may change when the snapshot is isolated before modification.
+     */
+    protected OWLOntology ontology() {
+        return snapshot.getOntology();
     }
 
     public List<Axiom<NamedResource>> loadList(D descriptor) {
@@ -55,6 +59,7 @@ public abstract class ListHandler<D extends ListDescriptor, V extends ListValueD
         if (descriptor.getValues().isEmpty()) {
             return;
         }
+        snapshot.isolate();
         owlapiAdapter.addTransactionalChanges(snapshot.applyChanges(createListAxioms(descriptor)));
     }
 
@@ -63,6 +68,7 @@ public abstract class ListHandler<D extends ListDescriptor, V extends ListValueD
     abstract List<OWLOntologyChange> createListAxioms(V descriptor);
 
     public void updateList(V descriptor) {
+        snapshot.isolate();
         if (descriptor.getValues().isEmpty()) {
             removeObsoleteNodes(iterator(descriptor));
         } else if (isOrigEmpty(descriptor)) {
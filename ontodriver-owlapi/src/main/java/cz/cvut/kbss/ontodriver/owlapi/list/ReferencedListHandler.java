@@ -128,7 +128,7 @@ class ReferencedListHandler extends ListHandler<ReferencedListDescriptor, Refere
             final NamedResource node = generateNode();
             final OWLAxiom nodeAxiom = axiomAdapter
                     .toOwlObjectPropertyAssertionAxiom(new AxiomImpl<>(previousNode, property, new Value<>(node)));
-            changes.add(new MutableAddAxiom(ontology, nodeAxiom));
+            changes.add(new MutableAddAxiom(ontology(), nodeAxiom));
             changes.add(generateNodeContent(node, value));
             index++;
             return node;
@@ -137,7 +137,7 @@ class ReferencedListHandler extends ListHandler<ReferencedListDescriptor, Refere
         private OWLOntologyChange generateNodeContent(NamedResource node, NamedResource value) {
             final OWLAxiom valueAxiom = axiomAdapter
                     .toOwlObjectPropertyAssertionAxiom(new AxiomImpl<>(node, nodeContentProperty, new Value<>(value)));
-            return new MutableAddAxiom(ontology, valueAxiom);
+            return new MutableAddAxiom(ontology(), valueAxiom);
         }
 
         private NamedResource generateNode() {
@@ -145,7 +145,7 @@ class ReferencedListHandler extends ListHandler<ReferencedListDescriptor, Refere
             IRI iri;
             do {
                 iri = IRI.create(baseUri + i);
-                if (!ontology.containsIndividualInSignature(iri)) {
+                if (!ontology().containsIndividualInSignature(iri)) {
                     return NamedResource.create(iri.toURI());
                 }
                 i++;
@@ -59,7 +59,7 @@ class SimpleListHandler extends ListHandler<SimpleListDescriptor, SimpleListValu
                 axiom = appendNode(previous, descriptor.getNextNode(), item);
             }
             previous = item;
-            changes.add(new MutableAddAxiom(ontology, axiom));
+            changes.add(new MutableAddAxiom(ontology(), axiom));
         }
         return changes;
     }
@@ -82,7 +82,7 @@ class SimpleListHandler extends ListHandler<SimpleListDescriptor, SimpleListValu
         final List<OWLOntologyChange> changes = new ArrayList<>(descriptor.getValues().size() - index);
         for (; index < descriptor.getValues().size(); index++) {
             final NamedResource next = descriptor.getValues().get(index);
-            changes.add(new MutableAddAxiom(ontology, appendNode(lastNode, descriptor.getNextNode(), next)));
+            changes.add(new MutableAddAxiom(ontology(), appendNode(lastNode, descriptor.getNextNode(), next)));
             lastNode = next;
         }
         owlapiAdapter.addTransactionalChanges(snapshot.applyChanges(changes));
@@ -32,9 +32,11 @@ import org.semanticweb.owlapi.reasoner.impl.NodeFactory;
 import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNodeSet;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -106,6 +108,36 @@ class MainAxiomLoaderTest {
         return descriptor;
     }
 
+    @Test
+    void findAxiomsForMultipleDescriptorsLoadsAxiomsOfEachSubjectUsingItsAssertions() {
+        final Assertion dp = Assertion.createDataPropertyAssertion(Generator.generateUri(), false);
+        final Assertion op = Assertion.createObjectPropertyAssertion(Generator.generateUri(), false);
+        final NamedResource subjectTwo = NamedResource.create(Generator.generateUri());
+        final OWLNamedIndividual individualTwo =
+                dataFactory.getOWLNamedIndividual(IRI.create(subjectTwo.getIdentifier()));
+        manager.applyChange(new AddAxiom(ontology, dataFactory
+                .getOWLDataPropertyAssertionAxiom(dataFactory.getOWLDataProperty(IRI.create(dp.getIdentifier())),
+                        individual, 158)));
+        manager.applyChange(new AddAxiom(ontology, dataFactory
+                .getOWLObjectPropertyAssertionAxiom(dataFactory.getOWLObjectProperty(IRI.create(op.getIdentifier())),
+                        individual, individualTwo)));
+        manager.applyChange(new AddAxiom(ontology, dataFactory
+                .getOWLObjectPropertyAssertionAxiom(dataFactory.getOWLObjectProperty(IRI.create(op.getIdentifier())),
+                        individualTwo, individual)));
+        final AxiomDescriptor descriptorTwo = new AxiomDescriptor(subjectTwo);
+        descriptorTwo.addAssertion(op);
+        final AxiomDescriptor unknown = new AxiomDescriptor(NamedResource.create(Generator.generateUri()));
+        unknown.addAssertion(op);
+
+        final Map<NamedResource, Collection<Axiom<?>>> result =
+                sut.findAxioms(Arrays.asList(descriptor(dp), descriptorTwo, unknown));
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(SUBJECT).size());
+        assertEquals(dp, result.get(SUBJECT).iterator().next().getAssertion());
+        assertEquals(1, result.get(subjectTwo).size());
+        assertEquals(SUBJECT, result.get(subjectTwo).iterator().next().getValue().getValue());
+    }
+
     @Test
     void loadsExplicitObjectPropertyValuesForAssertions() {
         final URI assertionPropertyOne = Generator.generateUri();
@@ -29,6 +29,7 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -127,6 +128,17 @@ public class OwlapiConnectionTest {
         connection.find(descriptor);
     }
 
+    @Test
+    public void findAllPassesDescriptorsToAdapter() throws Exception {
+        final List<AxiomDescriptor> descriptors = Collections.singletonList(new AxiomDescriptor(
+                NamedResource.create("http://krizik.felk.cvut.cz/ontologies/jopa#instance")));
+        final Map<NamedResource, Collection<Axiom<?>>> axioms = Collections.emptyMap();
+        when(adapterMock.findAll(descriptors)).thenReturn(axioms);
+
+        assertSame(axioms, connection.findAll(descriptors));
+        verify(adapterMock).findAll(descriptors);
+    }
+
     @Test
     public void typesReturnsTypesHandlerForOwlapiDriver() {
         final OwlapiTypes types = mock(OwlapiTypes.class);
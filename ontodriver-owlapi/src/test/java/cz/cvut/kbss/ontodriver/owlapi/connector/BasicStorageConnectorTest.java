@@ -15,8 +15,11 @@
 package cz.cvut.kbss.ontodriver.owlapi.connector;
 
 import cz.cvut.kbss.ontodriver.OntologyStorageProperties;
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.owlapi.OwlapiDataSource;
+import cz.cvut.kbss.ontodriver.owlapi.config.OwlapiConfigParam;
+import cz.cvut.kbss.ontodriver.owlapi.config.OwlapiOntoDriverProperties;
 import cz.cvut.kbss.ontodriver.owlapi.environment.Generator;
 import cz.cvut.kbss.ontodriver.owlapi.exception.InvalidOntologyIriException;
 import cz.cvut.kbss.ontodriver.owlapi.util.MutableAddAxiom;
@@ -24,17 +27,22 @@ import org.junit.After;
 import org.junit.Test;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasonerFactory;
 
 import java.io.File;
 import java.net.URI;
 import java.nio.file.Files;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 public class BasicStorageConnectorTest {
 
@@ -110,10 +118,100 @@ public class BasicStorageConnectorTest {
                 new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI)));
         final OntologySnapshot snapshotOne = connector.getOntologySnapshot();
         final OntologySnapshot snapshotTwo = connector.getOntologySnapshot();
+        snapshotOne.isolate();
+        snapshotTwo.isolate();
 
         assertNotSame(snapshotOne.getOntology(), snapshotTwo.getOntology());
     }
 
+    @Test
+    public void getSnapshotSharesLiveOntologyUntilSnapshotIsIsolated() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI)));
+        final OntologySnapshot snapshotOne = connector.getOntologySnapshot();
+        final OntologySnapshot snapshotTwo = connector.getOntologySnapshot();
+        final OWLOntology live = connector.executeRead(OntologySnapshot::getOntology);
+
+        assertSame(live, snapshotOne.getOntology());
+        assertSame(live, snapshotTwo.getOntology());
+        snapshotOne.isolate();
+        assertNotSame(live, snapshotOne.getOntology());
+        assertSame(live, snapshotTwo.getOntology());
+    }
+
+    @Test
+    public void applyChangesDoesNotModifyOntologySharedBySnapshot() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI)));
+        final OntologySnapshot reader = connector.getOntologySnapshot();
+        final OntologySnapshot writer = connector.getOntologySnapshot();
+        final OWLClass cls = writer.getDataFactory().getOWLClass(IRI.create(Generator.generateUri()));
+        connector.applyChanges(Collections.singletonList(
+                new MutableAddAxiom(writer.getOntology(), writer.getDataFactory().getOWLDeclarationAxiom(cls))));
+
+        assertFalse(reader.getOntology().containsClassInSignature(cls.getIRI()));
+        final OntologySnapshot result = connector.getOntologySnapshot();
+        assertTrue(result.getOntology().containsClassInSignature(cls.getIRI()));
+        assertEquals(ONTOLOGY_URI, connector.getOntologyUri());
+    }
+
+    @Test
+    public void applyChangesReplacesSharedVersionWithCopyWithItsOwnReasoner() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration =
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI));
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, StructuralReasonerFactory.class.getName());
+        this.connector = new BasicStorageConnector(configuration);
+        final OntologySnapshot reader = connector.getOntologySnapshot();
+        final OWLReasoner sharedReasoner = reader.getReasoner();
+        final OWLClass cls = reader.getDataFactory().getOWLClass(IRI.create(Generator.generateUri()));
+        connector.applyChanges(Collections.singletonList(
+                new MutableAddAxiom(reader.getOntology(), reader.getDataFactory().getOWLDeclarationAxiom(cls))));
+
+        assertSame(reader.getOntology(), sharedReasoner.getRootOntology());
+        assertFalse(sharedReasoner.getRootOntology().containsClassInSignature(cls.getIRI()));
+        final OWLReasoner liveReasoner = connector.executeRead(OntologySnapshot::getReasoner);
+        assertNotSame(sharedReasoner, liveReasoner);
+        assertTrue(liveReasoner.getRootOntology().containsClassInSignature(cls.getIRI()));
+        assertEquals(Optional.of(IRI.create(ONTOLOGY_URI)),
+                liveReasoner.getRootOntology().getOntologyID().getOntologyIRI());
+    }
+
+    @Test
+    public void closeSnapshotRemovesRetiredSharedOntologyFromManager() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI)));
+        final OntologySnapshot reader = connector.getOntologySnapshot();
+        final OWLOntology shared = reader.getOntology();
+        final OntologySnapshot writer = connector.getOntologySnapshot();
+        addClassToOntology(writer);
+        connector.closeSnapshot(writer);
+        assertTrue(reader.getOntologyManager().contains(shared));
+
+        connector.closeSnapshot(reader);
+        assertFalse(reader.getOntologyManager().contains(shared));
+    }
+
+    @Test
+    public void applyChangesOnSnapshotIsolatesIt() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI)));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLClass cls = snapshot.getDataFactory().getOWLClass(IRI.create(Generator.generateUri()));
+        snapshot.applyChanges(Collections.singletonList(
+                new MutableAddAxiom(snapshot.getOntology(), snapshot.getDataFactory().getOWLDeclarationAxiom(cls))));
+
+        assertTrue(snapshot.getOntology().containsClassInSignature(cls.getIRI()));
+        connector.executeRead(live -> {
+            assertFalse(live.getOntology().containsClassInSignature(cls.getIRI()));
+            return null;
+        });
+    }
+
     @Test(expected = IllegalStateException.class)
     public void throwsExceptionWhenTryingToGetSnapshotOfClosedConnector() throws Exception {
         final URI physicalUri = initOntology(Collections.emptySet(), false);
@@ -145,6 +243,64 @@ public class BasicStorageConnectorTest {
         assertTrue(result.getOntology().containsClassInSignature(cls.getIRI()));
     }
 
+    @Test
+    public void applyChangesOnSnapshotBuffersThemUntilSnapshotIsRead() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI)));
+        final TransactionalSnapshot snapshot = (TransactionalSnapshot) connector.getOntologySnapshot();
+        final OWLOntology live = snapshot.getOntology();
+        final OWLClass cls = snapshot.getDataFactory().getOWLClass(IRI.create(Generator.generateUri()));
+        final OWLAxiom declaration = snapshot.getDataFactory().getOWLDeclarationAxiom(cls);
+        snapshot.applyChanges(Collections.singletonList(
+                new MutableAddAxiom(snapshot.getChangeTarget(), declaration)));
+
+        assertFalse(snapshot.isIsolated());
+        assertSame(live, snapshot.getChangeTarget());
+        assertFalse(live.containsClassInSignature(cls.getIRI()));
+        assertTrue(snapshot.getOntology().containsClassInSignature(cls.getIRI()));
+        assertTrue(snapshot.isIsolated());
+    }
+
+    @Test
+    public void applyChangesCommitsChangesBufferedBySnapshotWithoutIsolatingIt() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI)));
+        final TransactionalSnapshot snapshot = (TransactionalSnapshot) connector.getOntologySnapshot();
+        final OWLClass cls = snapshot.getDataFactory().getOWLClass(IRI.create(Generator.generateUri()));
+        final OWLAxiom declaration = snapshot.getDataFactory().getOWLDeclarationAxiom(cls);
+        final List<OWLOntologyChange> changes = snapshot.applyChanges(Collections.singletonList(
+                new MutableAddAxiom(snapshot.getChangeTarget(), declaration)));
+        connector.applyChanges(changes);
+        connector.closeSnapshot(snapshot);
+
+        assertFalse(snapshot.isIsolated());
+        connector.executeRead(live -> {
+            assertTrue(live.getOntology().containsClassInSignature(cls.getIRI()));
+            return null;
+        });
+    }
+
+    @Test
+    public void isolatedSnapshotCreatesReasonerOnlyWhenItIsRequested() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration =
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI));
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS,
+                DisposalTrackingReasonerFactory.class.getName());
+        this.connector = new BasicStorageConnector(configuration);
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final int created = DisposalTrackingReasonerFactory.created.get();
+        snapshot.isolate();
+        assertEquals(created, DisposalTrackingReasonerFactory.created.get());
+
+        final OWLReasoner reasoner = snapshot.getReasoner();
+        assertSame(snapshot.getOntology(), reasoner.getRootOntology());
+        assertEquals(created + 1, DisposalTrackingReasonerFactory.created.get());
+        assertSame(reasoner, snapshot.getReasoner());
+    }
+
     private OWLClass addClassToOntology(OntologySnapshot snapshot) {
         final OWLClass cls = snapshot.getDataFactory().getOWLClass(
                 IRI.create("http://krizik.felk.cvut.cz/ontologies/jopa#OWClassA"));
@@ -168,12 +324,104 @@ public class BasicStorageConnectorTest {
         assertTrue(res.getOntology().containsClassInSignature(cls.getIRI()));
     }
 
+    @Test
+    public void applyChangesWritesOntologyIntoFileBeforeReturningByDefault() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI)));
+        final OWLClass cls = addGeneratedClassToOntology();
+
+        final OWLOntology written = OWLManager.createOWLOntologyManager()
+                                              .loadOntologyFromOntologyDocument(IRI.create(physicalUri));
+        assertTrue(written.containsClassInSignature(cls.getIRI()));
+        assertFalse(new File(new File(physicalUri).getAbsolutePath() + ".tmp").exists());
+    }
+
+    private OWLClass addGeneratedClassToOntology() {
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLClass cls = snapshot.getDataFactory().getOWLClass(IRI.create(Generator.generateUri()));
+        connector.applyChanges(Collections.singletonList(
+                new MutableAddAxiom(snapshot.getOntology(), snapshot.getDataFactory().getOWLDeclarationAxiom(cls))));
+        connector.closeSnapshot(snapshot);
+        return cls;
+    }
+
+    @Test
+    public void applyChangesWritesOntologyWithItsIriWhenWrittenVersionIsRetired() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI)));
+        final OntologySnapshot reader = connector.getOntologySnapshot();
+        final OWLClass clsOne = addGeneratedClassToOntology();
+        final OWLClass clsTwo = addGeneratedClassToOntology();
+
+        final OWLOntology written = OWLManager.createOWLOntologyManager()
+                                              .loadOntologyFromOntologyDocument(IRI.create(physicalUri));
+        assertEquals(Optional.of(IRI.create(ONTOLOGY_URI)), written.getOntologyID().getOntologyIRI());
+        assertTrue(written.containsClassInSignature(clsOne.getIRI()));
+        assertTrue(written.containsClassInSignature(clsTwo.getIRI()));
+        connector.closeSnapshot(reader);
+    }
+
+    @Test
+    public void applyChangesModifiesLiveOntologyInPlaceAfterItHasBeenWritten() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI)));
+        final OWLOntology live = connector.executeRead(OntologySnapshot::getOntology);
+        final OWLDataFactory df = live.getOWLOntologyManager().getOWLDataFactory();
+        for (int i = 0; i < 2; i++) {
+            final OWLClass cls = df.getOWLClass(IRI.create(Generator.generateUri()));
+            connector.applyChanges(
+                    Collections.singletonList(new MutableAddAxiom(live, df.getOWLDeclarationAxiom(cls))));
+        }
+
+        assertSame(live, connector.executeRead(OntologySnapshot::getOntology));
+    }
+
+    @Test
+    public void applyChangesDoesNotWriteOntologyIntoFileWhenWriteOnCommitIsDisabled() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration =
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI));
+        configuration.setProperty(OwlapiConfigParam.WRITE_ON_COMMIT, Boolean.FALSE.toString());
+        this.connector = new BasicStorageConnector(configuration);
+        final OWLClass cls = addGeneratedClassToOntology();
+
+        assertFalse(OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(IRI.create(physicalUri))
+                              .containsClassInSignature(cls.getIRI()));
+        connector.close();
+        assertTrue(OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(IRI.create(physicalUri))
+                             .containsClassInSignature(cls.getIRI()));
+    }
+
+    @Test
+    public void applyChangesWithAsynchronousDurabilityWritesOntologyIntoFileInBackground() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration =
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI));
+        configuration.setProperty(OwlapiConfigParam.COMMIT_DURABILITY, OwlapiOntoDriverProperties.ASYNC_DURABILITY);
+        this.connector = new BasicStorageConnector(configuration);
+        final OWLClass cls = addGeneratedClassToOntology();
+
+        boolean written = false;
+        for (int i = 0; i < 100 && !written; i++) {
+            written = OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(IRI.create(physicalUri))
+                                .containsClassInSignature(cls.getIRI());
+            if (!written) {
+                Thread.sleep(50);
+            }
+        }
+        assertTrue(written);
+    }
+
     @Test
     public void getSnapshotCreatesNewAnonymousTransactionalOntology() throws Exception {
         final URI physicalUri = initOntology(Collections.emptySet(), false);
         final OntologyStorageProperties storageProperties = initStorageProperties(physicalUri, ONTOLOGY_URI);
         this.connector = new BasicStorageConnector(new DriverConfiguration(storageProperties));
         final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        snapshot.isolate();
         assertTrue(snapshot.getOntology().getOntologyID().isAnonymous());
     }
 
@@ -194,6 +442,7 @@ public class BasicStorageConnectorTest {
         final OntologyStorageProperties storageProperties = initStorageProperties(physicalUri, ONTOLOGY_URI);
         this.connector = new BasicStorageConnector(new DriverConfiguration(storageProperties));
         final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        snapshot.isolate();
         final OWLOntology transactionalOntology = snapshot.getOntology();
         final OWLOntologyManager manager = snapshot.getOntologyManager(); // We know this is the root manager
         assertTrue(manager.contains(transactionalOntology));
@@ -201,6 +450,33 @@ public class BasicStorageConnectorTest {
         assertFalse(manager.contains(transactionalOntology));
     }
 
+    @Test
+    public void closeSnapshotDisposesReasonerOfIsolatedSnapshot() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration =
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI));
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS,
+                DisposalTrackingReasonerFactory.class.getName());
+        this.connector = new BasicStorageConnector(configuration);
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        snapshot.isolate();
+        final OWLReasoner reasoner = snapshot.getReasoner();
+        verify(reasoner, never()).dispose();
+        connector.closeSnapshot(snapshot);
+        verify(reasoner).dispose();
+    }
+
+    public static class DisposalTrackingReasonerFactory extends StructuralReasonerFactory {
+
+        private static final AtomicInteger created = new AtomicInteger();
+
+        @Override
+        public OWLReasoner createReasoner(OWLOntology ontology) {
+            created.incrementAndGet();
+            return spy(super.createReasoner(ontology));
+        }
+    }
+
     @Test
     public void getSnapshotResolvesImportsOfTheTransactionalSnapshot() throws Exception {
         final URI physicalUri = initOntology(Collections.emptySet(), false);
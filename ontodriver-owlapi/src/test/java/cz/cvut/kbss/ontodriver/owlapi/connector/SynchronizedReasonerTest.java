@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.owlapi.connector;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.reasoner.InconsistentOntologyException;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SynchronizedReasonerTest {
+
+    @Test
+    public void wrapReturnsNullForNullReasoner() {
+        assertNull(SynchronizedReasoner.wrap(null));
+    }
+
+    @Test
+    public void callsAreDelegatedToWrappedReasoner() {
+        final OWLReasoner reasoner = mock(OWLReasoner.class);
+        when(reasoner.isConsistent()).thenReturn(true);
+        final OWLReasoner sut = SynchronizedReasoner.wrap(reasoner);
+
+        assertTrue(sut.isConsistent());
+        sut.flush();
+        verify(reasoner).flush();
+    }
+
+    @Test
+    public void exceptionsThrownByWrappedReasonerArePropagated() {
+        final OWLReasoner reasoner = mock(OWLReasoner.class);
+        when(reasoner.isConsistent()).thenThrow(new InconsistentOntologyException());
+        final OWLReasoner sut = SynchronizedReasoner.wrap(reasoner);
+
+        try {
+            sut.isConsistent();
+            fail("Expected the reasoner exception.");
+        } catch (InconsistentOntologyException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void concurrentCallsAreSerialized() throws Exception {
+        final OWLReasoner reasoner = mock(OWLReasoner.class);
+        final CountDownLatch firstCallStarted = new CountDownLatch(1);
+        final CountDownLatch finishFirstCall = new CountDownLatch(1);
+        when(reasoner.isConsistent()).thenAnswer(inv -> {
+            firstCallStarted.countDown();
+            return finishFirstCall.await(10, TimeUnit.SECONDS);
+        });
+        final OWLReasoner sut = SynchronizedReasoner.wrap(reasoner);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Boolean> first = executor.submit(sut::isConsistent);
+            assertTrue(firstCallStarted.await(10, TimeUnit.SECONDS));
+            final Future<?> second = executor.submit(sut::flush);
+            try {
+                second.get(200, TimeUnit.MILLISECONDS);
+                fail("The second call should wait until the first one finishes.");
+            } catch (TimeoutException e) {
+                verify(reasoner, never()).flush();
+            }
+            finishFirstCall.countDown();
+            assertTrue(first.get(10, TimeUnit.SECONDS));
+            second.get(10, TimeUnit.SECONDS);
+            verify(reasoner).flush();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
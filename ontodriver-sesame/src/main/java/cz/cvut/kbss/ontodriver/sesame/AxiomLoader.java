@@ -36,17 +36,23 @@ class AxiomLoader {
     private final Connector connector;
     private final ValueFactory valueFactory;
 
-    private final Map<IRI, Assertion> propertyToAssertion;
+    private Map<IRI, Assertion> propertyToAssertion;
     private Map<IRI, Assertion> explicitAssertions;
     private Map<IRI, Assertion> inferredAssertions;
 
     private final RuntimeConfiguration config;
+    private final LoadingStatistics statistics;
 
     AxiomLoader(Connector connector, ValueFactory valueFactory, RuntimeConfiguration config) {
+        this(connector, valueFactory, config, new LoadingStatistics());
+    }
+
+    AxiomLoader(Connector connector, ValueFactory valueFactory, RuntimeConfiguration config,
+                LoadingStatistics statistics) {
         this.connector = connector;
         this.valueFactory = valueFactory;
-        this.propertyToAssertion = new HashMap<>();
         this.config = config;
+        this.statistics = statistics;
     }
 
     Collection<Axiom<?>> loadAxioms(AxiomDescriptor axiomDescriptor) throws SesameDriverException {
@@ -59,8 +65,16 @@ class AxiomLoader {
         final Assertion unspecified = processAssertions(descriptor);
         final AxiomBuilder axiomBuilder = new AxiomBuilder(descriptor.getSubject(), propertyToAssertion, unspecified);
         final StatementLoader statementLoader = new StatementLoader(config, descriptor, connector, subject,
-                axiomBuilder);
-        if (unspecified == null || !unspecified.isInferred()) {
+                axiomBuilder, statistics);
+        final boolean loadExplicit = unspecified == null || !unspecified.isInferred();
+        if (loadExplicit && !inferredAssertions.isEmpty() && !connector.isInferenceEnabled()) {
+            // Without inference, explicit and inferred statements are the same, so they can be loaded in one pass
+            final Map<IRI, Assertion> assertions = new HashMap<>(explicitAssertions);
+            assertions.putAll(inferredAssertions);
+            statementLoader.setIncludeInferred(false);
+            return statementLoader.loadAxioms(assertions);
+        }
+        if (loadExplicit) {
             statementLoader.setIncludeInferred(false);
             result.addAll(statementLoader.loadAxioms(explicitAssertions));
         }
@@ -69,6 +83,75 @@ class AxiomLoader {
         return result;
     }
 
+    /**
+     * Loads axioms for all the specified descriptors.
+     * <p>
+     * Instead of querying the repository for each subject separately, statements of all the subjects are retrieved in
+     * bulk (one scan for explicit and one for inferred statements) and then filtered according to the individual
+     * descriptors.
+     *
+     * @param descriptors Descriptors of the axioms to load
+     * @return Loaded axioms grouped by subject, subjects without any axioms are not present in the result
+     * @throws SesameDriverException If a repository access error occurs
+     */
+    Map<NamedResource, Collection<Axiom<?>>> loadAxioms(Collection<AxiomDescriptor> descriptors)
+            throws SesameDriverException {
+        final Set<Resource> explicitSubjects = new HashSet<>(descriptors.size());
+        final Set<Resource> inferredSubjects = new HashSet<>(descriptors.size());
+        for (AxiomDescriptor descriptor : descriptors) {
+            final Resource subject = SesameUtils.toSesameIri(descriptor.getSubject().getIdentifier(), valueFactory);
+            final Assertion unspecified = processAssertions(descriptor);
+            if (shouldLoadExplicit(unspecified)) {
+                explicitSubjects.add(subject);
+            }
+            if (!inferredAssertions.isEmpty()) {
+                inferredSubjects.add(subject);
+            }
+        }
+        final Map<Resource, List<Statement>> explicitStatements;
+        final Map<Resource, List<Statement>> inferredStatements;
+        if (connector.isInferenceEnabled()) {
+            explicitStatements = groupBySubject(connector.findStatements(explicitSubjects, false));
+            inferredStatements = groupBySubject(connector.findStatements(inferredSubjects, true));
+        } else {
+            // Explicit and inferred statements are the same, so the subjects can be scanned only once
+            explicitSubjects.addAll(inferredSubjects);
+            explicitStatements = groupBySubject(connector.findStatements(explicitSubjects, false));
+            inferredStatements = explicitStatements;
+        }
+
+        final Map<NamedResource, Collection<Axiom<?>>> result = new HashMap<>(descriptors.size());
+        for (AxiomDescriptor descriptor : descriptors) {
+            final Resource subject = SesameUtils.toSesameIri(descriptor.getSubject().getIdentifier(), valueFactory);
+            final Assertion unspecified = processAssertions(descriptor);
+            final AxiomBuilder axiomBuilder =
+                    new AxiomBuilder(descriptor.getSubject(), propertyToAssertion, unspecified);
+            final StatementLoader statementLoader = new StatementLoader(config, descriptor, connector, subject,
+                    axiomBuilder, statistics);
+            final Collection<Axiom<?>> axioms = new HashSet<>();
+            if (shouldLoadExplicit(unspecified)) {
+                statementLoader.setIncludeInferred(false);
+                axioms.addAll(statementLoader.loadAxioms(explicitAssertions,
+                        explicitStatements.getOrDefault(subject, Collections.emptyList())));
+            }
+            statementLoader.setIncludeInferred(true);
+            axioms.addAll(statementLoader
+                    .loadAxioms(inferredAssertions, inferredStatements.getOrDefault(subject, Collections.emptyList())));
+            if (!axioms.isEmpty()) {
+                result.computeIfAbsent(descriptor.getSubject(), k -> new HashSet<>()).addAll(axioms);
+            }
+        }
+        return result;
+    }
+
+    private boolean shouldLoadExplicit(Assertion unspecified) {
+        return (unspecified == null || !unspecified.isInferred()) && !explicitAssertions.isEmpty();
+    }
+
+    private static Map<Resource, List<Statement>> groupBySubject(Collection<Statement> statements) {
+        return statements.stream().collect(Collectors.groupingBy(Statement::getSubject));
+    }
+
     /**
      * Processes assertions in the specified descriptor.
      * <p>
@@ -79,6 +162,7 @@ class AxiomLoader {
      */
     private Assertion processAssertions(AxiomDescriptor descriptor) {
         final Set<Assertion> assertions = descriptor.getAssertions();
+        this.propertyToAssertion = new HashMap<>(assertions.size());
         this.explicitAssertions = new HashMap<>(assertions.size());
         this.inferredAssertions = new HashMap<>(assertions.size());
         Assertion unspecified = null;
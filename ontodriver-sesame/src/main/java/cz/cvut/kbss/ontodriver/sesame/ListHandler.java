@@ -17,15 +17,14 @@ package cz.cvut.kbss.ontodriver.sesame;
 import cz.cvut.kbss.ontodriver.descriptor.*;
 import cz.cvut.kbss.ontodriver.exception.IntegrityConstraintViolatedException;
 import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.AxiomImpl;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.sesame.connector.Connector;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
 import cz.cvut.kbss.ontodriver.sesame.util.SesameUtils;
 import org.eclipse.rdf4j.model.*;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 
 /**
  * Base class for list handlers.
@@ -53,6 +52,10 @@ abstract class ListHandler<T extends ListDescriptor, V extends ListValueDescript
      * @throws SesameDriverException When storage access error occurs
      */
     List<Axiom<NamedResource>> loadList(T listDescriptor) throws SesameDriverException {
+        final List<Axiom<NamedResource>> loaded = loadListInSingleQuery(listDescriptor);
+        if (loaded != null) {
+            return loaded;
+        }
         final List<Axiom<NamedResource>> axioms = new ArrayList<>();
         final SesameIterator it = createIterator(listDescriptor);
         while (it.hasNext()) {
@@ -63,6 +66,122 @@ abstract class ListHandler<T extends ListDescriptor, V extends ListValueDescript
 
     abstract SesameIterator createIterator(T listDescriptor) throws SesameDriverException;
 
+    /**
+     * Loads the list by retrieving statements of all its nodes at once and reconstructing the node order in memory.
+     * <p>
+     * If the statements cannot be retrieved at once or they do not form a valid list, {@code null} is returned and the
+     * list should be loaded node by node, which also reports any integrity constraint violations.
+     *
+     * @param listDescriptor Describes the list
+     * @return List axioms or {@code null}
+     * @throws SesameDriverException When storage access error occurs
+     */
+    private List<Axiom<NamedResource>> loadListInSingleQuery(T listDescriptor) throws SesameDriverException {
+        final Map<Resource, Set<Value>> nodes = loadNodesInSingleQuery(listDescriptor, hasContent(listDescriptor));
+        if (nodes == null) {
+            return null;
+        }
+        final List<Axiom<NamedResource>> axioms = new ArrayList<>(nodes.size());
+        Resource previous = owner(listDescriptor);
+        for (Map.Entry<Resource, Set<Value>> e : nodes.entrySet()) {
+            final Axiom<NamedResource> axiom =
+                    createListAxiom(listDescriptor, previous, axioms.isEmpty(), e.getKey(), e.getValue());
+            if (axiom == null) {
+                return null;
+            }
+            axioms.add(axiom);
+            previous = e.getKey();
+        }
+        return axioms;
+    }
+
+    /**
+     * Retrieves statements of all the list nodes at once and reconstructs the node order in memory.
+     *
+     * @param listDescriptor Describes the list
+     * @param hasContent     Node content property, {@code null} if list nodes have no separate content
+     * @return Map of list nodes, in list order, to their content, {@code null} if the statements cannot be retrieved
+     * at once or they do not form a valid list
+     * @throws SesameDriverException When storage access error occurs
+     */
+    private Map<Resource, Set<Value>> loadNodesInSingleQuery(ListDescriptor listDescriptor, IRI hasContent)
+            throws SesameDriverException {
+        final IRI owner = owner(listDescriptor);
+        final IRI hasList = hasList(listDescriptor);
+        final IRI hasNext = hasNext(listDescriptor);
+        final Collection<Statement> statements = connector
+                .findListStatements(owner, hasList, hasNext, hasContent,
+                        listDescriptor.getListProperty().isInferred(), context(listDescriptor));
+        if (statements == null) {
+            return null;
+        }
+        final Map<Resource, Set<Value>> successors = new HashMap<>();
+        final Map<Resource, Set<Value>> contents = new HashMap<>();
+        final Set<Value> head = new HashSet<>(1);
+        for (Statement s : statements) {
+            if (s.getPredicate().equals(hasList) && s.getSubject().equals(owner)) {
+                head.add(s.getObject());
+            }
+            if (s.getPredicate().equals(hasNext)) {
+                successors.computeIfAbsent(s.getSubject(), k -> new HashSet<>(1)).add(s.getObject());
+            } else if (s.getPredicate().equals(hasContent)) {
+                contents.computeIfAbsent(s.getSubject(), k -> new HashSet<>(1)).add(s.getObject());
+            }
+        }
+        final Map<Resource, Set<Value>> nodes = new LinkedHashMap<>();
+        Set<Value> next = head;
+        while (!next.isEmpty()) {
+            if (next.size() > 1 || !(next.iterator().next() instanceof Resource)) {
+                return null;
+            }
+            final Resource node = (Resource) next.iterator().next();
+            if (nodes.containsKey(node)) {
+                return null;
+            }
+            nodes.put(node, contents.get(node));
+            next = successors.getOrDefault(node, Collections.emptySet());
+        }
+        return nodes;
+    }
+
+    /**
+     * Gets the property linking list nodes to their content, if applicable.
+     *
+     * @param listDescriptor Describes the list
+     * @return Node content property, {@code null} if list nodes have no separate content
+     */
+    abstract IRI hasContent(T listDescriptor);
+
+    /**
+     * Gets the property linking nodes of the updated list to their content, if applicable.
+     *
+     * @param listDescriptor Describes the updated list
+     * @return Node content property, {@code null} if list nodes have no separate content
+     */
+    abstract IRI hasValueContent(V listDescriptor);
+
+    /**
+     * Resolves value held by the specified list node.
+     *
+     * @param node    The list node
+     * @param content Content of the node, {@code null} if there is none
+     * @return Node value or {@code null} if the node is not valid
+     */
+    abstract Resource nodeValue(Resource node, Set<Value> content);
+
+    /**
+     * Creates axiom representing the specified list node.
+     *
+     * @param listDescriptor Describes the list
+     * @param previous       Previous node or list owner for the list head
+     * @param head           Whether the node is the list head
+     * @param node           The list node
+     * @param content        Content of the node, {@code null} if there is none
+     * @return List axiom or {@code null} if the node is not valid
+     */
+    abstract Axiom<NamedResource> createListAxiom(T listDescriptor, Resource previous, boolean head, Resource node,
+                                                  Set<Value> content);
+
     /**
      * Persists list values specified by the descriptor.
      * <p>
@@ -112,28 +231,96 @@ abstract class ListHandler<T extends ListDescriptor, V extends ListValueDescript
 
     abstract void clearList(V listDescriptor) throws SesameDriverException;
 
+    /**
+     * Merges the updated values into the original list.
+     * <p>
+     * Only the differences between the original and the updated list are written into the storage. See {@link
+     * #resolveUpdatedNodes(ListValueDescriptor, List, List, Collection, Collection)} for details on node reuse.
+     * <p>
+     * The original list is loaded in a single query if possible, otherwise it is iterated node by node.
+     */
     private void mergeList(V listDescriptor) throws SesameDriverException {
-        final SesameIterator it = iterator(listDescriptor);
-        final MergeResult mergeResult = mergeWithOriginalList(listDescriptor, it);
-        removeObsoletes(it);
-        assert mergeResult.i > 0;
-        assert mergeResult.previous != null;
-        if (mergeResult.i < listDescriptor.getValues().size()) {
-            appendNewNodes(listDescriptor, mergeResult);
+        final List<Resource> originalNodes = new ArrayList<>();
+        final List<Resource> originalContents = new ArrayList<>();
+        if (!loadOriginalInSingleQuery(listDescriptor, originalNodes, originalContents)) {
+            originalNodes.clear();
+            originalContents.clear();
+            final SesameIterator it = iterator(listDescriptor);
+            while (it.hasNext()) {
+                originalNodes.add(it.nextNode());
+                originalContents.add(it.currentContent());
+            }
+        }
+        final Collection<Statement> toAdd = new ArrayList<>();
+        final Collection<Statement> toRemove = new ArrayList<>();
+        final List<Resource> nodes =
+                resolveUpdatedNodes(listDescriptor, originalNodes, originalContents, toAdd, toRemove);
+        final Set<Statement> originalLinks = new HashSet<>(createLinks(listDescriptor, originalNodes));
+        for (Statement link : createLinks(listDescriptor, nodes)) {
+            if (!originalLinks.remove(link)) {
+                toAdd.add(link);
+            }
+        }
+        toRemove.addAll(originalLinks);
+        if (!toRemove.isEmpty()) {
+            connector.removeStatements(toRemove);
+        }
+        if (!toAdd.isEmpty()) {
+            connector.addStatements(toAdd);
         }
     }
 
-    abstract SesameIterator iterator(V listDescriptor) throws SesameDriverException;
+    private boolean loadOriginalInSingleQuery(V listDescriptor, List<Resource> originalNodes,
+                                              List<Resource> originalContents) throws SesameDriverException {
+        final Map<Resource, Set<Value>> nodes =
+                loadNodesInSingleQuery(listDescriptor, hasValueContent(listDescriptor));
+        // The list is known not to be empty at this point
+        if (nodes == null || nodes.isEmpty()) {
+            return false;
+        }
+        for (Map.Entry<Resource, Set<Value>> e : nodes.entrySet()) {
+            final Resource value = nodeValue(e.getKey(), e.getValue());
+            if (value == null) {
+                return false;
+            }
+            originalNodes.add(e.getKey());
+            originalContents.add(value);
+        }
+        return true;
+    }
 
-    abstract MergeResult mergeWithOriginalList(V listDescriptor, SesameIterator it) throws SesameDriverException;
+    abstract SesameIterator iterator(V listDescriptor) throws SesameDriverException;
 
-    abstract void appendNewNodes(V listDescriptor, MergeResult mergeResult) throws SesameDriverException;
+    /**
+     * Resolves nodes of the updated list.
+     * <p>
+     * Original nodes should be reused where possible. Statements necessary to change node content are added to the
+     * specified collections, links between the nodes are resolved by the caller.
+     *
+     * @param listDescriptor   Describes the updated list
+     * @param originalNodes    Nodes of the original list
+     * @param originalContents Content of the original nodes
+     * @param toAdd            Collection of statements to add
+     * @param toRemove         Collection of statements to remove
+     * @return Nodes of the updated list, in list order
+     * @throws SesameDriverException When storage access error occurs
+     */
+    abstract List<Resource> resolveUpdatedNodes(V listDescriptor, List<Resource> originalNodes,
+                                                List<Resource> originalContents, Collection<Statement> toAdd,
+                                                Collection<Statement> toRemove) throws SesameDriverException;
 
-    private void removeObsoletes(SesameIterator it) throws SesameDriverException {
-        while (it.hasNext()) {
-            it.nextNode();
-            it.remove();
+    private List<Statement> createLinks(V listDescriptor, List<Resource> nodes) {
+        final IRI hasNext = hasNext(listDescriptor);
+        final IRI context = context(listDescriptor);
+        final List<Statement> links = new ArrayList<>(nodes.size());
+        Resource previous = owner(listDescriptor);
+        IRI property = hasList(listDescriptor);
+        for (Resource node : nodes) {
+            links.add(vf.createStatement(previous, property, node, context));
+            previous = node;
+            property = hasNext;
         }
+        return links;
     }
 
     Resource extractListNode(Collection<Statement> stmts, IRI nodeAssertion) {
@@ -166,6 +353,12 @@ abstract class ListHandler<T extends ListDescriptor, V extends ListValueDescript
         return sesameIri(listDescriptor.getNextNode().getIdentifier());
     }
 
+    Axiom<NamedResource> createAxiom(Resource subject, cz.cvut.kbss.ontodriver.model.Assertion assertion,
+                                     Resource value) {
+        return new AxiomImpl<>(NamedResource.create(subject.stringValue()), assertion,
+                new cz.cvut.kbss.ontodriver.model.Value<>(NamedResource.create(value.stringValue())));
+    }
+
     IRI sesameIri(java.net.URI uri) {
         return SesameUtils.toSesameIri(uri, vf);
     }
@@ -199,14 +392,4 @@ abstract class ListHandler<T extends ListDescriptor, V extends ListValueDescript
 
         return new ReferencedListHandler(connector, vf);
     }
-
-    static final class MergeResult {
-        protected int i;
-        Resource previous;
-
-        MergeResult(int i, Resource node) {
-            this.i = i;
-            this.previous = node;
-        }
-    }
 }
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2020 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.sesame;
+
+import org.eclipse.rdf4j.model.IRI;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cardinality statistics observed when loading statements of individual subjects.
+ * <p>
+ * The statistics are gathered per set of loaded properties, which in practice corresponds to an entity type. They are
+ * shared by all connections of a driver and used by {@link StatementLoader} to decide how to retrieve the statements.
+ */
+class LoadingStatistics {
+
+    /**
+     * Maximum number of property sets for which statistics are gathered.
+     */
+    static final int MAX_ENTRIES = 1024;
+
+    /**
+     * Number of loads after which the statistics of a property set should be refreshed by a subject scan.
+     */
+    static final int SAMPLING_INTERVAL = 64;
+
+    private static final int AVERAGE_WINDOW = 16;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Gets statistics for loading the specified properties.
+     *
+     * @param properties      Loaded properties
+     * @param includeInferred Whether inferred statements are loaded
+     * @return Statistics entry, {@code null} if no statistics are available and no more property sets can be tracked
+     */
+    Entry get(Set<IRI> properties, boolean includeInferred) {
+        final Key key = new Key(properties, includeInferred);
+        final Entry entry = entries.get(key);
+        if (entry != null || entries.size() >= MAX_ENTRIES) {
+            return entry;
+        }
+        return entries.computeIfAbsent(new Key(new HashSet<>(properties), includeInferred), k -> new Entry());
+    }
+
+    /**
+     * Statistics of subject scans for one set of properties.
+     */
+    static class Entry {
+
+        private int samples;
+        private int loads;
+        private double scanned;
+        private double matched;
+
+        /**
+         * Records result of a subject scan.
+         *
+         * @param scannedCount Number of statements retrieved by the scan
+         * @param matchedCount Number of retrieved statements matching the loaded properties
+         */
+        synchronized void recordScan(int scannedCount, int matchedCount) {
+            // Moving average, so that the statistics follow changes of the data
+            samples = Math.min(samples + 1, AVERAGE_WINDOW);
+            scanned += (scannedCount - scanned) / samples;
+            matched += (matchedCount - matched) / samples;
+        }
+
+        /**
+         * Registers a load and returns whether the statistics should be refreshed by a subject scan.
+         *
+         * @return {@code true} if no scan has been recorded yet or the sampling interval has elapsed
+         */
+        synchronized boolean shouldSample() {
+            loads++;
+            return samples == 0 || loads % SAMPLING_INTERVAL == 0;
+        }
+
+        synchronized double getAverageScanned() {
+            return scanned;
+        }
+
+        synchronized double getAverageMatched() {
+            return matched;
+        }
+    }
+
+    private static final class Key {
+        private final Set<IRI> properties;
+        private final boolean includeInferred;
+
+        private Key(Set<IRI> properties, boolean includeInferred) {
+            this.properties = properties;
+            this.includeInferred = includeInferred;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return includeInferred == key.includeInferred && properties.equals(key.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(properties, includeInferred);
+        }
+    }
+}
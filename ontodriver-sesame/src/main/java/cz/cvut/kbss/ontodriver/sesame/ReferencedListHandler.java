@@ -18,16 +18,21 @@ import cz.cvut.kbss.ontodriver.sesame.connector.Connector;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
 import cz.cvut.kbss.ontodriver.descriptor.ReferencedListDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.ReferencedListValueDescriptor;
+import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import cz.cvut.kbss.ontodriver.util.ListNodeMatcher;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class ReferencedListHandler extends
         ListHandler<ReferencedListDescriptor, ReferencedListValueDescriptor> {
@@ -57,10 +62,31 @@ public class ReferencedListHandler extends
         return nodeUri;
     }
 
-    private IRI hasContent(ReferencedListDescriptor listDescriptor) {
+    @Override
+    IRI hasContent(ReferencedListDescriptor listDescriptor) {
         return sesameIri(listDescriptor.getNodeContent().getIdentifier());
     }
 
+    @Override
+    IRI hasValueContent(ReferencedListValueDescriptor listDescriptor) {
+        return hasContent(listDescriptor);
+    }
+
+    @Override
+    Resource nodeValue(Resource node, Set<Value> content) {
+        if (content == null || content.size() != 1 || !(content.iterator().next() instanceof Resource)) {
+            return null;
+        }
+        return (Resource) content.iterator().next();
+    }
+
+    @Override
+    Axiom<NamedResource> createListAxiom(ReferencedListDescriptor listDescriptor, Resource previous, boolean head,
+                                         Resource node, Set<Value> content) {
+        final Resource value = nodeValue(node, content);
+        return value != null ? createAxiom(node, listDescriptor.getNodeContent(), value) : null;
+    }
+
     private IRI generateSequenceNode(IRI owner, IRI context) throws SesameDriverException {
         final String uriBase = owner.stringValue();
         boolean unique;
@@ -131,38 +157,39 @@ public class ReferencedListHandler extends
     }
 
     @Override
-    MergeResult mergeWithOriginalList(ReferencedListValueDescriptor listDescriptor, SesameIterator it)
-            throws SesameDriverException {
-        int i = 0;
-        Resource node = null;
-        while (it.hasNext() && i < listDescriptor.getValues().size()) {
-            node = it.nextNode();
-            final Resource content = it.currentContent();
-            final NamedResource newNode = listDescriptor.getValues().get(i);
-            if (!content.stringValue().equals(newNode.getIdentifier().toString())) {
-                it.replaceCurrentWith(newNode);
-            }
-            i++;
-        }
-        return new MergeResult(i, node);
-    }
-
-    @Override
-    void appendNewNodes(ReferencedListValueDescriptor listDescriptor, MergeResult mergeResult)
-            throws SesameDriverException {
-        int i = mergeResult.i;
-        Resource previous = mergeResult.previous;
+    List<Resource> resolveUpdatedNodes(ReferencedListValueDescriptor listDescriptor, List<Resource> originalNodes,
+                                       List<Resource> originalContents, Collection<Statement> toAdd,
+                                       Collection<Statement> toRemove) throws SesameDriverException {
         final IRI owner = owner(listDescriptor);
-        final IRI hasNext = hasNext(listDescriptor);
         final IRI hasContent = hasContent(listDescriptor);
         final IRI context = context(listDescriptor);
-        assert i > 0;
-        final Collection<Statement> toAdd = new ArrayList<>((listDescriptor.getValues().size() - i) * 2);
-        while (i < listDescriptor.getValues().size()) {
-            final IRI content = sesameIri(listDescriptor.getValues().get(i).getIdentifier());
-            previous = createListNode(owner, hasNext, hasContent, content, context, previous, toAdd);
-            i++;
+        final List<IRI> values = listDescriptor.getValues().stream().map(v -> sesameIri(v.getIdentifier()))
+                                               .collect(Collectors.toList());
+        final int[] matches = ListNodeMatcher.match(originalContents, values);
+        final boolean[] kept = new boolean[originalNodes.size()];
+        final List<Resource> nodes = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            final IRI content = values.get(i);
+            final Resource node;
+            if (matches[i] == ListNodeMatcher.NEW_NODE) {
+                node = generateSequenceNode(owner, context);
+                toAdd.add(vf.createStatement(node, hasContent, content, context));
+            } else {
+                node = originalNodes.get(matches[i]);
+                kept[matches[i]] = true;
+                final Resource originalContent = originalContents.get(matches[i]);
+                if (!originalContent.equals(content)) {
+                    toRemove.add(vf.createStatement(node, hasContent, originalContent, context));
+                    toAdd.add(vf.createStatement(node, hasContent, content, context));
+                }
+            }
+            nodes.add(node);
+        }
+        for (int i = 0; i < kept.length; i++) {
+            if (!kept[i]) {
+                toRemove.add(vf.createStatement(originalNodes.get(i), hasContent, originalContents.get(i), context));
+            }
         }
-        connector.addStatements(toAdd);
+        return nodes;
     }
 }
@@ -21,6 +21,7 @@ import cz.cvut.kbss.ontodriver.descriptor.*;
 import cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.sesame.config.Constants;
 import cz.cvut.kbss.ontodriver.sesame.config.RuntimeConfiguration;
 import cz.cvut.kbss.ontodriver.sesame.connector.Connector;
@@ -38,6 +39,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 class SesameAdapter implements Closeable, Wrapper {
 
@@ -49,15 +51,21 @@ class SesameAdapter implements Closeable, Wrapper {
     private final Connector connector;
     private final ValueFactory valueFactory;
     private final RuntimeConfiguration config;
+    private final LoadingStatistics loadingStatistics;
     private boolean open;
     private final Transaction transaction;
 
     public SesameAdapter(Connector connector, DriverConfiguration configuration) {
+        this(connector, configuration, new LoadingStatistics());
+    }
+
+    SesameAdapter(Connector connector, DriverConfiguration configuration, LoadingStatistics loadingStatistics) {
         assert connector != null;
 
         this.connector = connector;
         this.valueFactory = connector.getValueFactory();
         this.config = new RuntimeConfiguration(configuration);
+        this.loadingStatistics = loadingStatistics;
         this.open = true;
         this.transaction = new Transaction();
     }
@@ -175,7 +183,13 @@ class SesameAdapter implements Closeable, Wrapper {
 
     Collection<Axiom<?>> find(AxiomDescriptor axiomDescriptor) throws SesameDriverException {
         startTransactionIfNotActive();
-        return new AxiomLoader(connector, valueFactory, config).loadAxioms(axiomDescriptor);
+        return new AxiomLoader(connector, valueFactory, config, loadingStatistics).loadAxioms(axiomDescriptor);
+    }
+
+    Map<NamedResource, Collection<Axiom<?>>> findAll(Collection<AxiomDescriptor> descriptors)
+            throws SesameDriverException {
+        startTransactionIfNotActive();
+        return new AxiomLoader(connector, valueFactory, config, loadingStatistics).loadAxioms(descriptors);
     }
 
     void persist(AxiomValueDescriptor axiomDescriptor) throws SesameDriverException {
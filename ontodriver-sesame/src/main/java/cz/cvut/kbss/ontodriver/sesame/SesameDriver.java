@@ -37,6 +37,7 @@ class SesameDriver implements Closeable, ConnectionListener {
     private final DriverConfiguration configuration;
     private boolean open;
     private final ConnectorFactory connectorFactory;
+    private final LoadingStatistics loadingStatistics;
 
     private final Set<SesameConnection> openedConnections;
 
@@ -48,6 +49,7 @@ class SesameDriver implements Closeable, ConnectionListener {
         configuration.addConfiguration(properties, CONFIGS);
         this.openedConnections = new HashSet<>();
         this.connectorFactory = ConnectorFactory.getInstance();
+        this.loadingStatistics = new LoadingStatistics();
         this.open = true;
     }
 
@@ -79,7 +81,7 @@ class SesameDriver implements Closeable, ConnectionListener {
     Connection acquireConnection() throws SesameDriverException {
         assert open;
         final SesameAdapter adapter = new SesameAdapter(connectorFactory.createStorageConnector(configuration),
-                configuration);
+                configuration, loadingStatistics);
         final SesameConnection c = new SesameConnection(adapter);
         c.setLists(new SesameLists(adapter, c::ensureOpen, c::commitIfAuto));
         c.setTypes(new SesameTypes(adapter, c::ensureOpen, c::commitIfAuto));
@@ -18,16 +18,20 @@ import cz.cvut.kbss.ontodriver.sesame.connector.Connector;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
 import cz.cvut.kbss.ontodriver.descriptor.SimpleListDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.SimpleListValueDescriptor;
+import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 class SimpleListHandler extends ListHandler<SimpleListDescriptor, SimpleListValueDescriptor> {
 
@@ -40,6 +44,27 @@ class SimpleListHandler extends ListHandler<SimpleListDescriptor, SimpleListValu
         return new SimpleListIterator(listDescriptor, connector, vf);
     }
 
+    @Override
+    IRI hasContent(SimpleListDescriptor listDescriptor) {
+        return null;
+    }
+
+    @Override
+    IRI hasValueContent(SimpleListValueDescriptor listDescriptor) {
+        return null;
+    }
+
+    @Override
+    Resource nodeValue(Resource node, Set<Value> content) {
+        return node;
+    }
+
+    @Override
+    Axiom<NamedResource> createListAxiom(SimpleListDescriptor listDescriptor, Resource previous, boolean head,
+                                         Resource node, Set<Value> content) {
+        return createAxiom(previous, head ? listDescriptor.getListProperty() : listDescriptor.getNextNode(), node);
+    }
+
     @Override
     IRI createListHead(SimpleListValueDescriptor listValueDescriptor, Collection<Statement> listStatements) {
         final IRI firstNode = sesameIri(listValueDescriptor.getValues().get(0).getIdentifier());
@@ -90,38 +115,11 @@ class SimpleListHandler extends ListHandler<SimpleListDescriptor, SimpleListValu
     }
 
     @Override
-    MergeResult mergeWithOriginalList(SimpleListValueDescriptor listDescriptor, SesameIterator it) throws
-                                                                                                   SesameDriverException {
-        int i = 0;
-        Resource node = null;
-        while (it.hasNext() && i < listDescriptor.getValues().size()) {
-            node = it.nextNode();
-            final NamedResource newNode = listDescriptor.getValues().get(i);
-            if (!node.stringValue().equals(newNode.getIdentifier().toString())) {
-                node = sesameIri(newNode.getIdentifier());
-                it.replaceCurrentWith(newNode);
-            }
-            i++;
-        }
-        return new MergeResult(i, node);
-    }
-
-    @Override
-    void appendNewNodes(SimpleListValueDescriptor listDescriptor, MergeResult mergeResult) throws
-                                                                                           SesameDriverException {
-        int i = mergeResult.i;
-        final Collection<Statement> toAdd = new ArrayList<>(listDescriptor.getValues().size() - i);
-        Resource previous = mergeResult.previous;
-        final IRI nextNode = sesameIri(listDescriptor.getNextNode().getIdentifier());
-        final IRI context = context(listDescriptor);
-        while (i < listDescriptor.getValues().size()) {
-            final Resource newNode = sesameIri(listDescriptor.getValues().get(i).getIdentifier());
-            final Statement stmt = vf.createStatement(previous, nextNode, newNode, context);
-            toAdd.add(stmt);
-            previous = newNode;
-            i++;
-        }
-        connector.addStatements(toAdd);
+    List<Resource> resolveUpdatedNodes(SimpleListValueDescriptor listDescriptor, List<Resource> originalNodes,
+                                       List<Resource> originalContents, Collection<Statement> toAdd,
+                                       Collection<Statement> toRemove) {
+        // Nodes of a simple list are the values themselves
+        return listDescriptor.getValues().stream().map(v -> sesameIri(v.getIdentifier())).collect(Collectors.toList());
     }
 
     @Override
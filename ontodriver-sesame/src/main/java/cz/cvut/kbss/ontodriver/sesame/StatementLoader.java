@@ -31,26 +31,52 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 
+/**
+ * Loads statements of a single subject.
+ * <p>
+ * The statements can be retrieved in one of the following ways:
+ * <ul>
+ * <li>Subject scan, i.e., all statements of the subject are loaded and then filtered,</li>
+ * <li>Property values, i.e., statements with any of the loaded properties are retrieved with a single query,</li>
+ * <li>Per-property lookup, i.e., statements are retrieved for each property separately.</li>
+ * </ul>
+ * The strategy is selected based on the number of loaded properties and {@link LoadingStatistics} observed for the
+ * same properties by previous subject scans. The estimated cost of each strategy combines the number of storage
+ * requests and the number of transferred statements.
+ */
 class StatementLoader {
 
+    /**
+     * Estimated cost of a storage request, expressed in the number of transferred statements.
+     */
+    private static final int REQUEST_COST = 32;
+
+    /**
+     * Estimated additional cost of query evaluation compared to a plain statement lookup.
+     */
+    private static final int QUERY_COST = REQUEST_COST / 2;
+
     private final AxiomDescriptor descriptor;
     private final Connector connector;
     private final Resource subject;
     private final ValueFactory vf;
     private final AxiomBuilder axiomBuilder;
+    private final LoadingStatistics statistics;
 
     private final int loadAllThreshold;
     private boolean loadAll;
+    private Assertion unspecified;
     private boolean includeInferred;
 
     StatementLoader(RuntimeConfiguration config, AxiomDescriptor descriptor, Connector connector, Resource subject,
-                    AxiomBuilder axiomBuilder) {
+                    AxiomBuilder axiomBuilder, LoadingStatistics statistics) {
         this.loadAllThreshold = config.getLoadAllThreshold();
         this.descriptor = descriptor;
         this.connector = connector;
         this.vf = connector.getValueFactory();
         this.subject = subject;
         this.axiomBuilder = axiomBuilder;
+        this.statistics = statistics;
     }
 
     void setIncludeInferred(boolean includeInferred) {
@@ -59,12 +85,48 @@ class StatementLoader {
 
     Collection<Axiom<?>> loadAxioms(Map<IRI, Assertion> properties)
             throws SesameDriverException {
-        this.loadAll = properties.containsValue(Assertion.createUnspecifiedPropertyAssertion(includeInferred));
-        if (properties.size() < loadAllThreshold && !loadAll) {
+        resolveUnspecified(properties);
+        if (loadAll) {
+            return filterStatements(properties, connector.findStatements(subject, null, null, includeInferred));
+        }
+        if (properties.size() <= 1) {
             return loadOneByOne(properties.values());
-        } else {
-            return loadAll(properties);
         }
+        final LoadingStatistics.Entry stats = statistics.get(properties.keySet(), includeInferred);
+        if (stats == null || stats.shouldSample()) {
+            return scanSubject(properties, stats);
+        }
+        final double matched = stats.getAverageMatched();
+        final double scanCost = REQUEST_COST + stats.getAverageScanned();
+        final double valuesCost = REQUEST_COST + QUERY_COST + matched;
+        final double perPropertyCost =
+                properties.size() < loadAllThreshold ? properties.size() * REQUEST_COST + matched : Double.MAX_VALUE;
+        if (scanCost <= valuesCost && scanCost <= perPropertyCost) {
+            return scanSubject(properties, stats);
+        } else if (perPropertyCost <= valuesCost) {
+            return loadOneByOne(properties.values());
+        }
+        return filterStatements(properties, connector.findStatements(subject, properties.keySet(), includeInferred));
+    }
+
+    private void resolveUnspecified(Map<IRI, Assertion> properties) {
+        this.unspecified = null;
+        for (Assertion a : properties.values()) {
+            if (a.equals(Assertion.createUnspecifiedPropertyAssertion(a.isInferred()))) {
+                this.unspecified = a;
+            }
+        }
+        this.loadAll = unspecified != null;
+    }
+
+    private Collection<Axiom<?>> scanSubject(Map<IRI, Assertion> properties, LoadingStatistics.Entry stats)
+            throws SesameDriverException {
+        final Collection<Statement> statements = connector.findStatements(subject, null, null, includeInferred);
+        final Collection<Axiom<?>> result = filterStatements(properties, statements);
+        if (stats != null) {
+            stats.recordScan(statements.size(), result.size());
+        }
+        return result;
     }
 
     private Collection<Axiom<?>> loadOneByOne(Collection<Assertion> assertions) throws SesameDriverException {
@@ -85,10 +147,23 @@ class StatementLoader {
         return result;
     }
 
-    private Collection<Axiom<?>> loadAll(Map<IRI, Assertion> properties) throws SesameDriverException {
-        final Collection<Statement> statements = connector.findStatements(subject, null, null, includeInferred);
+    /**
+     * Builds axioms from statements which have already been loaded from the repository.
+     * <p>
+     * The statements are expected to contain all the statements of the subject (with respect to inference), so they
+     * are filtered in the same way as if all the subject's statements were loaded by this loader.
+     *
+     * @param properties Properties to load
+     * @param statements Preloaded statements of the subject
+     * @return Loaded axioms
+     */
+    Collection<Axiom<?>> loadAxioms(Map<IRI, Assertion> properties, Collection<Statement> statements) {
+        resolveUnspecified(properties);
+        return filterStatements(properties, statements);
+    }
+
+    private Collection<Axiom<?>> filterStatements(Map<IRI, Assertion> properties, Collection<Statement> statements) {
         final Collection<Axiom<?>> result = new HashSet<>(statements.size());
-        final Assertion unspecified = Assertion.createUnspecifiedPropertyAssertion(includeInferred);
         for (Statement s : statements) {
             if (!properties.containsKey(s.getPredicate()) && !loadAll) {
                 continue;
@@ -109,7 +184,7 @@ class StatementLoader {
         if (properties.containsKey(s.getPredicate())) {
             return properties.get(s.getPredicate());
         }
-        return Assertion.createUnspecifiedPropertyAssertion(includeInferred);
+        return unspecified;
     }
 
     private boolean contextMatches(Assertion a, Statement s) {
@@ -45,8 +45,11 @@ public abstract class SesameOntoDriverProperties {
      * is low enough, the statements for them will be loaded by asking Sesame for statements with subject and property
      * bound.
      * <p>
-     * Otherwise, statements will be loaded using only subject bound and will be filtered according to the assertions.
-     * This will in most cases have better performance than loading with bound property.
+     * Otherwise, statements will be loaded using only subject bound and will be filtered according to the assertions,
+     * or using a single query over all the requested properties. The strategy is chosen based on cardinality
+     * statistics observed by previous loads of the same assertions.
+     * <p>
+     * Loading with bound property is used only when the statistics indicate it is cheaper than the other strategies.
      */
     public static final String SESAME_LOAD_ALL_THRESHOLD = "cz.cvut.kbss.ontodriver.sesame.load-all-threshold";
 
@@ -16,15 +16,37 @@ package cz.cvut.kbss.ontodriver.sesame.connector;
 
 
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.query.*;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Actual implementation of statement processing.
  */
 class ConnectionStatementExecutor implements StatementExecutor {
 
+    private static final String SUBJECT = "s";
+    private static final String PROPERTY = "p";
+    private static final String VALUE = "o";
+    private static final String CONTEXT = "g";
+
+    // Statements in named contexts are matched by the first pattern, statements in the default context only by the
+    // second one
+    private static final String PROPERTY_VALUES_QUERY =
+            "SELECT ?p ?o ?g WHERE { VALUES ?p {%s } { GRAPH ?g { ?s ?p ?o } } UNION " +
+                    "{ ?s ?p ?o FILTER NOT EXISTS { GRAPH ?c { ?s ?p ?o } } } }";
+
+    // Statements of multiple subjects, contexts are handled the same way as in PROPERTY_VALUES_QUERY
+    private static final String SUBJECT_STATEMENTS_QUERY =
+            "SELECT ?s ?p ?o ?g WHERE { VALUES ?s {%s } { GRAPH ?g { ?s ?p ?o } } UNION " +
+                    "{ ?s ?p ?o FILTER NOT EXISTS { GRAPH ?c { ?s ?p ?o } } } }";
+
     private final RepositoryConnection connection;
 
     ConnectionStatementExecutor(RepositoryConnection connection) {
@@ -59,4 +81,137 @@ class ConnectionStatementExecutor implements StatementExecutor {
             throw new SesameDriverException(e);
         }
     }
+
+    /**
+     * Finds statements with the specified subject and any of the specified properties using a single query.
+     * <p>
+     * Statements from named contexts are returned with the corresponding context, statements which exist only in the
+     * default context are returned without context.
+     *
+     * @see Connector#findStatements(Resource, Collection, boolean)
+     */
+    Collection<Statement> findStatements(Resource subject, Collection<IRI> properties, boolean includeInferred)
+            throws SesameDriverException {
+        final List<Statement> result = new ArrayList<>();
+        if (properties.isEmpty()) {
+            return result;
+        }
+        try {
+            final TupleQuery tq = connection.prepareTupleQuery(QueryLanguage.SPARQL, propertyValuesQuery(properties));
+            tq.setBinding(SUBJECT, subject);
+            tq.setIncludeInferred(includeInferred);
+            final ValueFactory vf = connection.getValueFactory();
+            try (final TupleQueryResult queryResult = tq.evaluate()) {
+                while (queryResult.hasNext()) {
+                    final BindingSet row = queryResult.next();
+                    final IRI property = (IRI) row.getValue(PROPERTY);
+                    final Resource context = (Resource) row.getValue(CONTEXT);
+                    result.add(context != null ? vf.createStatement(subject, property, row.getValue(VALUE), context) :
+                               vf.createStatement(subject, property, row.getValue(VALUE)));
+                }
+            }
+            return result;
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    private static String propertyValuesQuery(Collection<IRI> properties) {
+        final StringBuilder values = new StringBuilder();
+        properties.forEach(p -> values.append(" <").append(p.stringValue()).append('>'));
+        return String.format(PROPERTY_VALUES_QUERY, values);
+    }
+
+    /**
+     * Finds statements with any of the specified subjects using a single query.
+     * <p>
+     * Blank node subjects cannot be bound in the query, so their statements are retrieved one subject at a time.
+     * Contexts of the returned statements are set the same way as in {@link #findStatements(Resource, Collection,
+     * boolean)}.
+     *
+     * @see Connector#findStatements(Collection, boolean)
+     */
+    Collection<Statement> findStatements(Collection<Resource> subjects, boolean includeInferred)
+            throws SesameDriverException {
+        final List<Statement> result = new ArrayList<>();
+        final StringBuilder values = new StringBuilder();
+        try {
+            for (Resource subject : subjects) {
+                if (subject instanceof IRI) {
+                    values.append(' ').append(iri(subject));
+                } else {
+                    Iterations.addAll(connection.getStatements(subject, null, null, includeInferred), result);
+                }
+            }
+            if (values.length() == 0) {
+                return result;
+            }
+            final TupleQuery tq =
+                    connection.prepareTupleQuery(QueryLanguage.SPARQL, String.format(SUBJECT_STATEMENTS_QUERY, values));
+            tq.setIncludeInferred(includeInferred);
+            final ValueFactory vf = connection.getValueFactory();
+            try (final TupleQueryResult queryResult = tq.evaluate()) {
+                while (queryResult.hasNext()) {
+                    final BindingSet row = queryResult.next();
+                    final Resource subject = (Resource) row.getValue(SUBJECT);
+                    final IRI property = (IRI) row.getValue(PROPERTY);
+                    final Resource context = (Resource) row.getValue(CONTEXT);
+                    result.add(context != null ? vf.createStatement(subject, property, row.getValue(VALUE), context) :
+                               vf.createStatement(subject, property, row.getValue(VALUE)));
+                }
+            }
+            return result;
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    /**
+     * Finds statements forming a linked list using a single query.
+     *
+     * @see Connector#findListStatements(Resource, IRI, IRI, IRI, boolean, IRI)
+     */
+    Collection<Statement> findListStatements(Resource owner, IRI hasList, IRI hasNext, IRI hasContent,
+                                             boolean includeInferred, IRI context) throws SesameDriverException {
+        final List<Statement> result = new ArrayList<>();
+        try {
+            final TupleQuery tq = connection.prepareTupleQuery(QueryLanguage.SPARQL,
+                    listStatementsQuery(owner, hasList, hasNext, hasContent, context));
+            tq.setIncludeInferred(includeInferred);
+            final ValueFactory vf = connection.getValueFactory();
+            try (final TupleQueryResult queryResult = tq.evaluate()) {
+                while (queryResult.hasNext()) {
+                    final BindingSet row = queryResult.next();
+                    final Resource subject = (Resource) row.getValue(SUBJECT);
+                    final IRI property = (IRI) row.getValue(PROPERTY);
+                    result.add(context != null ? vf.createStatement(subject, property, row.getValue(VALUE), context) :
+                               vf.createStatement(subject, property, row.getValue(VALUE)));
+                }
+            }
+            return result;
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    // The first pattern matches the statement pointing from the owner to the list head, the second one statements of
+    // all nodes reachable from the head
+    private static String listStatementsQuery(Resource owner, IRI hasList, IRI hasNext, IRI hasContent,
+                                              IRI context) {
+        final StringBuilder query = new StringBuilder("SELECT ?s ?p ?o WHERE { ");
+        if (context != null) {
+            query.append("GRAPH ").append(iri(context)).append(' ');
+        }
+        query.append("{ { VALUES (?s ?p) { (").append(iri(owner)).append(' ').append(iri(hasList))
+             .append(") } ?s ?p ?o } UNION { ").append(iri(owner)).append(' ').append(iri(hasList)).append('/')
+             .append(iri(hasNext)).append("* ?s . VALUES ?p { ").append(iri(hasNext));
+        if (hasContent != null) {
+            query.append(' ').append(iri(hasContent));
+        }
+        return query.append(" } ?s ?p ?o } } }").toString();
+    }
+
+    private static String iri(Resource resource) {
+        return '<' + resource.stringValue() + '>';
+    }
 }
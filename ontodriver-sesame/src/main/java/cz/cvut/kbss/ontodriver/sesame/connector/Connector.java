@@ -97,6 +97,65 @@ public interface Connector extends Closeable, StatementExecutor, Wrapper {
     Collection<Statement> findStatements(Resource subject, IRI property, Value value,
                                          boolean includeInferred, IRI context) throws SesameDriverException;
 
+    /**
+     * Finds all statements whose subject is one of the specified resources.
+     * <p>
+     * This is a bulk version of {@link #findStatements(Resource, IRI, Value, boolean)} with unbound property and
+     * value. It allows the statements of multiple subjects to be retrieved in a single storage access.
+     *
+     * @param subjects        Statement subjects
+     * @param includeInferred Whether to include inferred statements as well
+     * @return Collection of matching statements
+     * @throws SesameDriverException If a repository access error occurs
+     */
+    Collection<Statement> findStatements(Collection<Resource> subjects, boolean includeInferred)
+            throws SesameDriverException;
+
+    /**
+     * Finds all statements with the specified subject and any of the specified properties.
+     * <p>
+     * The statements are retrieved in a single storage access, regardless of the number of properties. Statements in
+     * named contexts have the context set, other statements are returned without context.
+     *
+     * @param subject         Statement subject
+     * @param properties      Statement properties
+     * @param includeInferred Whether to include inferred statements as well
+     * @return Collection of matching statements
+     * @throws SesameDriverException If a repository access error occurs
+     */
+    Collection<Statement> findStatements(Resource subject, Collection<IRI> properties, boolean includeInferred)
+            throws SesameDriverException;
+
+    /**
+     * Finds statements forming a linked list in a single storage access.
+     * <p>
+     * The result contains statements with the list property whose subject is the list owner and statements with the
+     * next node property and, if specified, the node content property whose subject is a node reachable from the list
+     * head. The caller is responsible for verifying that the statements form a valid list.
+     *
+     * @param owner           List owner
+     * @param hasList         Property linking the owner to the list head
+     * @param hasNext         Property linking a node to the next one
+     * @param hasContent      Property linking a node to its content, optional
+     * @param includeInferred Whether to include inferred statements as well
+     * @param context         Context in which the search should be performed, optional
+     * @return Matching statements, {@code null} if they cannot be retrieved in a single storage access, e.g., because
+     * the list has been modified in the current transaction
+     * @throws SesameDriverException If a repository access error occurs
+     */
+    Collection<Statement> findListStatements(Resource owner, IRI hasList, IRI hasNext, IRI hasContent,
+                                             boolean includeInferred, IRI context) throws SesameDriverException;
+
+    /**
+     * Checks whether the underlying repository may contain inferred statements.
+     * <p>
+     * {@code false} is returned only if the repository is known not to perform any inference, so that including
+     * inferred statements does not change results of statement lookup.
+     *
+     * @return Whether the repository may provide inferred statements
+     */
+    boolean isInferenceEnabled();
+
     /**
      * Checks whether the repository contains any statements matching the specified criteria.
      * <p>
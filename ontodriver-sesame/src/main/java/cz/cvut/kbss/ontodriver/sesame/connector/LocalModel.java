@@ -64,6 +64,10 @@ class LocalModel {
         }
     }
 
+    boolean hasChanges(IRI property) {
+        return addedStatements.contains(null, property, null) || removedStatements.contains(null, property, null);
+    }
+
     void addStatements(Collection<Statement> statements) {
         removedStatements.removeAll(statements);
         addedStatements.addAll(statements);
@@ -21,17 +21,23 @@ import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Transactional connector using a pooled repository connection of the central connector.
+ * <p>
+ * Changes made in a transaction are kept locally and written through the connector's own repository connection on
+ * commit. Isolation of concurrent transactions is thus left to the underlying repository, so that independent
+ * transactions (and transactions against different repositories) can commit in parallel.
+ */
 public class PoolingStorageConnector extends AbstractConnector {
 
-    private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
-    private static final Lock READ = LOCK.readLock();
-    private static final Lock WRITE = LOCK.writeLock();
+    private static final Logger LOG = LoggerFactory.getLogger(PoolingStorageConnector.class);
 
     private final StorageConnector centralConnector;
 
@@ -48,12 +54,7 @@ public class PoolingStorageConnector extends AbstractConnector {
         if (transaction.isActive()) {
             return new ConnectionStatementExecutor(wrapConnection()).executeSelectQuery(query);
         }
-        READ.lock();
-        try {
-            return centralConnector.executeSelectQuery(query);
-        } finally {
-            READ.unlock();
-        }
+        return centralConnector.executeSelectQuery(query);
     }
 
     private RepositoryConnection wrapConnection() {
@@ -65,32 +66,17 @@ public class PoolingStorageConnector extends AbstractConnector {
         if (transaction.isActive()) {
             return new ConnectionStatementExecutor(wrapConnection()).executeBooleanQuery(query);
         }
-        READ.lock();
-        try {
-            return centralConnector.executeBooleanQuery(query);
-        } finally {
-            READ.unlock();
-        }
+        return centralConnector.executeBooleanQuery(query);
     }
 
     @Override
     public void executeUpdate(String query) throws SesameDriverException {
-        WRITE.lock();
-        try {
-            centralConnector.executeUpdate(query);
-        } finally {
-            WRITE.unlock();
-        }
+        centralConnector.executeUpdate(query);
     }
 
     @Override
     public List<Resource> getContexts() throws SesameDriverException {
-        READ.lock();
-        try {
-            return centralConnector.getContexts();
-        } finally {
-            READ.unlock();
-        }
+        return centralConnector.getContexts();
     }
 
     @Override
@@ -110,25 +96,33 @@ public class PoolingStorageConnector extends AbstractConnector {
     @Override
     public void commit() throws SesameDriverException {
         transaction.commit();
-        WRITE.lock();
         try {
-            centralConnector.begin();
-            centralConnector.removeStatements(localModel.getRemovedStatements());
-            centralConnector.addStatements(localModel.getAddedStatements());
-            centralConnector.commit();
+            connection.begin();
+            connection.remove(localModel.getRemovedStatements());
+            connection.add(localModel.getAddedStatements());
+            connection.commit();
             transaction.afterCommit();
-        } catch (SesameDriverException e) {
+        } catch (RepositoryException e) {
             transaction.rollback();
-            centralConnector.rollback();
+            rollbackConnection();
             transaction.afterRollback();
-            throw e;
+            throw new SesameDriverException(e);
         } finally {
-            WRITE.unlock();
             centralConnector.releaseConnection(connection);
             this.localModel = null;
         }
     }
 
+    private void rollbackConnection() {
+        try {
+            if (connection.isActive()) {
+                connection.rollback();
+            }
+        } catch (RepositoryException e) {
+            LOG.error("Unable to rollback repository connection.", e);
+        }
+    }
+
     @Override
     public void rollback() throws SesameDriverException {
         transaction.rollback();
@@ -186,6 +180,53 @@ public class PoolingStorageConnector extends AbstractConnector {
         }
     }
 
+    @Override
+    public Collection<Statement> findStatements(Collection<Resource> subjects, boolean includeInferred)
+            throws SesameDriverException {
+        verifyTransactionActive();
+        if (subjects.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final Collection<Statement> statements =
+                new ConnectionStatementExecutor(connection).findStatements(subjects, includeInferred);
+        subjects.forEach(s -> localModel.enhanceStatements(statements, s, null, null, null));
+        return statements;
+    }
+
+    @Override
+    public Collection<Statement> findStatements(Resource subject, Collection<IRI> properties, boolean includeInferred)
+            throws SesameDriverException {
+        verifyTransactionActive();
+        final Collection<Statement> statements =
+                new ConnectionStatementExecutor(connection).findStatements(subject, properties, includeInferred);
+        properties.forEach(p -> localModel.enhanceStatements(statements, subject, p, null, null));
+        return statements;
+    }
+
+    @Override
+    public Collection<Statement> findListStatements(Resource owner, IRI hasList, IRI hasNext, IRI hasContent,
+                                                    boolean includeInferred, IRI context)
+            throws SesameDriverException {
+        verifyTransactionActive();
+        if (localModel.hasChanges(hasList) || localModel.hasChanges(hasNext) ||
+                (hasContent != null && localModel.hasChanges(hasContent))) {
+            // Local changes could connect nodes which are not reachable in the repository
+            return null;
+        }
+        try {
+            return new ConnectionStatementExecutor(connection)
+                    .findListStatements(owner, hasList, hasNext, hasContent, includeInferred, context);
+        } catch (SesameDriverException e) {
+            rollback();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isInferenceEnabled() {
+        return centralConnector.isInferenceEnabled();
+    }
+
     @Override
     public boolean containsStatement(Resource subject, IRI property, Value value, boolean includeInferred)
             throws SesameDriverException {
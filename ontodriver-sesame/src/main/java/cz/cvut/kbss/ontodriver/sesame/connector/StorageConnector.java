@@ -29,9 +29,11 @@ import org.eclipse.rdf4j.repository.sail.SailRepository;
 import org.eclipse.rdf4j.sail.Sail;
 import org.eclipse.rdf4j.sail.helpers.SailWrapper;
 import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.eclipse.rdf4j.sail.nativerdf.NativeStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -229,6 +231,50 @@ class StorageConnector extends AbstractConnector {
         }
     }
 
+    @Override
+    public Collection<Statement> findStatements(Collection<Resource> subjects, boolean includeInferred)
+            throws SesameDriverException {
+        if (subjects.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try (final RepositoryConnection conn = acquireConnection()) {
+            return new ConnectionStatementExecutor(conn).findStatements(subjects, includeInferred);
+        } catch (RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    @Override
+    public Collection<Statement> findStatements(Resource subject, Collection<IRI> properties, boolean includeInferred)
+            throws SesameDriverException {
+        try (final RepositoryConnection conn = acquireConnection()) {
+            return new ConnectionStatementExecutor(conn).findStatements(subject, properties, includeInferred);
+        } catch (RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    @Override
+    public Collection<Statement> findListStatements(Resource owner, IRI hasList, IRI hasNext, IRI hasContent,
+                                                    boolean includeInferred, IRI context)
+            throws SesameDriverException {
+        try (final RepositoryConnection conn = acquireConnection()) {
+            return new ConnectionStatementExecutor(conn)
+                    .findListStatements(owner, hasList, hasNext, hasContent, includeInferred, context);
+        } catch (RepositoryException e) {
+            throw new SesameDriverException(e);
+        }
+    }
+
+    @Override
+    public boolean isInferenceEnabled() {
+        if (!(repository instanceof SailRepository)) {
+            return true;
+        }
+        final Sail sail = ((SailRepository) repository).getSail();
+        return !(sail instanceof MemoryStore || sail instanceof NativeStore);
+    }
+
     @Override
     public boolean containsStatement(Resource subject, IRI property, Value value, boolean includeInferred)
             throws SesameDriverException {
@@ -38,8 +38,8 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 class AxiomLoaderTest {
 
@@ -420,4 +420,108 @@ class AxiomLoaderTest {
             spiedConnector.close();
         }
     }
+
+    @Test
+    void loadAxiomsForMultipleDescriptorsReturnsAxiomsGroupedBySubject() throws Exception {
+        connector.begin();
+        final List<AxiomDescriptor> descriptors = new ArrayList<>();
+        final Map<NamedResource, Collection<Axiom<?>>> expected = new HashMap<>();
+        for (String individual : generatedData.individuals.subList(0, 5)) {
+            final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(individual));
+            generatedData.values.get(individual).keySet().forEach(desc::addAssertion);
+            descriptors.add(desc);
+            expected.put(desc.getSubject(), new AxiomLoader(connector, vf, new RuntimeConfiguration(
+                    new DriverConfiguration(TestRepositoryProvider.storageProperties()))).loadAxioms(desc));
+        }
+
+        final Map<NamedResource, Collection<Axiom<?>>> result = axiomLoader.loadAxioms(descriptors);
+        assertEquals(expected.keySet(), result.keySet());
+        expected.forEach((subject, axioms) -> assertEquals(new HashSet<>(axioms), new HashSet<>(result.get(subject))));
+    }
+
+    @Test
+    void loadAxiomsForMultipleDescriptorsSkipsUnknownIndividuals() throws Exception {
+        connector.begin();
+        final String individual = generatedData.individuals.get(Generator.randomIndex(generatedData.individuals));
+        final AxiomDescriptor known = new AxiomDescriptor(NamedResource.create(individual));
+        known.addAssertion(Assertion.createClassAssertion(false));
+        final AxiomDescriptor unknown = new AxiomDescriptor(
+                NamedResource.create("http://krizik.felk.cvut.cz/ontologies/sesame/individuals#Unknown"));
+        unknown.addAssertion(Assertion.createClassAssertion(false));
+
+        final Map<NamedResource, Collection<Axiom<?>>> result = axiomLoader.loadAxioms(Arrays.asList(known, unknown));
+        assertTrue(result.containsKey(known.getSubject()));
+        assertFalse(result.containsKey(unknown.getSubject()));
+    }
+
+    @Test
+    void loadAxiomsForMultipleDescriptorsLoadsStatementsOfAllSubjectsInBulk() throws Exception {
+        final Connector spiedConnector = spy(connector);
+        final DriverConfiguration driverConfig = new DriverConfiguration(TestRepositoryProvider.storageProperties());
+        this.axiomLoader = new AxiomLoader(spiedConnector, vf, new RuntimeConfiguration(driverConfig));
+        spiedConnector.begin();
+        try {
+            final List<AxiomDescriptor> descriptors = generatedData.individuals.subList(0, 5).stream().map(ind -> {
+                final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(ind));
+                generatedData.values.get(ind).keySet().forEach(desc::addAssertion);
+                return desc;
+            }).collect(Collectors.toList());
+            axiomLoader.loadAxioms(descriptors);
+            verify(spiedConnector).findStatements(anyCollection(), eq(false));
+            verify(spiedConnector, never()).findStatements(any(), any(), any(), anyBoolean());
+            verify(spiedConnector, never()).findStatements(any(), any(), any(), anyBoolean(), any());
+        } finally {
+            spiedConnector.close();
+        }
+    }
+
+    @Test
+    void loadAxiomsUsesPropertyValuesQueryWhenStatisticsShowSubjectScanIsUnselective() throws Exception {
+        final Connector spiedConnector = spy(connector);
+        final DriverConfiguration driverConfig = new DriverConfiguration(TestRepositoryProvider.storageProperties());
+        final LoadingStatistics statistics = new LoadingStatistics();
+        this.axiomLoader = new AxiomLoader(spiedConnector, vf, new RuntimeConfiguration(driverConfig), statistics);
+        spiedConnector.begin();
+        try {
+            final String individual = selectIndividualWithEnoughProperties();
+            final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(individual));
+            generatedData.values.get(individual).keySet().forEach(desc::addAssertion);
+            final Set<org.eclipse.rdf4j.model.IRI> properties =
+                    desc.getAssertions().stream().map(a -> vf.createIRI(a.getIdentifier().toString()))
+                        .collect(Collectors.toSet());
+            final LoadingStatistics.Entry entry = statistics.get(properties, false);
+            entry.shouldSample();
+            entry.recordScan(10000, 10);
+
+            final Collection<Axiom<?>> res = axiomLoader.loadAxioms(desc);
+            assertEquals(generatedData.getTotalValueCount(individual), res.size());
+            verify(spiedConnector).findStatements(eq(vf.createIRI(individual)), eq(properties), eq(false));
+            verify(spiedConnector, never()).findStatements(any(), any(), any(), anyBoolean());
+        } finally {
+            spiedConnector.close();
+        }
+    }
+
+    @Test
+    void loadAxiomsLoadsExplicitAndInferredAssertionsInSinglePassWhenRepositoryDoesNotSupportInference()
+            throws Exception {
+        final Connector spiedConnector = spy(connector);
+        final DriverConfiguration driverConfig = new DriverConfiguration(TestRepositoryProvider.storageProperties());
+        this.axiomLoader = new AxiomLoader(spiedConnector, vf, new RuntimeConfiguration(driverConfig));
+        spiedConnector.begin();
+        try {
+            final String individual = selectIndividualWithEnoughProperties();
+            final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(individual));
+            generatedData.values.get(individual).keySet().forEach(desc::addAssertion);
+            desc.addAssertion(Assertion.createClassAssertion(true));
+
+            final Collection<Axiom<?>> res = axiomLoader.loadAxioms(desc);
+            assertTrue(res.stream().anyMatch(ax -> ax.getAssertion().isClassAssertion()));
+            verify(spiedConnector).findStatements(vf.createIRI(individual), null, null, false);
+            verify(spiedConnector, never()).findStatements(any(), any(), any(), eq(true));
+            verify(spiedConnector, never()).findStatements(any(), any(), any(), eq(true), any());
+        } finally {
+            spiedConnector.close();
+        }
+    }
 }
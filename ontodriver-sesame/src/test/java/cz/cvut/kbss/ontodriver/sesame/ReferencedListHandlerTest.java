@@ -60,6 +60,8 @@ public class ReferencedListHandlerTest extends ListHandlerTestBase<ReferencedLis
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        // Single query loading is not available by default, so that node by node loading is used
+        when(connector.findListStatements(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(null);
         final Assertion listProperty = Assertion.createObjectPropertyAssertion(
                 java.net.URI.create(LIST_PROPERTY), false);
         final Assertion nextNodeProperty = Assertion.createObjectPropertyAssertion(
@@ -103,6 +105,38 @@ public class ReferencedListHandlerTest extends ListHandlerTestBase<ReferencedLis
         }
     }
 
+    @Test
+    public void loadsReferencedListUsingSingleListStatementsQuery() throws Exception {
+        final List<NamedResource> refList = initList();
+        final List<Statement> statements = new ArrayList<>(initStatementsForList(initListNodes(refList), refList));
+        Collections.shuffle(statements);
+        when(connector.findListStatements(owner, hasListProperty, nextNodeProperty, nodeContentProperty, false, null))
+                .thenReturn(statements);
+
+        final List<Axiom<NamedResource>> res = handler.loadList(listDescriptor);
+        assertEquals(refList.size(), res.size());
+        for (int i = 0; i < refList.size(); i++) {
+            assertEquals(refList.get(i), res.get(i).getValue().getValue());
+        }
+        verify(connector, never()).findStatements(any(Resource.class), any(IRI.class), any(Value.class), anyBoolean(),
+                any(IRI.class));
+    }
+
+    @Test(expected = IntegrityConstraintViolatedException.class)
+    public void loadListFallsBackToNodeByNodeLoadingWhenListStatementsContainNodeWithoutContent() throws Exception {
+        final List<NamedResource> refList = initList();
+        final List<java.net.URI> listNodes = initListNodes(refList);
+        final List<Statement> statements = initStatementsForList(listNodes, refList);
+        final IRI node = vf.createIRI(listNodes.get(2).toString());
+        statements.removeIf(s -> s.getSubject().equals(node) && s.getPredicate().equals(nodeContentProperty));
+        when(connector.findListStatements(owner, hasListProperty, nextNodeProperty, nodeContentProperty, false, null))
+                .thenReturn(statements);
+        when(connector.findStatements(eq(node), eq(nodeContentProperty), eq(null), anyBoolean(), eq(null)))
+                .thenReturn(Collections.emptyList());
+
+        handler.loadList(listDescriptor);
+    }
+
     private List<java.net.URI> initListNodes(List<?> content) {
         final List<java.net.URI> nodes = new ArrayList<>();
         for (int i = 0; i < content.size(); i++) {
@@ -288,6 +322,25 @@ public class ReferencedListHandlerTest extends ListHandlerTestBase<ReferencedLis
         }
     }
 
+    @Test
+    public void updateListLoadsOriginalListInSingleQueryWhenAvailable() throws Exception {
+        final ReferencedListValueDescriptor descriptor = initValues(0);
+        final ReferencedListValueDescriptor tempDesc = initValues(8);
+        final List<NamedResource> refList = initList();
+        final List<Statement> statements = new ArrayList<>(initStatementsForList(initListNodes(refList), refList));
+        Collections.shuffle(statements);
+        when(connector.findListStatements(owner, hasListProperty, nextNodeProperty, nodeContentProperty, false, null))
+                .thenReturn(statements);
+        refList.forEach(descriptor::addValue);
+        tempDesc.getValues().forEach(descriptor::addValue);
+
+        handler.updateList(descriptor);
+        verify(connector, never()).removeStatements(any(Collection.class));
+        assertEquals(tempDesc.getValues().size() * 2, added.size());
+        verify(connector, never()).findStatements(any(Resource.class), eq(nodeContentProperty), any(), anyBoolean(),
+                any());
+    }
+
     @Test
     public void updateListAddsNewValuesToTheEnd() throws Exception {
         final ReferencedListValueDescriptor descriptor = initValues(0);
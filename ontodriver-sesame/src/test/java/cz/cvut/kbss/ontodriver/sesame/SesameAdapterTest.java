@@ -68,6 +68,7 @@ class SesameAdapterTest {
     void setUp() {
         MockitoAnnotations.initMocks(this);
         when(connectorMock.getValueFactory()).thenReturn(vf);
+        when(connectorMock.isInferenceEnabled()).thenReturn(true);
         final OntologyStorageProperties sp = OntologyStorageProperties.driver(SesameDataSource.class.getName())
                                                                       .physicalUri("memory-store").build();
         final DriverConfiguration configuration = new DriverConfiguration(sp);
@@ -292,14 +293,10 @@ class SesameAdapterTest {
         final String property = "http://krizik.felk.cvut.cz/ontologies/jopa/attributes#A-stringAttribute";
         desc.addAssertion(Assertion.createDataPropertyAssertion(URI.create(property), false));
         final Map<Assertion, Statement> statements = initStatementsForDescriptor(desc);
-        for (Assertion as : statements.keySet()) {
-            final org.eclipse.rdf4j.model.IRI predicate = vf.createIRI(as.getIdentifier().toString());
-            when(
-                    connectorMock.findStatements(subjectIri, predicate, null, as.isInferred(), null)).thenReturn(
-                    Collections.singletonList(statements.get(as)));
-        }
+        when(connectorMock.findStatements(subjectIri, null, null, false)).thenReturn(statements.values());
         final Collection<Axiom<?>> res = adapter.find(desc);
-        verify(connectorMock, times(2)).findStatements(any(Resource.class),
+        verify(connectorMock).findStatements(subjectIri, null, null, false);
+        verify(connectorMock, never()).findStatements(any(Resource.class),
                 any(org.eclipse.rdf4j.model.IRI.class), any(), anyBoolean(),
                 eq(null));
         assertEquals(statements.size(), res.size());
@@ -353,14 +350,20 @@ class SesameAdapterTest {
         final String obProperty = "http://krizik.felk.cvut.cz/ontologies/jopa/attributes#A-refToA";
         desc.addAssertion(Assertion.createObjectPropertyAssertion(URI.create(obProperty), false));
         final Map<Assertion, Statement> statements = initStatementsForDescriptor(desc);
+        final Collection<Statement> explicit = new ArrayList<>();
         for (Assertion as : statements.keySet()) {
-            final org.eclipse.rdf4j.model.IRI predicate = vf.createIRI(as.getIdentifier().toString());
-            when(
-                    connectorMock.findStatements(subjectIri, predicate, null, as.isInferred(), null)).thenReturn(
-                    Collections.singletonList(statements.get(as)));
+            if (as.isInferred()) {
+                final org.eclipse.rdf4j.model.IRI predicate = vf.createIRI(as.getIdentifier().toString());
+                when(connectorMock.findStatements(subjectIri, predicate, null, true, null)).thenReturn(
+                        Collections.singletonList(statements.get(as)));
+            } else {
+                explicit.add(statements.get(as));
+            }
         }
+        when(connectorMock.findStatements(subjectIri, null, null, false)).thenReturn(explicit);
         final Collection<Axiom<?>> res = adapter.find(desc);
-        verify(connectorMock, times(3)).findStatements(any(Resource.class),
+        verify(connectorMock).findStatements(subjectIri, null, null, false);
+        verify(connectorMock, times(1)).findStatements(any(Resource.class),
                 any(org.eclipse.rdf4j.model.IRI.class), any(), anyBoolean(),
                 eq(null));
         verify(connectorMock, times(1)).findStatements(eq(subjectIri),
@@ -23,8 +23,11 @@ import static org.mockito.Mockito.when;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import cz.cvut.kbss.ontodriver.sesame.query.SesamePreparedStatement;
 import cz.cvut.kbss.ontodriver.sesame.query.SesameStatement;
@@ -39,6 +42,7 @@ import cz.cvut.kbss.ontodriver.Connection;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
 import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 public class SesameConnectionTest {
 
@@ -215,6 +219,17 @@ public class SesameConnectionTest {
         }
     }
 
+    @Test
+    public void findAllDelegatesToAdapter() throws Exception {
+        final List<AxiomDescriptor> descriptors = Arrays.asList(mock(AxiomDescriptor.class),
+                mock(AxiomDescriptor.class));
+        final Map<NamedResource, Collection<Axiom<?>>> axioms =
+                Collections.singletonMap(NamedResource.create("http://krizik.felk.cvut.cz/individual"),
+                        Collections.singleton(mock(Axiom.class)));
+        when(adapterMock.findAll(descriptors)).thenReturn(axioms);
+        assertEquals(axioms, connection.findAll(descriptors));
+    }
+
     @Test
     public void testPersist() throws Exception {
         final AxiomValueDescriptor axDesc = mock(AxiomValueDescriptor.class);
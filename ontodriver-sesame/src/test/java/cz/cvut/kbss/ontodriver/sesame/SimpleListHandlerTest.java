@@ -36,6 +36,7 @@ import java.util.*;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -53,6 +54,8 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        // Single query loading is not available by default, so that node by node loading is used
+        when(connector.findListStatements(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(null);
         final Assertion listProperty = Assertion.createObjectPropertyAssertion(
                 java.net.URI.create(LIST_PROPERTY), false);
         final Assertion nextNodeProperty = Assertion.createObjectPropertyAssertion(
@@ -94,6 +97,40 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
         }
     }
 
+    @Test
+    public void loadsSimpleListUsingSingleListStatementsQuery() throws Exception {
+        final List<NamedResource> simpleList = initList();
+        final List<Statement> statements = new ArrayList<>(initStatementsForList(simpleList));
+        Collections.shuffle(statements);
+        when(connector.findListStatements(owner, hasListProperty, nextNodeProperty, null, false, null))
+                .thenReturn(statements);
+
+        final List<Axiom<NamedResource>> res = handler.loadList(listDescriptor);
+        assertEquals(simpleList.size(), res.size());
+        for (int i = 0; i < simpleList.size(); i++) {
+            assertEquals(simpleList.get(i), res.get(i).getValue().getValue());
+        }
+        verify(connector, never()).findStatements(any(Resource.class), any(IRI.class), any(Value.class), anyBoolean(),
+                any(IRI.class));
+    }
+
+    @Test(expected = IntegrityConstraintViolatedException.class)
+    public void loadListFallsBackToNodeByNodeLoadingWhenListStatementsContainMultipleSuccessors() throws Exception {
+        final List<NamedResource> simpleList = initList();
+        final List<Statement> statements = initStatementsForList(simpleList);
+        final Resource second = vf.createIRI(simpleList.get(1).toString());
+        final Statement branch = vf.createStatement(second, nextNodeProperty,
+                vf.createIRI("http://krizik.felk.cvut.cz/ontologies/jopa/branch"));
+        final List<Statement> listStatements = new ArrayList<>(statements);
+        listStatements.add(branch);
+        when(connector.findListStatements(owner, hasListProperty, nextNodeProperty, null, false, null))
+                .thenReturn(listStatements);
+        when(connector.findStatements(second, nextNodeProperty, null, false, null))
+                .thenReturn(Arrays.asList(statements.get(2), branch));
+
+        handler.loadList(listDescriptor);
+    }
+
     private List<Statement> initStatementsForList(List<NamedResource> simpleList)
             throws SesameDriverException {
         Resource subject = owner;
@@ -255,6 +292,25 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
         }
     }
 
+    @Test
+    public void updateListLoadsOriginalListInSingleQueryWhenAvailable() throws Exception {
+        final SimpleListValueDescriptor descriptor = initValues(0);
+        final SimpleListValueDescriptor tempDesc = initValues(8);
+        final List<NamedResource> simpleList = initList();
+        final List<Statement> statements = new ArrayList<>(initStatementsForList(simpleList));
+        Collections.shuffle(statements);
+        when(connector.findListStatements(owner, hasListProperty, nextNodeProperty, null, false, null))
+                .thenReturn(statements);
+        simpleList.forEach(descriptor::addValue);
+        tempDesc.getValues().forEach(descriptor::addValue);
+
+        handler.updateList(descriptor);
+        verify(connector, never()).removeStatements(any(Collection.class));
+        assertEquals(tempDesc.getValues().size(), added.size());
+        verify(connector, never()).findStatements(any(Resource.class), eq(nextNodeProperty), any(), anyBoolean(),
+                any());
+    }
+
     @Test
     public void updateListRemovesSeveralElements() throws Exception {
         final SimpleListValueDescriptor descriptor = initValues(0);
@@ -22,22 +22,26 @@ import cz.cvut.kbss.ontodriver.util.TransactionState;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.query.BooleanQuery;
 import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.RepositoryResult;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -47,9 +51,7 @@ public class PoolingStorageConnectorTest {
     @Mock
     private StorageConnector centralMock;
     @Mock
-    private Lock readLock;
-    @Mock
-    private Lock writeLock;
+    private RepositoryConnection connectionMock;
 
     private ValueFactory vf;
 
@@ -65,8 +67,7 @@ public class PoolingStorageConnectorTest {
         final Field transactionField = AbstractConnector.class.getDeclaredField("transaction");
         transactionField.setAccessible(true);
         this.transaction = (Transaction) transactionField.get(connector);
-        TestUtils.setMock("READ", PoolingStorageConnector.class, readLock);
-        TestUtils.setMock("WRITE", PoolingStorageConnector.class, writeLock);
+        when(centralMock.acquireConnection()).thenReturn(connectionMock);
     }
 
     @Test
@@ -81,10 +82,8 @@ public class PoolingStorageConnectorTest {
         final String query = "Some query";
         connector.executeSelectQuery(query);
 
-        InOrder inOrder = inOrder(readLock, centralMock);
-        inOrder.verify(readLock).lock();
-        inOrder.verify(centralMock).executeSelectQuery(query);
-        inOrder.verify(readLock).unlock();
+        verify(centralMock).executeSelectQuery(query);
+        verify(centralMock, never()).acquireConnection();
     }
 
     @Test
@@ -102,15 +101,10 @@ public class PoolingStorageConnectorTest {
     }
 
     @Test(expected = SesameDriverException.class)
-    public void testUnlockWhenExecuteQueryThrowsException() throws Exception {
+    public void executeSelectOutsideTransactionPropagatesCentralConnectorException() throws Exception {
         final String query = "Some query";
         when(centralMock.executeSelectQuery(query)).thenThrow(new SesameDriverException());
-        try {
-            connector.executeSelectQuery(query);
-        } finally {
-            verify(readLock).lock();
-            verify(readLock).unlock();
-        }
+        connector.executeSelectQuery(query);
     }
 
     @Test
@@ -118,10 +112,8 @@ public class PoolingStorageConnectorTest {
         final String query = "ASK some query";
         connector.executeBooleanQuery(query);
 
-        InOrder inOrder = inOrder(readLock, centralMock);
-        inOrder.verify(readLock).lock();
-        inOrder.verify(centralMock).executeBooleanQuery(query);
-        inOrder.verify(readLock).unlock();
+        verify(centralMock).executeBooleanQuery(query);
+        verify(centralMock, never()).acquireConnection();
     }
 
     @Test
@@ -139,15 +131,10 @@ public class PoolingStorageConnectorTest {
     }
 
     @Test(expected = SesameDriverException.class)
-    public void unlocksReadLockWhenExecuteBooleanQueryThrowsException() throws Exception {
+    public void executeBooleanQueryOutsideTransactionPropagatesCentralConnectorException() throws Exception {
         final String query = "ASK some query";
         when(centralMock.executeBooleanQuery(query)).thenThrow(new SesameDriverException());
-
-        try {
-            connector.executeBooleanQuery(query);
-        } finally {
-            verify(readLock).unlock();
-        }
+        connector.executeBooleanQuery(query);
     }
 
     @Test
@@ -156,57 +143,67 @@ public class PoolingStorageConnectorTest {
         final String query = "Some query";
         connector.executeUpdate(query);
 
-        InOrder inOrder = inOrder(writeLock, centralMock);
-        inOrder.verify(writeLock).lock();
-        inOrder.verify(centralMock).executeUpdate(query);
-        inOrder.verify(writeLock).unlock();
+        verify(centralMock).executeUpdate(query);
     }
 
     @Test(expected = SesameDriverException.class)
-    public void testUnlockWhenExecuteUpdateThrowsException() throws Exception {
+    public void executeUpdatePropagatesCentralConnectorException() throws Exception {
         connector.begin();
         final String query = "Some query";
         doThrow(new SesameDriverException()).when(centralMock).executeUpdate(query);
-        try {
-            connector.executeUpdate(query);
-        } finally {
-            verify(writeLock).unlock();
-        }
+        connector.executeUpdate(query);
     }
 
     @Test
     public void testGetContexts() throws Exception {
         connector.getContexts();
-        verify(readLock).lock();
         verify(centralMock).getContexts();
-        verify(readLock).unlock();
     }
 
     @Test
     public void testCommit() throws Exception {
         connector.begin();
         connector.commit();
-        verify(writeLock).lock();
-        verify(centralMock).begin();
-        verify(centralMock).addStatements(anyCollection());
-        verify(centralMock).removeStatements(anyCollection());
-        verify(centralMock).commit();
-        verify(writeLock).unlock();
+        final InOrder inOrder = inOrder(connectionMock);
+        inOrder.verify(connectionMock).begin();
+        inOrder.verify(connectionMock).remove(anyCollection());
+        inOrder.verify(connectionMock).add(anyCollection());
+        inOrder.verify(connectionMock).commit();
         assertFalse(transaction.isActive());
     }
 
+    @Test
+    public void commitDoesNotUseCentralConnectorTransaction() throws Exception {
+        connector.begin();
+        connector.commit();
+        verify(centralMock, never()).begin();
+        verify(centralMock, never()).commit();
+    }
+
+    @Test
+    public void commitWritesLocalChangesThroughTransactionRepositoryConnection() throws Exception {
+        final Statement added = vf.createStatement(vf.createIRI(TestUtils.randomUri()), RDF.TYPE,
+                vf.createIRI(TestUtils.randomUri()));
+        final Statement removed = vf.createStatement(vf.createIRI(TestUtils.randomUri()), RDF.TYPE,
+                vf.createIRI(TestUtils.randomUri()));
+        connector.begin();
+        connector.addStatements(Collections.singletonList(added));
+        connector.removeStatements(Collections.singletonList(removed));
+        connector.commit();
+        verify(connectionMock).remove(argThat((Collection<Statement> c) -> c.size() == 1 && c.contains(removed)));
+        verify(connectionMock).add(argThat((Collection<Statement> c) -> c.size() == 1 && c.contains(added)));
+    }
+
     @Test(expected = SesameDriverException.class)
-    public void testUnlockWhenCommitThrowsException() throws Exception {
-        doThrow(new SesameDriverException()).when(centralMock).commit();
+    public void commitRollsBackRepositoryConnectionWhenCommitFails() throws Exception {
+        doThrow(new RepositoryException()).when(connectionMock).commit();
+        when(connectionMock.isActive()).thenReturn(true);
         connector.begin();
         try {
             connector.commit();
         } finally {
-            verify(centralMock).begin();
-            verify(centralMock).addStatements(anyCollection());
-            verify(centralMock).removeStatements(anyCollection());
-            verify(centralMock).commit();
-            verify(writeLock).unlock();
+            verify(connectionMock).rollback();
+            verify(centralMock).releaseConnection(connectionMock);
             assertEquals(TransactionState.ABORTED, transaction.getState());
         }
     }
@@ -308,6 +305,45 @@ public class PoolingStorageConnectorTest {
         }
     }
 
+    @Test
+    public void findListStatementsReturnsNullWhenListPropertiesWereChangedInTransaction() throws Exception {
+        final RepositoryConnection conn = mock(RepositoryConnection.class);
+        when(centralMock.acquireConnection()).thenReturn(conn);
+        final IRI owner = vf.createIRI(TestUtils.randomUri());
+        final IRI hasList = vf.createIRI(TestUtils.randomUri());
+        final IRI hasNext = vf.createIRI(TestUtils.randomUri());
+        connector.begin();
+        connector.addStatements(Collections.singleton(
+                vf.createStatement(vf.createIRI(TestUtils.randomUri()), hasNext, vf.createIRI(TestUtils.randomUri()))));
+
+        assertNull(connector.findListStatements(owner, hasList, hasNext, null, false, null));
+        verify(conn, never()).prepareTupleQuery(any(), anyString());
+    }
+
+    @Test
+    public void findStatementsForMultipleSubjectsUsesSingleQueryAndIncludesLocalChanges() throws Exception {
+        final RepositoryConnection conn = mock(RepositoryConnection.class);
+        final TupleQuery tq = mock(TupleQuery.class);
+        when(conn.prepareTupleQuery(eq(QueryLanguage.SPARQL), anyString())).thenReturn(tq);
+        when(tq.evaluate()).thenReturn(mock(TupleQueryResult.class));
+        when(conn.getValueFactory()).thenReturn(vf);
+        when(centralMock.acquireConnection()).thenReturn(conn);
+        final Resource resOne = vf.createIRI(TestUtils.randomUri());
+        final Resource resTwo = vf.createIRI(TestUtils.randomUri());
+        connector.begin();
+        final Statement added = vf.createStatement(resTwo, RDF.TYPE, vf.createIRI(TestUtils.randomUri()));
+        connector.addStatements(Collections.singleton(added));
+
+        final Collection<Statement> result = connector.findStatements(Arrays.asList(resOne, resTwo), false);
+        assertEquals(Collections.singletonList(added), result);
+        verify(centralMock).acquireConnection();
+        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(conn).prepareTupleQuery(eq(QueryLanguage.SPARQL), captor.capture());
+        assertTrue(captor.getValue().contains(resOne.stringValue()));
+        assertTrue(captor.getValue().contains(resTwo.stringValue()));
+        verify(conn, never()).getStatements(any(Resource.class), any(), any(), anyBoolean());
+    }
+
     @Test
     public void closeReleasesActiveConnection() throws Exception {
         final RepositoryConnection conn = mock(RepositoryConnection.class);
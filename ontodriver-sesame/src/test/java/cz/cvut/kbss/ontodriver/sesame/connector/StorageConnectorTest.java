@@ -21,7 +21,10 @@ import cz.cvut.kbss.ontodriver.sesame.environment.TestUtils;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.RepositoryCreationException;
 import cz.cvut.kbss.ontodriver.sesame.exceptions.SesameDriverException;
 import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.config.RepositoryConfig;
@@ -43,8 +46,7 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.containsString;
@@ -169,6 +171,95 @@ class StorageConnectorTest {
         }
     }
 
+    @Test
+    void findStatementsForPropertiesReturnsStatementsOfSpecifiedPropertiesWithTheirContexts() throws Exception {
+        createInMemoryConnector();
+        final ValueFactory vf = connector.getValueFactory();
+        final IRI subject = vf.createIRI(Generator.generateUri().toString());
+        final IRI propertyOne = vf.createIRI(Generator.generateUri().toString());
+        final IRI propertyTwo = vf.createIRI(Generator.generateUri().toString());
+        final IRI context = vf.createIRI(Generator.generateUri().toString());
+        final Statement inDefault = vf.createStatement(subject, propertyOne, vf.createLiteral("one"));
+        final Statement inContext = vf.createStatement(subject, propertyTwo, vf.createLiteral("two"), context);
+        final Statement other = vf.createStatement(subject, RDFS.LABEL, vf.createLiteral("label"));
+        connector.begin();
+        connector.addStatements(Arrays.asList(inDefault, inContext, other));
+        connector.commit();
+
+        final Collection<Statement> result =
+                connector.findStatements(subject, Arrays.asList(propertyOne, propertyTwo), false);
+        assertEquals(2, result.size());
+        assertTrue(result.contains(inDefault));
+        assertTrue(result.stream().anyMatch(st -> st.equals(inContext) && context.equals(st.getContext())));
+    }
+
+    @Test
+    void findStatementsForSubjectsReturnsStatementsOfAllSubjectsWithTheirContexts() throws Exception {
+        createInMemoryConnector();
+        final ValueFactory vf = connector.getValueFactory();
+        final IRI subjectOne = vf.createIRI(Generator.generateUri().toString());
+        final IRI subjectTwo = vf.createIRI(Generator.generateUri().toString());
+        final IRI context = vf.createIRI(Generator.generateUri().toString());
+        final Statement inDefault = vf.createStatement(subjectOne, RDFS.LABEL, vf.createLiteral("one"));
+        final Statement inContext = vf.createStatement(subjectTwo, RDFS.LABEL, vf.createLiteral("two"), context);
+        final Statement other = vf.createStatement(vf.createIRI(Generator.generateUri().toString()), RDFS.LABEL,
+                vf.createLiteral("other"));
+        connector.begin();
+        connector.addStatements(Arrays.asList(inDefault, inContext, other));
+        connector.commit();
+
+        final Collection<Statement> result = connector.findStatements(Arrays.asList(subjectOne, subjectTwo), false);
+        assertEquals(2, result.size());
+        assertTrue(result.stream().anyMatch(st -> st.equals(inDefault) && st.getContext() == null));
+        assertTrue(result.stream().anyMatch(st -> st.equals(inContext) && context.equals(st.getContext())));
+    }
+
+    @Test
+    void findListStatementsReturnsStatementsOfAllNodesReachableFromListOwnerInContext() throws Exception {
+        createInMemoryConnector();
+        final ValueFactory vf = connector.getValueFactory();
+        final IRI owner = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasList = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasNext = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasContent = vf.createIRI(Generator.generateUri().toString());
+        final IRI context = vf.createIRI(Generator.generateUri().toString());
+        final List<Statement> listStatements = new ArrayList<>();
+        IRI previous = owner;
+        for (int i = 0; i < 5; i++) {
+            final IRI node = vf.createIRI(owner.stringValue() + "-SEQ_" + i);
+            listStatements.add(vf.createStatement(previous, i == 0 ? hasList : hasNext, node, context));
+            listStatements.add(vf.createStatement(node, hasContent, vf.createIRI(Generator.generateUri().toString()),
+                    context));
+            previous = node;
+        }
+        final Statement unrelated = vf.createStatement(vf.createIRI(Generator.generateUri().toString()), hasNext,
+                vf.createIRI(Generator.generateUri().toString()), context);
+        final Statement otherProperty = vf.createStatement(previous, RDFS.LABEL, vf.createLiteral("label"), context);
+        connector.begin();
+        connector.addStatements(listStatements);
+        connector.addStatements(Arrays.asList(unrelated, otherProperty));
+        connector.commit();
+
+        final Collection<Statement> result =
+                connector.findListStatements(owner, hasList, hasNext, hasContent, false, context);
+        assertEquals(new HashSet<>(listStatements), new HashSet<>(result));
+    }
+
+    @Test
+    void isInferenceEnabledReturnsFalseForInMemoryRepositoryWithoutInference() throws Exception {
+        createInMemoryConnector();
+        assertFalse(connector.isInferenceEnabled());
+    }
+
+    @Test
+    void isInferenceEnabledReturnsTrueForRepositoryWithInferencer() throws Exception {
+        final DriverConfiguration conf = TestUtils.createDriverConfig("urn:test");
+        conf.setProperty(SesameConfigParam.USE_VOLATILE_STORAGE, Boolean.TRUE.toString());
+        conf.setProperty(SesameConfigParam.USE_INFERENCE, Boolean.TRUE.toString());
+        this.connector = new StorageConnector(conf);
+        assertTrue(connector.isInferenceEnabled());
+    }
+
     @Test
     void setRepositoryThrowsUnsupportedOperationWhenOriginalRepositoryIsNotInMemory() throws Exception {
         this.repositoryFolder = Files.createTempDirectory("sesame-storage-connector-test").toFile();